@@ -0,0 +1,96 @@
+package com.example.apilogger.autoconfigure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 {@link ApiLogBodyRedactor} 每 KB JSON 内容的脱敏开销，以直接复制捕获字节作为基线
+ * <p>
+ * 用 {@code bodySize} 除以结果可得到每 KB 的耗时：
+ * {@code java -jar target/benchmarks.jar BodyRedactionBenchmark -prof gc}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyRedactionBenchmark {
+
+    @Param({"1024", "10240"})
+    private int bodySize;
+
+    private byte[] plainBody;
+
+    private byte[] sensitiveBody;
+
+    private ApiLogBodyRedactor redactor;
+
+    @Setup
+    public void setup() {
+        ApiLoggerProperties properties = new ApiLoggerProperties();
+        redactor = new ApiLogBodyRedactor(properties.getRedaction());
+        plainBody = createBody(bodySize, "nickname");
+        sensitiveBody = createBody(bodySize, "password");
+    }
+
+    /**
+     * 生成约 {@code size} 字节的用户数组，每个元素包含一个名为 {@code field} 的字段
+     */
+    private static byte[] createBody(int size, String field) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size - 2; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"测试用户").append(i)
+                    .append("\",\"").append(field).append("\":\"s3cr3t-").append(i)
+                    .append("\",\"score\":").append(i * 1.5)
+                    .append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ApiLogEvent newEvent() {
+        return new ApiLogEvent(ApiLogEvent.Type.REQUEST, 0L, "POST", "/api/users");
+    }
+
+    @Benchmark
+    public ApiLogEvent copyOnly() {
+        ApiLogEvent event = newEvent();
+        event.setBody(Arrays.copyOf(plainBody, plainBody.length), StandardCharsets.UTF_8, false);
+        return event;
+    }
+
+    @Benchmark
+    public ApiLogEvent redactNoMatch() {
+        ApiLogEvent event = newEvent();
+        redactor.setBody(event, plainBody, plainBody.length, StandardCharsets.UTF_8, false, Integer.MAX_VALUE);
+        return event;
+    }
+
+    @Benchmark
+    public ApiLogEvent redactWithMatches() {
+        ApiLogEvent event = newEvent();
+        redactor.setBody(event, sensitiveBody, sensitiveBody.length, StandardCharsets.UTF_8, false,
+                Integer.MAX_VALUE);
+        return event;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较原 {@code LinkedHashMap} + {@code ObjectMapper.writeValueAsString} 与 {@link ApiLogEventEncoder} 的编码开销
+ * <p>
+ * 使用 {@code -prof gc} 运行可查看每次操作分配的字节数：
+ * {@code java -jar target/benchmarks.jar EventEncoderBenchmark -prof gc}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventEncoderBenchmark {
+
+    private static final String[] HEADER_NAMES = {"Host", "User-Agent", "Accept", "Content-Type", "Authorization",
+            "X-Request-Id", "Accept-Encoding", "Cookie"};
+
+    private static final String[] HEADER_VALUES = {"api.example.com", "curl/7.68.0", "application/json",
+            "application/json;charset=UTF-8", "Bearer abc", "f3b2c1d0", "gzip, deflate", "SESSION=1"};
+
+    private static final byte[] BODY = "{\"name\":\"测试用户\",\"email\":\"test@example.com\",\"age\":25}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, String[]> parameterMap = new LinkedHashMap<>();
+
+    private ApiLoggerProperties properties;
+
+    private ObjectMapper objectMapper;
+
+    private ApiLogEventEncoder encoder;
+
+    private ExcludedHeaders excludedHeaders;
+
+    @Setup
+    public void setup() {
+        properties = new ApiLoggerProperties();
+        objectMapper = new ObjectMapper();
+        encoder = new ApiLogEventEncoder(properties, objectMapper.getFactory());
+        excludedHeaders = new ExcludedHeaders(properties.getExcludeHeaders());
+        parameterMap.put("page", new String[] {"1"});
+        parameterMap.put("size", new String[] {"20"});
+        parameterMap.put("tag", new String[] {"a", "b"});
+    }
+
+    @Benchmark
+    public String mapAndObjectMapper() throws Exception {
+        Map<String, Object> logData = new LinkedHashMap<>();
+        logData.put("type", "REQUEST");
+        logData.put("timestamp", new Date());
+        logData.put("method", "POST");
+        logData.put("uri", "/api/users");
+        logData.put("remoteAddr", "127.0.0.1");
+        Map<String, Object> params = new LinkedHashMap<>();
+        parameterMap.forEach((key, values) -> {
+            if (values.length == 1) {
+                params.put(key, values[0]);
+            } else {
+                params.put(key, Arrays.asList(values));
+            }
+        });
+        logData.put("parameters", params);
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < HEADER_NAMES.length; i++) {
+            String headerName = HEADER_NAMES[i];
+            if (properties.getExcludeHeaders().stream().noneMatch(excluded -> excluded.equalsIgnoreCase(headerName))) {
+                headers.put(headerName, HEADER_VALUES[i]);
+            }
+        }
+        logData.put("headers", headers);
+        logData.put("body", new String(BODY, StandardCharsets.UTF_8));
+        return objectMapper.writeValueAsString(logData);
+    }
+
+    @Benchmark
+    public String streamingEncoder() throws Exception {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, System.currentTimeMillis(), "POST",
+                "/api/users");
+        event.setRemoteAddr("127.0.0.1");
+        event.setParameters(parameterMap);
+        for (int i = 0; i < HEADER_NAMES.length; i++) {
+            if (!excludedHeaders.isExcluded(HEADER_NAMES[i])) {
+                event.addHeader(HEADER_NAMES[i], HEADER_VALUES[i]);
+            }
+        }
+        event.setBody(BODY, StandardCharsets.UTF_8, false);
+        return encoder.encodeJson(event);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 {@link ApiLoggerInterceptor} 每个请求的开销
+ * <p>
+ * 每次操作构造一个 Mock 请求，经过 {@link ApiLoggerBodyCaptureFilter}，由拦截器的
+ * {@code preHandle}/{@code afterCompletion} 包围一个读取请求体、写出响应体的处理器。
+ * {@code baseline} 只执行同样的 Mock 请求和处理器，两者之差即日志组件的开销。
+ * 组合较多，可以用 {@code -p} 只运行关心的组合；{@code -prof gc} 输出中的 {@code gc.alloc.rate.norm} 即每个请求分配的字节数：
+ * {@code java -jar target/benchmarks.jar InterceptorOverheadBenchmark -p writer=ASYNC -p bodySize=4096 -prof gc}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorOverheadBenchmark {
+
+    private static final String PATH = "/api/orders/42";
+
+    private static final String ROUTE = "/api/orders/{id}";
+
+    private static final Object HANDLER = new Object();
+
+    private static final byte[] RESPONSE_BODY = "{\"id\":42,\"status\":\"PAID\",\"amount\":99.5}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 请求内容
+     */
+    @State(Scope.Benchmark)
+    public static class RequestShape {
+
+        @Param({"2", "16"})
+        private int headerCount;
+
+        @Param({"0", "8"})
+        private int paramCount;
+
+        @Param({"0", "4096"})
+        private int bodySize;
+
+        private String[] headerNames;
+
+        private String[] headerValues;
+
+        private String[] paramNames;
+
+        private byte[] body;
+
+        @Setup
+        public void setup() {
+            headerNames = new String[headerCount];
+            headerValues = new String[headerCount];
+            for (int i = 0; i < headerCount; i++) {
+                headerNames[i] = "X-Header-" + i;
+                headerValues[i] = "value-" + i;
+            }
+            paramNames = new String[paramCount];
+            for (int i = 0; i < paramCount; i++) {
+                paramNames[i] = "param" + i;
+            }
+            body = createBody(bodySize);
+        }
+
+        /**
+         * 生成约 {@code size} 字节的订单数组
+         */
+        private static byte[] createBody(int size) {
+            if (size == 0) {
+                return new byte[0];
+            }
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; json.length() < size - 2; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"id\":").append(i).append(",\"sku\":\"SKU-").append(i).append("\",\"quantity\":1}");
+            }
+            return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        MockHttpServletRequest createRequest() {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+            for (int i = 0; i < headerNames.length; i++) {
+                request.addHeader(headerNames[i], headerValues[i]);
+            }
+            for (String paramName : paramNames) {
+                request.addParameter(paramName, "1");
+            }
+            if (body.length > 0) {
+                request.setContentType("application/json");
+                request.setContent(body);
+            }
+            return request;
+        }
+    }
+
+    /**
+     * 日志组件配置
+     */
+    @State(Scope.Benchmark)
+    public static class LoggerSetup {
+
+        public enum WriterType {
+            SYNC, ASYNC
+        }
+
+        @Param({"JSON", "PLAIN_TEXT"})
+        private ApiLoggerProperties.LogFormat format;
+
+        @Param({"false", "true"})
+        private boolean patterns;
+
+        @Param({"SYNC", "ASYNC"})
+        private WriterType writer;
+
+        private AsyncApiLogWriter asyncWriter;
+
+        private ApiLoggerBodyCaptureFilter filter;
+
+        private ApiLoggerInterceptor interceptor;
+
+        @Setup
+        public void setup() {
+            ApiLoggerProperties properties = new ApiLoggerProperties();
+            properties.setFormat(format);
+            if (patterns) {
+                properties.setIncludePatterns(Arrays.asList("/api/**", "/open/**"));
+                properties.setExcludePatterns(Arrays.asList("/actuator/**", "/static/**", "/**/*.css",
+                        "/**/*.js", "/api/internal/**"));
+            }
+            ApiLogEventEncoder encoder = new ApiLogEventEncoder(properties, new ObjectMapper().getFactory());
+            ApiLogWriter logWriter = new SyncApiLogWriter(new EncodingSink(encoder));
+            if (writer == WriterType.ASYNC) {
+                asyncWriter = new AsyncApiLogWriter(logWriter, properties.getAsync());
+                asyncWriter.afterPropertiesSet();
+                logWriter = asyncWriter;
+            }
+            ApiLoggerSettingsHolder settingsHolder = new ApiLoggerSettingsHolder(properties);
+            ApiLogSampler sampler = new ApiLogSampler();
+            filter = new ApiLoggerBodyCaptureFilter(settingsHolder, sampler);
+            interceptor = new ApiLoggerInterceptor(settingsHolder, logWriter, sampler, Collections.emptyList());
+        }
+
+        @TearDown
+        public void tearDown() throws InterruptedException {
+            if (asyncWriter != null) {
+                // 写入线程跟不上时事件会被丢弃，打印出来以便解读结果
+                System.out.println("written=" + asyncWriter.getWrittenCount()
+                        + ", dropped=" + asyncWriter.getDroppedCount());
+                asyncWriter.destroy();
+            }
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse baseline(RequestShape shape) throws Exception {
+        MockHttpServletRequest request = shape.createRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handle(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse intercepted(RequestShape shape, LoggerSetup setup) throws Exception {
+        MockHttpServletRequest request = shape.createRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ApiLoggerInterceptor interceptor = setup.interceptor;
+        FilterChain chain = (req, res) -> {
+            HttpServletRequest httpRequest = (HttpServletRequest) req;
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            try {
+                interceptor.preHandle(httpRequest, httpResponse, HANDLER);
+                handle(httpRequest, httpResponse);
+                interceptor.afterCompletion(httpRequest, httpResponse, HANDLER, null);
+            } catch (IOException | ServletException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new ServletException(ex);
+            }
+        };
+        setup.filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    /**
+     * 模拟控制器：读完请求体，写出 JSON 响应
+     */
+    private static void handle(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] buffer = new byte[1024];
+        try (InputStream in = request.getInputStream()) {
+            while (in.read(buffer) != -1) {
+                // 丢弃
+            }
+        }
+        response.setStatus(200);
+        response.setContentType("application/json");
+        response.getOutputStream().write(RESPONSE_BODY);
+    }
+
+    /**
+     * 只编码不输出的 Sink，使编码开销计入结果而不受日志框架配置影响
+     */
+    private static final class EncodingSink implements ApiLogSink {
+
+        private final ApiLogEventEncoder encoder;
+
+        private long encodedLength;
+
+        EncodingSink(ApiLogEventEncoder encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public void write(ApiLogEvent event) throws IOException {
+            encodedLength += encoder.encode(event).length();
+        }
+    }
+}
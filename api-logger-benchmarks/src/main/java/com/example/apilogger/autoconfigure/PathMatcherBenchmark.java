@@ -0,0 +1,107 @@
+package com.example.apilogger.autoconfigure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较逐个 {@link AntPathMatcher#match} 与预编译 {@link ApiLoggerPathMatcher} 的路径匹配开销
+ * <p>
+ * 使用 60 个排除模式和 8 个包含模式，每次调用依次匹配一组命中与未命中的路径。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    private static final String[] PATHS = {
+            "/api/users",
+            "/api/users/42/orders",
+            "/actuator/health",
+            "/internal/svc7/status",
+            "/health/check13",
+            "/api/v3/reports/export",
+            "/assets/js/app.min.map",
+            "/unknown/path/that/misses/everything"
+    };
+
+    private ApiLoggerProperties properties;
+
+    private AntPathMatcher antPathMatcher;
+
+    private ApiLoggerPathMatcher compiledMatcher;
+
+    @Setup
+    public void setup() {
+        properties = new ApiLoggerProperties();
+        List<String> excludePatterns = properties.getExcludePatterns();
+        excludePatterns.clear();
+        for (int i = 0; i < 20; i++) {
+            excludePatterns.add("/internal/svc" + i + "/**");
+            excludePatterns.add("/health/check" + i);
+            excludePatterns.add("/api/v" + i + "/*/export");
+        }
+        excludePatterns.add("/actuator/**");
+        excludePatterns.add("/**/*.map");
+        List<String> includePatterns = properties.getIncludePatterns();
+        for (int i = 0; i < 6; i++) {
+            includePatterns.add("/api/module" + i + "/**");
+        }
+        includePatterns.add("/api/users/**");
+        includePatterns.add("/api/*/orders");
+        antPathMatcher = new AntPathMatcher();
+        compiledMatcher = new ApiLoggerPathMatcher(properties);
+    }
+
+    @Benchmark
+    public void antPathMatcher(Blackhole blackhole) {
+        for (String path : PATHS) {
+            blackhole.consume(antPathMatcherShouldLog(path));
+        }
+    }
+
+    @Benchmark
+    public void compiledMatcher(Blackhole blackhole) {
+        for (String path : PATHS) {
+            blackhole.consume(compiledMatcher.shouldLog(path));
+        }
+    }
+
+    /**
+     * 原 {@code ApiLoggerInterceptor.shouldLog} 的逐个匹配实现
+     */
+    private boolean antPathMatcherShouldLog(String uri) {
+        for (String pattern : properties.getExcludePatterns()) {
+            if (antPathMatcher.match(pattern, uri)) {
+                return false;
+            }
+        }
+        if (!properties.getIncludePatterns().isEmpty()) {
+            for (String pattern : properties.getIncludePatterns()) {
+                if (antPathMatcher.match(pattern, uri)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+}
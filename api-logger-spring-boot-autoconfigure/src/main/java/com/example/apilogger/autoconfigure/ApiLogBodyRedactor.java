@@ -0,0 +1,222 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.BufferRecyclers;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * JSON 请求体/响应体的流式脱敏
+ * <p>
+ * 用 {@link JsonParser} 读取一遍记号，不构建树，也不重新生成 JSON：敏感字段的值（包括对象和数组）
+ * 按记号的字节位置替换为掩码，其余部分原样复制，格式和数字写法保持不变。
+ * 输出超过捕获上限时在上限处截断；被截断或不合法的 JSON 只保留最后一个完整解析的记号之前的部分，
+ * 避免泄露后面的字段。其他字符集的内容先转码为 UTF-8 再脱敏，不以 <code>{</code>、<code>[</code>
+ * 开头的内容原样保留，由捕获时的字节截断控制大小。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class ApiLogBodyRedactor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ThreadLocal<RecordBuffer> OUTPUT_BUFFERS = ThreadLocal.withInitial(RecordBuffer::new);
+
+    private final boolean enabled;
+
+    private final Set<String> fields = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    private final String[][] paths;
+
+    private final byte[] mask;
+
+    ApiLogBodyRedactor(ApiLoggerProperties.Redaction properties) {
+        this.enabled = properties.isEnabled();
+        this.fields.addAll(properties.getFields());
+        List<String> sourcePaths = properties.getPaths();
+        this.paths = new String[sourcePaths.size()][];
+        for (int i = 0; i < paths.length; i++) {
+            this.paths[i] = compilePath(sourcePaths.get(i));
+        }
+        this.mask = quote(properties.getMask());
+    }
+
+    /**
+     * 把 {@code $.items[*].token} 拆分为对象字段名 {@code [items, token]}，数组层级不参与匹配
+     */
+    static String[] compilePath(String path) {
+        String expression = path.trim();
+        if (expression.startsWith("$")) {
+            expression = expression.substring(1);
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : expression.split("\\.")) {
+            int bracket = segment.indexOf('[');
+            String name = (bracket >= 0) ? segment.substring(0, bracket) : segment;
+            if (!name.isEmpty()) {
+                segments.add(name);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    /**
+     * 脱敏后设置到事件
+     *
+     * @param body 捕获的字节，可能比有效长度长
+     * @param length 有效长度
+     * @param truncated 捕获时是否已经截断
+     * @param limit 输出的最大字节数
+     */
+    void setBody(ApiLogEvent event, byte[] body, int length, Charset charset, boolean truncated, int limit) {
+        if (!isActive()) {
+            event.setBody(Arrays.copyOf(body, length), charset, truncated);
+            return;
+        }
+        if (charset != null && !StandardCharsets.UTF_8.equals(charset) && !StandardCharsets.US_ASCII.equals(charset)) {
+            // 解析器只识别 UTF 编码，其他字符集直接解析会漏掉敏感字段
+            body = new String(body, 0, length, charset).getBytes(StandardCharsets.UTF_8);
+            length = body.length;
+            charset = StandardCharsets.UTF_8;
+        }
+        if (!isJson(body, length)) {
+            copyBody(event, body, length, charset, truncated, limit);
+            return;
+        }
+        RecordBuffer out = OUTPUT_BUFFERS.get();
+        out.reset();
+        boolean complete;
+        try {
+            complete = redact(body, length, out);
+        } catch (IOException ex) {
+            complete = false;
+        }
+        if (complete && out.size() == 0) {
+            // 没有敏感字段，保留原始内容
+            copyBody(event, body, length, charset, truncated, limit);
+            return;
+        }
+        copyBody(event, out.array(), out.size(), charset, truncated || !complete, limit);
+    }
+
+    /**
+     * 转码后的内容可能比捕获上限长，复制时同样按上限截断
+     */
+    private static void copyBody(ApiLogEvent event, byte[] body, int length, Charset charset, boolean truncated,
+            int limit) {
+        event.setBody(Arrays.copyOf(body, Math.min(length, limit)), charset, truncated || length > limit);
+    }
+
+    private boolean isActive() {
+        return enabled && (!fields.isEmpty() || paths.length > 0);
+    }
+
+    /**
+     * 在一次解析中定位敏感字段的值，把其前面的原始字节和掩码依次复制到 {@code out}
+     *
+     * @return 是否完整解析；完整解析且 {@code out} 为空表示没有敏感字段
+     */
+    private boolean redact(byte[] body, int length, RecordBuffer out) throws IOException {
+        int copied = 0;
+        int parsed = 0;
+        JsonParser parser = JSON_FACTORY.createParser(body, 0, length);
+        try {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                parsed = (int) parser.getTokenLocation().getByteOffset();
+                if (token != JsonToken.FIELD_NAME
+                        || !isSensitive(parser.getCurrentName(), parser.getParsingContext())) {
+                    continue;
+                }
+                JsonToken value = parser.nextToken();
+                int valueStart = (int) parser.getTokenLocation().getByteOffset();
+                out.write(body, copied, valueStart - copied);
+                out.write(mask, 0, mask.length);
+                copied = -1;
+                // 对象和数组整体替换；字符串等标量在读完后才能得到结束位置
+                if (value != null && value.isStructStart()) {
+                    parser.skipChildren();
+                } else {
+                    parser.finishToken();
+                }
+                copied = (int) parser.getCurrentLocation().getByteOffset();
+            }
+        } catch (IOException ex) {
+            // 捕获时被截断或者不是合法的 JSON：解析失败的记号可能是敏感字段的值，
+            // 只保留最后一个成功解析的记号之前的内容
+            if (copied >= 0 && parsed > copied) {
+                out.write(body, copied, parsed - copied);
+            }
+            return false;
+        } finally {
+            parser.close();
+        }
+        if (copied < length) {
+            out.write(body, copied, length - copied);
+        }
+        return true;
+    }
+
+    private static byte[] quote(String mask) {
+        byte[] escaped = BufferRecyclers.quoteAsJsonUTF8(mask);
+        byte[] quoted = new byte[escaped.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    private boolean isSensitive(String name, JsonStreamContext context) {
+        if (fields.contains(name)) {
+            return true;
+        }
+        for (String[] path : paths) {
+            if (matchesPath(path, context)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从当前字段向上逐层比较对象字段名，跳过数组层级，必须恰好匹配到根
+     */
+    private static boolean matchesPath(String[] path, JsonStreamContext context) {
+        int index = path.length - 1;
+        for (JsonStreamContext current = context; current != null && !current.inRoot();
+                current = current.getParent()) {
+            if (!current.inObject()) {
+                continue;
+            }
+            if (index < 0) {
+                return false;
+            }
+            String segment = path[index--];
+            if (!"*".equals(segment) && !segment.equals(current.getCurrentName())) {
+                return false;
+            }
+        }
+        return index < 0;
+    }
+
+    private static boolean isJson(byte[] body, int length) {
+        for (int i = 0; i < length; i++) {
+            int b = body[i] & 0xFF;
+            if (b > ' ') {
+                return b == '{' || b == '[';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.util.UriTemplateHandler;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * 记录 RestTemplate 下游调用的拦截器
+ * <p>
+ * URI 模板由 {@link #createUriTemplateHandler} 包装的 {@link UriTemplateHandler} 在展开时保存到当前线程，
+ * 只有展开结果与实际请求的 URI 一致时才使用。记录响应体时日志在响应关闭后输出。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final ThreadLocal<ExpandedTemplate> expandedTemplate = new ThreadLocal<>();
+
+    private final ApiLogClientRecorder recorder;
+
+    public ApiLogClientHttpRequestInterceptor(ApiLogClientRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ApiLogClientRecorder.Exchange exchange = recorder.start(request.getMethodValue(), request.getURI(),
+                takeUriTemplate(request.getURI()));
+        if (exchange == null) {
+            return execution.execute(request, body);
+        }
+        CaptureBuffer requestBody = exchange.captureRequestBody(request.getHeaders().getContentType());
+        if (requestBody != null) {
+            requestBody.write(body, 0, body.length);
+        }
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException ex) {
+            recorder.complete(exchange, -1, ex);
+            throw ex;
+        }
+        recorder.responseReceived(exchange, response.getRawStatusCode());
+        CaptureBuffer responseBody = exchange.captureResponseBody(response.getHeaders().getContentType());
+        if (responseBody == null) {
+            recorder.complete(exchange, response.getRawStatusCode(), null);
+            return response;
+        }
+        return new CapturingClientHttpResponse(response, exchange, responseBody);
+    }
+
+    private static String takeUriTemplate(URI uri) {
+        ExpandedTemplate expanded = expandedTemplate.get();
+        if (expanded == null) {
+            return null;
+        }
+        expandedTemplate.remove();
+        return expanded.uri.equals(uri) ? expanded.template : null;
+    }
+
+    /**
+     * 包装 {@link UriTemplateHandler}，在展开时记录 URI 模板
+     */
+    public UriTemplateHandler createUriTemplateHandler(UriTemplateHandler delegate) {
+        return new UriTemplateHandler() {
+
+            @Override
+            public URI expand(String uriTemplate, Map<String, ?> uriVariables) {
+                return remember(uriTemplate, delegate.expand(uriTemplate, uriVariables));
+            }
+
+            @Override
+            public URI expand(String uriTemplate, Object... uriVariables) {
+                return remember(uriTemplate, delegate.expand(uriTemplate, uriVariables));
+            }
+
+            private URI remember(String uriTemplate, URI uri) {
+                expandedTemplate.set(new ExpandedTemplate(uriTemplate, uri));
+                return uri;
+            }
+        };
+    }
+
+    private static final class ExpandedTemplate {
+
+        final String template;
+
+        final URI uri;
+
+        ExpandedTemplate(String template, URI uri) {
+            this.template = template;
+            this.uri = uri;
+        }
+    }
+
+    /**
+     * 读取响应体时旁路复制，关闭时输出日志
+     */
+    private final class CapturingClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+
+        private final ApiLogClientRecorder.Exchange exchange;
+
+        private final CaptureBuffer captureBuffer;
+
+        private InputStream body;
+
+        CapturingClientHttpResponse(ClientHttpResponse delegate, ApiLogClientRecorder.Exchange exchange,
+                CaptureBuffer captureBuffer) {
+            this.delegate = delegate;
+            this.exchange = exchange;
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CapturingInputStream(delegate.getBody(), captureBuffer);
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return delegate.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            int status;
+            try {
+                status = delegate.getRawStatusCode();
+            } catch (IOException ex) {
+                status = -1;
+            }
+            try {
+                delegate.close();
+            } finally {
+                recorder.complete(exchange, status, null);
+            }
+        }
+    }
+
+    private static final class CapturingInputStream extends FilterInputStream {
+
+        private final CaptureBuffer captureBuffer;
+
+        CapturingInputStream(InputStream in, CaptureBuffer captureBuffer) {
+            super(in);
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                captureBuffer.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                captureBuffer.write(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            captureBuffer.skip(skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.apilogger.autoconfigure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 记录通过 RestTemplate 和 WebClient 发出的下游调用
+ * <p>
+ * 与入站请求共用日志写入器、采样规则、脱敏和统计记录器：采样和限流按“方法 主机 URI 模板”区分，
+ * 统计按目标主机汇总。每次调用由 {@link #start} 开始，由 {@link #complete} 结束，期间使用开始时读取的配置快照。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogClientRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiLogClientRecorder.class);
+
+    private static final String UNKNOWN_HOST = "UNKNOWN";
+
+    private final ApiLoggerSettingsHolder settingsHolder;
+
+    private final ApiLogWriter logWriter;
+
+    private final ApiLogSampler sampler;
+
+    private final List<ApiLogStatisticsRecorder> statisticsRecorders;
+
+    private final CaptureBufferPool bufferPool = new CaptureBufferPool();
+
+    public ApiLogClientRecorder(ApiLoggerProperties properties, ApiLogWriter logWriter) {
+        this(new ApiLoggerSettingsHolder(properties), logWriter, new ApiLogSampler(), Collections.emptyList());
+    }
+
+    public ApiLogClientRecorder(ApiLoggerSettingsHolder settingsHolder, ApiLogWriter logWriter,
+            ApiLogSampler sampler, List<ApiLogStatisticsRecorder> statisticsRecorders) {
+        this.settingsHolder = settingsHolder;
+        this.logWriter = logWriter;
+        this.sampler = sampler;
+        this.statisticsRecorders = statisticsRecorders;
+    }
+
+    /**
+     * 开始一次下游调用并做头部采样
+     *
+     * @param method 请求方法
+     * @param uri 实际请求的 URI
+     * @param uriTemplate 展开前的 URI 模板，未知时为 {@code null}
+     * @return 调用上下文，未开启下游调用日志时为 {@code null}
+     */
+    Exchange start(String method, URI uri, String uriTemplate) {
+        ApiLoggerSettings settings = settingsHolder.getSettings();
+        if (!settings.isEnabled() || !settings.getClient().isEnabled()) {
+            return null;
+        }
+        String host = getHost(uri);
+        String path = (uriTemplate != null) ? getPath(uriTemplate) : uri.getRawPath();
+        String route = method + " " + host + " " + path;
+        ApiLoggerSettings.Sampling sampling = settings.getSampling();
+        boolean sampled = true;
+        if (sampling.isEnabled() && sampling.isHeadMode()) {
+            sampled = sampler.sampleHead(sampling, sampler.sampleRate(sampling), route);
+        }
+        return new Exchange(settings, method, path, host, route, sampled);
+    }
+
+    /**
+     * 收到响应头：耗时计算到此为止并记录统计，响应体可能还没有读取
+     */
+    void responseReceived(Exchange exchange, int status) {
+        if (exchange.responseNanos < 0) {
+            exchange.responseNanos = System.nanoTime();
+            recordStatistics(exchange, status, false);
+        }
+    }
+
+    /**
+     * 结束一次下游调用：按采样结果写出日志并归还捕获缓冲区，重复调用时忽略
+     *
+     * @param status 响应状态码，没有收到响应时为 -1
+     * @param failure 调用抛出的异常
+     */
+    void complete(Exchange exchange, int status, Throwable failure) {
+        if (!exchange.completed.compareAndSet(false, true)) {
+            return;
+        }
+        recordStatistics(exchange, status, failure != null);
+        long elapsedNanos = exchange.getElapsedNanos();
+        try {
+            if (!exchange.sampled) {
+                return;
+            }
+            ApiLoggerSettings.Sampling sampling = exchange.settings.getSampling();
+            if (sampling.isEnabled() && !sampling.isHeadMode() && sampler.sampleTail(sampling, exchange.route,
+                    status, failure != null, elapsedNanos) == ApiLogSampler.Decision.SUMMARY) {
+                logWriter.write(createEvent(ApiLogEvent.Type.SUMMARY, exchange, status, elapsedNanos));
+                return;
+            }
+            if (exchange.requestBody != null) {
+                ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.CLIENT_REQUEST, exchange.startMillis,
+                        exchange.method, exchange.uri);
+                event.setHost(exchange.host);
+                setBody(exchange, event, exchange.requestBody, exchange.requestCharset);
+                logWriter.write(event);
+            }
+            ApiLogEvent event = createEvent(ApiLogEvent.Type.CLIENT_RESPONSE, exchange, status, elapsedNanos);
+            if (exchange.responseBody != null) {
+                setBody(exchange, event, exchange.responseBody, exchange.responseCharset);
+            }
+            if (failure != null) {
+                event.setException(failure);
+            }
+            logWriter.write(event);
+        } catch (Exception e) {
+            logger.error("记录下游调用日志失败", e);
+        } finally {
+            exchange.release();
+        }
+    }
+
+    private ApiLogEvent createEvent(ApiLogEvent.Type type, Exchange exchange, int status, long elapsedNanos) {
+        ApiLogEvent event = new ApiLogEvent(type, System.currentTimeMillis(), exchange.method, exchange.uri);
+        event.setHost(exchange.host);
+        event.setStatus(status);
+        if (exchange.settings.isIncludeExecutionTime()) {
+            event.setExecutionTimeMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        return event;
+    }
+
+    private void setBody(Exchange exchange, ApiLogEvent event, CaptureBuffer captured, Charset charset) {
+        if (captured.isBlank()) {
+            return;
+        }
+        exchange.settings.getBodyRedactor().setBody(event, captured.array(), captured.size(), charset, captured.isTruncated(),
+                captured.getLimit());
+    }
+
+    /**
+     * 统计与采样无关，每次调用只记录一次
+     */
+    private void recordStatistics(Exchange exchange, int status, boolean failed) {
+        if (exchange.statisticsRecorded) {
+            return;
+        }
+        exchange.statisticsRecorded = true;
+        long elapsedNanos = exchange.getElapsedNanos();
+        for (ApiLogStatisticsRecorder recorder : statisticsRecorders) {
+            try {
+                recorder.recordClient(exchange.host, status, failed, elapsedNanos);
+            } catch (RuntimeException e) {
+                logger.error("记录下游调用统计失败", e);
+            }
+        }
+    }
+
+    /**
+     * 去掉模板中的协议、主机和查询部分，查询参数可能包含敏感信息
+     */
+    static String getPath(String uriTemplate) {
+        int start = 0;
+        int scheme = uriTemplate.indexOf("://");
+        if (scheme >= 0) {
+            int slash = uriTemplate.indexOf('/', scheme + 3);
+            if (slash < 0) {
+                return "/";
+            }
+            start = slash;
+        }
+        int query = uriTemplate.indexOf('?', start);
+        return uriTemplate.substring(start, (query >= 0) ? query : uriTemplate.length());
+    }
+
+    private static String getHost(URI uri) {
+        String host = uri.getHost();
+        if (host == null) {
+            return UNKNOWN_HOST;
+        }
+        return (uri.getPort() != -1) ? host + ":" + uri.getPort() : host;
+    }
+
+    /**
+     * 一次下游调用的上下文
+     */
+    final class Exchange {
+
+        final ApiLoggerSettings settings;
+
+        final String method;
+
+        final String uri;
+
+        final String host;
+
+        final String route;
+
+        final boolean sampled;
+
+        final long startMillis = System.currentTimeMillis();
+
+        final long startNanos = System.nanoTime();
+
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private volatile long responseNanos = -1;
+
+        private volatile boolean statisticsRecorded;
+
+        private CaptureBuffer requestBody;
+
+        private Charset requestCharset;
+
+        private CaptureBuffer responseBody;
+
+        private Charset responseCharset;
+
+        Exchange(ApiLoggerSettings settings, String method, String uri, String host, String route,
+                boolean sampled) {
+            this.settings = settings;
+            this.method = method;
+            this.uri = uri;
+            this.host = host;
+            this.route = route;
+            this.sampled = sampled;
+        }
+
+        /**
+         * 获取请求体捕获缓冲区，不需要记录请求体或者内容类型不是文本时为 {@code null}
+         */
+        CaptureBuffer captureRequestBody(MediaType contentType) {
+            if (!sampled || !settings.getClient().isIncludeRequestBody() || !isCapturable(contentType)) {
+                return null;
+            }
+            requestBody = new CaptureBuffer(bufferPool, settings.getClient().getMaxBodySize());
+            requestCharset = getCharset(contentType);
+            return requestBody;
+        }
+
+        /**
+         * 获取响应体捕获缓冲区，不需要记录响应体或者内容类型不是文本时为 {@code null}
+         */
+        CaptureBuffer captureResponseBody(MediaType contentType) {
+            if (!sampled || !settings.getClient().isIncludeResponseBody() || !isCapturable(contentType)) {
+                return null;
+            }
+            responseBody = new CaptureBuffer(bufferPool, settings.getClient().getMaxBodySize());
+            responseCharset = getCharset(contentType);
+            return responseBody;
+        }
+
+        /**
+         * 是否已收到响应头
+         */
+        boolean isResponseReceived() {
+            return responseNanos >= 0;
+        }
+
+        /**
+         * 把数据复制到捕获缓冲区，调用结束后忽略
+         * <p>
+         * WebClient 的请求体和响应体在 I/O 线程上写入，调用可能同时在其他线程上因取消而结束，
+         * 复制与归还缓冲区互斥，避免写入已归还的数组。
+         */
+        void capture(CaptureBuffer buffer, ByteBuffer data) {
+            synchronized (this) {
+                if (!completed.get()) {
+                    buffer.write(data);
+                }
+            }
+        }
+
+        long getElapsedNanos() {
+            long end = responseNanos;
+            return ((end >= 0) ? end : System.nanoTime()) - startNanos;
+        }
+
+        private synchronized void release() {
+            if (requestBody != null) {
+                requestBody.release();
+            }
+            if (responseBody != null) {
+                responseBody.release();
+            }
+        }
+
+        private boolean isCapturable(MediaType contentType) {
+            return contentType != null && CaptureBuffer.isCapturable(contentType.toString());
+        }
+
+        private Charset getCharset(MediaType contentType) {
+            return (contentType.getCharset() != null) ? contentType.getCharset() : StandardCharsets.UTF_8;
+        }
+    }
+}
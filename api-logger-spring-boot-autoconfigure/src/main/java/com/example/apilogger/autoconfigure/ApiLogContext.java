@@ -0,0 +1,44 @@
+package com.example.apilogger.autoconfigure;
+
+/**
+ * 单个请求的日志上下文，在 preHandle 中创建并保存到请求属性中
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class ApiLogContext {
+
+    private final long startTimeMillis;
+
+    private final long startNanos;
+
+    private boolean sampled = true;
+
+    ApiLogContext(long startTimeMillis, long startNanos) {
+        this.startTimeMillis = startTimeMillis;
+        this.startNanos = startNanos;
+    }
+
+    static ApiLogContext start() {
+        return new ApiLogContext(System.currentTimeMillis(), System.nanoTime());
+    }
+
+    long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * 头部采样结果，未启用采样时为 true
+     */
+    boolean isSampled() {
+        return sampled;
+    }
+
+    void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+}
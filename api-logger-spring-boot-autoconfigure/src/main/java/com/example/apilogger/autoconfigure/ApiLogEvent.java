@@ -0,0 +1,249 @@
+package com.example.apilogger.autoconfigure;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一条API日志事件
+ * <p>
+ * 字段以扁平数组保存，不构建中间 Map，由 {@link ApiLogEventEncoder} 直接编码输出。
+ * 事件创建后即与请求对象解耦，可以交给后台线程处理。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public final class ApiLogEvent {
+
+    private static final String[] NO_STRINGS = new String[0];
+
+    private final Type type;
+
+    private final long timestamp;
+
+    private final String method;
+
+    private final String uri;
+
+    private String remoteAddr;
+
+    private String host;
+
+    private int status = -1;
+
+    private long executionTimeMillis = -1;
+
+    private String[] parameterNames = NO_STRINGS;
+
+    private String[][] parameterValues;
+
+    private String[] headers = NO_STRINGS;
+
+    private int headerCount;
+
+    private byte[] body;
+
+    private Charset bodyCharset;
+
+    private boolean bodyTruncated;
+
+    private String exception;
+
+    private String exceptionMessage;
+
+    ApiLogEvent(Type type, long timestamp, String method, String uri) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 事件时间（epoch 毫秒）
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    void setRemoteAddr(String remoteAddr) {
+        this.remoteAddr = remoteAddr;
+    }
+
+    /**
+     * 下游调用的目标主机，入站请求为 {@code null}
+     */
+    public String getHost() {
+        return host;
+    }
+
+    void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 响应状态码，请求事件为 -1
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * 执行时间（毫秒），未记录时为 -1
+     */
+    public long getExecutionTimeMillis() {
+        return executionTimeMillis;
+    }
+
+    void setExecutionTimeMillis(long executionTimeMillis) {
+        this.executionTimeMillis = executionTimeMillis;
+    }
+
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    public String getParameterName(int index) {
+        return parameterNames[index];
+    }
+
+    public String[] getParameterValues(int index) {
+        return parameterValues[index];
+    }
+
+    void setParameters(Map<String, String[]> parameterMap) {
+        int size = parameterMap.size();
+        if (size == 0) {
+            return;
+        }
+        this.parameterNames = new String[size];
+        this.parameterValues = new String[size][];
+        int index = 0;
+        for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
+            this.parameterNames[index] = entry.getKey();
+            this.parameterValues[index] = entry.getValue();
+            index++;
+        }
+    }
+
+    /**
+     * 设置多值参数，如 WebFlux 的查询参数
+     */
+    void setParameterValues(Map<String, List<String>> parameterMap) {
+        int size = parameterMap.size();
+        if (size == 0) {
+            return;
+        }
+        this.parameterNames = new String[size];
+        this.parameterValues = new String[size][];
+        int index = 0;
+        for (Map.Entry<String, List<String>> entry : parameterMap.entrySet()) {
+            this.parameterNames[index] = entry.getKey();
+            this.parameterValues[index] = entry.getValue().toArray(NO_STRINGS);
+            index++;
+        }
+    }
+
+    public int getHeaderCount() {
+        return headerCount;
+    }
+
+    public String getHeaderName(int index) {
+        return headers[index << 1];
+    }
+
+    public String getHeaderValue(int index) {
+        return headers[(index << 1) + 1];
+    }
+
+    void addHeader(String name, String value) {
+        int position = headerCount << 1;
+        if (position + 1 >= headers.length) {
+            headers = Arrays.copyOf(headers, Math.max(16, headers.length << 1));
+        }
+        headers[position] = name;
+        headers[position + 1] = value;
+        headerCount++;
+    }
+
+    public boolean hasBody() {
+        return body != null;
+    }
+
+    /**
+     * 已捕获的原始内容字节，可能因达到上限被截断
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Charset getBodyCharset() {
+        return bodyCharset;
+    }
+
+    public boolean isBodyTruncated() {
+        return bodyTruncated;
+    }
+
+    void setBody(byte[] body, Charset bodyCharset, boolean bodyTruncated) {
+        this.body = body;
+        this.bodyCharset = bodyCharset;
+        this.bodyTruncated = bodyTruncated;
+    }
+
+    public String getException() {
+        return exception;
+    }
+
+    public String getExceptionMessage() {
+        return exceptionMessage;
+    }
+
+    void setException(Throwable ex) {
+        setException(ex.getClass().getSimpleName(), ex.getMessage());
+    }
+
+    void setException(String exception, String exceptionMessage) {
+        this.exception = exception;
+        this.exceptionMessage = exceptionMessage;
+    }
+
+    /**
+     * 日志事件类型
+     */
+    public enum Type {
+        REQUEST, RESPONSE,
+        /**
+         * 尾部采样未选中时只记录方法、URI、状态码和耗时的摘要
+         */
+        SUMMARY,
+        /**
+         * 通过 RestTemplate 或 WebClient 发出的下游请求，只在记录请求体时输出
+         */
+        CLIENT_REQUEST,
+        /**
+         * 下游请求的响应
+         */
+        CLIENT_RESPONSE
+    }
+}
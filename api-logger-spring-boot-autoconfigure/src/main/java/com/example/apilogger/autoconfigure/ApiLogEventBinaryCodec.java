@@ -0,0 +1,119 @@
+package com.example.apilogger.autoconfigure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 日志事件的紧凑二进制编码
+ * <p>
+ * 所有整数为大端序，字符串为 4 字节长度加 UTF-8 内容（{@code null} 长度为 -1），
+ * 字段顺序：版本、类型、时间戳、状态码、执行时间、方法、URI、客户端地址、下游主机（版本 2 起）、参数、请求头、内容、异常。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class ApiLogEventBinaryCodec {
+
+    static final byte VERSION = 2;
+
+    private ApiLogEventBinaryCodec() {
+    }
+
+    static void encode(ApiLogEvent event, RecordBuffer out) {
+        out.putByte(VERSION);
+        out.putByte(event.getType().ordinal());
+        out.putLong(event.getTimestamp());
+        out.putInt(event.getStatus());
+        out.putLong(event.getExecutionTimeMillis());
+        out.putString(event.getMethod());
+        out.putString(event.getUri());
+        out.putString(event.getRemoteAddr());
+        out.putString(event.getHost());
+        out.putInt(event.getParameterCount());
+        for (int i = 0; i < event.getParameterCount(); i++) {
+            out.putString(event.getParameterName(i));
+            String[] values = event.getParameterValues(i);
+            out.putInt(values.length);
+            for (String value : values) {
+                out.putString(value);
+            }
+        }
+        out.putInt(event.getHeaderCount());
+        for (int i = 0; i < event.getHeaderCount(); i++) {
+            out.putString(event.getHeaderName(i));
+            out.putString(event.getHeaderValue(i));
+        }
+        if (event.hasBody()) {
+            out.putInt(event.getBody().length);
+            out.putBytes(event.getBody());
+            out.putString((event.getBodyCharset() != null) ? event.getBodyCharset().name() : null);
+            out.putByte(event.isBodyTruncated() ? 1 : 0);
+        } else {
+            out.putInt(-1);
+        }
+        out.putString(event.getException());
+        out.putString(event.getExceptionMessage());
+    }
+
+    static ApiLogEvent decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("不支持的记录版本: " + version);
+        }
+        ApiLogEvent.Type type = ApiLogEvent.Type.values()[in.get()];
+        long timestamp = in.getLong();
+        int status = in.getInt();
+        long executionTimeMillis = in.getLong();
+        ApiLogEvent event = new ApiLogEvent(type, timestamp, getString(in), getString(in));
+        event.setStatus(status);
+        event.setExecutionTimeMillis(executionTimeMillis);
+        event.setRemoteAddr(getString(in));
+        if (version >= 2) {
+            event.setHost(getString(in));
+        }
+        int parameterCount = in.getInt();
+        if (parameterCount > 0) {
+            Map<String, String[]> parameters = new LinkedHashMap<>();
+            for (int i = 0; i < parameterCount; i++) {
+                String name = getString(in);
+                String[] values = new String[in.getInt()];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = getString(in);
+                }
+                parameters.put(name, values);
+            }
+            event.setParameters(parameters);
+        }
+        int headerCount = in.getInt();
+        for (int i = 0; i < headerCount; i++) {
+            event.addHeader(getString(in), getString(in));
+        }
+        int bodyLength = in.getInt();
+        if (bodyLength >= 0) {
+            byte[] body = new byte[bodyLength];
+            in.get(body);
+            String charset = getString(in);
+            boolean truncated = in.get() != 0;
+            event.setBody(body, (charset != null) ? Charset.forName(charset) : StandardCharsets.UTF_8, truncated);
+        }
+        String exception = getString(in);
+        String exceptionMessage = getString(in);
+        if (exception != null) {
+            event.setException(exception, exceptionMessage);
+        }
+        return event;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * API日志事件编码器
+ * <p>
+ * 使用 {@link JsonGenerator} 把事件字段直接写入线程复用的字节缓冲区，
+ * 不构建中间 Map；UTF-8 请求体/响应体原样写出，ISO 时间戳按秒缓存。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogEventEncoder {
+
+    static final String TRUNCATED_SUFFIX = "... [截断]";
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final ApiLoggerProperties properties;
+
+    private final JsonFactory jsonFactory;
+
+    private final ThreadLocal<EncoderBuffers> buffers = ThreadLocal.withInitial(EncoderBuffers::new);
+
+    public ApiLogEventEncoder(ApiLoggerProperties properties, JsonFactory jsonFactory) {
+        this.properties = properties;
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * 按配置的日志格式把事件编码为字符串
+     */
+    public String encode(ApiLogEvent event) throws IOException {
+        if (properties.getFormat() == ApiLoggerProperties.LogFormat.JSON) {
+            return encodeJson(event);
+        }
+        return encodePlainText(event);
+    }
+
+    /**
+     * 把事件编码为 JSON 字符串
+     */
+    public String encodeJson(ApiLogEvent event) throws IOException {
+        return encodeJsonToBuffer(event).toUtf8String();
+    }
+
+    /**
+     * 把事件编码为 UTF-8 JSON 字节并复制到 {@code target}，不创建中间字符串
+     */
+    void encodeJsonTo(ApiLogEvent event, OutputStream target) throws IOException {
+        encodeJsonToBuffer(event).writeTo(target);
+    }
+
+    private ReusableByteArrayOutputStream encodeJsonToBuffer(ApiLogEvent event) throws IOException {
+        EncoderBuffers buffers = getBuffers();
+        ReusableByteArrayOutputStream out = buffers.out;
+        out.reset();
+        JsonGenerator generator = buffers.generator(jsonFactory);
+        try {
+            writeJson(event, generator, buffers);
+            generator.flush();
+        } catch (IOException | RuntimeException ex) {
+            // 生成器状态可能已不完整，丢弃后下次重新创建
+            buffers.discardGenerator();
+            throw ex;
+        }
+        return out;
+    }
+
+    /**
+     * 把事件以 UTF-8 JSON 写入输出流
+     */
+    public void writeJson(ApiLogEvent event, OutputStream out) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        writeJson(event, generator, getBuffers());
+        generator.close();
+    }
+
+    private void writeJson(ApiLogEvent event, JsonGenerator generator, EncoderBuffers buffers) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", event.getType().name());
+        generator.writeFieldName("timestamp");
+        if (properties.getTimestampFormat() == ApiLoggerProperties.TimestampFormat.EPOCH_MILLIS) {
+            generator.writeNumber(event.getTimestamp());
+        } else {
+            generator.writeString(buffers.timestamp(event.getTimestamp()), 0, EncoderBuffers.TIMESTAMP_LENGTH);
+        }
+        generator.writeStringField("method", event.getMethod());
+        generator.writeStringField("uri", event.getUri());
+        if (event.getHost() != null) {
+            generator.writeStringField("host", event.getHost());
+        }
+        if (event.getType() == ApiLogEvent.Type.REQUEST) {
+            generator.writeStringField("remoteAddr", event.getRemoteAddr());
+        }
+        if (event.getStatus() >= 0) {
+            generator.writeNumberField("status", event.getStatus());
+        }
+        if (event.getExecutionTimeMillis() >= 0) {
+            generator.writeFieldName("executionTime");
+            int length = buffers.executionTime(event.getExecutionTimeMillis());
+            generator.writeString(buffers.scratch, 0, length);
+        }
+        if (event.getParameterCount() > 0) {
+            generator.writeObjectFieldStart("parameters");
+            for (int i = 0; i < event.getParameterCount(); i++) {
+                String[] values = event.getParameterValues(i);
+                if (values.length == 1) {
+                    generator.writeStringField(event.getParameterName(i), values[0]);
+                } else {
+                    generator.writeArrayFieldStart(event.getParameterName(i));
+                    for (String value : values) {
+                        generator.writeString(value);
+                    }
+                    generator.writeEndArray();
+                }
+            }
+            generator.writeEndObject();
+        }
+        if (event.getHeaderCount() > 0) {
+            generator.writeObjectFieldStart("headers");
+            for (int i = 0; i < event.getHeaderCount(); i++) {
+                generator.writeStringField(event.getHeaderName(i), event.getHeaderValue(i));
+            }
+            generator.writeEndObject();
+        }
+        if (event.hasBody()) {
+            generator.writeFieldName("body");
+            writeBody(generator, event);
+        }
+        if (event.getException() != null) {
+            generator.writeStringField("exception", event.getException());
+            generator.writeStringField("exceptionMessage", event.getExceptionMessage());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeBody(JsonGenerator generator, ApiLogEvent event) throws IOException {
+        byte[] body = event.getBody();
+        boolean utf8 = StandardCharsets.UTF_8.equals(event.getBodyCharset());
+        if (utf8 && !event.isBodyTruncated()) {
+            generator.writeUTF8String(body, 0, body.length);
+            return;
+        }
+        generator.writeString(decodeBody(event, utf8));
+    }
+
+    /**
+     * 把事件编码为纯文本
+     */
+    public String encodePlainText(ApiLogEvent event) {
+        EncoderBuffers buffers = getBuffers();
+        StringBuilder sb = buffers.text;
+        sb.setLength(0);
+        sb.append("API日志 - type=").append(event.getType().name());
+        sb.append(" timestamp=");
+        if (properties.getTimestampFormat() == ApiLoggerProperties.TimestampFormat.EPOCH_MILLIS) {
+            sb.append(event.getTimestamp());
+        } else {
+            sb.append(buffers.timestamp(event.getTimestamp()), 0, EncoderBuffers.TIMESTAMP_LENGTH);
+        }
+        sb.append(" method=").append(event.getMethod());
+        sb.append(" uri=").append(event.getUri());
+        if (event.getHost() != null) {
+            sb.append(" host=").append(event.getHost());
+        }
+        if (event.getType() == ApiLogEvent.Type.REQUEST) {
+            sb.append(" remoteAddr=").append(event.getRemoteAddr());
+        }
+        if (event.getStatus() >= 0) {
+            sb.append(" status=").append(event.getStatus());
+        }
+        if (event.getExecutionTimeMillis() >= 0) {
+            sb.append(" executionTime=").append(event.getExecutionTimeMillis()).append("ms");
+        }
+        if (event.getParameterCount() > 0) {
+            sb.append(" parameters={");
+            for (int i = 0; i < event.getParameterCount(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(event.getParameterName(i)).append('=');
+                appendValues(sb, event.getParameterValues(i));
+            }
+            sb.append('}');
+        }
+        if (event.getHeaderCount() > 0) {
+            sb.append(" headers={");
+            for (int i = 0; i < event.getHeaderCount(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(event.getHeaderName(i)).append('=').append(event.getHeaderValue(i));
+            }
+            sb.append('}');
+        }
+        if (event.hasBody()) {
+            sb.append(" body=").append(decodeBody(event,
+                    StandardCharsets.UTF_8.equals(event.getBodyCharset())));
+        }
+        if (event.getException() != null) {
+            sb.append(" exception=").append(event.getException());
+            sb.append(" exceptionMessage=").append(event.getExceptionMessage());
+        }
+        return sb.toString();
+    }
+
+    private static void appendValues(StringBuilder sb, String[] values) {
+        if (values.length == 1) {
+            sb.append(values[0]);
+            return;
+        }
+        sb.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(values[i]);
+        }
+        sb.append(']');
+    }
+
+    private static String decodeBody(ApiLogEvent event, boolean utf8) {
+        byte[] body = event.getBody();
+        Charset charset = (event.getBodyCharset() != null) ? event.getBodyCharset() : StandardCharsets.UTF_8;
+        // 截断位置可能落在多字节字符中间，UTF-8 时回退到完整字符边界
+        int length = (utf8 && event.isBodyTruncated()) ? utf8SafeLength(body) : body.length;
+        String text = new String(body, 0, length, charset);
+        return event.isBodyTruncated() ? text + TRUNCATED_SUFFIX : text;
+    }
+
+    static int utf8SafeLength(byte[] bytes) {
+        int end = bytes.length;
+        int start = end;
+        while (start > 0 && start > end - 4 && (bytes[start - 1] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start == 0) {
+            return end;
+        }
+        int lead = bytes[start - 1] & 0xFF;
+        int expected = (lead >= 0xF0) ? 4 : (lead >= 0xE0) ? 3 : (lead >= 0xC0) ? 2 : 1;
+        int actual = end - start + 1;
+        return (expected > actual) ? start - 1 : end;
+    }
+
+    private EncoderBuffers getBuffers() {
+        EncoderBuffers current = buffers.get();
+        if (current.out.capacity() > MAX_RETAINED_CAPACITY || current.text.capacity() > MAX_RETAINED_CAPACITY) {
+            // 避免偶发的大事件让线程长期持有大缓冲区
+            current = new EncoderBuffers();
+            buffers.set(current);
+        }
+        return current;
+    }
+
+    /**
+     * 线程复用的编码缓冲区
+     */
+    private static final class EncoderBuffers {
+
+        static final int TIMESTAMP_LENGTH = 28;
+
+        final ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream();
+
+        private JsonGenerator generator;
+
+        final StringBuilder text = new StringBuilder(512);
+
+        final char[] scratch = new char[24];
+
+        private final char[] timestamp = "0000-00-00T00:00:00.000+0000".toCharArray();
+
+        private long cachedSecond = Long.MIN_VALUE;
+
+        /**
+         * 获取绑定到 {@link #out} 的生成器，多个事件作为相邻的根值依次写出，不再重复创建
+         */
+        JsonGenerator generator(JsonFactory jsonFactory) throws IOException {
+            if (generator == null) {
+                generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+                generator.setRootValueSeparator(null);
+            }
+            return generator;
+        }
+
+        void discardGenerator() {
+            generator = null;
+        }
+
+        /**
+         * 格式化为与 Jackson {@code StdDateFormat} 一致的 UTC 时间，年月日时分秒部分按秒缓存
+         */
+        char[] timestamp(long epochMillis) {
+            long second = Math.floorDiv(epochMillis, 1000);
+            if (second != cachedSecond) {
+                LocalDateTime dateTime = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+                writeDigits(timestamp, 0, dateTime.getYear(), 4);
+                writeDigits(timestamp, 5, dateTime.getMonthValue(), 2);
+                writeDigits(timestamp, 8, dateTime.getDayOfMonth(), 2);
+                writeDigits(timestamp, 11, dateTime.getHour(), 2);
+                writeDigits(timestamp, 14, dateTime.getMinute(), 2);
+                writeDigits(timestamp, 17, dateTime.getSecond(), 2);
+                cachedSecond = second;
+            }
+            writeDigits(timestamp, 20, Math.floorMod(epochMillis, 1000), 3);
+            return timestamp;
+        }
+
+        /**
+         * 把执行时间格式化为 "12ms" 写入 {@link #scratch}，返回字符数
+         */
+        int executionTime(long millis) {
+            int position = scratch.length - 2;
+            scratch[position] = 'm';
+            scratch[position + 1] = 's';
+            long value = millis;
+            do {
+                scratch[--position] = (char) ('0' + (value % 10));
+                value /= 10;
+            } while (value > 0);
+            int length = scratch.length - position;
+            System.arraycopy(scratch, position, scratch, 0, length);
+            return length;
+        }
+
+        private static void writeDigits(char[] target, int offset, int value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                target[i] = (char) ('0' + (value % 10));
+                value /= 10;
+            }
+        }
+    }
+
+    /**
+     * 可复用并直接按 UTF-8 解码内部数组的字节输出流
+     */
+    private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ReusableByteArrayOutputStream() {
+            super(1024);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        String toUtf8String() {
+            return new String(buf, 0, count, StandardCharsets.UTF_8);
+        }
+    }
+}
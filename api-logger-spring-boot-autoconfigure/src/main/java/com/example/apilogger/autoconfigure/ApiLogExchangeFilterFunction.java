@@ -0,0 +1,157 @@
+package com.example.apilogger.autoconfigure;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 记录 WebClient 下游调用的过滤函数
+ * <p>
+ * URI 模板取自 WebClient 在 {@code uri(String, Object...)} 时设置的请求属性。
+ * 统计在收到响应头时记录；记录响应体时日志在响应体读取完成或取消后输出，否则在收到响应头时输出。
+ * 收到响应前被取消（如 {@code timeout()}）时按失败记录。调用方始终没有读取响应体时（如只检查状态码），
+ * 日志不含响应体，在响应体不再可达、被垃圾回收后输出，不会提前结束之后才读取响应体的调用。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogExchangeFilterFunction implements ExchangeFilterFunction {
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final ApiLogClientRecorder recorder;
+
+    public ApiLogExchangeFilterFunction(ApiLogClientRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        // 每次订阅（包括重试）单独计时
+        return Mono.defer(() -> {
+            ApiLogClientRecorder.Exchange exchange = recorder.start(request.method().name(), request.url(),
+                    (String) request.attribute(URI_TEMPLATE_ATTRIBUTE).orElse(null));
+            if (exchange == null) {
+                return next.exchange(request);
+            }
+            return next.exchange(captureRequestBody(request, exchange))
+                    .doOnError(ex -> recorder.complete(exchange, -1, ex))
+                    .doOnCancel(() -> cancel(exchange))
+                    .map(response -> captureResponseBody(response, exchange));
+        });
+    }
+
+    /**
+     * 收到响应后的取消不结束调用，调用方仍可能读取已经拿到的响应
+     */
+    private void cancel(ApiLogClientRecorder.Exchange exchange) {
+        if (!exchange.isResponseReceived()) {
+            recorder.complete(exchange, -1, new CancellationException("下游调用在收到响应前被取消"));
+        }
+    }
+
+    private ClientRequest captureRequestBody(ClientRequest request, ApiLogClientRecorder.Exchange exchange) {
+        CaptureBuffer captureBuffer = exchange.captureRequestBody(request.headers().getContentType());
+        if (captureBuffer == null) {
+            return request;
+        }
+        return ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body().insert(
+                        new CapturingRequestDecorator(outputMessage, exchange, captureBuffer), context))
+                .build();
+    }
+
+    private ClientResponse captureResponseBody(ClientResponse response, ApiLogClientRecorder.Exchange exchange) {
+        int status = response.rawStatusCode();
+        recorder.responseReceived(exchange, status);
+        CaptureBuffer captureBuffer = exchange.captureResponseBody(response.headers().contentType().orElse(null));
+        if (captureBuffer == null) {
+            recorder.complete(exchange, status, null);
+            return response;
+        }
+        AtomicBoolean subscribed = new AtomicBoolean();
+        UnreadBodyAction unreadBodyAction = new UnreadBodyAction(recorder, exchange, status, subscribed);
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class)
+                .doOnSubscribe(subscription -> subscribed.set(true))
+                .doOnNext(buffer -> exchange.capture(captureBuffer, buffer.asByteBuffer()))
+                .doFinally(signal -> recorder.complete(exchange, status, null));
+        Cleaner.Cleanable cleanable = cleaner.register(body, unreadBodyAction);
+        return ClientResponse.from(response).body(body.doFinally(signal -> cleanable.clean())).build();
+    }
+
+    /**
+     * 响应体从未订阅就不再可达时结束调用，订阅后由响应体的结束信号结束
+     * <p>
+     * 不能引用响应体本身，否则响应体永远不会被回收。
+     */
+    private static final class UnreadBodyAction implements Runnable {
+
+        private final ApiLogClientRecorder recorder;
+
+        private final ApiLogClientRecorder.Exchange exchange;
+
+        private final int status;
+
+        private final AtomicBoolean subscribed;
+
+        UnreadBodyAction(ApiLogClientRecorder recorder, ApiLogClientRecorder.Exchange exchange, int status,
+                AtomicBoolean subscribed) {
+            this.recorder = recorder;
+            this.exchange = exchange;
+            this.status = status;
+            this.subscribed = subscribed;
+        }
+
+        @Override
+        public void run() {
+            if (!subscribed.get()) {
+                recorder.complete(exchange, status, null);
+            }
+        }
+    }
+
+    /**
+     * 写出请求体时旁路复制
+     */
+    private static final class CapturingRequestDecorator extends ClientHttpRequestDecorator {
+
+        private final ApiLogClientRecorder.Exchange exchange;
+
+        private final CaptureBuffer captureBuffer;
+
+        CapturingRequestDecorator(ClientHttpRequest delegate, ApiLogClientRecorder.Exchange exchange,
+                CaptureBuffer captureBuffer) {
+            super(delegate);
+            this.exchange = exchange;
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::capture));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part).doOnNext(this::capture)));
+        }
+
+        private void capture(DataBuffer buffer) {
+            exchange.capture(captureBuffer, buffer.asByteBuffer());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.apilogger.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把请求耗时记录到 Micrometer {@link Timer}，每个路由按成功/错误各一个，并发布 p50、p99；
+ * 下游调用按目标主机记录到 {@link #CLIENT_METRIC_NAME}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogMicrometerRecorder implements ApiLogStatisticsRecorder {
+
+    /**
+     * 指标名
+     */
+    public static final String METRIC_NAME = "api.logger.requests";
+
+    /**
+     * 下游调用指标名
+     */
+    public static final String CLIENT_METRIC_NAME = "api.logger.client.requests";
+
+    private final MeterRegistry registry;
+
+    private final ConcurrentMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer[]> clientTimers = new ConcurrentHashMap<>();
+
+    public ApiLogMicrometerRecorder(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void record(String route, int status, boolean failed, long elapsedNanos) {
+        Timer[] routeTimers = timers.get(route);
+        if (routeTimers == null) {
+            routeTimers = timers.computeIfAbsent(route, this::createTimers);
+        }
+        routeTimers[ApiLogStatistics.isError(status, failed) ? 1 : 0].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordClient(String host, int status, boolean failed, long elapsedNanos) {
+        Timer[] hostTimers = clientTimers.get(host);
+        if (hostTimers == null) {
+            hostTimers = clientTimers.computeIfAbsent(host, this::createClientTimers);
+        }
+        hostTimers[ApiLogStatistics.isError(status, failed) ? 1 : 0].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] createTimers(String route) {
+        return new Timer[] {createTimer(METRIC_NAME, "API请求耗时", "route", route, "SUCCESS"),
+                createTimer(METRIC_NAME, "API请求耗时", "route", route, "ERROR")};
+    }
+
+    private Timer[] createClientTimers(String host) {
+        return new Timer[] {createTimer(CLIENT_METRIC_NAME, "下游调用耗时", "host", host, "SUCCESS"),
+                createTimer(CLIENT_METRIC_NAME, "下游调用耗时", "host", host, "ERROR")};
+    }
+
+    private Timer createTimer(String name, String description, String tagKey, String tagValue, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 为通过 RestTemplateBuilder 创建的 RestTemplate 添加 {@link ApiLogClientHttpRequestInterceptor}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogRestTemplateCustomizer implements RestTemplateCustomizer {
+
+    private final ApiLogClientHttpRequestInterceptor interceptor;
+
+    public ApiLogRestTemplateCustomizer(ApiLogClientRecorder recorder) {
+        this.interceptor = new ApiLogClientHttpRequestInterceptor(recorder);
+    }
+
+    @Override
+    public void customize(RestTemplate restTemplate) {
+        restTemplate.setUriTemplateHandler(interceptor.createUriTemplateHandler(restTemplate.getUriTemplateHandler()));
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        // 放在最前面，耗时包含其他拦截器
+        interceptors.add(interceptor);
+        interceptors.addAll(restTemplate.getInterceptors());
+        restTemplate.setInterceptors(interceptors);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.apilogger.autoconfigure;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API日志采样器
+ * <p>
+ * 头部采样在请求进入时决定是否记录；尾部采样在请求完成后决定，
+ * 错误和慢请求始终完整记录，其余请求按比例和路由限流完整记录，未选中的只记录摘要。
+ * 各类决策都有计数，便于观察被丢弃的日志量。
+ * 采样配置由调用方按请求传入 {@link ApiLoggerSettings.Sampling}，采样器只保存路由限流器和计数。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogSampler {
+
+    /**
+     * 未匹配到处理器映射的请求共用的路由名
+     */
+    static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final ConcurrentMap<String, RouteRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    private final LongAdder sampledCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder summarizedCount = new LongAdder();
+
+    private final LongAdder rateLimitedCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final LongAdder slowCount = new LongAdder();
+
+    /**
+     * 按配置的比例抽样，不计数
+     */
+    public boolean sampleRate(ApiLoggerSettings.Sampling sampling) {
+        double rate = sampling.getRate();
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * 头部采样的最终决定：比例抽样选中且路由未被限流时完整记录，否则不记录
+     *
+     * @param sampling 请求使用的采样配置
+     * @param rateSampled 请求的比例抽样结果
+     * @param route 路由名
+     */
+    public boolean sampleHead(ApiLoggerSettings.Sampling sampling, boolean rateSampled, String route) {
+        if (rateSampled && acquire(sampling, route)) {
+            sampledCount.increment();
+            return true;
+        }
+        droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * 尾部采样决定
+     *
+     * @param sampling 请求使用的采样配置
+     * @param route 路由名
+     * @param status 响应状态码
+     * @param failed 请求处理是否抛出异常
+     * @param elapsedNanos 请求耗时
+     */
+    public Decision sampleTail(ApiLoggerSettings.Sampling sampling, String route, int status, boolean failed,
+            long elapsedNanos) {
+        if (failed || status >= sampling.getErrorStatus()) {
+            errorCount.increment();
+            return Decision.FULL;
+        }
+        long slowThresholdNanos = sampling.getSlowThresholdNanos();
+        if (slowThresholdNanos > 0 && elapsedNanos >= slowThresholdNanos) {
+            slowCount.increment();
+            return Decision.FULL;
+        }
+        if (sampleRate(sampling) && acquire(sampling, route)) {
+            sampledCount.increment();
+            return Decision.FULL;
+        }
+        summarizedCount.increment();
+        return Decision.SUMMARY;
+    }
+
+    private boolean acquire(ApiLoggerSettings.Sampling sampling, String route) {
+        int rateLimit = sampling.getRateLimit();
+        if (rateLimit <= 0) {
+            return true;
+        }
+        RouteRateLimiter limiter = rateLimiters.get(route);
+        if (limiter == null || limiter.permitsPerSecond != rateLimit) {
+            // 限流配置变化时替换为新的限流器
+            limiter = new RouteRateLimiter(rateLimit);
+            rateLimiters.put(route, limiter);
+        }
+        if (limiter.tryAcquire(System.nanoTime())) {
+            return true;
+        }
+        rateLimitedCount.increment();
+        return false;
+    }
+
+    /**
+     * 完整记录的请求数（不含错误和慢请求）
+     */
+    public long getSampledCount() {
+        return sampledCount.sum();
+    }
+
+    /**
+     * 头部采样未选中而没有记录的请求数
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 尾部采样未选中而只记录摘要的请求数
+     */
+    public long getSummarizedCount() {
+        return summarizedCount.sum();
+    }
+
+    /**
+     * 因路由限流而未完整记录的请求数，已包含在丢弃数或摘要数中
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.sum();
+    }
+
+    /**
+     * 尾部采样中因错误而完整记录的请求数
+     */
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * 尾部采样中因超过慢请求阈值而完整记录的请求数
+     */
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    /**
+     * 尾部采样决定
+     */
+    public enum Decision {
+        /**
+         * 记录完整的请求和响应日志
+         */
+        FULL,
+        /**
+         * 只记录摘要
+         */
+        SUMMARY
+    }
+
+    /**
+     * 单个路由的令牌桶限流器
+     * <p>
+     * 以 GCRA 方式实现：只保存下一个令牌的理论到达时间，每秒最多放行 {@code permitsPerSecond} 次，
+     * 允许同等数量的突发。
+     */
+    static final class RouteRateLimiter {
+
+        final int permitsPerSecond;
+
+        private final long intervalNanos;
+
+        private final long burstNanos;
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        RouteRateLimiter(int permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.intervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            this.burstNanos = this.intervalNanos * permitsPerSecond;
+        }
+
+        boolean tryAcquire(long now) {
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long next = Math.max(arrival, now) + intervalNanos;
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
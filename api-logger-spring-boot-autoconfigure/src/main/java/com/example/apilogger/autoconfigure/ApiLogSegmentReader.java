@@ -0,0 +1,105 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 读取 {@link MappedSegmentApiLogSink} 写入的分段文件，转换为每行一条的 JSON
+ * <p>
+ * 可作为命令行工具使用，参数为分段文件或所在目录，结果输出到标准输出：
+ * <pre>
+ * java -cp ... com.example.apilogger.autoconfigure.ApiLogSegmentReader logs/api-logger
+ * </pre>
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogSegmentReader {
+
+    private final ApiLogEventEncoder encoder;
+
+    public ApiLogSegmentReader(ApiLogEventEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * 把一个分段文件中的记录逐行写出
+     *
+     * @param segment 分段文件
+     * @param out 输出目标
+     * @return 读取的记录数
+     * @throws IOException 读取失败或者不是分段文件时抛出
+     */
+    public long toJsonLines(Path segment, Writer out) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        byte[] magic = MappedSegmentApiLogSink.MAGIC;
+        if (buffer.remaining() < magic.length) {
+            throw new IOException("不是API日志分段文件: " + segment);
+        }
+        for (byte expected : magic) {
+            if (buffer.get() != expected) {
+                throw new IOException("不是API日志分段文件: " + segment);
+            }
+        }
+        long records = 0;
+        while (buffer.remaining() >= MappedSegmentApiLogSink.RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            // 长度为 0 是数据结尾，长度不完整说明写入进程在写入过程中退出
+            if (length <= 0 || buffer.remaining() < length + 1) {
+                break;
+            }
+            byte format = buffer.get();
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(buffer.position() + length);
+            if (format == MappedSegmentApiLogSink.FORMAT_JSON) {
+                byte[] json = new byte[length];
+                record.get(json);
+                out.write(new String(json, StandardCharsets.UTF_8));
+            } else if (format == MappedSegmentApiLogSink.FORMAT_BINARY) {
+                out.write(encoder.encodeJson(ApiLogEventBinaryCodec.decode(record)));
+            } else {
+                throw new IOException("未知的记录格式 " + format + ": " + segment);
+            }
+            out.write('\n');
+            records++;
+        }
+        return records;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("用法: ApiLogSegmentReader <分段文件或目录>...");
+            System.exit(1);
+        }
+        ApiLogSegmentReader reader = new ApiLogSegmentReader(
+                new ApiLogEventEncoder(new ApiLoggerProperties(), new JsonFactory()));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                for (Path segment : MappedSegmentApiLogSink.listSegments(path)) {
+                    reader.toJsonLines(segment, out);
+                }
+            } else {
+                reader.toJsonLines(path, out);
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.apilogger.autoconfigure;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * API日志输出目标
+ * <p>
+ * 自动配置会收集容器中所有的 {@code ApiLogSink}，由 {@link ApiLogWriter} 依次写入；
+ * 没有任何 {@code ApiLogSink} 时使用 {@link Slf4jApiLogSink}。
+ * 开启异步写入时由后台线程调用，否则在请求线程中调用，实现需要线程安全。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public interface ApiLogSink {
+
+    /**
+     * 写入一条日志事件
+     *
+     * @param event 日志事件
+     * @throws IOException 写入失败
+     */
+    void write(ApiLogEvent event) throws IOException;
+
+    /**
+     * 按顺序写入一批日志事件，默认逐条写入；实现可以覆盖以合并加锁、系统调用等开销
+     *
+     * @param events 日志事件
+     * @throws IOException 写入失败，本批次中尚未写入的日志不再写入
+     */
+    default void write(List<ApiLogEvent> events) throws IOException {
+        for (ApiLogEvent event : events) {
+            write(event);
+        }
+    }
+
+}
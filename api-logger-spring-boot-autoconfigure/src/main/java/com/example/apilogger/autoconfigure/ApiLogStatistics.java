@@ -0,0 +1,148 @@
+package com.example.apilogger.autoconfigure;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按路由汇总的内存请求统计：请求数、错误数和延迟直方图；下游调用按目标主机单独汇总
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogStatistics implements ApiLogStatisticsRecorder {
+
+    private final ConcurrentMap<String, RouteStatistics> routes = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, RouteStatistics> clients = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String route, int status, boolean failed, long elapsedNanos) {
+        record(routes, route, status, failed, elapsedNanos);
+    }
+
+    @Override
+    public void recordClient(String host, int status, boolean failed, long elapsedNanos) {
+        record(clients, host, status, failed, elapsedNanos);
+    }
+
+    private static void record(ConcurrentMap<String, RouteStatistics> target, String key, int status,
+            boolean failed, long elapsedNanos) {
+        RouteStatistics statistics = target.get(key);
+        if (statistics == null) {
+            statistics = target.computeIfAbsent(key, k -> new RouteStatistics());
+        }
+        statistics.histogram.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (isError(status, failed)) {
+            statistics.errorCount.increment();
+        }
+    }
+
+    /**
+     * 抛出异常或状态码为 5xx 的请求计为错误
+     */
+    static boolean isError(int status, boolean failed) {
+        return failed || status >= 500;
+    }
+
+    /**
+     * 获取按路由名排序的统计快照
+     */
+    public Map<String, RouteSnapshot> snapshot() {
+        return snapshot(routes);
+    }
+
+    /**
+     * 获取按下游主机排序的统计快照
+     */
+    public Map<String, RouteSnapshot> clientSnapshot() {
+        return snapshot(clients);
+    }
+
+    private static Map<String, RouteSnapshot> snapshot(ConcurrentMap<String, RouteStatistics> source) {
+        Map<String, RouteSnapshot> snapshot = new TreeMap<>();
+        source.forEach((key, statistics) -> snapshot.put(key,
+                new RouteSnapshot(statistics.histogram.snapshot(), statistics.errorCount.sum())));
+        return snapshot;
+    }
+
+    /**
+     * 清空所有路由和下游主机的统计
+     */
+    public void reset() {
+        routes.clear();
+        clients.clear();
+    }
+
+    private static final class RouteStatistics {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        final LongAdder errorCount = new LongAdder();
+    }
+
+    /**
+     * 单个路由的统计快照，耗时单位为毫秒
+     */
+    public static final class RouteSnapshot {
+
+        private final long count;
+
+        private final long errorCount;
+
+        private final double mean;
+
+        private final double max;
+
+        private final double p50;
+
+        private final double p90;
+
+        private final double p99;
+
+        RouteSnapshot(LatencyHistogram.Snapshot histogram, long errorCount) {
+            this.count = histogram.getCount();
+            this.errorCount = errorCount;
+            this.mean = (count > 0) ? toMillis(histogram.getTotalMicros()) / count : 0;
+            this.max = toMillis(histogram.getMaxMicros());
+            this.p50 = toMillis(histogram.valueAtPercentile(50));
+            this.p90 = toMillis(histogram.valueAtPercentile(90));
+            this.p99 = toMillis(histogram.valueAtPercentile(99));
+        }
+
+        private static double toMillis(long micros) {
+            return micros / 1000.0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+    }
+}
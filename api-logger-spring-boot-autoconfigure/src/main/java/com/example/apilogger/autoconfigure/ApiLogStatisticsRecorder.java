@@ -0,0 +1,32 @@
+package com.example.apilogger.autoconfigure;
+
+/**
+ * 请求统计记录器，每个需要记录日志的请求完成后调用一次，与采样结果无关
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public interface ApiLogStatisticsRecorder {
+
+    /**
+     * 记录一次请求
+     *
+     * @param route 路由名，如 {@code GET /api/users/{id}}
+     * @param status 响应状态码
+     * @param failed 请求处理是否抛出异常
+     * @param elapsedNanos 请求耗时
+     */
+    void record(String route, int status, boolean failed, long elapsedNanos);
+
+    /**
+     * 记录一次通过 RestTemplate 或 WebClient 发出的下游调用，默认不记录
+     *
+     * @param host 下游主机，如 {@code api.example.com:8080}
+     * @param status 响应状态码，没有收到响应时为 -1
+     * @param failed 调用是否抛出异常
+     * @param elapsedNanos 从发出请求到收到响应头的耗时
+     */
+    default void recordClient(String host, int status, boolean failed, long elapsedNanos) {
+    }
+
+}
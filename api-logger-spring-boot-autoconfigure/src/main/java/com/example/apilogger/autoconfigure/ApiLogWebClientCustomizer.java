@@ -0,0 +1,29 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * 为通过 WebClient.Builder 创建的 WebClient 添加 {@link ApiLogExchangeFilterFunction}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLogWebClientCustomizer implements WebClientCustomizer {
+
+    private final ApiLogExchangeFilterFunction filterFunction;
+
+    public ApiLogWebClientCustomizer(ApiLogClientRecorder recorder) {
+        this.filterFunction = new ApiLogExchangeFilterFunction(recorder);
+    }
+
+    @Override
+    public void customize(WebClient.Builder webClientBuilder) {
+        webClientBuilder.filters(filters -> {
+            if (!filters.contains(filterFunction)) {
+                // 放在最前面，耗时包含其他过滤函数
+                filters.add(0, filterFunction);
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.apilogger.autoconfigure;
+
+import java.util.List;
+
+/**
+ * API日志写入器，负责把一条日志事件分发给 {@link ApiLogSink}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public interface ApiLogWriter {
+
+    /**
+     * 写入一条日志事件
+     *
+     * @param event 日志事件
+     */
+    void write(ApiLogEvent event);
+
+    /**
+     * 按顺序写入一批日志事件，默认逐条写入
+     *
+     * @param events 日志事件
+     */
+    default void write(List<ApiLogEvent> events) {
+        for (ApiLogEvent event : events) {
+            write(event);
+        }
+    }
+
+}
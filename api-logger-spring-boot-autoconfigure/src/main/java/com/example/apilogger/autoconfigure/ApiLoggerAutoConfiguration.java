@@ -1,62 +1,331 @@
 package com.example.apilogger.autoconfigure;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnEnabledEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import javax.servlet.Servlet;
+import java.util.stream.Collectors;
 
 /**
  * API日志记录自动配置类
+ * <p>
+ * 写入器、配置快照、采样器和统计等组件在 Servlet 与 WebFlux 应用中共用，
+ * Servlet 应用注册 {@link ApiLoggerInterceptor}，WebFlux 应用注册 {@link ApiLoggerWebFilter}。
  * 
  * @author 示例开发者
  * @since 1.0.0
  */
 @Configuration
-@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
-@ConditionalOnClass({Servlet.class, ApiLoggerInterceptor.class})
+@ConditionalOnWebApplication
 @ConditionalOnProperty(name = "api-logger.enabled", matchIfMissing = true)
 @EnableConfigurationProperties(ApiLoggerProperties.class)
-@AutoConfigureAfter(JacksonAutoConfiguration.class)
+@AutoConfigureAfter(value = JacksonAutoConfiguration.class, name = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"})
 public class ApiLoggerAutoConfiguration {
 
+    private static final Logger logger = LoggerFactory.getLogger(ApiLoggerAutoConfiguration.class);
+
+    /**
+     * 创建日志事件编码器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ApiLogEventEncoder apiLogEventEncoder(ApiLoggerProperties properties, ObjectMapper objectMapper) {
+        return new ApiLogEventEncoder(properties, objectMapper.getFactory());
+    }
+
     /**
-     * 创建 API 日志记录拦截器
+     * 创建内存映射分段文件输出目标，在开启 api-logger.segment.enabled 时生效
      */
     @Bean
     @ConditionalOnMissingBean
-    public ApiLoggerInterceptor apiLoggerInterceptor(ApiLoggerProperties properties, ObjectMapper objectMapper) {
-        return new ApiLoggerInterceptor(properties, objectMapper);
+    @ConditionalOnProperty(name = "api-logger.segment.enabled", havingValue = "true")
+    public MappedSegmentApiLogSink mappedSegmentApiLogSink(ApiLoggerProperties properties,
+            ApiLogEventEncoder apiLogEventEncoder) {
+        return new MappedSegmentApiLogSink(properties.getSegment(), apiLogEventEncoder);
+    }
+
+    /**
+     * 没有其他输出目标时，默认通过 SLF4J 输出
+     */
+    @Bean
+    @ConditionalOnMissingBean(ApiLogSink.class)
+    public Slf4jApiLogSink slf4jApiLogSink(ApiLoggerProperties properties, ApiLogEventEncoder apiLogEventEncoder) {
+        return new Slf4jApiLogSink(properties, apiLogEventEncoder);
+    }
+
+    /**
+     * 创建异步日志写入器，在开启 api-logger.async.enabled 时生效；
+     * WebFlux 应用始终使用异步写入，避免在事件循环线程上序列化和输出日志，
+     * 溢出策略 BLOCK 会挂起事件循环线程，改为 DROP
+     */
+    @Bean
+    @ConditionalOnMissingBean(ApiLogWriter.class)
+    @Conditional(AsyncWriterCondition.class)
+    public AsyncApiLogWriter asyncApiLogWriter(ApiLoggerProperties properties, ObjectProvider<ApiLogSink> sinks,
+            ApplicationContext applicationContext) {
+        ApiLoggerProperties.Async async = properties.getAsync();
+        if (async.getOverflowPolicy() == ApiLoggerProperties.OverflowPolicy.BLOCK
+                && applicationContext instanceof ReactiveWebApplicationContext) {
+            logger.warn("WebFlux 应用不能使用 api-logger.async.overflow-policy=BLOCK，阻塞会挂起事件循环线程，已改为 DROP");
+            async.setOverflowPolicy(ApiLoggerProperties.OverflowPolicy.DROP);
+        }
+        return new AsyncApiLogWriter(new SyncApiLogWriter(sinks.orderedStream().collect(Collectors.toList())),
+                async);
     }
 
     /**
-     * Web MVC 配置器，用于注册拦截器
+     * 创建默认的同步日志写入器，依次写入所有输出目标
+     */
+    @Bean
+    @ConditionalOnMissingBean(ApiLogWriter.class)
+    public SyncApiLogWriter apiLogWriter(ObjectProvider<ApiLogSink> sinks) {
+        return new SyncApiLogWriter(sinks.orderedStream().collect(Collectors.toList()));
+    }
+
+    /**
+     * 创建运行时配置快照的持有者，请求处理时读取其中预编译的路径模式、请求头排除集合和采样配置
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ApiLoggerSettingsHolder apiLoggerSettingsHolder(ApiLoggerProperties properties) {
+        return new ApiLoggerSettingsHolder(properties);
+    }
+
+    /**
+     * 配置属性在运行时重新绑定后刷新配置快照
+     */
+    @Bean
+    public static ApiLoggerSettingsRefreshPostProcessor apiLoggerSettingsRefreshPostProcessor() {
+        return new ApiLoggerSettingsRefreshPostProcessor();
+    }
+
+    /**
+     * 创建日志采样器，是否生效由 api-logger.sampling.enabled 决定
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ApiLogSampler apiLogSampler() {
+        return new ApiLogSampler();
+    }
+
+    /**
+     * 创建按路由汇总的请求统计
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "api-logger.statistics.enabled", matchIfMissing = true)
+    public ApiLogStatistics apiLogStatistics() {
+        return new ApiLogStatistics();
+    }
+
+    /**
+     * 统计端点配置，仅在引入 actuator 时生效
      */
     @Configuration
-    @ConditionalOnClass(WebMvcConfigurer.class)
-    static class ApiLoggerWebMvcConfiguration implements WebMvcConfigurer {
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnProperty(name = "api-logger.statistics.enabled", matchIfMissing = true)
+    static class ApiLoggerEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnEnabledEndpoint
+        public ApiLoggerEndpoint apiLoggerEndpoint(ApiLogStatistics apiLogStatistics,
+                ObjectProvider<ApiLogSampler> apiLogSampler, ObjectProvider<AsyncApiLogWriter> asyncApiLogWriter) {
+            return new ApiLoggerEndpoint(apiLogStatistics, apiLogSampler.getIfAvailable(),
+                    asyncApiLogWriter.getIfAvailable());
+        }
+    }
 
-        private final ApiLoggerInterceptor apiLoggerInterceptor;
+    /**
+     * 配置端点，仅在引入 actuator 时生效，默认不启用
+     */
+    @Configuration
+    @ConditionalOnClass(Endpoint.class)
+    static class ApiLoggerSettingsEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnEnabledEndpoint
+        public ApiLoggerSettingsEndpoint apiLoggerSettingsEndpoint(ApiLoggerSettingsHolder apiLoggerSettingsHolder) {
+            return new ApiLoggerSettingsEndpoint(apiLoggerSettingsHolder);
+        }
+    }
+
+    /**
+     * Micrometer 指标配置，存在 {@link MeterRegistry} 时把请求耗时记录为 Timer
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(name = "api-logger.statistics.enabled", matchIfMissing = true)
+    static class ApiLoggerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ApiLogMicrometerRecorder apiLogMicrometerRecorder(MeterRegistry meterRegistry) {
+            return new ApiLogMicrometerRecorder(meterRegistry);
+        }
+    }
+
+    /**
+     * 下游调用日志配置，为 RestTemplateBuilder 和 WebClient.Builder 注册定制器
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "api-logger.client.enabled", matchIfMissing = true)
+    static class ApiLoggerClientConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ApiLogClientRecorder apiLogClientRecorder(ApiLoggerSettingsHolder apiLoggerSettingsHolder,
+                ApiLogWriter apiLogWriter, ApiLogSampler apiLogSampler,
+                ObjectProvider<ApiLogStatisticsRecorder> statisticsRecorders) {
+            return new ApiLogClientRecorder(apiLoggerSettingsHolder, apiLogWriter, apiLogSampler,
+                    statisticsRecorders.orderedStream().collect(Collectors.toList()));
+        }
+
+        @Configuration
+        @ConditionalOnClass(RestTemplate.class)
+        static class RestTemplateConfiguration {
+
+            @Bean
+            @ConditionalOnMissingBean
+            public ApiLogRestTemplateCustomizer apiLogRestTemplateCustomizer(ApiLogClientRecorder apiLogClientRecorder) {
+                return new ApiLogRestTemplateCustomizer(apiLogClientRecorder);
+            }
+        }
+
+        @Configuration
+        @ConditionalOnClass(WebClient.class)
+        static class WebClientConfiguration {
+
+            @Bean
+            @ConditionalOnMissingBean
+            public ApiLogWebClientCustomizer apiLogWebClientCustomizer(ApiLogClientRecorder apiLogClientRecorder) {
+                return new ApiLogWebClientCustomizer(apiLogClientRecorder);
+            }
+        }
+    }
+
+    /**
+     * Servlet 应用配置，基于 {@link ApiLoggerInterceptor} 和 {@link ApiLoggerBodyCaptureFilter}
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass({Servlet.class, HandlerInterceptor.class})
+    static class ApiLoggerServletConfiguration {
+
+        /**
+         * 创建 API 日志记录拦截器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ApiLoggerInterceptor apiLoggerInterceptor(ApiLoggerSettingsHolder apiLoggerSettingsHolder,
+                ApiLogWriter apiLogWriter, ApiLogSampler apiLogSampler,
+                ObjectProvider<ApiLogStatisticsRecorder> statisticsRecorders) {
+            return new ApiLoggerInterceptor(apiLoggerSettingsHolder, apiLogWriter, apiLogSampler,
+                    statisticsRecorders.orderedStream().collect(Collectors.toList()));
+        }
+
+        /**
+         * 注册请求体捕获过滤器
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "apiLoggerBodyCaptureFilter")
+        public FilterRegistrationBean<ApiLoggerBodyCaptureFilter> apiLoggerBodyCaptureFilter(
+                ApiLoggerSettingsHolder apiLoggerSettingsHolder, ApiLogSampler apiLogSampler) {
+            FilterRegistrationBean<ApiLoggerBodyCaptureFilter> registration = new FilterRegistrationBean<>(
+                    new ApiLoggerBodyCaptureFilter(apiLoggerSettingsHolder, apiLogSampler));
+            registration.setOrder(ApiLoggerBodyCaptureFilter.DEFAULT_ORDER);
+            return registration;
+        }
+
+        /**
+         * Web MVC 配置器，用于注册拦截器
+         */
+        @Configuration
+        @ConditionalOnClass(WebMvcConfigurer.class)
+        static class ApiLoggerWebMvcConfiguration implements WebMvcConfigurer {
+
+            private final ApiLoggerInterceptor apiLoggerInterceptor;
+
+            public ApiLoggerWebMvcConfiguration(ApiLoggerInterceptor apiLoggerInterceptor) {
+                this.apiLoggerInterceptor = apiLoggerInterceptor;
+            }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // 注册拦截器，拦截所有请求
+                registry.addInterceptor(apiLoggerInterceptor)
+                        .addPathPatterns("/**")
+                        .order(0); // 设置为最高优先级
+            }
+        }
+    }
+
+    /**
+     * WebFlux 应用配置，基于 {@link ApiLoggerWebFilter}
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(WebFilter.class)
+    static class ApiLoggerReactiveConfiguration {
+
+        /**
+         * 创建 API 日志记录过滤器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ApiLoggerWebFilter apiLoggerWebFilter(ApiLoggerSettingsHolder apiLoggerSettingsHolder,
+                ApiLogWriter apiLogWriter, ApiLogSampler apiLogSampler,
+                ObjectProvider<ApiLogStatisticsRecorder> statisticsRecorders) {
+            return new ApiLoggerWebFilter(apiLoggerSettingsHolder, apiLogWriter, apiLogSampler,
+                    statisticsRecorders.orderedStream().collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 开启了异步写入，或者是 WebFlux 应用
+     */
+    static class AsyncWriterCondition extends AnyNestedCondition {
+
+        AsyncWriterCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
 
-        public ApiLoggerWebMvcConfiguration(ApiLoggerInterceptor apiLoggerInterceptor) {
-            this.apiLoggerInterceptor = apiLoggerInterceptor;
+        @ConditionalOnProperty(name = "api-logger.async.enabled", havingValue = "true")
+        static class AsyncEnabled {
         }
 
-        @Override
-        public void addInterceptors(InterceptorRegistry registry) {
-            // 注册拦截器，拦截所有请求
-            registry.addInterceptor(apiLoggerInterceptor)
-                    .addPathPatterns("/**")
-                    .order(0); // 设置为最高优先级
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+        static class ReactiveWebApplication {
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,423 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 请求体/响应体捕获过滤器
+ * <p>
+ * 在控制器读取请求体的同时，把读到的字节旁路复制到有上限的池化缓冲区中，
+ * 不会提前消费输入流。二进制和 multipart 请求体原样放行。
+ * <p>
+ * 响应体直接透传给客户端，只把前 {@code maxResponseBodySize} 个字节复制到池化缓冲区，
+ * 不会像 {@code ContentCachingResponseWrapper} 那样缓存整个响应，适用于异步和流式响应。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLoggerBodyCaptureFilter extends OncePerRequestFilter {
+
+    /**
+     * 默认过滤器顺序，位于字符编码过滤器之后、表单解析过滤器之前
+     */
+    public static final int DEFAULT_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    /**
+     * 保存已捕获请求体的请求属性名
+     */
+    static final String REQUEST_BODY_ATTRIBUTE = ApiLoggerBodyCaptureFilter.class.getName() + ".REQUEST_BODY";
+
+    /**
+     * 保存已捕获响应体的请求属性名
+     */
+    static final String RESPONSE_BODY_ATTRIBUTE = ApiLoggerBodyCaptureFilter.class.getName() + ".RESPONSE_BODY";
+
+    private final ApiLoggerSettingsHolder settingsHolder;
+
+    private final ApiLogSampler sampler;
+
+    private final CaptureBufferPool bufferPool = new CaptureBufferPool();
+
+    public ApiLoggerBodyCaptureFilter(ApiLoggerProperties properties) {
+        this(new ApiLoggerSettingsHolder(properties), new ApiLogSampler());
+    }
+
+    public ApiLoggerBodyCaptureFilter(ApiLoggerSettingsHolder settingsHolder, ApiLogSampler sampler) {
+        this.settingsHolder = settingsHolder;
+        this.sampler = sampler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ApiLoggerSettings settings = ApiLoggerInterceptor.getSettings(request, settingsHolder);
+        boolean captureRequest = settings.isIncludeRequestBody() && CaptureBuffer.isCapturable(request.getContentType());
+        boolean captureResponse = settings.isIncludeResponseBody();
+        if ((!captureRequest && !captureResponse)
+                || !ApiLoggerInterceptor.shouldLog(request, settingsHolder)
+                || !ApiLoggerInterceptor.isRateSampled(request, settings, sampler)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest requestToUse = request;
+        HttpServletResponse responseToUse = response;
+        CaptureBuffer requestBody = null;
+        CaptureBuffer responseBody = null;
+        if (captureRequest) {
+            requestBody = new CaptureBuffer(bufferPool, settings.getMaxRequestBodySize());
+            request.setAttribute(REQUEST_BODY_ATTRIBUTE, requestBody);
+            requestToUse = new CapturingRequestWrapper(request, requestBody);
+        }
+        if (captureResponse) {
+            responseBody = new CaptureBuffer(bufferPool, settings.getMaxResponseBodySize());
+            request.setAttribute(RESPONSE_BODY_ATTRIBUTE, responseBody);
+            responseToUse = new CapturingResponseWrapper(response, responseBody);
+        }
+        try {
+            filterChain.doFilter(requestToUse, responseToUse);
+        } finally {
+            if (requestToUse.isAsyncStarted()) {
+                // 异步请求在整个请求完成后再归还缓冲区
+                requestToUse.getAsyncContext().addListener(new ReleaseListener(requestBody, responseBody));
+            } else {
+                release(requestBody);
+                release(responseBody);
+            }
+        }
+    }
+
+    private static void release(CaptureBuffer buffer) {
+        if (buffer != null) {
+            buffer.release();
+        }
+    }
+
+    /**
+     * 获取请求上已捕获的请求体，未捕获时返回 {@code null}
+     */
+    static CaptureBuffer getCapturedRequestBody(HttpServletRequest request) {
+        return (CaptureBuffer) request.getAttribute(REQUEST_BODY_ATTRIBUTE);
+    }
+
+    /**
+     * 获取请求上已捕获的响应体，未捕获时返回 {@code null}
+     */
+    static CaptureBuffer getCapturedResponseBody(HttpServletRequest request) {
+        return (CaptureBuffer) request.getAttribute(RESPONSE_BODY_ATTRIBUTE);
+    }
+
+    /**
+     * 旁路复制输入流的请求包装类
+     */
+    private static class CapturingRequestWrapper extends HttpServletRequestWrapper {
+
+        private final CaptureBuffer captureBuffer;
+
+        private ServletInputStream inputStream;
+
+        private BufferedReader reader;
+
+        CapturingRequestWrapper(HttpServletRequest request, CaptureBuffer captureBuffer) {
+            super(request);
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CapturingInputStream(super.getInputStream(), captureBuffer);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(getInputStream(),
+                        CaptureBuffer.getCharset(getCharacterEncoding())));
+            }
+            return reader;
+        }
+    }
+
+    /**
+     * 读取时把字节复制到捕获缓冲区的输入流
+     */
+    private static class CapturingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+
+        private final CaptureBuffer captureBuffer;
+
+        CapturingInputStream(ServletInputStream delegate, CaptureBuffer captureBuffer) {
+            this.delegate = delegate;
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                captureBuffer.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = delegate.read(b, off, len);
+            if (count > 0) {
+                captureBuffer.write(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+
+    /**
+     * 旁路复制输出流的响应包装类，内容直接写入原始响应，不做额外缓存
+     */
+    private static class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final CaptureBuffer captureBuffer;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private Boolean capturable;
+
+        CapturingResponseWrapper(HttpServletResponse response, CaptureBuffer captureBuffer) {
+            super(response);
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CapturingOutputStream(super.getOutputStream(), this);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new CapturingWriter(super.getWriter(), this));
+            }
+            return writer;
+        }
+
+        /**
+         * 首次写出内容时根据响应的内容类型决定是否捕获
+         */
+        CaptureBuffer getCaptureBuffer() {
+            if (capturable == null) {
+                capturable = CaptureBuffer.isCapturable(getContentType());
+            }
+            return capturable ? captureBuffer : null;
+        }
+    }
+
+    /**
+     * 写入原始输出流的同时复制前若干字节的输出流
+     */
+    private static class CapturingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private final CapturingResponseWrapper response;
+
+        CapturingOutputStream(ServletOutputStream delegate, CapturingResponseWrapper response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            CaptureBuffer captureBuffer = response.getCaptureBuffer();
+            if (captureBuffer != null) {
+                captureBuffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            CaptureBuffer captureBuffer = response.getCaptureBuffer();
+            if (captureBuffer != null) {
+                captureBuffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    /**
+     * 写入原始字符流的同时按响应字符集复制前若干字节的字符流
+     * <p>
+     * 字符用复用的 {@link CharsetEncoder} 直接编码到捕获缓冲区，不生成中间字符串和字节数组。
+     */
+    private static class CapturingWriter extends Writer {
+
+        private final Writer delegate;
+
+        private final CapturingResponseWrapper response;
+
+        private CharsetEncoder encoder;
+
+        CapturingWriter(Writer delegate, CapturingResponseWrapper response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            delegate.write(cbuf, off, len);
+            CaptureBuffer captureBuffer = response.getCaptureBuffer();
+            if (captureBuffer != null) {
+                captureBuffer.write(CharBuffer.wrap(cbuf, off, len), getEncoder());
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            delegate.write(str, off, len);
+            CaptureBuffer captureBuffer = response.getCaptureBuffer();
+            if (captureBuffer != null) {
+                captureBuffer.write(CharBuffer.wrap(str, off, off + len), getEncoder());
+            }
+        }
+
+        /**
+         * 获取字符流之后响应字符集不再变化，首次捕获时创建编码器
+         */
+        private CharsetEncoder getEncoder() {
+            if (encoder == null) {
+                encoder = CaptureBuffer.getCharset(response.getCharacterEncoding()).newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            return encoder;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * 异步请求完成、超时或出错后归还缓冲区
+     * <p>
+     * 超时和出错之后通常还会收到完成事件，缓冲区只归还一次，避免同一数组重复进入池中。
+     */
+    private static class ReleaseListener implements AsyncListener {
+
+        private final CaptureBuffer[] buffers;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseListener(CaptureBuffer... buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        private void releaseOnce() {
+            if (released.compareAndSet(false, true)) {
+                for (CaptureBuffer buffer : buffers) {
+                    release(buffer);
+                }
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * API日志统计端点 {@code /actuator/apilogger}
+ * <p>
+ * 输出每个路由和下游主机的请求数、错误数和耗时分位数，以及采样和异步写入的计数。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@Endpoint(id = "apilogger")
+public class ApiLoggerEndpoint {
+
+    private final ApiLogStatistics statistics;
+
+    private final ApiLogSampler sampler;
+
+    private final AsyncApiLogWriter asyncWriter;
+
+    /**
+     * @param statistics 请求统计
+     * @param sampler 日志采样器，可以为 {@code null}
+     * @param asyncWriter 异步日志写入器，未启用异步写入时为 {@code null}
+     */
+    public ApiLoggerEndpoint(ApiLogStatistics statistics, ApiLogSampler sampler, AsyncApiLogWriter asyncWriter) {
+        this.statistics = statistics;
+        this.sampler = sampler;
+        this.asyncWriter = asyncWriter;
+    }
+
+    @ReadOperation
+    public ApiLoggerReport report() {
+        Map<String, Long> sampling = null;
+        if (sampler != null) {
+            sampling = new LinkedHashMap<>();
+            sampling.put("sampled", sampler.getSampledCount());
+            sampling.put("dropped", sampler.getDroppedCount());
+            sampling.put("summarized", sampler.getSummarizedCount());
+            sampling.put("rateLimited", sampler.getRateLimitedCount());
+            sampling.put("error", sampler.getErrorCount());
+            sampling.put("slow", sampler.getSlowCount());
+        }
+        Map<String, Long> async = null;
+        if (asyncWriter != null) {
+            async = new LinkedHashMap<>();
+            async.put("queueSize", (long) asyncWriter.getQueueSize());
+            async.put("queueCapacity", (long) asyncWriter.getQueueCapacity());
+            async.put("written", asyncWriter.getWrittenCount());
+            async.put("dropped", asyncWriter.getDroppedCount());
+        }
+        return new ApiLoggerReport(statistics.snapshot(), statistics.clientSnapshot(), sampling, async);
+    }
+
+    /**
+     * 清空路由和下游主机统计
+     */
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+
+    /**
+     * 端点输出
+     */
+    public static final class ApiLoggerReport {
+
+        private final Map<String, ApiLogStatistics.RouteSnapshot> routes;
+
+        private final Map<String, ApiLogStatistics.RouteSnapshot> clients;
+
+        private final Map<String, Long> sampling;
+
+        private final Map<String, Long> async;
+
+        ApiLoggerReport(Map<String, ApiLogStatistics.RouteSnapshot> routes,
+                Map<String, ApiLogStatistics.RouteSnapshot> clients, Map<String, Long> sampling,
+                Map<String, Long> async) {
+            this.routes = routes;
+            this.clients = clients;
+            this.sampling = sampling;
+            this.async = async;
+        }
+
+        public Map<String, ApiLogStatistics.RouteSnapshot> getRoutes() {
+            return routes;
+        }
+
+        /**
+         * 按下游主机汇总的调用统计
+         */
+        public Map<String, ApiLogStatistics.RouteSnapshot> getClients() {
+            return clients;
+        }
+
+        public Map<String, Long> getSampling() {
+            return sampling;
+        }
+
+        public Map<String, Long> getAsync() {
+            return async;
+        }
+    }
+}
@@ -1,21 +1,23 @@
 package com.example.apilogger.autoconfigure;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.StopWatch;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.util.*;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * API日志记录拦截器
+ * <p>
+ * 每个请求在首次经过过滤器或拦截器时读取一次 {@link ApiLoggerSettings} 快照并保存在请求属性中，
+ * 同一请求的捕获、采样和输出都使用这份配置。
  * 
  * @author 示例开发者
  * @since 1.0.0
@@ -24,140 +26,187 @@ public class ApiLoggerInterceptor implements HandlerInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiLoggerInterceptor.class);
     
-    private final ApiLoggerProperties properties;
-    private final ObjectMapper objectMapper;
-    private final AntPathMatcher pathMatcher;
+    private final ApiLoggerSettingsHolder settingsHolder;
+    private final ApiLogWriter logWriter;
+    private final ApiLogSampler sampler;
+    private final List<ApiLogStatisticsRecorder> statisticsRecorders;
     
-    private static final String STOPWATCH_ATTRIBUTE = "API_LOGGER_STOPWATCH";
-    private static final String REQUEST_BODY_ATTRIBUTE = "API_LOGGER_REQUEST_BODY";
+    private static final String CONTEXT_ATTRIBUTE = "API_LOGGER_CONTEXT";
+    private static final String SETTINGS_ATTRIBUTE = "API_LOGGER_SETTINGS";
+    private static final String SHOULD_LOG_ATTRIBUTE = "API_LOGGER_SHOULD_LOG";
+    private static final String RATE_SAMPLED_ATTRIBUTE = "API_LOGGER_RATE_SAMPLED";
 
     public ApiLoggerInterceptor(ApiLoggerProperties properties, ObjectMapper objectMapper) {
-        this.properties = properties;
-        this.objectMapper = objectMapper;
-        this.pathMatcher = new AntPathMatcher();
+        this(properties, new SyncApiLogWriter(new Slf4jApiLogSink(properties, objectMapper)));
+    }
+
+    public ApiLoggerInterceptor(ApiLoggerProperties properties, ApiLogWriter logWriter) {
+        this(new ApiLoggerSettingsHolder(properties), logWriter, new ApiLogSampler(), Collections.emptyList());
+    }
+
+    public ApiLoggerInterceptor(ApiLoggerSettingsHolder settingsHolder, ApiLogWriter logWriter,
+            ApiLogSampler sampler, List<ApiLogStatisticsRecorder> statisticsRecorders) {
+        this.settingsHolder = settingsHolder;
+        this.logWriter = logWriter;
+        this.sampler = sampler;
+        this.statisticsRecorders = statisticsRecorders;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        if (!properties.isEnabled() || !shouldLog(request)) {
+        if (!shouldLog(request, settingsHolder)) {
             return true;
         }
+        ApiLoggerSettings settings = getSettings(request, settingsHolder);
 
-        // 开始计时
-        if (properties.isIncludeExecutionTime()) {
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
-            request.setAttribute(STOPWATCH_ATTRIBUTE, stopWatch);
-        }
-
-        // 缓存请求体
-        if (properties.isIncludeRequestBody()) {
-            String requestBody = getRequestBody(request);
-            request.setAttribute(REQUEST_BODY_ATTRIBUTE, requestBody);
+        // 记录开始时间，请求日志在请求完成后与响应日志一起输出，以便带上已捕获的请求体。
+        // 异步请求在重新分派时会再次进入 preHandle，保留首次创建的上下文
+        if (request.getAttribute(CONTEXT_ATTRIBUTE) == null) {
+            ApiLogContext context = ApiLogContext.start();
+            ApiLoggerSettings.Sampling sampling = settings.getSampling();
+            if (sampling.isEnabled() && sampling.isHeadMode()) {
+                // 头部采样：此时已完成处理器映射，可以按路由限流
+                context.setSampled(sampler.sampleHead(sampling, isRateSampled(request, settings, sampler),
+                        getRoute(request)));
+            }
+            request.setAttribute(CONTEXT_ATTRIBUTE, context);
         }
 
-        // 记录请求日志
-        logRequest(request);
-
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
-        if (!properties.isEnabled() || !shouldLog(request)) {
+        if (!shouldLog(request, settingsHolder)) {
             return;
         }
+        ApiLoggerSettings settings = getSettings(request, settingsHolder);
 
-        // 停止计时
-        StopWatch stopWatch = (StopWatch) request.getAttribute(STOPWATCH_ATTRIBUTE);
-        if (stopWatch != null) {
-            stopWatch.stop();
+        ApiLogContext context = (ApiLogContext) request.getAttribute(CONTEXT_ATTRIBUTE);
+        if (context == null) {
+            context = ApiLogContext.start();
         }
+        long elapsedNanos = System.nanoTime() - context.getStartNanos();
+        String route = null;
+
+        // 统计与采样无关，所有需要记录的请求都计入
+        if (!statisticsRecorders.isEmpty()) {
+            route = getRoute(request);
+            recordStatistics(route, response.getStatus(), ex != null, elapsedNanos);
+        }
+
+        ApiLoggerSettings.Sampling sampling = settings.getSampling();
+        if (sampling.isEnabled()) {
+            if (sampling.isHeadMode()) {
+                if (!context.isSampled()) {
+                    return;
+                }
+            } else if (sampler.sampleTail(sampling, (route != null) ? route : getRoute(request),
+                    response.getStatus(), ex != null, elapsedNanos) == ApiLogSampler.Decision.SUMMARY) {
+                logSummary(settings, request, response, elapsedNanos);
+                return;
+            }
+        }
+
+        // 记录请求日志
+        logRequest(settings, request, context);
 
         // 记录响应日志
-        logResponse(request, response, stopWatch, ex);
+        logResponse(settings, request, response, elapsedNanos, ex);
+    }
+
+    private void recordStatistics(String route, int status, boolean failed, long elapsedNanos) {
+        for (ApiLogStatisticsRecorder recorder : statisticsRecorders) {
+            try {
+                recorder.record(route, status, failed, elapsedNanos);
+            } catch (RuntimeException e) {
+                logger.error("记录请求统计失败", e);
+            }
+        }
     }
 
     /**
-     * 判断是否需要记录日志
+     * 获取请求使用的配置快照，每个请求只读取一次并保存在请求属性中
      */
-    private boolean shouldLog(HttpServletRequest request) {
-        String uri = request.getRequestURI();
-        
-        // 检查排除模式
-        for (String pattern : properties.getExcludePatterns()) {
-            if (pathMatcher.match(pattern, uri)) {
-                return false;
-            }
+    static ApiLoggerSettings getSettings(HttpServletRequest request, ApiLoggerSettingsHolder settingsHolder) {
+        ApiLoggerSettings settings = (ApiLoggerSettings) request.getAttribute(SETTINGS_ATTRIBUTE);
+        if (settings == null) {
+            settings = settingsHolder.getSettings().forPath(request.getRequestURI());
+            request.setAttribute(SETTINGS_ATTRIBUTE, settings);
         }
-        
-        // 检查包含模式
-        if (!properties.getIncludePatterns().isEmpty()) {
-            boolean matched = false;
-            for (String pattern : properties.getIncludePatterns()) {
-                if (pathMatcher.match(pattern, uri)) {
-                    matched = true;
-                    break;
-                }
-            }
-            return matched;
+        return settings;
+    }
+
+    /**
+     * 判断是否需要记录日志，每个请求只计算一次并保存在请求属性中
+     */
+    static boolean shouldLog(HttpServletRequest request, ApiLoggerSettingsHolder settingsHolder) {
+        Boolean shouldLog = (Boolean) request.getAttribute(SHOULD_LOG_ATTRIBUTE);
+        if (shouldLog == null) {
+            shouldLog = getSettings(request, settingsHolder).shouldLog(request.getRequestURI());
+            request.setAttribute(SHOULD_LOG_ATTRIBUTE, shouldLog);
         }
-        
-        return true;
+        return shouldLog;
+    }
+
+    /**
+     * 头部采样的比例抽样结果，每个请求只抽样一次并保存在请求属性中，
+     * 使 {@link ApiLoggerBodyCaptureFilter} 可以跳过未选中请求的内容捕获。
+     * 未启用头部采样时始终返回 true
+     */
+    static boolean isRateSampled(HttpServletRequest request, ApiLoggerSettings settings, ApiLogSampler sampler) {
+        ApiLoggerSettings.Sampling sampling = settings.getSampling();
+        if (sampler == null || !sampling.isEnabled() || !sampling.isHeadMode()) {
+            return true;
+        }
+        Boolean sampled = (Boolean) request.getAttribute(RATE_SAMPLED_ATTRIBUTE);
+        if (sampled == null) {
+            sampled = sampler.sampleRate(sampling);
+            request.setAttribute(RATE_SAMPLED_ATTRIBUTE, sampled);
+        }
+        return sampled;
+    }
+
+    /**
+     * 获取请求的路由名，使用处理器映射的最佳匹配模式，避免按原始 URI 产生无限多的路由
+     */
+    static String getRoute(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + ((pattern != null) ? pattern : ApiLogSampler.UNMATCHED_ROUTE);
     }
 
     /**
      * 记录请求日志
      */
-    private void logRequest(HttpServletRequest request) {
+    private void logRequest(ApiLoggerSettings settings, HttpServletRequest request, ApiLogContext context) {
         try {
-            Map<String, Object> logData = new LinkedHashMap<>();
-            logData.put("type", "REQUEST");
-            logData.put("timestamp", new Date());
-            logData.put("method", request.getMethod());
-            logData.put("uri", request.getRequestURI());
-            logData.put("remoteAddr", getClientIpAddress(request));
+            ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, context.getStartTimeMillis(),
+                    request.getMethod(), request.getRequestURI());
+            event.setRemoteAddr(getClientIpAddress(request));
             
             // 记录请求参数
-            if (properties.isIncludeRequestParams()) {
-                Map<String, String[]> parameterMap = request.getParameterMap();
-                if (!parameterMap.isEmpty()) {
-                    Map<String, Object> params = new LinkedHashMap<>();
-                    parameterMap.forEach((key, values) -> {
-                        if (values.length == 1) {
-                            params.put(key, values[0]);
-                        } else {
-                            params.put(key, Arrays.asList(values));
-                        }
-                    });
-                    logData.put("parameters", params);
-                }
+            if (settings.isIncludeRequestParams()) {
+                event.setParameters(request.getParameterMap());
             }
             
             // 记录请求头
-            if (properties.isIncludeRequestHeaders()) {
-                Map<String, String> headers = new LinkedHashMap<>();
+            if (settings.isIncludeRequestHeaders()) {
                 Enumeration<String> headerNames = request.getHeaderNames();
                 while (headerNames.hasMoreElements()) {
                     String headerName = headerNames.nextElement();
-                    if (!shouldExcludeHeader(headerName)) {
-                        headers.put(headerName, request.getHeader(headerName));
+                    if (!settings.isHeaderExcluded(headerName)) {
+                        event.addHeader(headerName, request.getHeader(headerName));
                     }
                 }
-                if (!headers.isEmpty()) {
-                    logData.put("headers", headers);
-                }
             }
             
             // 记录请求体
-            if (properties.isIncludeRequestBody()) {
-                String requestBody = (String) request.getAttribute(REQUEST_BODY_ATTRIBUTE);
-                if (StringUtils.isNotBlank(requestBody)) {
-                    logData.put("body", truncateContent(requestBody, properties.getMaxRequestBodySize()));
-                }
+            if (settings.isIncludeRequestBody()) {
+                setBody(settings, event, ApiLoggerBodyCaptureFilter.getCapturedRequestBody(request),
+                        request.getCharacterEncoding());
             }
             
-            writeLog(logData);
+            logWriter.write(event);
             
         } catch (Exception e) {
             logger.error("记录请求日志失败", e);
@@ -167,40 +216,39 @@ public class ApiLoggerInterceptor implements HandlerInterceptor {
     /**
      * 记录响应日志
      */
-    private void logResponse(HttpServletRequest request, HttpServletResponse response, StopWatch stopWatch, Exception ex) {
+    private void logResponse(ApiLoggerSettings settings, HttpServletRequest request, HttpServletResponse response,
+            long elapsedNanos, Exception ex) {
         try {
-            Map<String, Object> logData = new LinkedHashMap<>();
-            logData.put("type", "RESPONSE");
-            logData.put("timestamp", new Date());
-            logData.put("method", request.getMethod());
-            logData.put("uri", request.getRequestURI());
-            logData.put("status", response.getStatus());
+            ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, System.currentTimeMillis(),
+                    request.getMethod(), request.getRequestURI());
+            event.setStatus(response.getStatus());
             
             // 记录执行时间
-            if (properties.isIncludeExecutionTime() && stopWatch != null) {
-                logData.put("executionTime", stopWatch.getTotalTimeMillis() + "ms");
+            if (settings.isIncludeExecutionTime()) {
+                event.setExecutionTimeMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             }
             
             // 记录响应头
-            if (properties.isIncludeResponseHeaders()) {
-                Map<String, String> headers = new LinkedHashMap<>();
+            if (settings.isIncludeResponseHeaders()) {
                 for (String headerName : response.getHeaderNames()) {
-                    if (!shouldExcludeHeader(headerName)) {
-                        headers.put(headerName, response.getHeader(headerName));
+                    if (!settings.isHeaderExcluded(headerName)) {
+                        event.addHeader(headerName, response.getHeader(headerName));
                     }
                 }
-                if (!headers.isEmpty()) {
-                    logData.put("headers", headers);
-                }
             }
             
+            // 记录响应体
+            if (settings.isIncludeResponseBody()) {
+                setBody(settings, event, ApiLoggerBodyCaptureFilter.getCapturedResponseBody(request),
+                        response.getCharacterEncoding());
+            }
+
             // 记录异常信息
             if (ex != null) {
-                logData.put("exception", ex.getClass().getSimpleName());
-                logData.put("exceptionMessage", ex.getMessage());
+                event.setException(ex);
             }
             
-            writeLog(logData);
+            logWriter.write(event);
             
         } catch (Exception e) {
             logger.error("记录响应日志失败", e);
@@ -208,110 +256,40 @@ public class ApiLoggerInterceptor implements HandlerInterceptor {
     }
 
     /**
-     * 获取请求体内容
+     * 记录尾部采样未选中请求的摘要日志
      */
-    private String getRequestBody(HttpServletRequest request) {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = request.getReader()) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line);
+    private void logSummary(ApiLoggerSettings settings, HttpServletRequest request, HttpServletResponse response,
+            long elapsedNanos) {
+        try {
+            ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.SUMMARY, System.currentTimeMillis(),
+                    request.getMethod(), request.getRequestURI());
+            event.setStatus(response.getStatus());
+            if (settings.isIncludeExecutionTime()) {
+                event.setExecutionTimeMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             }
-        } catch (IOException e) {
-            logger.warn("读取请求体失败", e);
-        }
-        return sb.toString();
-    }
-
-    /**
-     * 获取客户端IP地址
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (StringUtils.isNotBlank(xForwardedFor)) {
-            return xForwardedFor.split(",")[0];
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (StringUtils.isNotBlank(xRealIp)) {
-            return xRealIp;
-        }
-        
-        return request.getRemoteAddr();
-    }
-
-    /**
-     * 判断是否需要排除某个请求头
-     */
-    private boolean shouldExcludeHeader(String headerName) {
-        return properties.getExcludeHeaders().stream()
-                .anyMatch(excludeHeader -> excludeHeader.equalsIgnoreCase(headerName));
-    }
-
-    /**
-     * 截断内容
-     */
-    private String truncateContent(String content, int maxSize) {
-        if (content == null) {
-            return null;
-        }
-        
-        if (content.length() <= maxSize) {
-            return content;
+            logWriter.write(event);
+        } catch (Exception e) {
+            logger.error("记录摘要日志失败", e);
         }
-        
-        return content.substring(0, maxSize) + "... [截断]";
     }
 
     /**
-     * 写入日志
+     * 复制由 {@link ApiLoggerBodyCaptureFilter} 捕获的内容，池化缓冲区会在请求结束后归还
      */
-    private void writeLog(Map<String, Object> logData) {
-        try {
-            String logMessage;
-            if (properties.getFormat() == ApiLoggerProperties.LogFormat.JSON) {
-                logMessage = objectMapper.writeValueAsString(logData);
-            } else {
-                logMessage = formatPlainText(logData);
-            }
-            
-            // 根据配置的级别写入日志
-            switch (properties.getLevel()) {
-                case TRACE:
-                    logger.trace(logMessage);
-                    break;
-                case DEBUG:
-                    logger.debug(logMessage);
-                    break;
-                case INFO:
-                    logger.info(logMessage);
-                    break;
-                case WARN:
-                    logger.warn(logMessage);
-                    break;
-                case ERROR:
-                    logger.error(logMessage);
-                    break;
-                default:
-                    logger.info(logMessage);
-            }
-            
-        } catch (Exception e) {
-            logger.error("写入日志失败", e);
+    private void setBody(ApiLoggerSettings settings, ApiLogEvent event, CaptureBuffer captured,
+            String characterEncoding) {
+        if (captured == null || captured.isBlank()) {
+            return;
         }
+        settings.getBodyRedactor().setBody(event, captured.array(), captured.size(),
+                CaptureBuffer.getCharset(characterEncoding), captured.isTruncated(), captured.getLimit());
     }
 
     /**
-     * 格式化纯文本日志
+     * 获取客户端IP地址
      */
-    private String formatPlainText(Map<String, Object> logData) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("API日志 - ");
-        
-        logData.forEach((key, value) -> {
-            sb.append(key).append("=").append(value).append(" ");
-        });
-        
-        return sb.toString().trim();
+    private String getClientIpAddress(HttpServletRequest request) {
+        return ClientAddresses.resolve(request.getHeader("X-Forwarded-For"), request.getHeader("X-Real-IP"),
+                request.getRemoteAddr());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 预编译的 URL 路径匹配器，判断请求是否需要记录日志
+ * <p>
+ * 包含/排除模式在创建时编译一次：不含通配符的字面量模式和 {@code /xxx/**} 前缀模式
+ * 放入按路径段组织的前缀树中，其余模式编译为 {@link PathPattern}，
+ * 中间带有 {@code **} 的模式退回到 {@link AntPathMatcher}。
+ * 编译结果不可变，配置变化时由 {@link ApiLoggerSettings} 整体重建。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLoggerPathMatcher {
+
+    private final PatternSet includes;
+
+    private final PatternSet excludes;
+
+    public ApiLoggerPathMatcher(ApiLoggerProperties properties) {
+        this(properties.getIncludePatterns(), properties.getExcludePatterns());
+    }
+
+    public ApiLoggerPathMatcher(List<String> includePatterns, List<String> excludePatterns) {
+        this.includes = new PatternSet(includePatterns);
+        this.excludes = new PatternSet(excludePatterns);
+    }
+
+    /**
+     * 判断指定路径是否需要记录日志
+     */
+    public boolean shouldLog(String path) {
+        if (excludes.matches(path)) {
+            return false;
+        }
+        return includes.isEmpty() || includes.matches(path);
+    }
+
+    /**
+     * 编译后的一组模式
+     */
+    static final class PatternSet {
+
+        private static final PathPatternParser PARSER = new PathPatternParser();
+
+        static {
+            PARSER.setMatchOptionalTrailingSeparator(false);
+        }
+
+        private final TrieNode root = new TrieNode();
+
+        private final PathPattern[] pathPatterns;
+
+        private final String[] antPatterns;
+
+        private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+        private final boolean empty;
+
+        private final boolean hasTriePatterns;
+
+        PatternSet(List<String> patterns) {
+            List<PathPattern> pathPatterns = new ArrayList<>();
+            List<String> antPatterns = new ArrayList<>();
+            boolean hasTriePatterns = false;
+            for (String pattern : patterns) {
+                if (addToTrie(pattern)) {
+                    hasTriePatterns = true;
+                } else if (pattern.contains("**")) {
+                    antPatterns.add(pattern);
+                } else {
+                    try {
+                        pathPatterns.add(PARSER.parse(pattern));
+                    } catch (PatternParseException ex) {
+                        antPatterns.add(pattern);
+                    }
+                }
+            }
+            this.pathPatterns = pathPatterns.toArray(new PathPattern[0]);
+            this.antPatterns = antPatterns.toArray(new String[0]);
+            this.hasTriePatterns = hasTriePatterns;
+            this.empty = patterns.isEmpty();
+        }
+
+        boolean isEmpty() {
+            return empty;
+        }
+
+        boolean matches(String path) {
+            if (hasTriePatterns && matchesTrie(path)) {
+                return true;
+            }
+            if (pathPatterns.length > 0) {
+                PathContainer pathContainer = PathContainer.parsePath(collapseSeparators(path));
+                for (PathPattern pattern : pathPatterns) {
+                    if (pattern.matches(pathContainer)) {
+                        return true;
+                    }
+                }
+            }
+            for (String pattern : antPatterns) {
+                if (antPathMatcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * {@link PathPattern} 把连续的分隔符视为空路径段，合并后与 {@link AntPathMatcher} 的结果保持一致
+         */
+        private static String collapseSeparators(String path) {
+            if (path.indexOf("//") == -1) {
+                return path;
+            }
+            StringBuilder collapsed = new StringBuilder(path.length());
+            for (int i = 0; i < path.length(); i++) {
+                char ch = path.charAt(i);
+                if (ch != '/' || i == 0 || path.charAt(i - 1) != '/') {
+                    collapsed.append(ch);
+                }
+            }
+            return collapsed.toString();
+        }
+
+        /**
+         * 字面量模式和前缀模式放入前缀树，其余模式返回 {@code false}
+         */
+        private boolean addToTrie(String pattern) {
+            if (!pattern.startsWith("/")) {
+                return false;
+            }
+            boolean prefix = pattern.endsWith("/**");
+            String literal = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+            if (hasWildcard(literal) || (!prefix && pattern.endsWith("/"))) {
+                return false;
+            }
+            TrieNode node = root;
+            for (String segment : literal.split("/")) {
+                if (!segment.isEmpty()) {
+                    node = node.getOrCreateChild(segment);
+                }
+            }
+            if (prefix) {
+                node.prefix = true;
+            } else {
+                node.exact = true;
+            }
+            return true;
+        }
+
+        private static boolean hasWildcard(String pattern) {
+            return pattern.indexOf('*') != -1 || pattern.indexOf('?') != -1 || pattern.indexOf('{') != -1;
+        }
+
+        /**
+         * 按路径段遍历前缀树，与 {@link AntPathMatcher} 一样忽略连续的分隔符
+         */
+        private boolean matchesTrie(String path) {
+            if (!path.startsWith("/")) {
+                return false;
+            }
+            TrieNode node = root;
+            int length = path.length();
+            int start = 0;
+            while (true) {
+                if (node.prefix) {
+                    return true;
+                }
+                while (start < length && path.charAt(start) == '/') {
+                    start++;
+                }
+                if (start >= length) {
+                    break;
+                }
+                int end = path.indexOf('/', start);
+                if (end == -1) {
+                    end = length;
+                }
+                node = node.getChild(path, start, end);
+                if (node == null) {
+                    return false;
+                }
+                start = end;
+            }
+            return node.exact && !path.endsWith("/");
+        }
+    }
+
+    /**
+     * 前缀树节点，子节点数量通常很少，使用数组线性查找以避免截取子串
+     */
+    private static final class TrieNode {
+
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        private final String segment;
+
+        private TrieNode[] children = NO_CHILDREN;
+
+        private boolean exact;
+
+        private boolean prefix;
+
+        TrieNode() {
+            this(null);
+        }
+
+        TrieNode(String segment) {
+            this.segment = segment;
+        }
+
+        TrieNode getChild(String path, int start, int end) {
+            int length = end - start;
+            for (TrieNode child : children) {
+                if (child.segment.length() == length && path.regionMatches(start, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        TrieNode getOrCreateChild(String segment) {
+            TrieNode child = getChild(segment, 0, segment.length());
+            if (child == null) {
+                child = new TrieNode(segment);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.apilogger.autoconfigure;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -84,6 +86,41 @@ public class ApiLoggerProperties {
      */
     private LogFormat format = LogFormat.JSON;
 
+    /**
+     * 日志时间戳格式
+     */
+    private TimestampFormat timestampFormat = TimestampFormat.ISO_8601;
+
+    /**
+     * 异步写入配置
+     */
+    private final Async async = new Async();
+
+    /**
+     * 采样配置
+     */
+    private final Sampling sampling = new Sampling();
+
+    /**
+     * 请求统计配置
+     */
+    private final Statistics statistics = new Statistics();
+
+    /**
+     * 内存映射分段文件输出配置
+     */
+    private final Segment segment = new Segment();
+
+    /**
+     * JSON 内容脱敏配置
+     */
+    private final Redaction redaction = new Redaction();
+
+    /**
+     * 下游调用日志配置
+     */
+    private final Client client = new Client();
+
     /**
      * 日志记录级别枚举
      */
@@ -98,6 +135,472 @@ public class ApiLoggerProperties {
         JSON, PLAIN_TEXT
     }
 
+    /**
+     * 日志时间戳格式枚举
+     */
+    public enum TimestampFormat {
+        /**
+         * UTC 时间，如 2024-01-15T10:30:45.123+0000
+         */
+        ISO_8601,
+        /**
+         * epoch 毫秒数
+         */
+        EPOCH_MILLIS
+    }
+
+    /**
+     * 异步缓冲区溢出策略枚举
+     */
+    public enum OverflowPolicy {
+        /**
+         * 缓冲区已满时直接丢弃新日志
+         */
+        DROP,
+        /**
+         * 缓冲区已满时阻塞请求线程直到有空位，WebFlux 应用中会改为 {@link #DROP}
+         */
+        BLOCK,
+        /**
+         * 缓冲区使用率超过阈值后按比例采样，已满时丢弃
+         */
+        SAMPLE
+    }
+
+    /**
+     * 采样模式枚举
+     */
+    public enum SamplingMode {
+        /**
+         * 头部采样：请求进入时按比例和路由限流决定是否记录，未选中的请求不记录任何日志
+         */
+        HEAD,
+        /**
+         * 尾部采样：请求完成后决定，错误和慢请求始终完整记录，其余请求按比例完整记录或只记录摘要
+         */
+        TAIL
+    }
+
+    /**
+     * 分段文件记录格式枚举
+     */
+    public enum RecordFormat {
+        /**
+         * 紧凑二进制编码，可用 {@code ApiLogSegmentReader} 转换为 JSON
+         */
+        BINARY,
+        /**
+         * UTF-8 JSON
+         */
+        JSON
+    }
+
+    /**
+     * 异步写入配置属性
+     */
+    public static class Async {
+
+        /**
+         * 是否启用异步写入，启用后日志在后台线程中批量序列化和输出
+         */
+        private boolean enabled = false;
+
+        /**
+         * 环形缓冲区容量，会向上取整为2的幂
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * 后台写入线程数
+         */
+        private int writerThreads = 1;
+
+        /**
+         * 每批次最多处理的日志条数
+         */
+        private int batchSize = 256;
+
+        /**
+         * 缓冲区溢出策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * SAMPLE 策略下缓冲区使用率超过 75% 后，每 N 条日志保留 1 条
+         */
+        private int sampleInterval = 10;
+
+        /**
+         * 应用关闭时等待缓冲区排空的最长时间
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getWriterThreads() {
+            return writerThreads;
+        }
+
+        public void setWriterThreads(int writerThreads) {
+            this.writerThreads = writerThreads;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getSampleInterval() {
+            return sampleInterval;
+        }
+
+        public void setSampleInterval(int sampleInterval) {
+            this.sampleInterval = sampleInterval;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    /**
+     * 采样配置属性
+     */
+    public static class Sampling {
+
+        /**
+         * 是否启用采样，未启用时所有请求都完整记录
+         */
+        private boolean enabled = false;
+
+        /**
+         * 采样模式
+         */
+        private SamplingMode mode = SamplingMode.HEAD;
+
+        /**
+         * 完整记录的请求比例，取值 0.0 ~ 1.0
+         */
+        private double rate = 1.0;
+
+        /**
+         * 每个路由每秒最多完整记录的请求数，0 表示不限制
+         */
+        private int rateLimit = 0;
+
+        /**
+         * 尾部采样时，响应状态码不小于该值的请求始终完整记录
+         */
+        private int errorStatus = 500;
+
+        /**
+         * 尾部采样时，耗时不小于该值的请求始终完整记录
+         */
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public SamplingMode getMode() {
+            return mode;
+        }
+
+        public void setMode(SamplingMode mode) {
+            this.mode = mode;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(int rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
+        public int getErrorStatus() {
+            return errorStatus;
+        }
+
+        public void setErrorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+
+    /**
+     * 请求统计配置属性
+     */
+    public static class Statistics {
+
+        /**
+         * 是否按路由统计请求数、错误数和耗时分布
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * 内存映射分段文件输出配置属性
+     */
+    public static class Segment {
+
+        /**
+         * 是否把日志写入内存映射的分段文件，启用后不再默认输出到 SLF4J
+         */
+        private boolean enabled = false;
+
+        /**
+         * 分段文件目录
+         */
+        private String directory = "logs/api-logger";
+
+        /**
+         * 单个分段文件大小，写满后滚动到新文件
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * 记录格式
+         */
+        private RecordFormat recordFormat = RecordFormat.BINARY;
+
+        /**
+         * 把已写入的内容强制刷到磁盘的间隔
+         */
+        private Duration forceInterval = Duration.ofSeconds(1);
+
+        /**
+         * 最多保留的分段文件数，0 表示不删除
+         */
+        private int maxSegments = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public RecordFormat getRecordFormat() {
+            return recordFormat;
+        }
+
+        public void setRecordFormat(RecordFormat recordFormat) {
+            this.recordFormat = recordFormat;
+        }
+
+        public Duration getForceInterval() {
+            return forceInterval;
+        }
+
+        public void setForceInterval(Duration forceInterval) {
+            this.forceInterval = forceInterval;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+    }
+
+    /**
+     * 通过 RestTemplate 和 WebClient 发出的下游调用日志配置属性
+     */
+    public static class Client {
+
+        /**
+         * 是否记录通过 RestTemplateBuilder 和 WebClient.Builder 创建的客户端发出的请求
+         */
+        private boolean enabled = true;
+
+        /**
+         * 是否记录下游请求体
+         */
+        private boolean includeRequestBody = false;
+
+        /**
+         * 是否记录下游响应体
+         */
+        private boolean includeResponseBody = false;
+
+        /**
+         * 下游请求体/响应体大小限制（字节）
+         */
+        private int maxBodySize = 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isIncludeRequestBody() {
+            return includeRequestBody;
+        }
+
+        public void setIncludeRequestBody(boolean includeRequestBody) {
+            this.includeRequestBody = includeRequestBody;
+        }
+
+        public boolean isIncludeResponseBody() {
+            return includeResponseBody;
+        }
+
+        public void setIncludeResponseBody(boolean includeResponseBody) {
+            this.includeResponseBody = includeResponseBody;
+        }
+
+        public int getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(int maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+
+    /**
+     * JSON 请求体/响应体脱敏配置属性
+     */
+    public static class Redaction {
+
+        /**
+         * 是否对 JSON 内容中的敏感字段脱敏
+         */
+        private boolean enabled = true;
+
+        /**
+         * 需要脱敏的字段名，任意层级匹配，大小写不敏感
+         */
+        private List<String> fields = new ArrayList<>();
+
+        /**
+         * 需要脱敏的字段路径，如 $.user.password、$.items[*].token，* 匹配任意字段名
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 替换敏感字段值的掩码
+         */
+        private String mask = "******";
+
+        public Redaction() {
+            fields.add("password");
+            fields.add("token");
+            fields.add("idCard");
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getFields() {
+            return fields;
+        }
+
+        public void setFields(List<String> fields) {
+            this.fields = fields;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public String getMask() {
+            return mask;
+        }
+
+        public void setMask(String mask) {
+            this.mask = mask;
+        }
+    }
+
     // 默认构造函数
     public ApiLoggerProperties() {
         // 默认忽略静态资源和健康检查接口
@@ -226,4 +729,36 @@ public class ApiLoggerProperties {
     public void setFormat(LogFormat format) {
         this.format = format;
     }
+
+    public TimestampFormat getTimestampFormat() {
+        return timestampFormat;
+    }
+
+    public void setTimestampFormat(TimestampFormat timestampFormat) {
+        this.timestampFormat = timestampFormat;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public Segment getSegment() {
+        return segment;
+    }
+
+    public Redaction getRedaction() {
+        return redaction;
+    }
+
+    public Client getClient() {
+        return client;
+    }
 } 
\ No newline at end of file
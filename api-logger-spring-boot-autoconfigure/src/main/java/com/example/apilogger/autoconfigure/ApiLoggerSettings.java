@@ -0,0 +1,249 @@
+package com.example.apilogger.autoconfigure;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * API日志运行时配置的不可变快照
+ * <p>
+ * 由 {@link ApiLoggerProperties} 编译得到：路径模式、排除请求头和脱敏规则在创建时编译一次，之后不再读取原配置。
+ * 请求开始时从 {@link ApiLoggerSettingsHolder} 读取一次当前快照，同一请求的各个阶段都使用这一份配置。
+ * 限定路径的临时覆盖作为另一份快照挂在基础快照上，由 {@link #forPath} 选择。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public final class ApiLoggerSettings {
+
+    private final boolean enabled;
+
+    private final boolean includeRequestHeaders;
+
+    private final boolean includeResponseHeaders;
+
+    private final boolean includeRequestBody;
+
+    private final boolean includeResponseBody;
+
+    private final boolean includeRequestParams;
+
+    private final boolean includeExecutionTime;
+
+    private final int maxRequestBodySize;
+
+    private final int maxResponseBodySize;
+
+    private final ApiLoggerPathMatcher pathMatcher;
+
+    private final ExcludedHeaders excludedHeaders;
+
+    private final ApiLogBodyRedactor bodyRedactor;
+
+    private final Sampling sampling;
+
+    private final Client client;
+
+    private final ApiLoggerPathMatcher.PatternSet overridePaths;
+
+    private final ApiLoggerSettings override;
+
+    private ApiLoggerSettings(ApiLoggerProperties properties, ApiLoggerPathMatcher.PatternSet overridePaths,
+            ApiLoggerSettings override) {
+        this.enabled = properties.isEnabled();
+        this.includeRequestHeaders = properties.isIncludeRequestHeaders();
+        this.includeResponseHeaders = properties.isIncludeResponseHeaders();
+        this.includeRequestBody = properties.isIncludeRequestBody();
+        this.includeResponseBody = properties.isIncludeResponseBody();
+        this.includeRequestParams = properties.isIncludeRequestParams();
+        this.includeExecutionTime = properties.isIncludeExecutionTime();
+        this.maxRequestBodySize = properties.getMaxRequestBodySize();
+        this.maxResponseBodySize = properties.getMaxResponseBodySize();
+        this.pathMatcher = new ApiLoggerPathMatcher(properties);
+        this.excludedHeaders = new ExcludedHeaders(properties.getExcludeHeaders());
+        this.bodyRedactor = new ApiLogBodyRedactor(properties.getRedaction());
+        this.sampling = new Sampling(properties.getSampling());
+        this.client = new Client(properties.getClient());
+        this.overridePaths = overridePaths;
+        this.override = override;
+    }
+
+    /**
+     * 编译配置属性
+     */
+    public static ApiLoggerSettings of(ApiLoggerProperties properties) {
+        return new ApiLoggerSettings(properties, null, null);
+    }
+
+    /**
+     * 编译配置属性，并附加只对匹配路径生效的覆盖快照
+     *
+     * @param properties 基础配置
+     * @param overridePaths 覆盖生效的路径模式
+     * @param override 覆盖后的快照
+     */
+    static ApiLoggerSettings of(ApiLoggerProperties properties, List<String> overridePaths,
+            ApiLoggerSettings override) {
+        return new ApiLoggerSettings(properties, new ApiLoggerPathMatcher.PatternSet(overridePaths), override);
+    }
+
+    /**
+     * 选择对指定请求路径生效的快照
+     */
+    public ApiLoggerSettings forPath(String path) {
+        if (override != null && overridePaths.matches(path)) {
+            return override;
+        }
+        return this;
+    }
+
+    /**
+     * 判断指定路径是否需要记录日志，包含总开关
+     */
+    public boolean shouldLog(String path) {
+        return enabled && pathMatcher.shouldLog(path);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isIncludeRequestHeaders() {
+        return includeRequestHeaders;
+    }
+
+    public boolean isIncludeResponseHeaders() {
+        return includeResponseHeaders;
+    }
+
+    public boolean isIncludeRequestBody() {
+        return includeRequestBody;
+    }
+
+    public boolean isIncludeResponseBody() {
+        return includeResponseBody;
+    }
+
+    public boolean isIncludeRequestParams() {
+        return includeRequestParams;
+    }
+
+    public boolean isIncludeExecutionTime() {
+        return includeExecutionTime;
+    }
+
+    public int getMaxRequestBodySize() {
+        return maxRequestBodySize;
+    }
+
+    public int getMaxResponseBodySize() {
+        return maxResponseBodySize;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    boolean isHeaderExcluded(String headerName) {
+        return excludedHeaders.isExcluded(headerName);
+    }
+
+    ApiLogBodyRedactor getBodyRedactor() {
+        return bodyRedactor;
+    }
+
+    /**
+     * 采样配置快照
+     */
+    public static final class Sampling {
+
+        private final boolean enabled;
+
+        private final boolean headMode;
+
+        private final double rate;
+
+        private final int rateLimit;
+
+        private final int errorStatus;
+
+        private final long slowThresholdNanos;
+
+        Sampling(ApiLoggerProperties.Sampling properties) {
+            this.enabled = properties.isEnabled();
+            this.headMode = properties.getMode() == ApiLoggerProperties.SamplingMode.HEAD;
+            this.rate = properties.getRate();
+            this.rateLimit = properties.getRateLimit();
+            this.errorStatus = properties.getErrorStatus();
+            Duration slowThreshold = properties.getSlowThreshold();
+            this.slowThresholdNanos = (slowThreshold != null) ? slowThreshold.toNanos() : 0;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isHeadMode() {
+            return headMode;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public int getRateLimit() {
+            return rateLimit;
+        }
+
+        public int getErrorStatus() {
+            return errorStatus;
+        }
+
+        /**
+         * 慢请求阈值，0 表示不按耗时完整记录
+         */
+        public long getSlowThresholdNanos() {
+            return slowThresholdNanos;
+        }
+    }
+
+    /**
+     * 下游调用日志配置快照
+     */
+    public static final class Client {
+
+        private final boolean enabled;
+
+        private final boolean includeRequestBody;
+
+        private final boolean includeResponseBody;
+
+        private final int maxBodySize;
+
+        Client(ApiLoggerProperties.Client properties) {
+            this.enabled = properties.isEnabled();
+            this.includeRequestBody = properties.isIncludeRequestBody();
+            this.includeResponseBody = properties.isIncludeResponseBody();
+            this.maxBodySize = properties.getMaxBodySize();
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isIncludeRequestBody() {
+            return includeRequestBody;
+        }
+
+        public boolean isIncludeResponseBody() {
+            return includeResponseBody;
+        }
+
+        public int getMaxBodySize() {
+            return maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API日志配置端点 {@code /actuator/apiloggersettings}
+ * <p>
+ * 写操作临时覆盖运行时配置，例如在排查问题时对一个路由开启 5 分钟的请求体记录：
+ * <pre>
+ * POST /actuator/apiloggersettings
+ * {"properties": {"include-request-body": true}, "paths": ["/api/orders/**"], "revertAfter": "5m"}
+ * </pre>
+ * 删除操作立即恢复。端点可以修改日志内容，默认不启用。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@Endpoint(id = "apiloggersettings", enableByDefault = false)
+public class ApiLoggerSettingsEndpoint {
+
+    private final ApiLoggerSettingsHolder settingsHolder;
+
+    public ApiLoggerSettingsEndpoint(ApiLoggerSettingsHolder settingsHolder) {
+        this.settingsHolder = settingsHolder;
+    }
+
+    @ReadOperation
+    public SettingsReport settings() {
+        return new SettingsReport(settingsHolder.getOverride());
+    }
+
+    /**
+     * 临时覆盖配置，替换已有的临时覆盖
+     *
+     * @param properties 属性名（不含 {@code api-logger.} 前缀）到值的映射
+     * @param paths 只对匹配这些模式的请求路径生效
+     * @param revertAfter 经过该时间后自动恢复，如 {@code 5m}
+     */
+    @WriteOperation
+    public SettingsReport override(Map<String, Object> properties, @Nullable List<String> paths,
+            @Nullable Duration revertAfter) {
+        try {
+            return new SettingsReport(settingsHolder.override(properties, paths, revertAfter));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * 撤销临时覆盖
+     */
+    @DeleteOperation
+    public SettingsReport revert() {
+        settingsHolder.revert();
+        return new SettingsReport(null);
+    }
+
+    /**
+     * 端点输出
+     */
+    public static final class SettingsReport {
+
+        private final Map<String, Object> overrides;
+
+        private final List<String> paths;
+
+        private final String revertAt;
+
+        SettingsReport(ApiLoggerSettingsHolder.SettingsOverride override) {
+            this.overrides = (override != null) ? override.getProperties() : Collections.emptyMap();
+            this.paths = (override != null) ? override.getPaths() : Collections.emptyList();
+            this.revertAt = (override != null && override.getRevertAt() != null)
+                    ? override.getRevertAt().toString() : null;
+        }
+
+        /**
+         * 当前覆盖的属性，没有临时覆盖时为空
+         */
+        public Map<String, Object> getOverrides() {
+            return overrides;
+        }
+
+        /**
+         * 覆盖生效的路径模式，为空表示所有请求
+         */
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        /**
+         * 自动恢复的时间（ISO-8601），不自动恢复时为 {@code null}
+         */
+        public String getRevertAt() {
+            return revertAt;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.apilogger.autoconfigure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.bind.AbstractBindHandler;
+import org.springframework.boot.context.properties.bind.BindContext;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.BindHandler;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.handler.NoUnboundElementsBindHandler;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 保存当前生效的 {@link ApiLoggerSettings}
+ * <p>
+ * 请求处理只读取一个 volatile 引用，不加锁；修改配置时在锁内编译出新快照后整体替换，
+ * 之后开始的请求立即使用新配置，正在处理的请求继续使用原来的快照。
+ * 临时覆盖使用与配置文件相同的属性名（不含 {@code api-logger.} 前缀），可以限定只对部分路径生效，
+ * 并在指定时间后自动恢复。异步写入、分段文件、统计和输出格式等启动时就已确定的配置不能覆盖。
+ * 配置属性在运行时重新绑定后（如 Spring Cloud 的 {@code EnvironmentChangeEvent}），快照随之重新编译。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLoggerSettingsHolder implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiLoggerSettingsHolder.class);
+
+    private static final String PREFIX = "api-logger";
+
+    /**
+     * 启动后不再读取的配置
+     */
+    private static final List<ConfigurationPropertyName> STARTUP_ONLY = Arrays.asList(
+            ConfigurationPropertyName.of(PREFIX + ".level"),
+            ConfigurationPropertyName.of(PREFIX + ".format"),
+            ConfigurationPropertyName.of(PREFIX + ".timestamp-format"),
+            ConfigurationPropertyName.of(PREFIX + ".async"),
+            ConfigurationPropertyName.of(PREFIX + ".statistics"),
+            ConfigurationPropertyName.of(PREFIX + ".segment"));
+
+    private final ApiLoggerProperties properties;
+
+    private final Object lock = new Object();
+
+    private volatile ApiLoggerSettings settings;
+
+    private SettingsOverride override;
+
+    private ScheduledExecutorService revertExecutor;
+
+    private ScheduledFuture<?> revertTask;
+
+    public ApiLoggerSettingsHolder(ApiLoggerProperties properties) {
+        this.properties = properties;
+        this.settings = ApiLoggerSettings.of(properties);
+    }
+
+    /**
+     * 获取当前生效的配置快照
+     */
+    public ApiLoggerSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 获取当前的临时覆盖，没有时为 {@code null}
+     */
+    public SettingsOverride getOverride() {
+        synchronized (lock) {
+            return override;
+        }
+    }
+
+    /**
+     * 是否基于给定的配置属性对象
+     */
+    boolean isFor(ApiLoggerProperties properties) {
+        return this.properties == properties;
+    }
+
+    /**
+     * 按 {@link ApiLoggerProperties} 的当前值重新编译，已有的临时覆盖继续生效
+     * <p>
+     * 配置属性重新绑定后由 {@link ApiLoggerSettingsRefreshPostProcessor} 调用。
+     *
+     * @throws IllegalArgumentException 已有的临时覆盖无法应用到新配置上
+     */
+    public void refresh() {
+        synchronized (lock) {
+            settings = compile(override);
+        }
+    }
+
+    /**
+     * 临时覆盖配置，替换已有的临时覆盖
+     *
+     * @param overrides 属性名到值的映射，如 {@code include-request-body=true}、{@code sampling.rate=0.1}
+     * @param paths 只对匹配这些模式的请求路径生效，为空时对所有请求生效
+     * @param revertAfter 经过该时间后自动恢复，为 {@code null} 时不自动恢复
+     * @return 新的临时覆盖
+     * @throws IllegalArgumentException 属性名未知、不能在运行时修改或值无法转换
+     */
+    public SettingsOverride override(Map<String, ?> overrides, List<String> paths, Duration revertAfter) {
+        if (overrides == null || overrides.isEmpty()) {
+            throw new IllegalArgumentException("没有需要覆盖的属性");
+        }
+        if (revertAfter != null && (revertAfter.isZero() || revertAfter.isNegative())) {
+            throw new IllegalArgumentException("自动恢复时间必须大于 0");
+        }
+        Instant revertAt = (revertAfter != null) ? Instant.now().plus(revertAfter) : null;
+        SettingsOverride newOverride = new SettingsOverride(overrides, paths, revertAt);
+        synchronized (lock) {
+            ApiLoggerSettings newSettings = compile(newOverride);
+            cancelRevertTask();
+            override = newOverride;
+            settings = newSettings;
+            if (revertAfter != null) {
+                revertTask = getRevertExecutor().schedule(() -> revert(newOverride), revertAfter.toMillis(),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        logger.info("API日志配置已临时覆盖: {}，路径: {}，自动恢复时间: {}", newOverride.getProperties(),
+                newOverride.getPaths().isEmpty() ? "全部" : newOverride.getPaths(),
+                (revertAt != null) ? revertAt : "无");
+        return newOverride;
+    }
+
+    /**
+     * 撤销临时覆盖，恢复为 {@link ApiLoggerProperties} 的配置
+     *
+     * @return 是否存在被撤销的临时覆盖
+     */
+    public boolean revert() {
+        synchronized (lock) {
+            return revert(override);
+        }
+    }
+
+    private boolean revert(SettingsOverride expected) {
+        synchronized (lock) {
+            if (expected == null || override != expected) {
+                return false;
+            }
+            cancelRevertTask();
+            override = null;
+            settings = compile(null);
+        }
+        logger.info("API日志配置已恢复");
+        return true;
+    }
+
+    private ApiLoggerSettings compile(SettingsOverride override) {
+        if (override == null) {
+            return ApiLoggerSettings.of(properties);
+        }
+        ApiLoggerSettings overridden = ApiLoggerSettings.of(bind(override.getProperties()));
+        if (override.getPaths().isEmpty()) {
+            return overridden;
+        }
+        return ApiLoggerSettings.of(properties, override.getPaths(), overridden);
+    }
+
+    /**
+     * 在当前配置的副本上绑定覆盖的属性，名称和类型转换规则与配置文件相同
+     */
+    private ApiLoggerProperties bind(Map<String, ?> overrides) {
+        Map<String, Object> source = new LinkedHashMap<>();
+        overrides.forEach((name, value) -> source.put(PREFIX + "." + name, value));
+        ApiLoggerProperties target = copyOf(properties);
+        try {
+            new Binder(new MapConfigurationPropertySource(source)).bind(PREFIX, Bindable.ofInstance(target),
+                    new RuntimeOnlyBindHandler());
+        } catch (BindException ex) {
+            Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+            throw new IllegalArgumentException(cause.getMessage(), ex);
+        }
+        return target;
+    }
+
+    /**
+     * 复制快照会读取的配置，列表复制为新实例
+     */
+    private static ApiLoggerProperties copyOf(ApiLoggerProperties source) {
+        ApiLoggerProperties copy = new ApiLoggerProperties();
+        copy.setEnabled(source.isEnabled());
+        copy.setIncludeRequestHeaders(source.isIncludeRequestHeaders());
+        copy.setIncludeResponseHeaders(source.isIncludeResponseHeaders());
+        copy.setIncludeRequestBody(source.isIncludeRequestBody());
+        copy.setIncludeResponseBody(source.isIncludeResponseBody());
+        copy.setIncludeRequestParams(source.isIncludeRequestParams());
+        copy.setIncludeExecutionTime(source.isIncludeExecutionTime());
+        copy.setMaxRequestBodySize(source.getMaxRequestBodySize());
+        copy.setMaxResponseBodySize(source.getMaxResponseBodySize());
+        copy.setExcludePatterns(new ArrayList<>(source.getExcludePatterns()));
+        copy.setIncludePatterns(new ArrayList<>(source.getIncludePatterns()));
+        copy.setExcludeHeaders(new ArrayList<>(source.getExcludeHeaders()));
+        ApiLoggerProperties.Sampling sampling = copy.getSampling();
+        sampling.setEnabled(source.getSampling().isEnabled());
+        sampling.setMode(source.getSampling().getMode());
+        sampling.setRate(source.getSampling().getRate());
+        sampling.setRateLimit(source.getSampling().getRateLimit());
+        sampling.setErrorStatus(source.getSampling().getErrorStatus());
+        sampling.setSlowThreshold(source.getSampling().getSlowThreshold());
+        ApiLoggerProperties.Redaction redaction = copy.getRedaction();
+        redaction.setEnabled(source.getRedaction().isEnabled());
+        redaction.setFields(new ArrayList<>(source.getRedaction().getFields()));
+        redaction.setPaths(new ArrayList<>(source.getRedaction().getPaths()));
+        redaction.setMask(source.getRedaction().getMask());
+        ApiLoggerProperties.Client client = copy.getClient();
+        client.setEnabled(source.getClient().isEnabled());
+        client.setIncludeRequestBody(source.getClient().isIncludeRequestBody());
+        client.setIncludeResponseBody(source.getClient().isIncludeResponseBody());
+        client.setMaxBodySize(source.getClient().getMaxBodySize());
+        return copy;
+    }
+
+    private ScheduledExecutorService getRevertExecutor() {
+        if (revertExecutor == null) {
+            revertExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "api-logger-settings-revert");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return revertExecutor;
+    }
+
+    private void cancelRevertTask() {
+        if (revertTask != null) {
+            revertTask.cancel(false);
+            revertTask = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (lock) {
+            cancelRevertTask();
+            if (revertExecutor != null) {
+                revertExecutor.shutdownNow();
+                revertExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * 拒绝未知属性和启动时就已确定的属性
+     */
+    private static final class RuntimeOnlyBindHandler extends AbstractBindHandler {
+
+        RuntimeOnlyBindHandler() {
+            super(new NoUnboundElementsBindHandler(BindHandler.DEFAULT));
+        }
+
+        @Override
+        public Object onSuccess(ConfigurationPropertyName name, Bindable<?> target, BindContext context,
+                Object result) {
+            for (ConfigurationPropertyName startupOnly : STARTUP_ONLY) {
+                if (startupOnly.equals(name) || startupOnly.isAncestorOf(name)) {
+                    throw new IllegalArgumentException(name + " 只能在启动时配置");
+                }
+            }
+            return super.onSuccess(name, target, context, result);
+        }
+    }
+
+    /**
+     * 一次临时覆盖
+     */
+    public static final class SettingsOverride {
+
+        private final Map<String, Object> properties;
+
+        private final List<String> paths;
+
+        private final Instant revertAt;
+
+        SettingsOverride(Map<String, ?> properties, List<String> paths, Instant revertAt) {
+            this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+            this.paths = (paths != null) ? Collections.unmodifiableList(new ArrayList<>(paths))
+                    : Collections.emptyList();
+            this.revertAt = revertAt;
+        }
+
+        /**
+         * 覆盖的属性
+         */
+        public Map<String, Object> getProperties() {
+            return properties;
+        }
+
+        /**
+         * 覆盖生效的路径模式，为空表示所有请求
+         */
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        /**
+         * 自动恢复的时间，不自动恢复时为 {@code null}
+         */
+        public Instant getRevertAt() {
+            return revertAt;
+        }
+    }
+}
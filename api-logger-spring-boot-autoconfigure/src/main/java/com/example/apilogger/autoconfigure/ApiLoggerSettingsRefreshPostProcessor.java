@@ -0,0 +1,55 @@
+package com.example.apilogger.autoconfigure;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * {@link ApiLoggerProperties} 重新绑定后刷新 {@link ApiLoggerSettingsHolder}
+ * <p>
+ * Spring Cloud 收到 {@code EnvironmentChangeEvent} 或刷新 {@code @RefreshScope} 时，
+ * 会在原有的配置属性对象上重新执行初始化和绑定。绑定在 {@code postProcessBeforeInitialization} 中完成，
+ * 因此在 {@link #postProcessAfterInitialization} 中属性已经是新值，此时重新编译配置快照。
+ * 启动时配置快照持有者尚未创建，不做处理。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLoggerSettingsRefreshPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        if (beanFactory instanceof ConfigurableListableBeanFactory) {
+            this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof ApiLoggerProperties && beanFactory != null) {
+            refresh((ApiLoggerProperties) bean, beanFactory);
+        }
+        return bean;
+    }
+
+    private static void refresh(ApiLoggerProperties properties, ConfigurableListableBeanFactory beanFactory) {
+        for (String name : getHolderNames(beanFactory)) {
+            // 只刷新已经创建的持有者，避免在启动阶段提前创建
+            if (beanFactory.containsSingleton(name)) {
+                ApiLoggerSettingsHolder holder = beanFactory.getBean(name, ApiLoggerSettingsHolder.class);
+                if (holder.isFor(properties)) {
+                    holder.refresh();
+                }
+            }
+        }
+    }
+
+    private static String[] getHolderNames(ListableBeanFactory beanFactory) {
+        return beanFactory.getBeanNamesForType(ApiLoggerSettingsHolder.class, false, false);
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.apilogger.autoconfigure;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebFlux 环境下的API日志记录过滤器
+ * <p>
+ * 与 {@link ApiLoggerInterceptor} 使用同一套配置，每个请求在进入时读取一次 {@link ApiLoggerSettings} 快照。请求体和响应体通过 {@link DataBuffer} 装饰器在数据流经时
+ * 复制前 {@code maxRequestBodySize}/{@code maxResponseBodySize} 个字节，不聚合完整内容，也不改变数据流。
+ * 日志事件在请求完成时生成并交给非阻塞的 {@link AsyncApiLogWriter}，事件循环线程上不做序列化和输出。
+ * 客户端在响应完成前断开连接时，处理链被取消，请求按失败记录。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class ApiLoggerWebFilter implements WebFilter, Ordered {
+
+    /**
+     * 默认过滤器顺序
+     */
+    public static final int DEFAULT_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiLoggerWebFilter.class);
+
+    private final ApiLoggerSettingsHolder settingsHolder;
+
+    private final ApiLogWriter logWriter;
+
+    private final ApiLogSampler sampler;
+
+    private final List<ApiLogStatisticsRecorder> statisticsRecorders;
+
+    private final CaptureBufferPool bufferPool = new CaptureBufferPool();
+
+    public ApiLoggerWebFilter(ApiLoggerProperties properties, ApiLogWriter logWriter) {
+        this(new ApiLoggerSettingsHolder(properties), logWriter, new ApiLogSampler(), Collections.emptyList());
+    }
+
+    public ApiLoggerWebFilter(ApiLoggerSettingsHolder settingsHolder, ApiLogWriter logWriter, ApiLogSampler sampler,
+            List<ApiLogStatisticsRecorder> statisticsRecorders) {
+        this.settingsHolder = settingsHolder;
+        this.logWriter = logWriter;
+        this.sampler = sampler;
+        this.statisticsRecorders = statisticsRecorders;
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        ApiLoggerSettings settings = settingsHolder.getSettings().forPath(path);
+        if (!settings.shouldLog(path)) {
+            return chain.filter(exchange);
+        }
+
+        ApiLogContext context = ApiLogContext.start();
+        // 头部采样的比例抽样在请求进入时完成，未选中的请求不捕获内容；路由限流要等处理器映射完成后才能决定
+        ApiLoggerSettings.Sampling sampling = settings.getSampling();
+        boolean rateSampled = !sampling.isEnabled() || !sampling.isHeadMode() || sampler.sampleRate(sampling);
+
+        CaptureBuffer requestBody = null;
+        CaptureBuffer responseBody = null;
+        ServerWebExchange exchangeToUse = exchange;
+        if (rateSampled) {
+            ServerWebExchange.Builder builder = exchange.mutate();
+            if (settings.isIncludeRequestBody()
+                    && CaptureBuffer.isCapturable(request.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE))) {
+                requestBody = new CaptureBuffer(bufferPool, settings.getMaxRequestBodySize());
+                builder.request(new CapturingRequestDecorator(request, requestBody));
+            }
+            if (settings.isIncludeResponseBody()) {
+                responseBody = new CaptureBuffer(bufferPool, settings.getMaxResponseBodySize());
+                builder.response(new CapturingResponseDecorator(exchange.getResponse(), responseBody));
+            }
+            exchangeToUse = builder.build();
+        }
+
+        ServerWebExchange completed = exchangeToUse;
+        CaptureBuffer capturedRequest = requestBody;
+        CaptureBuffer capturedResponse = responseBody;
+        return chain.filter(exchangeToUse)
+                .doOnSuccess(done -> complete(settings, completed, context, rateSampled, capturedRequest,
+                        capturedResponse, null))
+                .doOnError(ex -> complete(settings, completed, context, rateSampled, capturedRequest,
+                        capturedResponse, ex))
+                .doOnCancel(() -> complete(settings, completed, context, rateSampled, capturedRequest,
+                        capturedResponse, new CancellationException("客户端在响应完成前断开连接")))
+                .doFinally(signal -> {
+                    release(capturedRequest);
+                    release(capturedResponse);
+                });
+    }
+
+    private void complete(ApiLoggerSettings settings, ServerWebExchange exchange, ApiLogContext context,
+            boolean rateSampled, CaptureBuffer requestBody, CaptureBuffer responseBody, Throwable ex) {
+        try {
+            long elapsedNanos = System.nanoTime() - context.getStartNanos();
+            int status = getStatus(exchange.getResponse());
+            String route = getRoute(exchange);
+
+            // 统计与采样无关，所有需要记录的请求都计入
+            for (ApiLogStatisticsRecorder recorder : statisticsRecorders) {
+                recorder.record(route, status, ex != null, elapsedNanos);
+            }
+
+            ApiLoggerSettings.Sampling sampling = settings.getSampling();
+            if (sampling.isEnabled()) {
+                if (sampling.isHeadMode()) {
+                    if (!sampler.sampleHead(sampling, rateSampled, route)) {
+                        return;
+                    }
+                } else if (sampler.sampleTail(sampling, route, status, ex != null, elapsedNanos)
+                        == ApiLogSampler.Decision.SUMMARY) {
+                    logSummary(settings, exchange.getRequest(), status, elapsedNanos);
+                    return;
+                }
+            }
+
+            logRequest(settings, exchange.getRequest(), context, requestBody);
+            logResponse(settings, exchange, status, elapsedNanos, responseBody, ex);
+        } catch (Exception e) {
+            logger.error("记录API日志失败", e);
+        }
+    }
+
+    /**
+     * 记录请求日志
+     */
+    private void logRequest(ApiLoggerSettings settings, ServerHttpRequest request, ApiLogContext context,
+            CaptureBuffer requestBody) {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, context.getStartTimeMillis(),
+                request.getMethodValue(), request.getPath().value());
+        HttpHeaders headers = request.getHeaders();
+        event.setRemoteAddr(ClientAddresses.resolve(headers.getFirst("X-Forwarded-For"),
+                headers.getFirst("X-Real-IP"), getRemoteAddr(request)));
+
+        if (settings.isIncludeRequestParams()) {
+            event.setParameterValues(request.getQueryParams());
+        }
+        if (settings.isIncludeRequestHeaders()) {
+            addHeaders(settings, event, headers);
+        }
+        if (settings.isIncludeRequestBody()) {
+            setBody(settings, event, requestBody, headers.getContentType());
+        }
+        logWriter.write(event);
+    }
+
+    /**
+     * 记录响应日志
+     */
+    private void logResponse(ApiLoggerSettings settings, ServerWebExchange exchange, int status, long elapsedNanos,
+            CaptureBuffer responseBody, Throwable ex) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, System.currentTimeMillis(),
+                request.getMethodValue(), request.getPath().value());
+        event.setStatus(status);
+
+        if (settings.isIncludeExecutionTime()) {
+            event.setExecutionTimeMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        if (settings.isIncludeResponseHeaders()) {
+            addHeaders(settings, event, response.getHeaders());
+        }
+        if (settings.isIncludeResponseBody()) {
+            setBody(settings, event, responseBody, response.getHeaders().getContentType());
+        }
+        if (ex != null) {
+            event.setException(ex);
+        }
+        logWriter.write(event);
+    }
+
+    /**
+     * 记录尾部采样未选中请求的摘要日志
+     */
+    private void logSummary(ApiLoggerSettings settings, ServerHttpRequest request, int status, long elapsedNanos) {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.SUMMARY, System.currentTimeMillis(),
+                request.getMethodValue(), request.getPath().value());
+        event.setStatus(status);
+        if (settings.isIncludeExecutionTime()) {
+            event.setExecutionTimeMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        logWriter.write(event);
+    }
+
+    private void addHeaders(ApiLoggerSettings settings, ApiLogEvent event, HttpHeaders headers) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!settings.isHeaderExcluded(header.getKey()) && !header.getValue().isEmpty()) {
+                event.addHeader(header.getKey(), header.getValue().get(0));
+            }
+        }
+    }
+
+    private void setBody(ApiLoggerSettings settings, ApiLogEvent event, CaptureBuffer captured,
+            MediaType contentType) {
+        if (captured == null || captured.isBlank()) {
+            return;
+        }
+        Charset charset = (contentType != null && contentType.getCharset() != null)
+                ? contentType.getCharset() : StandardCharsets.UTF_8;
+        settings.getBodyRedactor().setBody(event, captured.array(), captured.size(), charset, captured.isTruncated(),
+                captured.getLimit());
+    }
+
+    private static int getStatus(ServerHttpResponse response) {
+        HttpStatus status = response.getStatusCode();
+        return (status != null) ? status.value() : HttpStatus.OK.value();
+    }
+
+    /**
+     * 获取请求的路由名，使用处理器映射的最佳匹配模式
+     */
+    private static String getRoute(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = (pattern instanceof PathPattern) ? ((PathPattern) pattern).getPatternString()
+                : (pattern != null) ? pattern.toString() : ApiLogSampler.UNMATCHED_ROUTE;
+        return exchange.getRequest().getMethodValue() + " " + route;
+    }
+
+    private static String getRemoteAddr(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return null;
+        }
+        return (address.getAddress() != null) ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private static void release(CaptureBuffer buffer) {
+        if (buffer != null) {
+            buffer.release();
+        }
+    }
+
+    /**
+     * 在请求体数据块流经时复制内容的请求装饰器
+     */
+    private static class CapturingRequestDecorator extends ServerHttpRequestDecorator {
+
+        private final CaptureBuffer captureBuffer;
+
+        CapturingRequestDecorator(ServerHttpRequest delegate, CaptureBuffer captureBuffer) {
+            super(delegate);
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(buffer -> captureBuffer.write(buffer.asByteBuffer()));
+        }
+    }
+
+    /**
+     * 在响应体数据块写出前复制内容的响应装饰器，是否捕获在首个数据块时按内容类型决定
+     */
+    private static class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final CaptureBuffer captureBuffer;
+
+        private Boolean capturable;
+
+        CapturingResponseDecorator(ServerHttpResponse delegate, CaptureBuffer captureBuffer) {
+            super(delegate);
+            this.captureBuffer = captureBuffer;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::capture));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::capture)));
+        }
+
+        private void capture(DataBuffer buffer) {
+            if (capturable == null) {
+                MediaType contentType = getHeaders().getContentType();
+                capturable = (contentType != null) && CaptureBuffer.isCapturable(contentType.toString());
+            }
+            if (capturable) {
+                captureBuffer.write(buffer.asByteBuffer());
+            }
+        }
+    }
+}
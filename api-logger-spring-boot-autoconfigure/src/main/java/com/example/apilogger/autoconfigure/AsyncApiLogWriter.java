@@ -0,0 +1,241 @@
+package com.example.apilogger.autoconfigure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志写入器
+ * <p>
+ * 请求线程只负责把日志数据放入无锁环形缓冲区，后台写入线程每次取出最多 {@code batchSize} 条，
+ * 通过 {@link ApiLogWriter#write(List)} 整批交给输出目标。
+ * 应用关闭时会在 {@code shutdownTimeout} 内排空缓冲区。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class AsyncApiLogWriter implements ApiLogWriter, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncApiLogWriter.class);
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ApiLogWriter delegate;
+
+    private final ApiLoggerProperties.Async properties;
+
+    private final ApiLogRingBuffer<ApiLogEvent> buffer;
+
+    private final int sampleThreshold;
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder writtenCount = new LongAdder();
+
+    private final List<Thread> writerThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public AsyncApiLogWriter(ApiLogWriter delegate, ApiLoggerProperties.Async properties) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.buffer = new ApiLogRingBuffer<>(properties.getBufferSize());
+        this.sampleThreshold = this.buffer.capacity() - this.buffer.capacity() / 4;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        start();
+    }
+
+    /**
+     * 启动后台写入线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        int threads = Math.max(1, properties.getWriterThreads());
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(this::drainLoop, "api-logger-writer-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+            writerThreads.add(thread);
+        }
+    }
+
+    @Override
+    public void write(ApiLogEvent event) {
+        if (!running) {
+            // 未启动或已关闭时退化为同步写入，避免日志丢失
+            delegate.write(event);
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK:
+                offerBlocking(event);
+                break;
+            case SAMPLE:
+                if (buffer.size() >= sampleThreshold
+                        && ThreadLocalRandom.current().nextInt(Math.max(1, properties.getSampleInterval())) != 0) {
+                    droppedCount.increment();
+                    break;
+                }
+                offerOrDrop(event);
+                break;
+            default:
+                offerOrDrop(event);
+        }
+        if (!running) {
+            // 入队前后 stop() 可能已执行完，后台线程不会再取走这条日志，由当前线程补写
+            writeRemaining();
+        }
+    }
+
+    private void offerOrDrop(ApiLogEvent event) {
+        if (!buffer.offer(event)) {
+            droppedCount.increment();
+        }
+    }
+
+    private void offerBlocking(ApiLogEvent event) {
+        while (!buffer.offer(event)) {
+            if (!running) {
+                delegate.write(event);
+                return;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+
+    /**
+     * 后台写入线程主循环，停止后继续处理直到缓冲区为空
+     */
+    private void drainLoop() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<ApiLogEvent> batch = new ArrayList<>(batchSize);
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        while (true) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleParkNanos);
+                idleParkNanos = Math.min(idleParkNanos << 1, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+            idleParkNanos = MIN_IDLE_PARK_NANOS;
+            try {
+                delegate.write(batch);
+            } catch (RuntimeException ex) {
+                logger.error("异步写入日志失败", ex);
+            }
+            writtenCount.add(batch.size());
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        stop();
+    }
+
+    /**
+     * 停止后台写入线程，并在超时时间内等待缓冲区排空
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        for (Thread thread : writerThreads) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis > 0) {
+                thread.join(remainingMillis);
+            }
+        }
+        boolean terminated = writerThreads.stream().noneMatch(Thread::isAlive);
+        writerThreads.clear();
+        if (terminated) {
+            // 写入线程退出后仍可能有并发的 write() 入队成功，直接在当前线程写出
+            writeRemaining();
+            return;
+        }
+        int remaining = 0;
+        while (buffer.poll() != null) {
+            remaining++;
+        }
+        if (remaining > 0) {
+            droppedCount.add(remaining);
+            logger.warn("API日志异步缓冲区未能在超时时间内排空，丢弃 {} 条日志", remaining);
+        }
+    }
+
+    /**
+     * 在当前线程同步写出缓冲区中剩余的日志
+     * <p>
+     * 以 {@link ApiLogRingBuffer#size()} 判断是否为空：生产者已占位但尚未发布的槽位也计入其中，
+     * 此时短暂自旋等待发布，保证与 {@link #write} 中对 {@code running} 的复查不会互相错过。
+     */
+    private void writeRemaining() {
+        while (!buffer.isEmpty()) {
+            ApiLogEvent event = buffer.poll();
+            if (event == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                delegate.write(event);
+            } catch (RuntimeException ex) {
+                logger.error("异步写入日志失败", ex);
+            }
+            writtenCount.increment();
+        }
+    }
+
+    /**
+     * 当前缓冲区中等待写入的日志条数
+     */
+    public int getQueueSize() {
+        return buffer.size();
+    }
+
+    /**
+     * 缓冲区容量
+     */
+    public int getQueueCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 因缓冲区溢出或关闭超时而丢弃的日志条数
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 经缓冲区写出的日志条数
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
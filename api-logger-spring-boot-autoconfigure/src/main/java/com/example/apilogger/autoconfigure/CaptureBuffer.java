@@ -0,0 +1,184 @@
+package com.example.apilogger.autoconfigure;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 有上限的字节捕获缓冲区
+ * <p>
+ * 只复制前 {@code limit} 个字节，超出部分仅计数，底层数组在首次写入时才从池中获取。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+class CaptureBuffer {
+
+    private final CaptureBufferPool pool;
+
+    private final int limit;
+
+    private byte[] bytes;
+
+    private int count;
+
+    private long totalBytes;
+
+    CaptureBuffer(CaptureBufferPool pool, int limit) {
+        this.pool = pool;
+        this.limit = Math.max(0, limit);
+    }
+
+    void write(int b) {
+        totalBytes++;
+        if (count < limit) {
+            ensureBuffer();
+            bytes[count++] = (byte) b;
+        }
+    }
+
+    void write(byte[] source, int offset, int length) {
+        totalBytes += length;
+        int copy = Math.min(length, limit - count);
+        if (copy > 0) {
+            ensureBuffer();
+            System.arraycopy(source, offset, bytes, count, copy);
+            count += copy;
+        }
+    }
+
+    /**
+     * 复制 {@code source} 中剩余的字节，不改变其读取位置
+     */
+    void write(ByteBuffer source) {
+        int length = source.remaining();
+        totalBytes += length;
+        int copy = Math.min(length, limit - count);
+        if (copy > 0) {
+            ensureBuffer();
+            ByteBuffer view = source.duplicate();
+            view.get(bytes, count, copy);
+            count += copy;
+        }
+    }
+
+    /**
+     * 用 {@code encoder} 把字符直接编码到缓冲区
+     * <p>
+     * 容量不足时编码在缓冲区写满处停止，未编码的字符按每个一个字节计入总数，仅用于判断是否截断。
+     */
+    void write(CharBuffer source, CharsetEncoder encoder) {
+        int available = limit - count;
+        if (available > 0 && source.hasRemaining()) {
+            ensureBuffer();
+            ByteBuffer target = ByteBuffer.wrap(bytes, count, available);
+            encoder.reset();
+            encoder.encode(source, target, false);
+            totalBytes += target.position() - count;
+            count = target.position();
+        }
+        totalBytes += source.remaining();
+    }
+
+    /**
+     * 记录未经过缓冲区但已输出的字节数，仅用于判断是否截断
+     */
+    void skip(long length) {
+        totalBytes += length;
+    }
+
+    private void ensureBuffer() {
+        if (bytes == null) {
+            bytes = pool.acquire(limit);
+        }
+    }
+
+    /**
+     * 已捕获的字节数
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * 实际经过的字节总数（含未捕获部分）
+     */
+    long getTotalBytes() {
+        return totalBytes;
+    }
+
+    boolean isTruncated() {
+        return totalBytes > count;
+    }
+
+    /**
+     * 是否没有捕获到任何非空白字符
+     */
+    boolean isBlank() {
+        for (int i = 0; i < count; i++) {
+            if ((bytes[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 底层数组，有效长度为 {@link #size()}，归还后不应再读取；没有写入过时为 {@code null}
+     */
+    byte[] array() {
+        return bytes;
+    }
+
+    byte[] toByteArray() {
+        return (bytes != null) ? Arrays.copyOf(bytes, count) : new byte[0];
+    }
+
+    String toString(Charset charset) {
+        return (bytes != null) ? new String(bytes, 0, count, charset) : "";
+    }
+
+    /**
+     * 归还底层数组，之后不应再读取内容
+     */
+    void release() {
+        byte[] released = bytes;
+        bytes = null;
+        count = 0;
+        pool.release(released);
+    }
+
+    /**
+     * 判断内容类型是否为可记录的文本内容
+     */
+    static boolean isCapturable(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("multipart/")) {
+            return false;
+        }
+        return type.startsWith("text/")
+                || type.contains("json")
+                || type.contains("xml")
+                || type.startsWith("application/x-www-form-urlencoded")
+                || type.startsWith("application/javascript");
+    }
+
+    static Charset getCharset(String characterEncoding) {
+        try {
+            return (characterEncoding != null) ? Charset.forName(characterEncoding) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException ex) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.apilogger.autoconfigure;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 请求体/响应体捕获缓冲区的字节数组池
+ * <p>
+ * 同一个池同时服务请求体、响应体和出站调用等不同上限的缓冲区，因此按数组长度分别缓存，
+ * 不同长度的数组互不影响。每种长度最多缓存 {@code maxPooled} 个数组，
+ * 上限变化后仍在使用中的旧长度数组归还时照常入池，占用的内存同样受该数量限制。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+class CaptureBufferPool {
+
+    private static final int DEFAULT_MAX_POOLED = 256;
+
+    private final ConcurrentMap<Integer, SizedBuffers> buffers = new ConcurrentHashMap<>();
+
+    private final int maxPooled;
+
+    CaptureBufferPool() {
+        this(DEFAULT_MAX_POOLED);
+    }
+
+    CaptureBufferPool(int maxPooled) {
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * 获取长度为 {@code size} 的字节数组
+     */
+    byte[] acquire(int size) {
+        SizedBuffers sized = buffers.get(size);
+        byte[] buffer = (sized != null) ? sized.poll() : null;
+        return (buffer != null) ? buffer : new byte[size];
+    }
+
+    /**
+     * 归还字节数组，同长度的数组已缓存满时直接丢弃
+     */
+    void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        buffers.computeIfAbsent(buffer.length, (size) -> new SizedBuffers()).offer(buffer, maxPooled);
+    }
+
+    /**
+     * 已缓存的长度为 {@code size} 的数组个数
+     */
+    int getPooledCount(int size) {
+        SizedBuffers sized = buffers.get(size);
+        return (sized != null) ? sized.count.get() : 0;
+    }
+
+    /**
+     * 同一长度的数组队列
+     */
+    private static final class SizedBuffers {
+
+        private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        byte[] poll() {
+            byte[] buffer = queue.poll();
+            if (buffer != null) {
+                count.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        void offer(byte[] buffer, int maxPooled) {
+            if (count.incrementAndGet() <= maxPooled) {
+                queue.offer(buffer);
+            } else {
+                count.decrementAndGet();
+            }
+        }
+    }
+}
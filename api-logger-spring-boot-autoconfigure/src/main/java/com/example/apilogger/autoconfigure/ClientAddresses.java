@@ -0,0 +1,29 @@
+package com.example.apilogger.autoconfigure;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 客户端地址解析，Servlet 和 WebFlux 实现共用
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class ClientAddresses {
+
+    private ClientAddresses() {
+    }
+
+    /**
+     * 依次使用 X-Forwarded-For 的第一个地址、X-Real-IP 和连接的远端地址
+     */
+    static String resolve(String forwardedFor, String realIp, String remoteAddr) {
+        if (StringUtils.isNotBlank(forwardedFor)) {
+            int comma = forwardedFor.indexOf(',');
+            return (comma != -1) ? forwardedFor.substring(0, comma) : forwardedFor;
+        }
+        if (StringUtils.isNotBlank(realIp)) {
+            return realIp;
+        }
+        return remoteAddr;
+    }
+}
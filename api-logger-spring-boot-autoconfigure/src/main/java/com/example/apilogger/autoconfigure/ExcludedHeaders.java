@@ -0,0 +1,24 @@
+package com.example.apilogger.autoconfigure;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 预先构建的大小写不敏感请求头排除集合
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class ExcludedHeaders {
+
+    private final Set<String> headerNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    ExcludedHeaders(List<String> excludeHeaders) {
+        this.headerNames.addAll(excludeHeaders);
+    }
+
+    boolean isExcluded(String headerName) {
+        return headerNames.contains(headerName);
+    }
+}
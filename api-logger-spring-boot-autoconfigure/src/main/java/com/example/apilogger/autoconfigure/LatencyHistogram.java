@@ -0,0 +1,159 @@
+package com.example.apilogger.autoconfigure;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁延迟直方图
+ * <p>
+ * 与 HdrHistogram 相同的对数-线性分桶：每个 2 的幂区间再均分为 16 个子桶，相对误差约 6%，
+ * 以微秒记录，最大约 19 小时。计数按线程分散到多个条带，热点路由的并发记录不会争用同一缓存行，
+ * 条带在首次使用时才创建。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 36;
+
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private static final int STRIPE_COUNT = stripeCount();
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    private static int stripeCount() {
+        int processors = Math.min(8, Runtime.getRuntime().availableProcessors());
+        return Integer.highestOneBit(Math.max(1, processors) * 2 - 1);
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param micros 耗时（微秒）
+     */
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        int stripe = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        AtomicLongArray counts = stripes.get(stripe);
+        if (counts == null) {
+            counts = new AtomicLongArray(BUCKET_COUNT);
+            if (!stripes.compareAndSet(stripe, null, counts)) {
+                counts = stripes.get(stripe);
+            }
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        totalMicros.add(value);
+        maxMicros.accumulate(value);
+    }
+
+    /**
+     * 汇总各条带得到快照，记录可以同时进行
+     */
+    Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (stripe == null) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                long value = stripe.get(bucket);
+                counts[bucket] += value;
+                count += value;
+            }
+        }
+        return new Snapshot(counts, count, totalMicros.sum(), maxMicros.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶内可表示的最大值
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowest = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * 直方图快照
+     */
+    static final class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long totalMicros;
+
+        private final long maxMicros;
+
+        Snapshot(long[] counts, long count, long totalMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getTotalMicros() {
+            return totalMicros;
+        }
+
+        long getMaxMicros() {
+            return maxMicros;
+        }
+
+        /**
+         * 指定百分位的耗时（微秒）
+         *
+         * @param percentile 百分位，取值 0 ~ 100
+         */
+        long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestEquivalentValue(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.apilogger.autoconfigure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 把日志以带长度前缀的记录追加到内存映射分段文件的输出目标
+ * <p>
+ * 每个分段文件以 {@link #MAGIC} 开头，之后依次是记录：4 字节大端长度、1 字节格式（二进制或 JSON）和内容，
+ * 长度为 0 表示数据结束。长度在内容写完后才写入，读取方不会读到写了一半的记录。
+ * 分段写满后滚动到新文件，并按 {@code forceInterval} 周期性调用 {@link MappedByteBuffer#force()}。
+ * 可使用 {@link ApiLogSegmentReader} 把分段文件转换为 JSON 行。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class MappedSegmentApiLogSink implements ApiLogSink, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedSegmentApiLogSink.class);
+
+    /**
+     * 分段文件头
+     */
+    static final byte[] MAGIC = "APILOGS1".getBytes(StandardCharsets.US_ASCII);
+
+    static final byte FORMAT_BINARY = 1;
+
+    static final byte FORMAT_JSON = 2;
+
+    static final int RECORD_HEADER_SIZE = 5;
+
+    static final String FILE_PREFIX = "api-log-";
+
+    static final String FILE_SUFFIX = ".seg";
+
+    private final ApiLoggerProperties.Segment properties;
+
+    private final ApiLogEventEncoder encoder;
+
+    private final ThreadLocal<RecordBuffer> recordBuffers = ThreadLocal.withInitial(RecordBuffer::new);
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final Object lock = new Object();
+
+    private Path directory;
+
+    private long nextSequence;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private boolean dirty;
+
+    private ScheduledExecutorService forceExecutor;
+
+    public MappedSegmentApiLogSink(ApiLoggerProperties.Segment properties, ApiLogEventEncoder encoder) {
+        this.properties = properties;
+        this.encoder = encoder;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        open();
+    }
+
+    /**
+     * 创建目录并打开新的分段文件，启动周期性刷盘
+     */
+    public void open() throws IOException {
+        synchronized (lock) {
+            if (segment != null) {
+                return;
+            }
+            directory = Paths.get(properties.getDirectory());
+            Files.createDirectories(directory);
+            List<Path> existing = listSegments(directory);
+            nextSequence = existing.isEmpty() ? 1 : sequenceOf(existing.get(existing.size() - 1)) + 1;
+            roll();
+        }
+        long intervalMillis = Math.max(1, properties.getForceInterval().toMillis());
+        forceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-logger-segment-force");
+            thread.setDaemon(true);
+            return thread;
+        });
+        forceExecutor.scheduleWithFixedDelay(this::force, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void write(ApiLogEvent event) throws IOException {
+        // 在锁外编码，锁内只做一次内存复制
+        RecordBuffer record = recordBuffers.get();
+        record.reset();
+        byte format = encode(event, record);
+        synchronized (lock) {
+            append(format, record.array(), 0, record.size());
+        }
+    }
+
+    /**
+     * 整批在锁外编码到同一个缓冲区，锁内依次复制，每批只加一次锁
+     */
+    @Override
+    public void write(List<ApiLogEvent> events) throws IOException {
+        RecordBuffer records = recordBuffers.get();
+        records.reset();
+        byte[] formats = new byte[events.size()];
+        int[] ends = new int[events.size()];
+        for (int i = 0; i < ends.length; i++) {
+            formats[i] = encode(events.get(i), records);
+            ends[i] = records.size();
+        }
+        synchronized (lock) {
+            int start = 0;
+            for (int i = 0; i < ends.length; i++) {
+                int end = ends[i];
+                append(formats[i], records.array(), start, end - start);
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * 把事件追加编码到 {@code out}，返回记录格式
+     */
+    private byte encode(ApiLogEvent event, RecordBuffer out) throws IOException {
+        if (properties.getRecordFormat() == ApiLoggerProperties.RecordFormat.JSON) {
+            encoder.encodeJsonTo(event, out);
+            return FORMAT_JSON;
+        }
+        ApiLogEventBinaryCodec.encode(event, out);
+        return FORMAT_BINARY;
+    }
+
+    /**
+     * 追加一条记录，调用方需持有 {@code lock}
+     */
+    private void append(byte format, byte[] record, int offset, int length) throws IOException {
+        if (segment == null) {
+            throw new IOException("分段文件已关闭");
+        }
+        if (RECORD_HEADER_SIZE + length > segment.capacity() - MAGIC.length) {
+            droppedCount.increment();
+            logger.warn("API日志记录大小 {} 字节超过分段文件容量，已丢弃", length);
+            return;
+        }
+        // 保留 4 字节作为结束标记，保证读取方总能读到长度 0
+        if (segment.remaining() < RECORD_HEADER_SIZE + length + 4) {
+            roll();
+        }
+        int position = segment.position();
+        segment.put(position + 4, format);
+        segment.position(position + RECORD_HEADER_SIZE);
+        segment.put(record, offset, length);
+        segment.putInt(position, length);
+        dirty = true;
+    }
+
+    /**
+     * 把当前分段已写入的内容刷到磁盘
+     */
+    public void force() {
+        MappedByteBuffer current;
+        synchronized (lock) {
+            if (!dirty || segment == null) {
+                return;
+            }
+            dirty = false;
+            current = segment;
+        }
+        current.force();
+    }
+
+    private void roll() throws IOException {
+        closeSegment();
+        Path path = directory.resolve(String.format("%s%08d%s", FILE_PREFIX, nextSequence++, FILE_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = Math.min(Integer.MAX_VALUE, Math.max(4096, properties.getSegmentSize().toBytes()));
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segment.put(MAGIC);
+        dirty = true;
+        deleteOldSegments();
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        if (channel != null) {
+            // 映射在通道关闭后仍然有效，由 GC 回收
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void deleteOldSegments() {
+        int maxSegments = properties.getMaxSegments();
+        if (maxSegments <= 0) {
+            return;
+        }
+        try {
+            List<Path> segments = listSegments(directory);
+            for (int i = 0; i < segments.size() - maxSegments; i++) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException ex) {
+            logger.warn("删除过期的API日志分段文件失败", ex);
+        }
+    }
+
+    /**
+     * 按序号升序列出目录中的分段文件
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        // 序号定长补零，按文件名排序即按序号排序
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        close();
+    }
+
+    /**
+     * 停止周期性刷盘，刷盘后关闭当前分段
+     */
+    public void close() throws IOException {
+        if (forceExecutor != null) {
+            forceExecutor.shutdownNow();
+            forceExecutor = null;
+        }
+        synchronized (lock) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * 因超过分段容量而丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+}
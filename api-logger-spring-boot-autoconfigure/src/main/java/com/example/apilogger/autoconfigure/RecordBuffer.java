@@ -0,0 +1,106 @@
+package com.example.apilogger.autoconfigure;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 线程复用的记录编码缓冲区，提供大端整数和 UTF-8 字符串的直接写入
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+final class RecordBuffer extends ByteArrayOutputStream {
+
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    RecordBuffer() {
+        super(1024);
+    }
+
+    /**
+     * 清空内容，偶发的大记录之后不保留过大的数组
+     */
+    @Override
+    public void reset() {
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[1024];
+        }
+        super.reset();
+    }
+
+    byte[] array() {
+        return buf;
+    }
+
+    void putByte(int value) {
+        write(value);
+    }
+
+    void putInt(int value) {
+        ensureCapacity(4);
+        putInt(count, value);
+        count += 4;
+    }
+
+    void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    void putBytes(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 写入 UTF-8 字符串，前置 4 字节长度，{@code null} 的长度为 -1
+     */
+    void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        int lengthPosition = count;
+        putInt(0);
+        int length = value.length();
+        ensureCapacity(length * 3);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buf[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[count++] = (byte) (0xC0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符按 String.getBytes 的方式替换为 '?'
+                buf[count++] = '?';
+            } else {
+                buf[count++] = (byte) (0xE0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        putInt(lengthPosition, count - lengthPosition - 4);
+    }
+
+    private void putInt(int position, int value) {
+        buf[position] = (byte) (value >>> 24);
+        buf[position + 1] = (byte) (value >>> 16);
+        buf[position + 2] = (byte) (value >>> 8);
+        buf[position + 3] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = count + additional;
+        if (required > buf.length) {
+            byte[] grown = new byte[Math.max(required, buf.length << 1)];
+            System.arraycopy(buf, 0, grown, 0, count);
+            buf = grown;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * 基于SLF4J的日志输出目标，未配置其他 {@link ApiLogSink} 时默认使用
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class Slf4jApiLogSink implements ApiLogSink {
+
+    // 沿用拦截器的日志名称，保证已有的日志级别配置继续生效；按名称获取，WebFlux 应用中不加载拦截器类
+    private static final Logger logger = LoggerFactory.getLogger(
+            "com.example.apilogger.autoconfigure.ApiLoggerInterceptor");
+
+    private final ApiLoggerProperties properties;
+    private final ApiLogEventEncoder encoder;
+
+    public Slf4jApiLogSink(ApiLoggerProperties properties, ObjectMapper objectMapper) {
+        this(properties, new ApiLogEventEncoder(properties, objectMapper.getFactory()));
+    }
+
+    public Slf4jApiLogSink(ApiLoggerProperties properties, ApiLogEventEncoder encoder) {
+        this.properties = properties;
+        this.encoder = encoder;
+    }
+
+    @Override
+    public void write(ApiLogEvent event) throws IOException {
+        // 根据配置的级别写入日志，级别未开启时不做编码
+        switch (properties.getLevel()) {
+            case TRACE:
+                if (logger.isTraceEnabled()) {
+                    logger.trace(encoder.encode(event));
+                }
+                break;
+            case DEBUG:
+                if (logger.isDebugEnabled()) {
+                    logger.debug(encoder.encode(event));
+                }
+                break;
+            case WARN:
+                if (logger.isWarnEnabled()) {
+                    logger.warn(encoder.encode(event));
+                }
+                break;
+            case ERROR:
+                if (logger.isErrorEnabled()) {
+                    logger.error(encoder.encode(event));
+                }
+                break;
+            default:
+                if (logger.isInfoEnabled()) {
+                    logger.info(encoder.encode(event));
+                }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.apilogger.autoconfigure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 同步日志写入器，在调用线程中依次写入各个 {@link ApiLogSink}，单个输出目标失败不影响其他目标
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public class SyncApiLogWriter implements ApiLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncApiLogWriter.class);
+
+    private final ApiLogSink[] sinks;
+
+    public SyncApiLogWriter(ApiLogSink... sinks) {
+        this(Arrays.asList(sinks));
+    }
+
+    public SyncApiLogWriter(List<ApiLogSink> sinks) {
+        this.sinks = sinks.toArray(new ApiLogSink[0]);
+    }
+
+    @Override
+    public void write(ApiLogEvent event) {
+        for (ApiLogSink sink : sinks) {
+            try {
+                sink.write(event);
+            } catch (Exception ex) {
+                logger.error("写入日志失败: {}", sink.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+
+    /**
+     * 每个输出目标整批写入一次，单个输出目标失败不影响其他目标
+     */
+    @Override
+    public void write(List<ApiLogEvent> events) {
+        for (ApiLogSink sink : sinks) {
+            try {
+                sink.write(events);
+            } catch (Exception ex) {
+                logger.error("批量写入日志失败: {}", sink.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+}
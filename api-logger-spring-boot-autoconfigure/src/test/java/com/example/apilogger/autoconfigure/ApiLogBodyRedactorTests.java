@@ -0,0 +1,197 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLogBodyRedactor} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogBodyRedactorTests {
+
+    private static final int LIMIT = 1024;
+
+    private final ApiLoggerProperties.Redaction properties = new ApiLoggerProperties.Redaction();
+
+    @Test
+    public void bodyWithoutSensitiveFieldsIsKept() {
+        String body = "{ \"name\" : \"张三\", \"amount\": 1.50, \"tags\": [1, 2e3] }";
+        ApiLogEvent event = redact(body);
+        assertThat(body(event)).isEqualTo(body);
+        assertThat(event.isBodyTruncated()).isFalse();
+    }
+
+    @Test
+    public void sensitiveFieldValuesAreMasked() {
+        ApiLogEvent event = redact("{\"user\":\"a\", \"password\" : \"secret\",\"token\":123,\"next\":true}");
+        assertThat(body(event)).isEqualTo("{\"user\":\"a\", \"password\" : \"******\",\"token\":\"******\",\"next\":true}");
+        assertThat(event.isBodyTruncated()).isFalse();
+    }
+
+    @Test
+    public void fieldNamesAreMatchedIgnoringCase() {
+        assertThat(body(redact("{\"PassWord\":\"secret\",\"IDCARD\":\"1\"}")))
+                .isEqualTo("{\"PassWord\":\"******\",\"IDCARD\":\"******\"}");
+    }
+
+    @Test
+    public void fieldsInNestedObjectsAndArraysAreMasked() {
+        String body = "{\"data\":{\"items\":[{\"token\":\"t1\",\"id\":1},{\"token\":\"t2\"}]},"
+                + "\"list\":[[{\"password\":\"p\"}]]}";
+        assertThat(body(redact(body))).isEqualTo("{\"data\":{\"items\":[{\"token\":\"******\",\"id\":1},"
+                + "{\"token\":\"******\"}]},\"list\":[[{\"password\":\"******\"}]]}");
+    }
+
+    @Test
+    public void objectAndArrayValuesAreMaskedAsWhole() {
+        String body = "{\"idCard\":{\"no\":\"110\",\"list\":[1]},\"token\":[\"a\",\"b\"],\"x\":1}";
+        assertThat(body(redact(body))).isEqualTo("{\"idCard\":\"******\",\"token\":\"******\",\"x\":1}");
+    }
+
+    @Test
+    public void topLevelArrayIsRedacted() {
+        assertThat(body(redact("[{\"password\":\"a\"},{\"password\":\"b\"}]")))
+                .isEqualTo("[{\"password\":\"******\"},{\"password\":\"******\"}]");
+    }
+
+    @Test
+    public void pathsMatchOnlyTheirLocation() {
+        properties.getFields().clear();
+        properties.getPaths().add("$.user.secret");
+        String body = "{\"user\":{\"secret\":\"a\",\"inner\":{\"secret\":\"b\"}},\"secret\":\"c\"}";
+        assertThat(body(redact(body)))
+                .isEqualTo("{\"user\":{\"secret\":\"******\",\"inner\":{\"secret\":\"b\"}},\"secret\":\"c\"}");
+    }
+
+    @Test
+    public void pathsSkipArrayLevels() {
+        properties.getFields().clear();
+        properties.getPaths().add("$.items[*].code");
+        String body = "{\"items\":[{\"code\":\"a\"},{\"code\":\"b\"}],\"code\":\"c\"}";
+        assertThat(body(redact(body)))
+                .isEqualTo("{\"items\":[{\"code\":\"******\"},{\"code\":\"******\"}],\"code\":\"c\"}");
+    }
+
+    @Test
+    public void pathWildcardMatchesAnyFieldName() {
+        properties.getFields().clear();
+        properties.getPaths().add("$.*.code");
+        String body = "{\"a\":{\"code\":\"1\"},\"b\":{\"code\":\"2\"},\"code\":\"3\"}";
+        assertThat(body(redact(body)))
+                .isEqualTo("{\"a\":{\"code\":\"******\"},\"b\":{\"code\":\"******\"},\"code\":\"3\"}");
+    }
+
+    @Test
+    public void compilePathKeepsOnlyObjectFieldNames() {
+        assertThat(ApiLogBodyRedactor.compilePath(" $.items[*].token ")).containsExactly("items", "token");
+        assertThat(ApiLogBodyRedactor.compilePath("$.user.password")).containsExactly("user", "password");
+        assertThat(ApiLogBodyRedactor.compilePath("$[0].id")).containsExactly("id");
+    }
+
+    @Test
+    public void maskIsWrittenAsJsonString() {
+        properties.setMask("<\"hidden\">");
+        assertThat(body(redact("{\"password\":\"a\"}"))).isEqualTo("{\"password\":\"<\\\"hidden\\\">\"}");
+    }
+
+    @Test
+    public void truncatedBodyDoesNotLeakPartialSensitiveValue() {
+        ApiLogEvent event = redact("{\"name\":\"a\",\"password\":\"secr", true);
+        assertThat(body(event)).doesNotContain("secr").startsWith("{\"name\":\"a\"");
+        assertThat(event.isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void truncatedBodyKeepsContentBeforeRedactedField() {
+        ApiLogEvent event = redact("{\"password\":\"secret\",\"name\":\"abc", true);
+        assertThat(body(event)).startsWith("{\"password\":\"******\"").doesNotContain("secret");
+        assertThat(event.isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void invalidSensitiveValueIsNotCopied() {
+        ApiLogEvent event = redact("{\"name\":\"a\",\"password\": secret123, \"b\":1}");
+        assertThat(body(event)).isEqualTo("{\"name\":").doesNotContain("secret123");
+        assertThat(event.isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void invalidJsonAfterRedactedFieldIsNotCopied() {
+        ApiLogEvent event = redact("{\"password\":\"secret\",\"token\": abc}");
+        assertThat(body(event)).isEqualTo("{\"password\":\"******\"").doesNotContain("abc");
+        assertThat(event.isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void outputIsCutAtLimit() {
+        properties.setMask("****************************************");
+        String body = "{\"password\":\"a\",\"name\":\"b\"}";
+        ApiLogEvent event = setBody(body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, false, 32);
+        assertThat(event.getBody()).hasSize(32);
+        assertThat(body(event)).startsWith("{\"password\":\"*****");
+        assertThat(event.isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void bodyInOtherCharsetIsTranscodedAndRedacted() {
+        String body = "{\"name\":\"José\",\"password\":\"señor\"}";
+        ApiLogEvent event = setBody(body.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1, false,
+                LIMIT);
+        assertThat(event.getBodyCharset()).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(body(event)).isEqualTo("{\"name\":\"José\",\"password\":\"******\"}");
+    }
+
+    @Test
+    public void bodyInUtf16IsRedacted() {
+        String body = "{\"password\":\"secret\"}";
+        ApiLogEvent event = setBody(body.getBytes(StandardCharsets.UTF_16), StandardCharsets.UTF_16, false, LIMIT);
+        assertThat(body(event)).isEqualTo("{\"password\":\"******\"}");
+    }
+
+    @Test
+    public void nonJsonBodyIsKept() {
+        String body = "password=secret&name=a";
+        ApiLogEvent event = redact(body);
+        assertThat(body(event)).isEqualTo(body);
+        assertThat(event.isBodyTruncated()).isFalse();
+    }
+
+    @Test
+    public void bodyIsKeptWhenDisabled() {
+        properties.setEnabled(false);
+        String body = "{\"password\":\"secret\"}";
+        assertThat(body(redact(body))).isEqualTo(body);
+    }
+
+    @Test
+    public void onlyValidLengthOfCapturedArrayIsUsed() {
+        byte[] captured = Arrays.copyOf("{\"password\":\"a\"}".getBytes(StandardCharsets.UTF_8), 64);
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, 0, "POST", "/");
+        new ApiLogBodyRedactor(properties).setBody(event, captured, 16, StandardCharsets.UTF_8, false, LIMIT);
+        assertThat(body(event)).isEqualTo("{\"password\":\"******\"}");
+    }
+
+    private ApiLogEvent redact(String body) {
+        return redact(body, false);
+    }
+
+    private ApiLogEvent redact(String body, boolean truncated) {
+        return setBody(body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, truncated, LIMIT);
+    }
+
+    private ApiLogEvent setBody(byte[] body, Charset charset, boolean truncated, int limit) {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, 0, "POST", "/");
+        new ApiLogBodyRedactor(properties).setBody(event, body, body.length, charset, truncated, limit);
+        return event;
+    }
+
+    private static String body(ApiLogEvent event) {
+        return new String(event.getBody(), event.getBodyCharset());
+    }
+}
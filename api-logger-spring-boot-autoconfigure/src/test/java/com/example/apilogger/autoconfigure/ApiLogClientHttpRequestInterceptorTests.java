@@ -0,0 +1,154 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriTemplateHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * {@link ApiLogClientHttpRequestInterceptor} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogClientHttpRequestInterceptorTests {
+
+    private static final URI URL = URI.create("http://orders.example.com/api/orders/1?token=secret");
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    private final List<ApiLogEvent> events = new CopyOnWriteArrayList<>();
+
+    private final MockClientHttpResponse response = new MockClientHttpResponse(
+            "{\"id\":1}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+
+    private ApiLogClientHttpRequestInterceptor interceptor;
+
+    @Test
+    public void responseIsLoggedWhenReceived() throws IOException {
+        ClientHttpResponse result = intercept(new MockClientHttpRequest(HttpMethod.GET, URL), new byte[0],
+                (request, body) -> response);
+        assertThat(result).isSameAs(response);
+        assertThat(events).hasSize(1);
+        ApiLogEvent event = events.get(0);
+        assertThat(event.getType()).isEqualTo(ApiLogEvent.Type.CLIENT_RESPONSE);
+        assertThat(event.getMethod()).isEqualTo("GET");
+        assertThat(event.getHost()).isEqualTo("orders.example.com");
+        assertThat(event.getUri()).isEqualTo("/api/orders/1");
+        assertThat(event.getStatus()).isEqualTo(200);
+        assertThat(event.hasBody()).isFalse();
+    }
+
+    @Test
+    public void expandedUriTemplateIsUsedAsPath() throws IOException {
+        interceptor = new ApiLogClientHttpRequestInterceptor(new ApiLogClientRecorder(properties, events::add));
+        UriTemplateHandler handler = interceptor.createUriTemplateHandler(new DefaultUriBuilderFactory());
+        URI uri = handler.expand("http://orders.example.com/api/orders/{id}?token={token}", 1, "secret");
+        assertThat(uri).isEqualTo(URL);
+        interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, uri), new byte[0],
+                (request, body) -> response);
+        assertThat(events.get(0).getUri()).isEqualTo("/api/orders/{id}");
+    }
+
+    @Test
+    public void uriTemplateOfDifferentRequestIsIgnored() throws IOException {
+        interceptor = new ApiLogClientHttpRequestInterceptor(new ApiLogClientRecorder(properties, events::add));
+        interceptor.createUriTemplateHandler(new DefaultUriBuilderFactory())
+                .expand("http://users.example.com/api/users/{id}", 1);
+        interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, URL), new byte[0],
+                (request, body) -> response);
+        assertThat(events.get(0).getUri()).isEqualTo("/api/orders/1");
+    }
+
+    @Test
+    public void bodiesAreLoggedWhenResponseIsClosed() throws IOException {
+        properties.getClient().setIncludeRequestBody(true);
+        properties.getClient().setIncludeResponseBody(true);
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URL);
+        request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON_UTF8);
+        byte[] sent = "{\"name\":\"张三\"}".getBytes(StandardCharsets.UTF_8);
+        ClientHttpResponse result = intercept(request, sent, (req, body) -> {
+            assertThat(body).isSameAs(sent);
+            return response;
+        });
+        assertThat(StreamUtils.copyToString(result.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(events).isEmpty();
+        result.close();
+        result.close();
+        assertThat(events).extracting(ApiLogEvent::getType).containsExactly(ApiLogEvent.Type.CLIENT_REQUEST,
+                ApiLogEvent.Type.CLIENT_RESPONSE);
+        assertThat(new String(events.get(0).getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"张三\"}");
+        assertThat(new String(events.get(1).getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(events.get(1).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void responseBodyIsTruncatedToLimit() throws IOException {
+        properties.getClient().setIncludeResponseBody(true);
+        properties.getClient().setMaxBodySize(4);
+        MockClientHttpResponse text = new MockClientHttpResponse("hello world".getBytes(StandardCharsets.UTF_8),
+                HttpStatus.OK);
+        text.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        ClientHttpResponse result = intercept(new MockClientHttpRequest(HttpMethod.GET, URL), new byte[0],
+                (request, body) -> text);
+        assertThat(StreamUtils.copyToString(result.getBody(), StandardCharsets.UTF_8)).isEqualTo("hello world");
+        result.close();
+        assertThat(events.get(0).getBody()).isEqualTo("hell".getBytes(StandardCharsets.UTF_8));
+        assertThat(events.get(0).isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void binaryResponseIsNotWrapped() throws IOException {
+        properties.getClient().setIncludeResponseBody(true);
+        response.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        ClientHttpResponse result = intercept(new MockClientHttpRequest(HttpMethod.GET, URL), new byte[0],
+                (request, body) -> response);
+        assertThat(result).isSameAs(response);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    public void failedRequestIsLogged() {
+        assertThatIOException().isThrownBy(() -> intercept(new MockClientHttpRequest(HttpMethod.GET, URL),
+                new byte[0], (request, body) -> {
+                    throw new IOException("connection refused");
+                }));
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getStatus()).isEqualTo(-1);
+        assertThat(events.get(0).getException()).isEqualTo("IOException");
+        assertThat(events.get(0).getExceptionMessage()).isEqualTo("connection refused");
+    }
+
+    @Test
+    public void requestIsNotLoggedWhenClientLoggingIsDisabled() throws IOException {
+        properties.getClient().setEnabled(false);
+        ClientHttpResponse result = intercept(new MockClientHttpRequest(HttpMethod.GET, URL), new byte[0],
+                (request, body) -> response);
+        assertThat(result).isSameAs(response);
+        assertThat(events).isEmpty();
+    }
+
+    private ClientHttpResponse intercept(MockClientHttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+        if (interceptor == null) {
+            interceptor = new ApiLogClientHttpRequestInterceptor(new ApiLogClientRecorder(properties, events::add));
+        }
+        return interceptor.intercept(request, body, execution);
+    }
+}
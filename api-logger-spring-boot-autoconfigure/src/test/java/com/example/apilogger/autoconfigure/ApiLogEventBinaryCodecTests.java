@@ -0,0 +1,114 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * {@link ApiLogEventBinaryCodec} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogEventBinaryCodecTests {
+
+    @Test
+    public void decodeReturnsEncodedEvent() {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, 1700000000123L, "POST", "/users?id=1");
+        event.setStatus(201);
+        event.setExecutionTimeMillis(42);
+        event.setRemoteAddr("10.0.0.1");
+        event.setHost("api.example.com");
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        parameters.put("id", new String[] { "1", "2" });
+        parameters.put("名称", new String[] { "张三" });
+        event.setParameters(parameters);
+        event.addHeader("Content-Type", "application/json");
+        event.addHeader("X-Empty", "");
+        event.setBody("{\"name\":\"张三\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true);
+        event.setException("IllegalStateException", "失败");
+        ApiLogEvent decoded = roundTrip(event);
+        assertThat(decoded.getType()).isEqualTo(ApiLogEvent.Type.RESPONSE);
+        assertThat(decoded.getTimestamp()).isEqualTo(1700000000123L);
+        assertThat(decoded.getMethod()).isEqualTo("POST");
+        assertThat(decoded.getUri()).isEqualTo("/users?id=1");
+        assertThat(decoded.getStatus()).isEqualTo(201);
+        assertThat(decoded.getExecutionTimeMillis()).isEqualTo(42);
+        assertThat(decoded.getRemoteAddr()).isEqualTo("10.0.0.1");
+        assertThat(decoded.getHost()).isEqualTo("api.example.com");
+        assertThat(decoded.getParameterCount()).isEqualTo(2);
+        assertThat(decoded.getParameterName(0)).isEqualTo("id");
+        assertThat(decoded.getParameterValues(0)).containsExactly("1", "2");
+        assertThat(decoded.getParameterName(1)).isEqualTo("名称");
+        assertThat(decoded.getParameterValues(1)).containsExactly("张三");
+        assertThat(decoded.getHeaderCount()).isEqualTo(2);
+        assertThat(decoded.getHeaderName(0)).isEqualTo("Content-Type");
+        assertThat(decoded.getHeaderValue(0)).isEqualTo("application/json");
+        assertThat(decoded.getHeaderName(1)).isEqualTo("X-Empty");
+        assertThat(decoded.getHeaderValue(1)).isEmpty();
+        assertThat(decoded.getBody()).isEqualTo(event.getBody());
+        assertThat(decoded.getBodyCharset()).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(decoded.isBodyTruncated()).isTrue();
+        assertThat(decoded.getException()).isEqualTo("IllegalStateException");
+        assertThat(decoded.getExceptionMessage()).isEqualTo("失败");
+    }
+
+    @Test
+    public void decodeReturnsEventWithoutOptionalFields() {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.SUMMARY, 0, "GET", "/");
+        ApiLogEvent decoded = roundTrip(event);
+        assertThat(decoded.getType()).isEqualTo(ApiLogEvent.Type.SUMMARY);
+        assertThat(decoded.getStatus()).isEqualTo(-1);
+        assertThat(decoded.getExecutionTimeMillis()).isEqualTo(-1);
+        assertThat(decoded.getRemoteAddr()).isNull();
+        assertThat(decoded.getHost()).isNull();
+        assertThat(decoded.getParameterCount()).isZero();
+        assertThat(decoded.getHeaderCount()).isZero();
+        assertThat(decoded.hasBody()).isFalse();
+        assertThat(decoded.getException()).isNull();
+    }
+
+    @Test
+    public void decodeReadsVersionOneRecordWithoutHost() {
+        RecordBuffer out = new RecordBuffer();
+        out.putByte(1);
+        out.putByte(ApiLogEvent.Type.REQUEST.ordinal());
+        out.putLong(5);
+        out.putInt(-1);
+        out.putLong(-1);
+        out.putString("GET");
+        out.putString("/v1");
+        out.putString("127.0.0.1");
+        out.putInt(0);
+        out.putInt(0);
+        out.putInt(-1);
+        out.putString(null);
+        out.putString(null);
+        ApiLogEvent decoded = ApiLogEventBinaryCodec.decode(ByteBuffer.wrap(out.array(), 0, out.size()));
+        assertThat(decoded.getUri()).isEqualTo("/v1");
+        assertThat(decoded.getRemoteAddr()).isEqualTo("127.0.0.1");
+        assertThat(decoded.getHost()).isNull();
+    }
+
+    @Test
+    public void decodeWhenVersionIsUnknownThrowsException() {
+        RecordBuffer out = new RecordBuffer();
+        out.putByte(ApiLogEventBinaryCodec.VERSION + 1);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ApiLogEventBinaryCodec.decode(ByteBuffer.wrap(out.array(), 0, out.size())));
+    }
+
+    private static ApiLogEvent roundTrip(ApiLogEvent event) {
+        RecordBuffer out = new RecordBuffer();
+        ApiLogEventBinaryCodec.encode(event, out);
+        ByteBuffer in = ByteBuffer.wrap(out.array(), 0, out.size());
+        ApiLogEvent decoded = ApiLogEventBinaryCodec.decode(in);
+        assertThat(in.hasRemaining()).isFalse();
+        return decoded;
+    }
+}
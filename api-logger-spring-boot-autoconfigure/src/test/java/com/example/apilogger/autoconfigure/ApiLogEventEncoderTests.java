@@ -0,0 +1,234 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLogEventEncoder} 的测试，与原先用 {@link ObjectMapper} 序列化 {@code LinkedHashMap} 的输出对比
+ *
+ * @author 示例开发者
+ */
+public class ApiLogEventEncoderTests {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE =
+            new TypeReference<LinkedHashMap<String, Object>>() {
+            };
+
+    private static final long TIMESTAMP = 1700000000123L;
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    // Spring Boot 默认关闭 WRITE_DATES_AS_TIMESTAMPS，Date 按 StdDateFormat 输出
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ApiLogEventEncoder encoder = new ApiLogEventEncoder(properties, objectMapper.getFactory());
+
+    @Test
+    public void requestMatchesObjectMapperOutput() throws IOException {
+        ApiLogEvent event = request();
+        Map<String, Object> legacy = new LinkedHashMap<>();
+        legacy.put("type", "REQUEST");
+        legacy.put("timestamp", new Date(TIMESTAMP));
+        legacy.put("method", "POST");
+        legacy.put("uri", "/api/orders");
+        legacy.put("remoteAddr", "10.0.0.1");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("page", "1");
+        parameters.put("tag", Arrays.asList("a", "b\"c"));
+        legacy.put("parameters", parameters);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("X-Trace", "abc");
+        legacy.put("headers", headers);
+        legacy.put("body", "{\"name\":\"张三\",\"note\":\"line\\nbreak\"}");
+        assertSameJson(encoder.encodeJson(event), legacy);
+    }
+
+    @Test
+    public void responseMatchesObjectMapperOutput() throws IOException {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, TIMESTAMP, "GET", "/api/orders/1");
+        event.setStatus(500);
+        event.setExecutionTimeMillis(1234);
+        event.addHeader("Content-Type", "text/plain");
+        event.setBody("服务器错误".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, false);
+        event.setException(new IllegalStateException("boom"));
+        Map<String, Object> legacy = new LinkedHashMap<>();
+        legacy.put("type", "RESPONSE");
+        legacy.put("timestamp", new Date(TIMESTAMP));
+        legacy.put("method", "GET");
+        legacy.put("uri", "/api/orders/1");
+        legacy.put("status", 500);
+        legacy.put("executionTime", "1234ms");
+        legacy.put("headers", Map.of("Content-Type", "text/plain"));
+        legacy.put("body", "服务器错误");
+        legacy.put("exception", "IllegalStateException");
+        legacy.put("exceptionMessage", "boom");
+        assertSameJson(encoder.encodeJson(event), legacy);
+    }
+
+    @Test
+    public void epochMillisTimestampMatchesObjectMapperDefault() throws IOException {
+        properties.setTimestampFormat(ApiLoggerProperties.TimestampFormat.EPOCH_MILLIS);
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, TIMESTAMP, "GET", "/");
+        event.setStatus(200);
+        Map<String, Object> legacy = new LinkedHashMap<>();
+        legacy.put("type", "RESPONSE");
+        legacy.put("timestamp", new Date(TIMESTAMP));
+        legacy.put("method", "GET");
+        legacy.put("uri", "/");
+        legacy.put("status", 200);
+        Map<String, Object> expected = new ObjectMapper().readValue(new ObjectMapper().writeValueAsString(legacy),
+                MAP_TYPE);
+        Map<String, Object> actual = objectMapper.readValue(encoder.encodeJson(event), MAP_TYPE);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void cachedTimestampIsUpdatedWhenSecondChanges() throws IOException {
+        long[] timestamps = { TIMESTAMP, TIMESTAMP + 1, TIMESTAMP + 877, TIMESTAMP + 878, TIMESTAMP - 1000,
+                946684799999L, 946684800000L, 951782400000L, 0L, -1L, TIMESTAMP };
+        for (long timestamp : timestamps) {
+            ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, timestamp, "GET", "/");
+            String expected = objectMapper.writeValueAsString(new Date(timestamp));
+            assertThat(objectMapper.readTree(encoder.encodeJson(event)).get("timestamp").toString())
+                    .as("timestamp %d", timestamp).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void truncatedUtf8BodyIsCutAtCharacterBoundary() throws IOException {
+        byte[] full = "{\"name\":\"张三\"}".getBytes(StandardCharsets.UTF_8);
+        // 截断在“三”的第二个字节之后
+        byte[] truncated = Arrays.copyOf(full, 14);
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, TIMESTAMP, "GET", "/");
+        event.setBody(truncated, StandardCharsets.UTF_8, true);
+        assertThat(objectMapper.readTree(encoder.encodeJson(event)).get("body").asText())
+                .isEqualTo("{\"name\":\"张" + ApiLogEventEncoder.TRUNCATED_SUFFIX);
+    }
+
+    @Test
+    public void nonUtf8BodyIsDecodedWithItsCharset() throws IOException {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, TIMESTAMP, "GET", "/");
+        event.setBody("café".getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1, false);
+        assertThat(objectMapper.readTree(encoder.encodeJson(event)).get("body").asText()).isEqualTo("café");
+    }
+
+    @Test
+    public void excludedHeadersAreMatchedIgnoringCase() throws IOException {
+        properties.setExcludeHeaders(new ArrayList<>(Arrays.asList("Authorization", "x-api-key")));
+        ApiLoggerSettings settings = new ApiLoggerSettingsHolder(properties).getSettings();
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, TIMESTAMP, "GET", "/");
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("authorization", "Bearer secret");
+        headers.put("X-API-KEY", "secret");
+        headers.put("X-Trace", "abc");
+        headers.forEach((name, value) -> {
+            if (!settings.isHeaderExcluded(name)) {
+                event.addHeader(name, value);
+            }
+        });
+        Map<String, Object> encoded = objectMapper.readValue(encoder.encodeJson(event), MAP_TYPE);
+        assertThat(encoded.get("headers")).isEqualTo(Map.of("X-Trace", "abc"));
+        assertThat(encoder.encodePlainText(event)).contains("headers={X-Trace=abc}").doesNotContain("secret");
+    }
+
+    @Test
+    public void plainTextMatchesLegacyFormat() throws IOException {
+        properties.setFormat(ApiLoggerProperties.LogFormat.PLAIN_TEXT);
+        ApiLogEvent event = request();
+        Map<String, Object> legacy = new LinkedHashMap<>();
+        legacy.put("type", "REQUEST");
+        // 原先输出 Date.toString()，现在与 JSON 一样输出 ISO 时间
+        legacy.put("timestamp", objectMapper.convertValue(new Date(TIMESTAMP), String.class));
+        legacy.put("method", "POST");
+        legacy.put("uri", "/api/orders");
+        legacy.put("remoteAddr", "10.0.0.1");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("page", "1");
+        parameters.put("tag", Arrays.asList("a", "b\"c"));
+        legacy.put("parameters", parameters);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("X-Trace", "abc");
+        legacy.put("headers", headers);
+        legacy.put("body", "{\"name\":\"张三\",\"note\":\"line\\nbreak\"}");
+        assertThat(encoder.encode(event)).isEqualTo(formatPlainText(legacy));
+    }
+
+    @Test
+    public void plainTextWithEpochMillisAndException() {
+        properties.setTimestampFormat(ApiLoggerProperties.TimestampFormat.EPOCH_MILLIS);
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.CLIENT_RESPONSE, TIMESTAMP, "GET", "/users/{id}");
+        event.setHost("users.example.com:8080");
+        event.setStatus(-1);
+        event.setExecutionTimeMillis(7);
+        event.setException(new IOException("connection reset"));
+        assertThat(encoder.encodePlainText(event)).isEqualTo("API日志 - type=CLIENT_RESPONSE timestamp=" + TIMESTAMP
+                + " method=GET uri=/users/{id} host=users.example.com:8080 executionTime=7ms"
+                + " exception=IOException exceptionMessage=connection reset");
+    }
+
+    @Test
+    public void consecutiveEventsAreEncodedIndependently() throws IOException {
+        ApiLogEvent first = request();
+        ApiLogEvent second = new ApiLogEvent(ApiLogEvent.Type.RESPONSE, TIMESTAMP, "GET", "/");
+        String expected = encoder.encodeJson(second);
+        encoder.encodeJson(first);
+        assertThat(encoder.encodeJson(second)).isEqualTo(expected);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encodeJsonTo(first, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(encoder.encodeJson(first));
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        encoder.writeJson(second, streamed);
+        assertThat(streamed.toString(StandardCharsets.UTF_8)).isEqualTo(expected);
+    }
+
+    private ApiLogEvent request() {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, TIMESTAMP, "POST", "/api/orders");
+        event.setRemoteAddr("10.0.0.1");
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        parameters.put("page", new String[] { "1" });
+        parameters.put("tag", new String[] { "a", "b\"c" });
+        event.setParameters(parameters);
+        event.addHeader("Content-Type", "application/json");
+        event.addHeader("X-Trace", "abc");
+        event.setBody("{\"name\":\"张三\",\"note\":\"line\\nbreak\"}".getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, false);
+        return event;
+    }
+
+    /**
+     * 解析后与原先的输出比较，字段顺序也要一致
+     */
+    private void assertSameJson(String json, Map<String, Object> legacy) throws IOException {
+        Map<String, Object> actual = objectMapper.readValue(json, MAP_TYPE);
+        Map<String, Object> expected = objectMapper.readValue(objectMapper.writeValueAsString(legacy), MAP_TYPE);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(new ArrayList<>(actual.keySet())).isEqualTo(new ArrayList<>(expected.keySet()));
+    }
+
+    /**
+     * 原先 Slf4jApiLogWriter 的纯文本格式
+     */
+    private static String formatPlainText(Map<String, Object> logData) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("API日志 - ");
+        logData.forEach((key, value) -> sb.append(key).append("=").append(value).append(" "));
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * {@link ApiLogExchangeFilterFunction} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogExchangeFilterFunctionTests {
+
+    private static final URI URL = URI.create("http://orders.example.com:8080/api/orders/1?token=secret");
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    private final List<ApiLogEvent> events = new CopyOnWriteArrayList<>();
+
+    private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+
+    private String sentBody;
+
+    @Test
+    public void responseIsLoggedWhenHeadersAreReceived() {
+        ClientResponse response = filter(request(), respond("{\"id\":1}")).block();
+        assertThat(events).hasSize(1);
+        ApiLogEvent event = events.get(0);
+        assertThat(event.getType()).isEqualTo(ApiLogEvent.Type.CLIENT_RESPONSE);
+        assertThat(event.getMethod()).isEqualTo("GET");
+        assertThat(event.getHost()).isEqualTo("orders.example.com:8080");
+        assertThat(event.getUri()).isEqualTo("/api/orders/1");
+        assertThat(event.getStatus()).isEqualTo(200);
+        assertThat(event.hasBody()).isFalse();
+        assertThat(response.bodyToMono(String.class).block()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    public void uriTemplateAttributeIsUsedAsPath() {
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URL)
+                .attribute(WebClient.class.getName() + ".uriTemplate",
+                        "http://orders.example.com:8080/api/orders/{id}?token={token}")
+                .build();
+        filter(request, respond("{}")).block();
+        assertThat(events.get(0).getUri()).isEqualTo("/api/orders/{id}");
+    }
+
+    @Test
+    public void bodiesAreLoggedAfterResponseBodyIsRead() {
+        properties.getClient().setIncludeRequestBody(true);
+        properties.getClient().setIncludeResponseBody(true);
+        ClientRequest request = ClientRequest.create(HttpMethod.POST, URL)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(BodyInserters.fromObject("{\"name\":\"张三\"}"))
+                .build();
+        ClientResponse response = filter(request, respond("{\"id\":1}")).block();
+        assertThat(sentBody).isEqualTo("{\"name\":\"张三\"}");
+        assertThat(events).isEmpty();
+        assertThat(response.bodyToMono(String.class).block()).isEqualTo("{\"id\":1}");
+        assertThat(events).extracting(ApiLogEvent::getType).containsExactly(ApiLogEvent.Type.CLIENT_REQUEST,
+                ApiLogEvent.Type.CLIENT_RESPONSE);
+        assertThat(new String(events.get(0).getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"张三\"}");
+        assertThat(new String(events.get(1).getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    public void unreadResponseBodyIsLoggedWhenResponseIsCollected() throws InterruptedException {
+        properties.getClient().setIncludeResponseBody(true);
+        HttpStatus status = filter(request(), respond("{\"id\":1}")).map(ClientResponse::statusCode).block();
+        assertThat(status).isEqualTo(HttpStatus.OK);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (events.isEmpty() && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getStatus()).isEqualTo(200);
+        assertThat(events.get(0).hasBody()).isFalse();
+    }
+
+    @Test
+    public void responseBodyReadInsideFlatMapIsLogged() {
+        properties.getClient().setIncludeResponseBody(true);
+        String body = filter(request(), respond("{\"id\":1}"))
+                .flatMap(response -> response.bodyToMono(String.class)).block();
+        assertThat(body).isEqualTo("{\"id\":1}");
+        assertThat(events).hasSize(1);
+        assertThat(new String(events.get(0).getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    public void cancelledBeforeResponseIsLoggedAsFailure() {
+        properties.getClient().setIncludeRequestBody(true);
+        ClientRequest request = ClientRequest.create(HttpMethod.POST, URL)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                .body(BodyInserters.fromObject("hello"))
+                .build();
+        ExchangeFunction next = (clientRequest) -> write(clientRequest).then(Mono.never());
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(() -> filter(request, next).timeout(Duration.ofMillis(50)).block())
+                .withCauseInstanceOf(TimeoutException.class);
+        assertThat(events).extracting(ApiLogEvent::getType).containsExactly(ApiLogEvent.Type.CLIENT_REQUEST,
+                ApiLogEvent.Type.CLIENT_RESPONSE);
+        assertThat(events.get(1).getStatus()).isEqualTo(-1);
+        assertThat(events.get(1).getException()).isEqualTo("CancellationException");
+        assertThat(new String(events.get(0).getBody(), StandardCharsets.UTF_8)).isEqualTo("hello");
+    }
+
+    @Test
+    public void failedExchangeIsLogged() {
+        ExchangeFunction next = (clientRequest) -> Mono.error(new IllegalStateException("connection refused"));
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> filter(request(), next).block());
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getStatus()).isEqualTo(-1);
+        assertThat(events.get(0).getException()).isEqualTo("IllegalStateException");
+        assertThat(events.get(0).getExceptionMessage()).isEqualTo("connection refused");
+    }
+
+    @Test
+    public void responseIsLoggedOnlyOnce() {
+        properties.getClient().setIncludeResponseBody(true);
+        ClientResponse response = filter(request(), respond("{\"id\":1}")).block();
+        response.bodyToMono(String.class).block();
+        response.bodyToMono(String.class).block();
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    public void exchangeIsNotWrappedWhenClientLoggingIsDisabled() {
+        properties.getClient().setEnabled(false);
+        ClientRequest request = request();
+        ClientResponse response = ClientResponse.create(HttpStatus.OK).build();
+        assertThat(filter(request, (clientRequest) -> {
+            assertThat(clientRequest).isSameAs(request);
+            return Mono.just(response);
+        }).block()).isSameAs(response);
+        assertThat(events).isEmpty();
+    }
+
+    private Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return new ApiLogExchangeFilterFunction(new ApiLogClientRecorder(properties, events::add))
+                .filter(request, next);
+    }
+
+    private ClientRequest request() {
+        return ClientRequest.create(HttpMethod.GET, URL).build();
+    }
+
+    private ExchangeFunction respond(String body) {
+        return (request) -> write(request).then(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build()));
+    }
+
+    private Mono<Void> write(ClientRequest request) {
+        MockClientHttpRequest outputMessage = new MockClientHttpRequest(request.method(), request.url());
+        return request.body().insert(outputMessage, new BodyInserter.Context() {
+
+            @Override
+            public List<HttpMessageWriter<?>> messageWriters() {
+                return strategies.messageWriters();
+            }
+
+            @Override
+            public Optional<ServerHttpRequest> serverRequest() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Map<String, Object> hints() {
+                return Collections.emptyMap();
+            }
+        }).then(Mono.defer(() -> outputMessage.getBodyAsString().doOnNext((body) -> sentBody = body)))
+                .then();
+    }
+}
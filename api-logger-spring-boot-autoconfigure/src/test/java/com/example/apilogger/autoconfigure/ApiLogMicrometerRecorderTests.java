@@ -0,0 +1,67 @@
+package com.example.apilogger.autoconfigure;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLogMicrometerRecorder} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogMicrometerRecorderTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ApiLogMicrometerRecorder recorder = new ApiLogMicrometerRecorder(registry);
+
+    @Test
+    public void requestsAreRecordedPerRouteAndOutcome() {
+        recorder.record("GET /api/users/{id}", 200, false, TimeUnit.MILLISECONDS.toNanos(10));
+        recorder.record("GET /api/users/{id}", 404, false, TimeUnit.MILLISECONDS.toNanos(20));
+        recorder.record("GET /api/users/{id}", 500, false, TimeUnit.MILLISECONDS.toNanos(30));
+        recorder.record("GET /api/users/{id}", 200, true, TimeUnit.MILLISECONDS.toNanos(40));
+        recorder.record("POST /api/users", 201, false, TimeUnit.MILLISECONDS.toNanos(50));
+        Timer success = timer(ApiLogMicrometerRecorder.METRIC_NAME, "route", "GET /api/users/{id}", "SUCCESS");
+        Timer error = timer(ApiLogMicrometerRecorder.METRIC_NAME, "route", "GET /api/users/{id}", "ERROR");
+        assertThat(success.count()).isEqualTo(2);
+        assertThat(success.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(30.0);
+        assertThat(error.count()).isEqualTo(2);
+        assertThat(error.max(TimeUnit.MILLISECONDS)).isEqualTo(40.0);
+        assertThat(timer(ApiLogMicrometerRecorder.METRIC_NAME, "route", "POST /api/users", "SUCCESS").count())
+                .isEqualTo(1);
+        assertThat(registry.find(ApiLogMicrometerRecorder.METRIC_NAME).timers()).hasSize(4);
+    }
+
+    @Test
+    public void timersPublishMedianAnd99thPercentile() {
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("GET /a", 200, false, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        ValueAtPercentile[] percentiles = timer(ApiLogMicrometerRecorder.METRIC_NAME, "route", "GET /a", "SUCCESS")
+                .takeSnapshot().percentileValues();
+        assertThat(percentiles).extracting(ValueAtPercentile::percentile).containsExactly(0.5, 0.99);
+        assertThat(percentiles[0].value(TimeUnit.MILLISECONDS)).isBetween(45.0, 55.0);
+        assertThat(percentiles[1].value(TimeUnit.MILLISECONDS)).isBetween(95.0, 105.0);
+    }
+
+    @Test
+    public void clientCallsAreRecordedPerHost() {
+        recorder.recordClient("orders.example.com", 200, false, TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.recordClient("orders.example.com", -1, true, TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(timer(ApiLogMicrometerRecorder.CLIENT_METRIC_NAME, "host", "orders.example.com", "SUCCESS")
+                .count()).isEqualTo(1);
+        assertThat(timer(ApiLogMicrometerRecorder.CLIENT_METRIC_NAME, "host", "orders.example.com", "ERROR")
+                .count()).isEqualTo(1);
+        assertThat(registry.find(ApiLogMicrometerRecorder.METRIC_NAME).timers()).isEmpty();
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue, String outcome) {
+        return registry.get(name).tag(tagKey, tagValue).tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLogRingBuffer} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogRingBufferTests {
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new ApiLogRingBuffer<String>(0).capacity()).isEqualTo(2);
+        assertThat(new ApiLogRingBuffer<String>(2).capacity()).isEqualTo(2);
+        assertThat(new ApiLogRingBuffer<String>(3).capacity()).isEqualTo(4);
+        assertThat(new ApiLogRingBuffer<String>(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    public void pollReturnsElementsInOfferOrder() {
+        ApiLogRingBuffer<String> buffer = new ApiLogRingBuffer<>(4);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.offer("a")).isTrue();
+        assertThat(buffer.offer("b")).isTrue();
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo("a");
+        assertThat(buffer.poll()).isEqualTo("b");
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void offerWhenFullReturnsFalse() {
+        ApiLogRingBuffer<String> buffer = new ApiLogRingBuffer<>(2);
+        assertThat(buffer.offer("a")).isTrue();
+        assertThat(buffer.offer("b")).isTrue();
+        assertThat(buffer.offer("c")).isFalse();
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo("a");
+        assertThat(buffer.offer("c")).isTrue();
+    }
+
+    @Test
+    public void offerAndPollWrapAround() {
+        ApiLogRingBuffer<Integer> buffer = new ApiLogRingBuffer<>(4);
+        for (int i = 0; i < 100; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            assertThat(buffer.offer(-i)).isTrue();
+            assertThat(buffer.poll()).isEqualTo(i);
+            assertThat(buffer.poll()).isEqualTo(-i);
+        }
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void drainToTakesAtMostMaxElements() {
+        ApiLogRingBuffer<Integer> buffer = new ApiLogRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> target = new ArrayList<>();
+        assertThat(buffer.drainTo(target, 3)).isEqualTo(3);
+        assertThat(target).containsExactly(0, 1, 2);
+        assertThat(buffer.drainTo(target, 10)).isEqualTo(2);
+        assertThat(target).containsExactly(0, 1, 2, 3, 4);
+        assertThat(buffer.drainTo(target, 10)).isEqualTo(0);
+    }
+
+    @Test
+    public void concurrentProducersAndConsumersSeeEveryElementOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 20000;
+        ApiLogRingBuffer<Integer> buffer = new ApiLogRingBuffer<>(64);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch produced = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    produced.countDown();
+                });
+            }
+            for (int c = 0; c < 2; c++) {
+                executor.execute(() -> {
+                    while (consumed.get() < producers * perProducer) {
+                        Integer element = buffer.poll();
+                        if (element == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        if (!seen.add(element)) {
+                            duplicates.incrementAndGet();
+                        }
+                        consumed.incrementAndGet();
+                    }
+                });
+            }
+            assertThat(produced.await(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(duplicates.get()).isZero();
+        assertThat(seen).hasSize(producers * perProducer);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLogSampler} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogSamplerTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ApiLogSampler sampler = new ApiLogSampler();
+
+    private final ApiLoggerProperties.Sampling properties = new ApiLoggerProperties.Sampling();
+
+    @Test
+    public void rateLimiterAllowsBurstOfPermitsPerSecond() {
+        ApiLogSampler.RouteRateLimiter limiter = new ApiLogSampler.RouteRateLimiter(5);
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(now)).as("permit " + i).isTrue();
+        }
+        assertThat(limiter.tryAcquire(now)).isFalse();
+        assertThat(limiter.tryAcquire(now + SECOND / 10)).isFalse();
+    }
+
+    @Test
+    public void rateLimiterReleasesOnePermitPerInterval() {
+        ApiLogSampler.RouteRateLimiter limiter = new ApiLogSampler.RouteRateLimiter(5);
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(now);
+        }
+        long interval = SECOND / 5;
+        assertThat(limiter.tryAcquire(now + interval - 1)).isFalse();
+        assertThat(limiter.tryAcquire(now + interval)).isTrue();
+        assertThat(limiter.tryAcquire(now + interval)).isFalse();
+    }
+
+    @Test
+    public void rateLimiterRefillsOnlyUpToBurstAfterIdlePeriod() {
+        ApiLogSampler.RouteRateLimiter limiter = new ApiLogSampler.RouteRateLimiter(2);
+        long now = 1000 * SECOND;
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        long later = now + 60 * SECOND;
+        assertThat(limiter.tryAcquire(later)).isTrue();
+        assertThat(limiter.tryAcquire(later)).isTrue();
+        assertThat(limiter.tryAcquire(later)).isFalse();
+    }
+
+    @Test
+    public void rateLimiterSustainsConfiguredRate() {
+        ApiLogSampler.RouteRateLimiter limiter = new ApiLogSampler.RouteRateLimiter(10);
+        long start = 1000 * SECOND;
+        int acquired = 0;
+        // 10 秒内每毫秒请求一次，最多放行初始突发加每秒 10 个
+        for (long now = start; now < start + 10 * SECOND; now += TimeUnit.MILLISECONDS.toNanos(1)) {
+            if (limiter.tryAcquire(now)) {
+                acquired++;
+            }
+        }
+        assertThat(acquired).isBetween(100, 110);
+    }
+
+    @Test
+    public void sampleRateWithFullOrZeroRate() {
+        properties.setRate(1.0);
+        assertThat(sampler.sampleRate(sampling())).isTrue();
+        properties.setRate(0);
+        assertThat(sampler.sampleRate(sampling())).isFalse();
+    }
+
+    @Test
+    public void sampleHeadWhenRateSampledAndNotLimitedLogs() {
+        assertThat(sampler.sampleHead(sampling(), true, "GET /users")).isTrue();
+        assertThat(sampler.sampleHead(sampling(), false, "GET /users")).isFalse();
+        assertThat(sampler.getSampledCount()).isEqualTo(1);
+        assertThat(sampler.getDroppedCount()).isEqualTo(1);
+        assertThat(sampler.getRateLimitedCount()).isZero();
+    }
+
+    @Test
+    public void sampleHeadLimitsEachRouteSeparately() {
+        properties.setRateLimit(2);
+        ApiLoggerSettings.Sampling sampling = sampling();
+        assertThat(sampler.sampleHead(sampling, true, "GET /users")).isTrue();
+        assertThat(sampler.sampleHead(sampling, true, "GET /users")).isTrue();
+        assertThat(sampler.sampleHead(sampling, true, "GET /users")).isFalse();
+        assertThat(sampler.sampleHead(sampling, true, "GET /orders")).isTrue();
+        assertThat(sampler.getSampledCount()).isEqualTo(3);
+        assertThat(sampler.getDroppedCount()).isEqualTo(1);
+        assertThat(sampler.getRateLimitedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sampleHeadWhenRateLimitChangesUsesNewLimit() {
+        properties.setRateLimit(1);
+        assertThat(sampler.sampleHead(sampling(), true, "GET /users")).isTrue();
+        assertThat(sampler.sampleHead(sampling(), true, "GET /users")).isFalse();
+        properties.setRateLimit(3);
+        assertThat(sampler.sampleHead(sampling(), true, "GET /users")).isTrue();
+    }
+
+    @Test
+    public void sampleTailWhenFailedOrErrorStatusLogsFull() {
+        properties.setRate(0);
+        ApiLoggerSettings.Sampling sampling = sampling();
+        assertThat(sampler.sampleTail(sampling, "GET /users", 200, true, 0)).isEqualTo(ApiLogSampler.Decision.FULL);
+        assertThat(sampler.sampleTail(sampling, "GET /users", 500, false, 0)).isEqualTo(ApiLogSampler.Decision.FULL);
+        assertThat(sampler.sampleTail(sampling, "GET /users", 404, false, 0))
+                .isEqualTo(ApiLogSampler.Decision.SUMMARY);
+        assertThat(sampler.getErrorCount()).isEqualTo(2);
+        assertThat(sampler.getSummarizedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sampleTailUsesConfiguredErrorStatus() {
+        properties.setRate(0);
+        properties.setErrorStatus(400);
+        assertThat(sampler.sampleTail(sampling(), "GET /users", 404, false, 0))
+                .isEqualTo(ApiLogSampler.Decision.FULL);
+    }
+
+    @Test
+    public void sampleTailWhenSlowLogsFull() {
+        properties.setRate(0);
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        ApiLoggerSettings.Sampling sampling = sampling();
+        long threshold = TimeUnit.MILLISECONDS.toNanos(100);
+        assertThat(sampler.sampleTail(sampling, "GET /users", 200, false, threshold))
+                .isEqualTo(ApiLogSampler.Decision.FULL);
+        assertThat(sampler.sampleTail(sampling, "GET /users", 200, false, threshold - 1))
+                .isEqualTo(ApiLogSampler.Decision.SUMMARY);
+        assertThat(sampler.getSlowCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sampleTailWithoutSlowThresholdIgnoresLatency() {
+        properties.setRate(0);
+        properties.setSlowThreshold(null);
+        assertThat(sampler.sampleTail(sampling(), "GET /users", 200, false, Long.MAX_VALUE))
+                .isEqualTo(ApiLogSampler.Decision.SUMMARY);
+        assertThat(sampler.getSlowCount()).isZero();
+    }
+
+    @Test
+    public void sampleTailWhenRateSampledLogsFullUntilRateLimited() {
+        properties.setRateLimit(1);
+        ApiLoggerSettings.Sampling sampling = sampling();
+        assertThat(sampler.sampleTail(sampling, "GET /users", 200, false, 0)).isEqualTo(ApiLogSampler.Decision.FULL);
+        assertThat(sampler.sampleTail(sampling, "GET /users", 200, false, 0))
+                .isEqualTo(ApiLogSampler.Decision.SUMMARY);
+        // 错误请求不受限流影响
+        assertThat(sampler.sampleTail(sampling, "GET /users", 503, false, 0)).isEqualTo(ApiLogSampler.Decision.FULL);
+        assertThat(sampler.getSampledCount()).isEqualTo(1);
+        assertThat(sampler.getSummarizedCount()).isEqualTo(1);
+        assertThat(sampler.getRateLimitedCount()).isEqualTo(1);
+        assertThat(sampler.getErrorCount()).isEqualTo(1);
+    }
+
+    private ApiLoggerSettings.Sampling sampling() {
+        properties.setEnabled(true);
+        return new ApiLoggerSettings.Sampling(properties);
+    }
+}
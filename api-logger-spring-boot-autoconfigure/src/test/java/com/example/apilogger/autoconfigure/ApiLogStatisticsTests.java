@@ -0,0 +1,98 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * {@link ApiLogStatistics} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLogStatisticsTests {
+
+    private final ApiLogStatistics statistics = new ApiLogStatistics();
+
+    @Test
+    public void requestsAreCountedPerRoute() {
+        statistics.record("GET /api/users/{id}", 200, false, millis(10));
+        statistics.record("GET /api/users/{id}", 404, false, millis(20));
+        statistics.record("POST /api/users", 201, false, millis(30));
+        Map<String, ApiLogStatistics.RouteSnapshot> snapshot = statistics.snapshot();
+        assertThat(snapshot).containsOnlyKeys("GET /api/users/{id}", "POST /api/users");
+        assertThat(snapshot.get("GET /api/users/{id}").getCount()).isEqualTo(2);
+        assertThat(snapshot.get("POST /api/users").getCount()).isEqualTo(1);
+        assertThat(statistics.clientSnapshot()).isEmpty();
+    }
+
+    @Test
+    public void serverErrorsAndFailuresAreCountedAsErrors() {
+        statistics.record("GET /a", 200, false, millis(1));
+        statistics.record("GET /a", 404, false, millis(1));
+        statistics.record("GET /a", 500, false, millis(1));
+        statistics.record("GET /a", 503, false, millis(1));
+        statistics.record("GET /a", 200, true, millis(1));
+        ApiLogStatistics.RouteSnapshot route = statistics.snapshot().get("GET /a");
+        assertThat(route.getCount()).isEqualTo(5);
+        assertThat(route.getErrorCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void snapshotReportsMeanMaxAndPercentilesInMillis() {
+        for (int i = 1; i <= 100; i++) {
+            statistics.record("GET /a", 200, false, millis(i));
+        }
+        ApiLogStatistics.RouteSnapshot route = statistics.snapshot().get("GET /a");
+        assertThat(route.getMean()).isCloseTo(50.5, within(0.01));
+        assertThat(route.getMax()).isCloseTo(100.0, within(100 / 16.0));
+        // 直方图每个桶的相对误差不超过 1/16
+        assertThat(route.getP50()).isCloseTo(50.0, within(50 / 16.0));
+        assertThat(route.getP90()).isCloseTo(90.0, within(90 / 16.0));
+        assertThat(route.getP99()).isCloseTo(99.0, within(99 / 16.0));
+    }
+
+    @Test
+    public void emptySnapshotHasZeroMean() {
+        assertThat(statistics.snapshot()).isEmpty();
+        statistics.record("GET /a", 200, false, 0);
+        assertThat(statistics.snapshot().get("GET /a").getMean()).isZero();
+    }
+
+    @Test
+    public void clientCallsAreCountedPerHost() {
+        statistics.recordClient("orders.example.com", 200, false, millis(5));
+        statistics.recordClient("orders.example.com", -1, true, millis(5));
+        statistics.recordClient("users.example.com:8080", 502, false, millis(5));
+        Map<String, ApiLogStatistics.RouteSnapshot> clients = statistics.clientSnapshot();
+        assertThat(clients).containsOnlyKeys("orders.example.com", "users.example.com:8080");
+        assertThat(clients.get("orders.example.com").getCount()).isEqualTo(2);
+        assertThat(clients.get("orders.example.com").getErrorCount()).isEqualTo(1);
+        assertThat(clients.get("users.example.com:8080").getErrorCount()).isEqualTo(1);
+        assertThat(statistics.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void snapshotIsSortedByRoute() {
+        statistics.record("POST /b", 200, false, 0);
+        statistics.record("GET /c", 200, false, 0);
+        statistics.record("GET /a", 200, false, 0);
+        assertThat(statistics.snapshot().keySet()).containsExactly("GET /a", "GET /c", "POST /b");
+    }
+
+    @Test
+    public void resetClearsRoutesAndClients() {
+        statistics.record("GET /a", 200, false, 0);
+        statistics.recordClient("orders.example.com", 200, false, 0);
+        statistics.reset();
+        assertThat(statistics.snapshot()).isEmpty();
+        assertThat(statistics.clientSnapshot()).isEmpty();
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+import org.springframework.boot.web.reactive.context.AnnotationConfigReactiveWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLoggerAutoConfiguration} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerAutoConfigurationTests {
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    @Test
+    public void blockOverflowPolicyIsReplacedWithDropInReactiveApplication() {
+        properties.getAsync().setOverflowPolicy(ApiLoggerProperties.OverflowPolicy.BLOCK);
+        try (AnnotationConfigReactiveWebApplicationContext context = new AnnotationConfigReactiveWebApplicationContext()) {
+            createAsyncApiLogWriter(context);
+        }
+        assertThat(properties.getAsync().getOverflowPolicy()).isEqualTo(ApiLoggerProperties.OverflowPolicy.DROP);
+    }
+
+    @Test
+    public void blockOverflowPolicyIsKeptInServletApplication() {
+        properties.getAsync().setOverflowPolicy(ApiLoggerProperties.OverflowPolicy.BLOCK);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            createAsyncApiLogWriter(context);
+        }
+        assertThat(properties.getAsync().getOverflowPolicy()).isEqualTo(ApiLoggerProperties.OverflowPolicy.BLOCK);
+    }
+
+    private void createAsyncApiLogWriter(ConfigurableApplicationContext context) {
+        context.refresh();
+        // 没有作为 bean 初始化，不会启动后台写入线程
+        new ApiLoggerAutoConfiguration().asyncApiLogWriter(properties, context.getBeanProvider(ApiLogSink.class),
+                context);
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLoggerBodyCaptureFilter} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerBodyCaptureFilterTests {
+
+    private static final String BODY = "{\"name\":\"张三\",\"items\":[1,2,3],\"note\":\"" + "x".repeat(200) + "\"}";
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private byte[] received;
+
+    private String capturedRequest;
+
+    private boolean requestTruncated;
+
+    private boolean responseTruncated;
+
+    private CaptureBuffer requestBuffer;
+
+    private CaptureBuffer responseBuffer;
+
+    @Test
+    public void requestBodyIsCopiedWhileControllerReadsIt() throws Exception {
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> {
+            received = readInMixedChunks(req.getInputStream());
+            capture(req);
+        });
+        assertThat(new String(received, StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(capturedRequest).isEqualTo(BODY);
+        assertThat(requestTruncated).isFalse();
+    }
+
+    @Test
+    public void requestBodyReadThroughReaderIsCopied() throws Exception {
+        request.setContentType("application/json");
+        request.setCharacterEncoding("UTF-8");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> {
+            received = FileCopyUtils.copyToString(req.getReader()).getBytes(StandardCharsets.UTF_8);
+            capture(req);
+        });
+        assertThat(new String(received, StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(capturedRequest).isEqualTo(BODY);
+    }
+
+    @Test
+    public void requestBodyBeyondLimitIsPassedOnButNotCopied() throws Exception {
+        properties.setMaxRequestBodySize(16);
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> {
+            received = StreamUtils.copyToByteArray(req.getInputStream());
+            capture(req);
+        });
+        assertThat(received).isEqualTo(BODY.getBytes(StandardCharsets.UTF_8));
+        assertThat(capturedRequest).isEqualTo(new String(BODY.getBytes(StandardCharsets.UTF_8), 0, 16,
+                StandardCharsets.UTF_8));
+        assertThat(requestTruncated).isTrue();
+        assertThat(requestBuffer.getTotalBytes()).isEqualTo(BODY.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void unreadRequestBodyIsNotConsumed() throws Exception {
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> capture(req));
+        assertThat(capturedRequest).isEmpty();
+        assertThat(StreamUtils.copyToByteArray(request.getInputStream())).isEqualTo(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void multipartRequestIsPassedThroughUnwrapped() throws Exception {
+        request.setContentType("multipart/form-data; boundary=abc");
+        request.setContent("--abc--".getBytes(StandardCharsets.US_ASCII));
+        MockFilterChain chain = filter((req, res) -> {
+            received = StreamUtils.copyToByteArray(req.getInputStream());
+            capture(req);
+        });
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(received).isEqualTo("--abc--".getBytes(StandardCharsets.US_ASCII));
+        assertThat(requestBuffer).isNull();
+    }
+
+    @Test
+    public void binaryRequestIsPassedThroughUnwrapped() throws Exception {
+        request.setContentType("application/octet-stream");
+        request.setContent(new byte[] { 0, 1, 2 });
+        MockFilterChain chain = filter((req, res) -> capture(req));
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(requestBuffer).isNull();
+    }
+
+    @Test
+    public void responseBodyIsWrittenThroughAndCopiedUpToLimit() throws Exception {
+        properties.setMaxResponseBodySize(10);
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        filter((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write('{');
+            res.getOutputStream().write("\"id\":12345678}".getBytes(StandardCharsets.UTF_8));
+            capture(req);
+            captured.write(responseBuffer.toByteArray());
+        });
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":12345678}");
+        assertThat(captured.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1234");
+        assertThat(responseTruncated).isTrue();
+    }
+
+    @Test
+    public void responseWriterIsEncodedWithResponseCharset() throws Exception {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        filter((req, res) -> {
+            res.setContentType("text/plain;charset=UTF-8");
+            res.getWriter().write("你好，世界");
+            res.getWriter().flush();
+            capture(req);
+            captured.write(responseBuffer.toByteArray());
+        });
+        assertThat(response.getContentAsString()).isEqualTo("你好，世界");
+        assertThat(captured.toString(StandardCharsets.UTF_8)).isEqualTo("你好，世界");
+    }
+
+    @Test
+    public void binaryResponseIsWrittenButNotCopied() throws Exception {
+        filter((req, res) -> {
+            res.setContentType("image/png");
+            res.getOutputStream().write(new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+            capture(req);
+        });
+        assertThat(response.getContentAsByteArray()).containsExactly((byte) 0x89, 'P', 'N', 'G');
+        assertThat(responseBuffer.array()).isNull();
+        assertThat(responseBuffer.getTotalBytes()).isZero();
+    }
+
+    @Test
+    public void buffersAreReleasedAfterRequest() throws Exception {
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> {
+            StreamUtils.copyToByteArray(req.getInputStream());
+            res.setContentType("application/json");
+            res.getOutputStream().write('1');
+            capture(req);
+        });
+        assertThat(requestBuffer.array()).isNull();
+        assertThat(responseBuffer.array()).isNull();
+    }
+
+    @Test
+    public void nothingIsCapturedWhenBodiesAreExcluded() throws Exception {
+        properties.setIncludeRequestBody(false);
+        properties.setIncludeResponseBody(false);
+        request.setContentType("application/json");
+        MockFilterChain chain = filter((req, res) -> capture(req));
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(chain.getResponse()).isSameAs(response);
+    }
+
+    @Test
+    public void asyncRequestReleasesBuffersOnCompletion() throws Exception {
+        request.setAsyncSupported(true);
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> {
+            req.startAsync();
+            StreamUtils.copyToByteArray(req.getInputStream());
+            capture(req);
+        });
+        assertThat(requestBuffer.array()).isNotNull();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(requestBuffer.array()).isNull();
+    }
+
+    @Test
+    public void asyncRequestReleasesBuffersOnErrorAndTimeout() throws Exception {
+        request.setAsyncSupported(true);
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        filter((req, res) -> {
+            req.startAsync();
+            StreamUtils.copyToByteArray(req.getInputStream());
+            capture(req);
+        });
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : new ArrayList<>(asyncContext.getListeners())) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        assertThat(requestBuffer.array()).isNull();
+        requestBuffer.write('x');
+        for (AsyncListener listener : new ArrayList<>(asyncContext.getListeners())) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("broken pipe")));
+        }
+        asyncContext.complete();
+        // 超时后再次收到出错和完成事件时不会重复归还
+        assertThat(requestBuffer.array()).isNotNull();
+    }
+
+    private MockFilterChain filter(Handler handler) throws ServletException, IOException {
+        ApiLoggerBodyCaptureFilter filter = new ApiLoggerBodyCaptureFilter(new ApiLoggerSettingsHolder(properties),
+                new ApiLogSampler());
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                handler.handle(req, res);
+            }
+        });
+        filter.doFilter(request, response, chain);
+        return chain;
+    }
+
+    private void capture(HttpServletRequest req) {
+        requestBuffer = ApiLoggerBodyCaptureFilter.getCapturedRequestBody(req);
+        responseBuffer = ApiLoggerBodyCaptureFilter.getCapturedResponseBody(req);
+        responseTruncated = responseBuffer != null && responseBuffer.isTruncated();
+        if (requestBuffer != null) {
+            capturedRequest = requestBuffer.toString(StandardCharsets.UTF_8);
+            requestTruncated = requestBuffer.isTruncated();
+        }
+    }
+
+    private static byte[] readInMixedChunks(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] chunk = new byte[7];
+        while (true) {
+            int b = inputStream.read();
+            if (b == -1) {
+                break;
+            }
+            output.write(b);
+            int count = inputStream.read(chunk, 0, chunk.length);
+            if (count == -1) {
+                break;
+            }
+            output.write(chunk, 0, count);
+        }
+        return output.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+}
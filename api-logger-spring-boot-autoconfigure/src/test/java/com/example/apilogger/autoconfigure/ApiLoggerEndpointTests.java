@@ -0,0 +1,80 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * {@link ApiLoggerEndpoint} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerEndpointTests {
+
+    private final ApiLogStatistics statistics = new ApiLogStatistics();
+
+    private final ApiLogSampler sampler = new ApiLogSampler();
+
+    private AsyncApiLogWriter asyncWriter;
+
+    @After
+    public void stopWriter() throws InterruptedException {
+        if (asyncWriter != null) {
+            asyncWriter.stop();
+        }
+    }
+
+    @Test
+    public void reportExposesRouteCountsErrorsAndPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            statistics.record("GET /api/users/{id}", (i % 10 == 0) ? 500 : 200, false,
+                    TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        statistics.record("POST /api/users", 201, true, TimeUnit.MILLISECONDS.toNanos(5));
+        ApiLoggerEndpoint.ApiLoggerReport report = new ApiLoggerEndpoint(statistics, null, null).report();
+        assertThat(report.getRoutes()).containsOnlyKeys("GET /api/users/{id}", "POST /api/users");
+        ApiLogStatistics.RouteSnapshot users = report.getRoutes().get("GET /api/users/{id}");
+        assertThat(users.getCount()).isEqualTo(100);
+        assertThat(users.getErrorCount()).isEqualTo(10);
+        assertThat(users.getP50()).isCloseTo(50.0, within(50 / 16.0));
+        assertThat(users.getP99()).isCloseTo(99.0, within(99 / 16.0));
+        assertThat(report.getRoutes().get("POST /api/users").getErrorCount()).isEqualTo(1);
+        assertThat(report.getSampling()).isNull();
+        assertThat(report.getAsync()).isNull();
+    }
+
+    @Test
+    public void reportExposesClientStatistics() {
+        statistics.recordClient("orders.example.com", 200, false, TimeUnit.MILLISECONDS.toNanos(3));
+        statistics.recordClient("orders.example.com", -1, true, TimeUnit.MILLISECONDS.toNanos(3));
+        ApiLoggerEndpoint.ApiLoggerReport report = new ApiLoggerEndpoint(statistics, null, null).report();
+        assertThat(report.getClients()).containsOnlyKeys("orders.example.com");
+        assertThat(report.getClients().get("orders.example.com").getCount()).isEqualTo(2);
+        assertThat(report.getClients().get("orders.example.com").getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void reportIncludesSamplingAndAsyncCounters() {
+        asyncWriter = new AsyncApiLogWriter((event) -> {
+        }, new ApiLoggerProperties.Async());
+        ApiLoggerEndpoint.ApiLoggerReport report = new ApiLoggerEndpoint(statistics, sampler, asyncWriter).report();
+        assertThat(report.getSampling()).containsOnlyKeys("sampled", "dropped", "summarized", "rateLimited", "error",
+                "slow");
+        assertThat(report.getAsync()).containsOnlyKeys("queueSize", "queueCapacity", "written", "dropped");
+        assertThat(report.getAsync().get("queueCapacity")).isEqualTo((long) asyncWriter.getQueueCapacity());
+    }
+
+    @Test
+    public void resetClearsStatistics() {
+        statistics.record("GET /a", 200, false, 0);
+        statistics.recordClient("orders.example.com", 200, false, 0);
+        ApiLoggerEndpoint endpoint = new ApiLoggerEndpoint(statistics, null, null);
+        endpoint.reset();
+        assertThat(endpoint.report().getRoutes()).isEmpty();
+        assertThat(endpoint.report().getClients()).isEmpty();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ApiLoggerPathMatcher} 的测试，匹配结果应与 {@link AntPathMatcher} 一致
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerPathMatcherTests {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "/api/users", "/api/users/", "/api/**", "/api/users/**", "/**", "/",
+            "/api/*", "/api/*/orders", "/api/user?", "/api/{id}", "/api/{id}/orders", "/api/*.json",
+            "/api/**/orders", "/**/health", "/api/**/*.json", "api/users", "/api/users/*/**");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "/", "/api", "/api/", "/api/users", "/api/users/", "/api//users", "/api/user1", "/api/users/1",
+            "/api/users/1/orders", "/api/1/orders", "/api/a/b/orders", "/api/data.json", "/api/a/data.json",
+            "/health", "/actuator/health", "/apiusers", "/other", "api/users", "", "//api/users", "/api/users//",
+            "/api//1//orders", "/api/users/1/", "/api/a.json/orders");
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    public void patternSetMatchesLikeAntPathMatcher() {
+        List<String> mismatches = new ArrayList<>();
+        for (String pattern : PATTERNS) {
+            ApiLoggerPathMatcher.PatternSet patternSet = new ApiLoggerPathMatcher.PatternSet(
+                    Collections.singletonList(pattern));
+            for (String path : PATHS) {
+                boolean expected = antPathMatcher.match(pattern, path);
+                if (patternSet.matches(path) != expected) {
+                    mismatches.add(pattern + " " + path + " expected " + expected);
+                }
+            }
+        }
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    public void patternSetMatchesAnyOfItsPatterns() {
+        ApiLoggerPathMatcher.PatternSet patternSet = new ApiLoggerPathMatcher.PatternSet(
+                Arrays.asList("/api/users", "/admin/**", "/api/*/orders", "/**/health"));
+        for (String path : PATHS) {
+            boolean expected = antPathMatcher.match("/api/users", path) || antPathMatcher.match("/admin/**", path)
+                    || antPathMatcher.match("/api/*/orders", path) || antPathMatcher.match("/**/health", path);
+            assertThat(patternSet.matches(path)).as(path).isEqualTo(expected);
+        }
+        assertThat(patternSet.matches("/admin/settings")).isTrue();
+    }
+
+    @Test
+    public void shouldLogWhenNoIncludePatternsLogsEverythingNotExcluded() {
+        ApiLoggerPathMatcher matcher = new ApiLoggerPathMatcher(Collections.emptyList(),
+                Arrays.asList("/actuator/**", "/favicon.ico"));
+        assertThat(matcher.shouldLog("/api/users")).isTrue();
+        assertThat(matcher.shouldLog("/actuator/health")).isFalse();
+        assertThat(matcher.shouldLog("/favicon.ico")).isFalse();
+    }
+
+    @Test
+    public void shouldLogWhenPathIsIncludedAndExcludedDoesNotLog() {
+        ApiLoggerPathMatcher matcher = new ApiLoggerPathMatcher(Collections.singletonList("/api/**"),
+                Collections.singletonList("/api/internal/*"));
+        assertThat(matcher.shouldLog("/api/users")).isTrue();
+        assertThat(matcher.shouldLog("/api/internal/cache")).isFalse();
+        assertThat(matcher.shouldLog("/other")).isFalse();
+    }
+}
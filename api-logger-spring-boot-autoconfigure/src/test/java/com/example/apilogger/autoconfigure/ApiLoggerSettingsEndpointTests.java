@@ -0,0 +1,73 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * {@link ApiLoggerSettingsEndpoint} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerSettingsEndpointTests {
+
+    private final ApiLoggerSettingsHolder holder = new ApiLoggerSettingsHolder(new ApiLoggerProperties());
+
+    private final ApiLoggerSettingsEndpoint endpoint = new ApiLoggerSettingsEndpoint(holder);
+
+    @After
+    public void destroy() {
+        holder.destroy();
+    }
+
+    @Test
+    public void settingsWithoutOverrideIsEmpty() {
+        ApiLoggerSettingsEndpoint.SettingsReport report = endpoint.settings();
+        assertThat(report.getOverrides()).isEmpty();
+        assertThat(report.getPaths()).isEmpty();
+        assertThat(report.getRevertAt()).isNull();
+    }
+
+    @Test
+    public void overrideIsReportedAndApplied() {
+        ApiLoggerSettingsEndpoint.SettingsReport report = endpoint.override(
+                Collections.singletonMap("include-response-body", false), Collections.singletonList("/api/**"),
+                Duration.ofMinutes(5));
+        assertThat(report.getOverrides()).containsEntry("include-response-body", false);
+        assertThat(report.getPaths()).containsExactly("/api/**");
+        assertThat(report.getRevertAt()).isNotNull();
+        assertThat(endpoint.settings().getOverrides()).isEqualTo(report.getOverrides());
+        assertThat(holder.getSettings().forPath("/api/users").isIncludeResponseBody()).isFalse();
+        assertThat(holder.getSettings().forPath("/other").isIncludeResponseBody()).isTrue();
+    }
+
+    @Test
+    public void overrideOfStartupOnlyPropertyIsInvalidRequest() {
+        assertThatExceptionOfType(InvalidEndpointRequestException.class)
+                .isThrownBy(() -> endpoint.override(Collections.singletonMap("statistics.enabled", false), null,
+                        null))
+                .withMessageContaining("只能在启动时配置");
+        assertThat(endpoint.settings().getOverrides()).isEmpty();
+    }
+
+    @Test
+    public void overrideOfUnknownPropertyIsInvalidRequest() {
+        assertThatExceptionOfType(InvalidEndpointRequestException.class)
+                .isThrownBy(() -> endpoint.override(Collections.singletonMap("unknown", 1), null, null));
+    }
+
+    @Test
+    public void revertRemovesOverride() {
+        endpoint.override(Collections.singletonMap("include-request-body", false), null, null);
+        ApiLoggerSettingsEndpoint.SettingsReport report = endpoint.revert();
+        assertThat(report.getOverrides()).isEmpty();
+        assertThat(holder.getOverride()).isNull();
+        assertThat(holder.getSettings().isIncludeRequestBody()).isTrue();
+    }
+}
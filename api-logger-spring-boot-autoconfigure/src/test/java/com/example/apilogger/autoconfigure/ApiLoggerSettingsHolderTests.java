@@ -0,0 +1,167 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * {@link ApiLoggerSettingsHolder} 和 {@link ApiLoggerSettingsRefreshPostProcessor} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerSettingsHolderTests {
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    private final ApiLoggerSettingsHolder holder = new ApiLoggerSettingsHolder(properties);
+
+    @After
+    public void destroy() {
+        holder.destroy();
+    }
+
+    @Test
+    public void overrideReplacesSnapshotForAllPaths() {
+        ApiLoggerSettings original = holder.getSettings();
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        overrides.put("include-request-body", "false");
+        overrides.put("max-response-body-size", 64);
+        overrides.put("sampling.rate", "0.25");
+        holder.override(overrides, null, null);
+        ApiLoggerSettings settings = holder.getSettings();
+        assertThat(settings).isNotSameAs(original);
+        assertThat(settings.forPath("/any")).isSameAs(settings);
+        assertThat(settings.isIncludeRequestBody()).isFalse();
+        assertThat(settings.getMaxResponseBodySize()).isEqualTo(64);
+        assertThat(settings.getSampling().getRate()).isEqualTo(0.25);
+        assertThat(original.isIncludeRequestBody()).isTrue();
+        assertThat(properties.isIncludeRequestBody()).isTrue();
+        assertThat(holder.getOverride().getProperties()).isEqualTo(overrides);
+    }
+
+    @Test
+    public void overrideWithPathsOnlyAppliesToMatchingRequests() {
+        holder.override(Collections.singletonMap("include-request-body", false),
+                Collections.singletonList("/api/orders/**"), null);
+        ApiLoggerSettings settings = holder.getSettings();
+        assertThat(settings.forPath("/api/orders/1").isIncludeRequestBody()).isFalse();
+        assertThat(settings.forPath("/api/users/1").isIncludeRequestBody()).isTrue();
+        assertThat(settings.forPath("/api/users/1")).isSameAs(settings);
+    }
+
+    @Test
+    public void overrideReplacesPreviousOverride() {
+        holder.override(Collections.singletonMap("include-request-body", false), null, null);
+        holder.override(Collections.singletonMap("include-response-body", false), null, null);
+        assertThat(holder.getSettings().isIncludeRequestBody()).isTrue();
+        assertThat(holder.getSettings().isIncludeResponseBody()).isFalse();
+    }
+
+    @Test
+    public void revertRestoresProperties() {
+        holder.override(Collections.singletonMap("include-request-body", false), null, null);
+        assertThat(holder.revert()).isTrue();
+        assertThat(holder.getSettings().isIncludeRequestBody()).isTrue();
+        assertThat(holder.getOverride()).isNull();
+        assertThat(holder.revert()).isFalse();
+    }
+
+    @Test
+    public void overrideIsRevertedAutomatically() throws InterruptedException {
+        holder.override(Collections.singletonMap("include-request-body", false), null, Duration.ofMillis(50));
+        assertThat(holder.getOverride().getRevertAt()).isNotNull();
+        assertThat(holder.getSettings().isIncludeRequestBody()).isFalse();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (holder.getOverride() != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(holder.getOverride()).isNull();
+        assertThat(holder.getSettings().isIncludeRequestBody()).isTrue();
+    }
+
+    @Test
+    public void automaticRevertDoesNotRevertNewerOverride() throws InterruptedException {
+        holder.override(Collections.singletonMap("include-request-body", false), null, Duration.ofMillis(50));
+        holder.override(Collections.singletonMap("include-response-body", false), null, null);
+        Thread.sleep(200);
+        assertThat(holder.getOverride()).isNotNull();
+        assertThat(holder.getSettings().isIncludeResponseBody()).isFalse();
+    }
+
+    @Test
+    public void overrideOfStartupOnlyPropertyIsRejected() {
+        ApiLoggerSettings original = holder.getSettings();
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> holder.override(Collections.singletonMap("async.enabled", true), null, null))
+                .withMessageContaining("只能在启动时配置");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> holder.override(Collections.singletonMap("format", "PLAIN_TEXT"), null, null));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> holder.override(Collections.singletonMap("segment.directory", "/tmp"), null, null));
+        assertThat(holder.getSettings()).isSameAs(original);
+        assertThat(holder.getOverride()).isNull();
+    }
+
+    @Test
+    public void overrideOfUnknownOrInvalidPropertyIsRejected() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> holder.override(Collections.singletonMap("no-such-property", true), null, null));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> holder.override(Collections.singletonMap("max-request-body-size", "big"), null,
+                        null));
+        assertThatIllegalArgumentException().isThrownBy(() -> holder.override(Collections.emptyMap(), null, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> holder.override(
+                Collections.singletonMap("include-request-body", false), null, Duration.ZERO));
+        assertThat(holder.getOverride()).isNull();
+    }
+
+    @Test
+    public void refreshRecompilesPropertiesAndKeepsOverride() {
+        holder.override(Collections.singletonMap("include-request-body", false), null, null);
+        properties.getExcludePatterns().add("/actuator/**");
+        properties.setMaxResponseBodySize(32);
+        holder.refresh();
+        ApiLoggerSettings settings = holder.getSettings();
+        assertThat(settings.shouldLog("/actuator/health")).isFalse();
+        assertThat(settings.getMaxResponseBodySize()).isEqualTo(32);
+        assertThat(settings.isIncludeRequestBody()).isFalse();
+    }
+
+    @Test
+    public void rebindingPropertiesRefreshesHolder() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean("apiLoggerProperties", ApiLoggerProperties.class, () -> properties);
+            context.registerBean(ApiLoggerSettingsHolder.class, () -> holder);
+            context.registerBean(ApiLoggerSettingsRefreshPostProcessor.class);
+            context.refresh();
+            ApiLoggerSettingsHolder bean = context.getBean(ApiLoggerSettingsHolder.class);
+            assertThat(bean.getSettings().shouldLog("/internal/cache")).isTrue();
+            properties.getExcludePatterns().add("/internal/**");
+            // 与 Spring Cloud 的 ConfigurationPropertiesRebinder 一样在原对象上重新初始化
+            context.getAutowireCapableBeanFactory().initializeBean(properties, "apiLoggerProperties");
+            assertThat(bean.getSettings().shouldLog("/internal/cache")).isFalse();
+        }
+    }
+
+    @Test
+    public void rebindingOtherPropertiesDoesNotRefreshHolder() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(ApiLoggerSettingsHolder.class, () -> holder);
+            context.registerBean(ApiLoggerSettingsRefreshPostProcessor.class);
+            context.refresh();
+            ApiLoggerSettings settings = holder.getSettings();
+            context.getAutowireCapableBeanFactory().initializeBean(new ApiLoggerProperties(), "other");
+            context.getAutowireCapableBeanFactory().initializeBean(new HashMap<>(), "map");
+            assertThat(holder.getSettings()).isSameAs(settings);
+        }
+    }
+}
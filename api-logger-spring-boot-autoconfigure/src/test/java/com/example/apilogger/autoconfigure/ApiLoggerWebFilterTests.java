@@ -0,0 +1,180 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * {@link ApiLoggerWebFilter} 的测试
+ *
+ * @author 示例开发者
+ */
+public class ApiLoggerWebFilterTests {
+
+    private final ApiLoggerProperties properties = new ApiLoggerProperties();
+
+    private final List<ApiLogEvent> events = new CopyOnWriteArrayList<>();
+
+    private final List<String> records = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void requestAndResponseAreLoggedWithBodies() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .post("/api/users?page=1")
+                .header("X-Forwarded-For", "10.0.0.1")
+                .header("Authorization", "Bearer secret")
+                .header("X-Trace", "abc")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"name\":\"张三\"}"));
+        filter(exchange, (ex) -> DataBufferUtils.join(ex.getRequest().getBody())
+                .map(DataBufferUtils::release)
+                .then(writeResponse(ex, MediaType.APPLICATION_JSON, "{\"id\":1}")));
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(events).extracting(ApiLogEvent::getType).containsExactly(ApiLogEvent.Type.REQUEST,
+                ApiLogEvent.Type.RESPONSE);
+        ApiLogEvent request = events.get(0);
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getUri()).isEqualTo("/api/users");
+        assertThat(request.getRemoteAddr()).isEqualTo("10.0.0.1");
+        assertThat(request.getParameterCount()).isEqualTo(1);
+        assertThat(headerNames(request)).contains("X-Trace").doesNotContain("Authorization");
+        assertThat(new String(request.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"张三\"}");
+        ApiLogEvent response = events.get(1);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(response.getException()).isNull();
+    }
+
+    @Test
+    public void bodiesAreTruncatedToLimit() {
+        properties.setMaxRequestBodySize(4);
+        properties.setMaxResponseBodySize(5);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/echo")
+                .contentType(MediaType.TEXT_PLAIN).body("hello world"));
+        filter(exchange, (ex) -> DataBufferUtils.join(ex.getRequest().getBody())
+                .map(DataBufferUtils::release)
+                .then(writeResponse(ex, MediaType.TEXT_PLAIN, "goodbye world")));
+        assertThat(events.get(0).getBody()).isEqualTo("hell".getBytes(StandardCharsets.UTF_8));
+        assertThat(events.get(0).isBodyTruncated()).isTrue();
+        assertThat(events.get(1).getBody()).isEqualTo("goodb".getBytes(StandardCharsets.UTF_8));
+        assertThat(events.get(1).isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    public void binaryResponseIsNotCaptured() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/avatar"));
+        filter(exchange, (ex) -> writeResponse(ex, MediaType.IMAGE_PNG, "PNG"));
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("PNG");
+        assertThat(events.get(1).hasBody()).isFalse();
+    }
+
+    @Test
+    public void routeIsTakenFromBestMatchingPattern() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1"));
+        filter(exchange, (ex) -> {
+            ex.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    new PathPatternParser().parse("/api/users/{id}"));
+            return Mono.empty();
+        });
+        assertThat(records).containsExactly("GET /api/users/{id} 200 false");
+    }
+
+    @Test
+    public void failedRequestIsLoggedWithException() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        assertThatIllegalStateException().isThrownBy(
+                () -> filter(exchange, (ex) -> Mono.error(new IllegalStateException("boom"))));
+        assertThat(events.get(1).getException()).isEqualTo("IllegalStateException");
+        assertThat(events.get(1).getExceptionMessage()).isEqualTo("boom");
+        assertThat(records).containsExactly("GET " + ApiLogSampler.UNMATCHED_ROUTE + " 200 true");
+    }
+
+    @Test
+    public void cancelledRequestIsLogged() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/stream"));
+        Disposable subscription = createFilter().filter(exchange, (ex) -> Mono.never()).subscribe();
+        assertThat(events).isEmpty();
+        subscription.dispose();
+        assertThat(events).extracting(ApiLogEvent::getType).containsExactly(ApiLogEvent.Type.REQUEST,
+                ApiLogEvent.Type.RESPONSE);
+        assertThat(events.get(1).getException()).isEqualTo("CancellationException");
+        assertThat(records).hasSize(1).allMatch((record) -> record.endsWith(" true"));
+    }
+
+    @Test
+    public void excludedPathIsNotLogged() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+        ServerWebExchange[] passed = new ServerWebExchange[1];
+        filter(exchange, (ex) -> {
+            passed[0] = ex;
+            return Mono.empty();
+        });
+        assertThat(passed[0]).isSameAs(exchange);
+        assertThat(events).isEmpty();
+        assertThat(records).isEmpty();
+    }
+
+    @Test
+    public void headSamplingSkipsCaptureForUnsampledRequests() {
+        properties.getSampling().setEnabled(true);
+        properties.getSampling().setRate(0);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON).body("{}"));
+        ServerWebExchange[] passed = new ServerWebExchange[1];
+        filter(exchange, (ex) -> {
+            passed[0] = ex;
+            return Mono.empty();
+        });
+        assertThat(passed[0]).isSameAs(exchange);
+        assertThat(events).isEmpty();
+        assertThat(records).hasSize(1);
+    }
+
+    private void filter(ServerWebExchange exchange, WebFilterChain chain) {
+        createFilter().filter(exchange, chain).block();
+    }
+
+    private ApiLoggerWebFilter createFilter() {
+        return new ApiLoggerWebFilter(new ApiLoggerSettingsHolder(properties), events::add, new ApiLogSampler(),
+                List.of(this::record));
+    }
+
+    private void record(String route, int status, boolean failed, long elapsedNanos) {
+        records.add(route + " " + status + " " + failed);
+    }
+
+    private static Mono<Void> writeResponse(ServerWebExchange exchange, MediaType contentType, String body) {
+        exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+        exchange.getResponse().getHeaders().setContentType(contentType);
+        DataBuffer buffer = new DefaultDataBufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return exchange.getResponse().writeWith(Flux.just(buffer));
+    }
+
+    private static List<String> headerNames(ApiLogEvent event) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < event.getHeaderCount(); i++) {
+            names.add(event.getHeaderName(i));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link AsyncApiLogWriter} 的测试
+ *
+ * @author 示例开发者
+ */
+public class AsyncApiLogWriterTests {
+
+    private final BlockingWriter delegate = new BlockingWriter();
+
+    private AsyncApiLogWriter writer;
+
+    @After
+    public void stopWriter() throws InterruptedException {
+        delegate.unblock();
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    public void writeWhenNotStartedWritesSynchronously() {
+        writer = new AsyncApiLogWriter(delegate, properties(ApiLoggerProperties.OverflowPolicy.DROP, 4));
+        ApiLogEvent event = event(0);
+        writer.write(event);
+        assertThat(delegate.written).containsExactly(event);
+        assertThat(writer.getWrittenCount()).isZero();
+    }
+
+    @Test
+    public void writeWhenStartedWritesOnWriterThread() throws InterruptedException {
+        writer = new AsyncApiLogWriter(delegate, properties(ApiLoggerProperties.OverflowPolicy.DROP, 16));
+        writer.start();
+        for (int i = 0; i < 10; i++) {
+            writer.write(event(i));
+        }
+        writer.stop();
+        assertThat(delegate.written).hasSize(10);
+        assertThat(delegate.threadNames).allMatch((name) -> name.startsWith("api-logger-writer-"));
+        assertThat(writer.getWrittenCount()).isEqualTo(10);
+        assertThat(writer.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void dropPolicyDropsEventsWhenBufferIsFull() throws InterruptedException {
+        writer = startBlocked(ApiLoggerProperties.OverflowPolicy.DROP, 2);
+        writer.write(event(1));
+        writer.write(event(2));
+        writer.write(event(3));
+        writer.write(event(4));
+        assertThat(writer.getQueueSize()).isEqualTo(2);
+        assertThat(writer.getDroppedCount()).isEqualTo(2);
+        delegate.unblock();
+        writer.stop();
+        assertThat(delegate.written).extracting(ApiLogEvent::getUri).containsExactly("/0", "/1", "/2");
+        assertThat(writer.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void blockPolicyWaitsForSpaceInBuffer() throws InterruptedException {
+        writer = startBlocked(ApiLoggerProperties.OverflowPolicy.BLOCK, 2);
+        writer.write(event(1));
+        writer.write(event(2));
+        Thread producer = new Thread(() -> writer.write(event(3)));
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+        delegate.unblock();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(producer.isAlive()).isFalse();
+        writer.stop();
+        assertThat(delegate.written).extracting(ApiLogEvent::getUri).containsExactly("/0", "/1", "/2", "/3");
+        assertThat(writer.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void samplePolicyDropsEventsAboveThreshold() throws InterruptedException {
+        ApiLoggerProperties.Async properties = properties(ApiLoggerProperties.OverflowPolicy.SAMPLE, 4);
+        // 取样间隔足够大时超过阈值的日志几乎都会被丢弃
+        properties.setSampleInterval(Integer.MAX_VALUE);
+        writer = startBlocked(properties);
+        for (int i = 1; i <= 3; i++) {
+            writer.write(event(i));
+        }
+        assertThat(writer.getQueueSize()).isEqualTo(3);
+        assertThat(writer.getDroppedCount()).isZero();
+        writer.write(event(4));
+        writer.write(event(5));
+        assertThat(writer.getQueueSize()).isEqualTo(3);
+        assertThat(writer.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void samplePolicyKeepsEveryEventWithIntervalOfOne() throws InterruptedException {
+        ApiLoggerProperties.Async properties = properties(ApiLoggerProperties.OverflowPolicy.SAMPLE, 4);
+        properties.setSampleInterval(1);
+        writer = startBlocked(properties);
+        for (int i = 1; i <= 5; i++) {
+            writer.write(event(i));
+        }
+        assertThat(writer.getQueueSize()).isEqualTo(4);
+        assertThat(writer.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void stopDrainsBufferedEvents() throws InterruptedException {
+        writer = startBlocked(ApiLoggerProperties.OverflowPolicy.DROP, 64);
+        for (int i = 1; i <= 50; i++) {
+            writer.write(event(i));
+        }
+        delegate.unblock();
+        writer.stop();
+        assertThat(writer.isRunning()).isFalse();
+        assertThat(delegate.written).hasSize(51);
+        assertThat(writer.getQueueSize()).isZero();
+        assertThat(writer.getWrittenCount()).isEqualTo(51);
+        assertThat(writer.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void stopWhenTimeoutExpiresCountsRemainingEventsAsDropped() throws InterruptedException {
+        ApiLoggerProperties.Async properties = properties(ApiLoggerProperties.OverflowPolicy.DROP, 8);
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        writer = startBlocked(properties);
+        for (int i = 1; i <= 5; i++) {
+            writer.write(event(i));
+        }
+        writer.stop();
+        assertThat(writer.getQueueSize()).isZero();
+        assertThat(writer.getDroppedCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void bufferedEventsAreWrittenInBatches() throws InterruptedException {
+        ApiLoggerProperties.Async properties = properties(ApiLoggerProperties.OverflowPolicy.DROP, 64);
+        properties.setBatchSize(16);
+        writer = startBlocked(properties);
+        for (int i = 1; i <= 20; i++) {
+            writer.write(event(i));
+        }
+        delegate.unblock();
+        writer.stop();
+        assertThat(delegate.batchSizes).containsExactly(1, 16, 4);
+        assertThat(delegate.written).hasSize(21);
+        assertThat(writer.getWrittenCount()).isEqualTo(21);
+    }
+
+    @Test
+    public void writeAfterStopWritesSynchronously() throws InterruptedException {
+        writer = new AsyncApiLogWriter(delegate, properties(ApiLoggerProperties.OverflowPolicy.DROP, 4));
+        writer.start();
+        writer.stop();
+        writer.write(event(0));
+        assertThat(delegate.written).hasSize(1);
+        assertThat(delegate.threadNames).containsExactly(Thread.currentThread().getName());
+    }
+
+    /**
+     * 启动写入器并让唯一的写入线程阻塞在第一条日志上，之后写入的日志都留在缓冲区中
+     */
+    private AsyncApiLogWriter startBlocked(ApiLoggerProperties.OverflowPolicy policy, int bufferSize)
+            throws InterruptedException {
+        return startBlocked(properties(policy, bufferSize));
+    }
+
+    private AsyncApiLogWriter startBlocked(ApiLoggerProperties.Async properties) throws InterruptedException {
+        delegate.block();
+        AsyncApiLogWriter writer = new AsyncApiLogWriter(delegate, properties);
+        writer.start();
+        writer.write(event(0));
+        assertThat(delegate.entered.await(10, TimeUnit.SECONDS)).isTrue();
+        return writer;
+    }
+
+    private static ApiLoggerProperties.Async properties(ApiLoggerProperties.OverflowPolicy policy, int bufferSize) {
+        ApiLoggerProperties.Async properties = new ApiLoggerProperties.Async();
+        properties.setEnabled(true);
+        properties.setBufferSize(bufferSize);
+        properties.setWriterThreads(1);
+        properties.setBatchSize(1);
+        properties.setOverflowPolicy(policy);
+        return properties;
+    }
+
+    private static ApiLogEvent event(int index) {
+        return new ApiLogEvent(ApiLogEvent.Type.REQUEST, 0, "GET", "/" + index);
+    }
+
+    /**
+     * 记录写入的日志，可以让写入线程阻塞在第一条日志上
+     */
+    private static class BlockingWriter implements ApiLogWriter {
+
+        private final List<ApiLogEvent> written = new CopyOnWriteArrayList<>();
+
+        private final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private volatile CountDownLatch blocked;
+
+        void block() {
+            blocked = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void write(ApiLogEvent event) {
+            entered.countDown();
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            written.add(event);
+            threadNames.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void write(List<ApiLogEvent> events) {
+            batchSizes.add(events.size());
+            ApiLogWriter.super.write(events);
+        }
+    }
+}
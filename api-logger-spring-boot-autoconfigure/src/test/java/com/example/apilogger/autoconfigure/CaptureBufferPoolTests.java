@@ -0,0 +1,61 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CaptureBufferPool} 的测试
+ *
+ * @author 示例开发者
+ */
+public class CaptureBufferPoolTests {
+
+    private final CaptureBufferPool pool = new CaptureBufferPool(2);
+
+    @Test
+    public void acquireReusesReleasedArrayOfSameSize() {
+        byte[] buffer = pool.acquire(16);
+        pool.release(buffer);
+        assertThat(pool.acquire(16)).isSameAs(buffer);
+        assertThat(pool.getPooledCount(16)).isZero();
+    }
+
+    @Test
+    public void acquireOfOtherSizeKeepsPooledArrays() {
+        byte[] request = pool.acquire(16);
+        byte[] response = pool.acquire(32);
+        pool.release(request);
+        pool.release(response);
+        byte[] client = pool.acquire(8);
+        assertThat(client).hasSize(8);
+        assertThat(pool.getPooledCount(16)).isEqualTo(1);
+        assertThat(pool.getPooledCount(32)).isEqualTo(1);
+        assertThat(pool.acquire(32)).isSameAs(response);
+        assertThat(pool.acquire(16)).isSameAs(request);
+    }
+
+    @Test
+    public void arraysOfOldSizeArePooledAfterLimitChanges() {
+        byte[] old = pool.acquire(16);
+        assertThat(pool.acquire(64)).hasSize(64);
+        pool.release(old);
+        assertThat(pool.acquire(16)).isSameAs(old);
+    }
+
+    @Test
+    public void releaseWhenSizeIsFullDropsArray() {
+        pool.release(new byte[16]);
+        pool.release(new byte[16]);
+        pool.release(new byte[16]);
+        pool.release(new byte[32]);
+        assertThat(pool.getPooledCount(16)).isEqualTo(2);
+        assertThat(pool.getPooledCount(32)).isEqualTo(1);
+    }
+
+    @Test
+    public void releaseOfNullIsIgnored() {
+        pool.release(null);
+        assertThat(pool.acquire(4)).hasSize(4);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CaptureBuffer} 的测试
+ *
+ * @author 示例开发者
+ */
+public class CaptureBufferTests {
+
+    private final CaptureBufferPool pool = new CaptureBufferPool();
+
+    @Test
+    public void writeWithinLimitKeepsAllBytes() {
+        CaptureBuffer buffer = new CaptureBuffer(pool, 16);
+        buffer.write('{');
+        buffer.write("\"a\":1}".getBytes(StandardCharsets.UTF_8), 0, 6);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("{\"a\":1}");
+        assertThat(buffer.size()).isEqualTo(7);
+        assertThat(buffer.getTotalBytes()).isEqualTo(7);
+        assertThat(buffer.isTruncated()).isFalse();
+    }
+
+    @Test
+    public void writeBeyondLimitOnlyCountsRemainingBytes() {
+        CaptureBuffer buffer = new CaptureBuffer(pool, 4);
+        buffer.write("abcdef".getBytes(StandardCharsets.UTF_8), 0, 6);
+        buffer.write('g');
+        buffer.skip(10);
+        assertThat(buffer.toByteArray()).isEqualTo("abcd".getBytes(StandardCharsets.UTF_8));
+        assertThat(buffer.getTotalBytes()).isEqualTo(17);
+        assertThat(buffer.isTruncated()).isTrue();
+    }
+
+    @Test
+    public void writeByteBufferDoesNotMovePosition() {
+        CaptureBuffer buffer = new CaptureBuffer(pool, 3);
+        ByteBuffer source = ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8));
+        buffer.write(source);
+        assertThat(source.position()).isZero();
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("hel");
+        assertThat(buffer.getTotalBytes()).isEqualTo(5);
+    }
+
+    @Test
+    public void writeCharsEncodesUntilLimit() {
+        CaptureBuffer buffer = new CaptureBuffer(pool, 7);
+        buffer.write(CharBuffer.wrap("中文内容"), StandardCharsets.UTF_8.newEncoder());
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("中文");
+        assertThat(buffer.isTruncated()).isTrue();
+    }
+
+    @Test
+    public void arrayIsOnlyAcquiredOnFirstWrite() {
+        CaptureBuffer buffer = new CaptureBuffer(pool, 8);
+        assertThat(buffer.array()).isNull();
+        assertThat(buffer.toByteArray()).isEmpty();
+        assertThat(buffer.isBlank()).isTrue();
+        buffer.write(' ');
+        assertThat(buffer.array()).hasSize(8);
+        assertThat(buffer.isBlank()).isTrue();
+    }
+
+    @Test
+    public void releaseReturnsArrayToPool() {
+        CaptureBuffer buffer = new CaptureBuffer(pool, 8);
+        buffer.write('a');
+        byte[] array = buffer.array();
+        buffer.release();
+        buffer.release();
+        assertThat(buffer.array()).isNull();
+        assertThat(buffer.size()).isZero();
+        assertThat(pool.getPooledCount(8)).isEqualTo(1);
+        assertThat(pool.acquire(8)).isSameAs(array);
+    }
+
+    @Test
+    public void isCapturableOnlyAcceptsTextualContent() {
+        assertThat(CaptureBuffer.isCapturable("application/json;charset=UTF-8")).isTrue();
+        assertThat(CaptureBuffer.isCapturable("application/problem+json")).isTrue();
+        assertThat(CaptureBuffer.isCapturable("text/plain")).isTrue();
+        assertThat(CaptureBuffer.isCapturable("application/x-www-form-urlencoded")).isTrue();
+        assertThat(CaptureBuffer.isCapturable("multipart/form-data; boundary=x")).isFalse();
+        assertThat(CaptureBuffer.isCapturable("application/octet-stream")).isFalse();
+        assertThat(CaptureBuffer.isCapturable("image/png")).isFalse();
+        assertThat(CaptureBuffer.isCapturable(null)).isFalse();
+    }
+
+    @Test
+    public void getCharsetFallsBackToUtf8() {
+        assertThat(CaptureBuffer.getCharset(null)).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(CaptureBuffer.getCharset("unknown-charset")).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(CaptureBuffer.getCharset("ISO-8859-1")).isEqualTo(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link LatencyHistogram} 的测试
+ *
+ * @author 示例开发者
+ */
+public class LatencyHistogramTests {
+
+    @Test
+    public void smallValuesHaveExactBuckets() {
+        for (int value = 0; value < 16; value++) {
+            assertThat(LatencyHistogram.bucketIndex(value)).isEqualTo(value);
+            assertThat(LatencyHistogram.highestEquivalentValue(value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void eachPowerOfTwoRangeHasSixteenBuckets() {
+        assertThat(LatencyHistogram.bucketIndex(16)).isEqualTo(16);
+        assertThat(LatencyHistogram.bucketIndex(31)).isEqualTo(31);
+        assertThat(LatencyHistogram.bucketIndex(32)).isEqualTo(32);
+        assertThat(LatencyHistogram.bucketIndex(33)).isEqualTo(32);
+        assertThat(LatencyHistogram.bucketIndex(63)).isEqualTo(47);
+        assertThat(LatencyHistogram.bucketIndex(64)).isEqualTo(48);
+        assertThat(LatencyHistogram.highestEquivalentValue(32)).isEqualTo(33);
+        assertThat(LatencyHistogram.highestEquivalentValue(47)).isEqualTo(63);
+    }
+
+    @Test
+    public void bucketsCoverValuesWithBoundedRelativeError() {
+        int previous = -1;
+        for (long value = 0; value < (1L << 40); value = value + 1 + value / 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(index).as("index of %d", value).isGreaterThanOrEqualTo(previous)
+                    .isLessThan(LatencyHistogram.BUCKET_COUNT);
+            previous = index;
+            if (index < LatencyHistogram.BUCKET_COUNT - 1) {
+                long highest = LatencyHistogram.highestEquivalentValue(index);
+                long lowest = (index == 0) ? 0 : LatencyHistogram.highestEquivalentValue(index - 1) + 1;
+                assertThat(value).as("bucket of %d", value).isBetween(lowest, highest);
+                assertThat(highest - lowest).isLessThanOrEqualTo(Math.max(0, lowest / 16));
+            }
+        }
+    }
+
+    @Test
+    public void valuesBeyondMaximumGoToLastBucket() {
+        assertThat(LatencyHistogram.bucketIndex(1L << 36)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.bucketIndex((1L << 36) - 1)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.highestEquivalentValue(LatencyHistogram.BUCKET_COUNT - 1))
+                .isEqualTo((1L << 36) - 1);
+    }
+
+    @Test
+    public void snapshotOfEmptyHistogram() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.valueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    public void snapshotReportsCountTotalMaxAndPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1001);
+        assertThat(snapshot.getTotalMicros()).isEqualTo(500500);
+        assertThat(snapshot.getMaxMicros()).isEqualTo(1000);
+        assertThat(snapshot.valueAtPercentile(0)).isZero();
+        assertThat(snapshot.valueAtPercentile(50)).isBetween(500L, 532L);
+        assertThat(snapshot.valueAtPercentile(99)).isBetween(990L, 1000L);
+        assertThat(snapshot.valueAtPercentile(100)).isEqualTo(1000);
+    }
+
+    @Test
+    public void recordsFromManyThreadsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    histogram.record(j % 100);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(80000);
+        assertThat(snapshot.getMaxMicros()).isEqualTo(99);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.apilogger.autoconfigure;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * {@link MappedSegmentApiLogSink} 和 {@link ApiLogSegmentReader} 的测试
+ *
+ * @author 示例开发者
+ */
+public class MappedSegmentApiLogSinkTests {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final ApiLogEventEncoder encoder = new ApiLogEventEncoder(new ApiLoggerProperties(), new JsonFactory());
+
+    private final ApiLoggerProperties.Segment properties = new ApiLoggerProperties.Segment();
+
+    private MappedSegmentApiLogSink sink;
+
+    @Before
+    public void setup() throws IOException {
+        properties.setDirectory(temp.newFolder("segments").getPath());
+        properties.setSegmentSize(DataSize.ofBytes(4096));
+        properties.setForceInterval(Duration.ofMinutes(1));
+    }
+
+    @After
+    public void close() throws IOException {
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    @Test
+    public void binaryRecordsRollOverAndReadBack() throws IOException {
+        assertRoundTrip(ApiLoggerProperties.RecordFormat.BINARY);
+    }
+
+    @Test
+    public void jsonRecordsRollOverAndReadBack() throws IOException {
+        assertRoundTrip(ApiLoggerProperties.RecordFormat.JSON);
+    }
+
+    @Test
+    public void batchedBinaryRecordsRollOverAndReadBack() throws IOException {
+        assertBatchRoundTrip(ApiLoggerProperties.RecordFormat.BINARY);
+    }
+
+    @Test
+    public void batchedJsonRecordsRollOverAndReadBack() throws IOException {
+        assertBatchRoundTrip(ApiLoggerProperties.RecordFormat.JSON);
+    }
+
+    @Test
+    public void batchWithOversizedRecordDropsOnlyThatRecord() throws IOException {
+        sink = open();
+        ApiLogEvent oversized = event(1);
+        oversized.setBody(new byte[8192], StandardCharsets.UTF_8, false);
+        sink.write(Arrays.asList(event(0), oversized, event(2)));
+        sink.close();
+        assertThat(sink.getDroppedCount()).isEqualTo(1);
+        assertThat(read(segments())).containsExactly(encoder.encodeJson(event(0)), encoder.encodeJson(event(2)));
+    }
+
+    @Test
+    public void openContinuesSequenceOfExistingSegments() throws IOException {
+        sink = open();
+        sink.write(event(1));
+        sink.close();
+        sink = open();
+        sink.write(event(2));
+        sink.close();
+        List<Path> segments = segments();
+        assertThat(segments).extracting((path) -> path.getFileName().toString())
+                .containsExactly("api-log-00000001.seg", "api-log-00000002.seg");
+        assertThat(read(segments)).containsExactly(encoder.encodeJson(event(1)), encoder.encodeJson(event(2)));
+    }
+
+    @Test
+    public void rollDeletesSegmentsBeyondMaxSegments() throws IOException {
+        properties.setMaxSegments(2);
+        sink = open();
+        for (int i = 0; i < 200; i++) {
+            sink.write(event(i));
+        }
+        sink.close();
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(2);
+        List<String> lines = read(segments);
+        assertThat(lines).isNotEmpty();
+        assertThat(lines.get(lines.size() - 1)).isEqualTo(encoder.encodeJson(event(199)));
+    }
+
+    @Test
+    public void writeWhenRecordExceedsSegmentCapacityDropsRecord() throws IOException {
+        sink = open();
+        ApiLogEvent event = event(1);
+        event.setBody(new byte[8192], StandardCharsets.UTF_8, false);
+        sink.write(event);
+        sink.write(event(2));
+        sink.close();
+        assertThat(sink.getDroppedCount()).isEqualTo(1);
+        assertThat(read(segments())).containsExactly(encoder.encodeJson(event(2)));
+    }
+
+    @Test
+    public void writeAfterCloseThrowsException() throws IOException {
+        sink = open();
+        sink.close();
+        assertThatIOException().isThrownBy(() -> sink.write(event(1)));
+    }
+
+    @Test
+    public void readWhenFileIsNotSegmentThrowsException() throws IOException {
+        Path file = temp.newFile("other.seg").toPath();
+        Files.write(file, "not a segment".getBytes(StandardCharsets.US_ASCII));
+        assertThatIOException().isThrownBy(() -> new ApiLogSegmentReader(encoder).toJsonLines(file, new StringWriter()));
+    }
+
+    @Test
+    public void readStopsAtIncompleteRecord() throws IOException {
+        sink = open();
+        sink.write(event(1));
+        sink.write(event(2));
+        sink.close();
+        Path segment = segments().get(0);
+        byte[] content = Files.readAllBytes(segment);
+        int end = MappedSegmentApiLogSink.MAGIC.length;
+        for (int i = 0; i < 2; i++) {
+            int length = ((content[end] & 0xFF) << 24) | ((content[end + 1] & 0xFF) << 16)
+                    | ((content[end + 2] & 0xFF) << 8) | (content[end + 3] & 0xFF);
+            end += MappedSegmentApiLogSink.RECORD_HEADER_SIZE + length;
+        }
+        // 模拟写入进程在写第二条记录时退出
+        Files.write(segment, Arrays.copyOf(content, end - 1));
+        assertThat(read(segments())).containsExactly(encoder.encodeJson(event(1)));
+    }
+
+    private void assertRoundTrip(ApiLoggerProperties.RecordFormat format) throws IOException {
+        properties.setRecordFormat(format);
+        sink = open();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ApiLogEvent event = event(i);
+            sink.write(event);
+            expected.add(encoder.encodeJson(event));
+        }
+        sink.close();
+        List<Path> segments = segments();
+        assertThat(segments.size()).isGreaterThan(1);
+        assertThat(read(segments)).isEqualTo(expected);
+        assertThat(sink.getDroppedCount()).isZero();
+    }
+
+    private void assertBatchRoundTrip(ApiLoggerProperties.RecordFormat format) throws IOException {
+        properties.setRecordFormat(format);
+        sink = open();
+        List<String> expected = new ArrayList<>();
+        List<ApiLogEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ApiLogEvent event = event(i);
+            batch.add(event);
+            expected.add(encoder.encodeJson(event));
+            if (batch.size() == 64) {
+                sink.write(batch);
+                batch.clear();
+            }
+        }
+        sink.write(batch);
+        sink.close();
+        List<Path> segments = segments();
+        assertThat(segments.size()).isGreaterThan(1);
+        assertThat(read(segments)).isEqualTo(expected);
+    }
+
+    private MappedSegmentApiLogSink open() throws IOException {
+        MappedSegmentApiLogSink sink = new MappedSegmentApiLogSink(properties, encoder);
+        sink.open();
+        return sink;
+    }
+
+    private List<Path> segments() throws IOException {
+        return MappedSegmentApiLogSink.listSegments(temp.getRoot().toPath().resolve("segments"));
+    }
+
+    private List<String> read(List<Path> segments) throws IOException {
+        ApiLogSegmentReader reader = new ApiLogSegmentReader(encoder);
+        StringWriter out = new StringWriter();
+        for (Path segment : segments) {
+            reader.toJsonLines(segment, out);
+        }
+        List<String> lines = new ArrayList<>(Arrays.asList(out.toString().split("\n")));
+        lines.removeIf(String::isEmpty);
+        return lines;
+    }
+
+    private static ApiLogEvent event(int index) {
+        ApiLogEvent event = new ApiLogEvent(ApiLogEvent.Type.REQUEST, 1700000000000L + index, "GET",
+                "/orders/" + index);
+        event.setStatus(200);
+        event.setRemoteAddr("127.0.0.1");
+        event.addHeader("Accept", "application/json");
+        event.setBody(("{\"id\":" + index + "}").getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, false);
+        return event;
+    }
+}
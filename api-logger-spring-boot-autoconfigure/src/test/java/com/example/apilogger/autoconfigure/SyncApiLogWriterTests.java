@@ -0,0 +1,66 @@
+package com.example.apilogger.autoconfigure;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link SyncApiLogWriter} 的测试
+ *
+ * @author 示例开发者
+ */
+public class SyncApiLogWriterTests {
+
+    private final List<ApiLogEvent> written = new ArrayList<>();
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @Test
+    public void batchIsPassedToEachSinkOnce() {
+        List<ApiLogEvent> events = Arrays.asList(event(1), event(2), event(3));
+        new SyncApiLogWriter(new RecordingSink(), new RecordingSink()).write(events);
+        assertThat(batchSizes).containsExactly(3, 3);
+        assertThat(written).hasSize(6);
+    }
+
+    @Test
+    public void failingSinkDoesNotAffectOtherSinks() {
+        ApiLogSink failing = (event) -> {
+            throw new IOException("disk full");
+        };
+        SyncApiLogWriter writer = new SyncApiLogWriter(failing, new RecordingSink());
+        writer.write(event(1));
+        writer.write(Arrays.asList(event(2), event(3)));
+        assertThat(written).extracting(ApiLogEvent::getUri).containsExactly("/1", "/2", "/3");
+    }
+
+    @Test
+    public void defaultBatchWriteWritesEventsInOrder() throws IOException {
+        ApiLogSink sink = written::add;
+        sink.write(Arrays.asList(event(1), event(2)));
+        assertThat(written).extracting(ApiLogEvent::getUri).containsExactly("/1", "/2");
+    }
+
+    private static ApiLogEvent event(int index) {
+        return new ApiLogEvent(ApiLogEvent.Type.REQUEST, 0, "GET", "/" + index);
+    }
+
+    private class RecordingSink implements ApiLogSink {
+
+        @Override
+        public void write(ApiLogEvent event) {
+            written.add(event);
+        }
+
+        @Override
+        public void write(List<ApiLogEvent> events) throws IOException {
+            batchSizes.add(events.size());
+            ApiLogSink.super.write(events);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.springframework.boot.context.properties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.http.HttpProperties;
+import org.springframework.boot.autoconfigure.info.ProjectInfoProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionProperties;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次应用上下文刷新中属性绑定部分的耗时与分配量
+ * <p>
+ * 每次操作用 {@link SyntheticEnvironment} 的键值新建环境，附加 {@code configurationProperties} 属性源，
+ * 再刷新并关闭一个通过 {@link EnableConfigurationProperties} 注册了 10 个属性类的上下文。
+ * 配合 {@code -prof gc} 查看每次刷新的分配量：
+ * {@code java -jar target/benchmarks.jar ContextRefreshBenchmark -prof gc}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextRefreshBenchmark {
+
+    @Param({"600"})
+    private int environmentVariables;
+
+    @Param({"3000"})
+    private int applicationProperties;
+
+    private Map<String, Object> environmentVariableValues;
+
+    private Map<String, Object> applicationPropertyValues;
+
+    @Setup
+    public void setup() {
+        environmentVariableValues = SyntheticEnvironment.createEnvironmentVariables(environmentVariables);
+        applicationPropertyValues = SyntheticEnvironment.createApplicationProperties(applicationProperties);
+    }
+
+    @Benchmark
+    public int refresh() {
+        StandardEnvironment environment = SyntheticEnvironment.create(environmentVariableValues,
+                applicationPropertyValues);
+        ConfigurationPropertySources.attach(environment);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.setEnvironment(environment);
+            context.register(SampleConfiguration.class);
+            context.refresh();
+            return context.getBean(ServerProperties.class).getPort();
+        }
+    }
+
+    @Configuration
+    @EnableConfigurationProperties({ServerProperties.class, ResourceProperties.class, WebMvcProperties.class,
+            DataSourceProperties.class, TaskExecutionProperties.class, TaskSchedulingProperties.class,
+            CacheProperties.class, HttpProperties.class, ProjectInfoProperties.class, TransactionProperties.class})
+    static class SampleConfiguration {
+    }
+}
@@ -0,0 +1,64 @@
+package org.springframework.boot.context.properties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 运行时修改可变 {@link MapPropertySource} 后再次查找属性的耗时
+ * <p>
+ * 类似 {@code server.ports} 这类在运行期间写入的属性源：每次操作先删除一个键、再加入一个新键，
+ * 然后按松散名称查找刚加入的属性，测量的是属性源缓存的重建或增量更新：
+ * {@code java -jar target/benchmarks.jar MutablePropertySourceBenchmark}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutablePropertySourceBenchmark {
+
+    @Param({"3000"})
+    private int properties;
+
+    private Map<String, Object> map;
+
+    private ConfigurationPropertySource source;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        map = SyntheticEnvironment.createApplicationProperties(properties);
+        MapPropertySource propertySource = new MapPropertySource("mutable", map);
+        source = ConfigurationPropertySources.from(propertySource).iterator().next();
+        source.getConfigurationProperty(ConfigurationPropertyName.of("server.port"));
+    }
+
+    @Benchmark
+    public Object addAndLookup() {
+        map.remove("runtime.value-" + counter);
+        counter++;
+        map.put("runtime.value-" + counter, counter);
+        return source.getConfigurationProperty(ConfigurationPropertyName.of("runtime.value" + counter)).getValue();
+    }
+}
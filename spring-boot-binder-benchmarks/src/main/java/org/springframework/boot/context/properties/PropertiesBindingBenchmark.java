@@ -0,0 +1,99 @@
+package org.springframework.boot.context.properties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
+import org.springframework.boot.autoconfigure.http.HttpProperties;
+import org.springframework.boot.autoconfigure.info.ProjectInfoProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionProperties;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在大属性源上绑定一组常见 {@code @ConfigurationProperties} 类的耗时
+ * <p>
+ * 属性源由 {@link SyntheticEnvironment} 生成，默认约 600 个环境变量和 3000 个 application.yml 键。
+ * 每次操作依次绑定 {@code spring-boot-autoconfigure} 中的 11 个属性类，相当于一次上下文刷新中的绑定工作：
+ * {@code java -jar target/benchmarks.jar PropertiesBindingBenchmark -prof gc}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertiesBindingBenchmark {
+
+    private static final Map<String, Class<?>> TARGETS = new LinkedHashMap<>();
+
+    static {
+        TARGETS.put("server", ServerProperties.class);
+        TARGETS.put("spring.resources", ResourceProperties.class);
+        TARGETS.put("spring.mvc", WebMvcProperties.class);
+        TARGETS.put("spring.datasource", DataSourceProperties.class);
+        TARGETS.put("spring.task.execution", TaskExecutionProperties.class);
+        TARGETS.put("spring.task.scheduling", TaskSchedulingProperties.class);
+        TARGETS.put("spring.cache", CacheProperties.class);
+        TARGETS.put("spring.http", HttpProperties.class);
+        TARGETS.put("spring.messages", MessageSourceProperties.class);
+        TARGETS.put("spring.info", ProjectInfoProperties.class);
+        TARGETS.put("spring.transaction", TransactionProperties.class);
+    }
+
+    @Param({"600"})
+    private int environmentVariables;
+
+    @Param({"3000"})
+    private int applicationProperties;
+
+    private StandardEnvironment environment;
+
+    @Setup
+    public void setup() {
+        environment = SyntheticEnvironment.create(environmentVariables, applicationProperties);
+        ServerProperties server = bind(Binder.get(environment), "server", ServerProperties.class);
+        if (server.getPort() != 8081 || server.getTomcat().getMaxThreads() != 400) {
+            throw new IllegalStateException("Unexpected binding result");
+        }
+    }
+
+    @Benchmark
+    public int bindAll() {
+        Binder binder = Binder.get(environment);
+        int bound = 0;
+        for (Map.Entry<String, Class<?>> target : TARGETS.entrySet()) {
+            if (bind(binder, target.getKey(), target.getValue()) != null) {
+                bound++;
+            }
+        }
+        return bound;
+    }
+
+    private <T> T bind(Binder binder, String prefix, Class<T> type) {
+        return binder.bind(prefix, Bindable.of(type)).orElse(null);
+    }
+}
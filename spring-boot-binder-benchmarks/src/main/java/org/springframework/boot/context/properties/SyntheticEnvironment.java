@@ -0,0 +1,127 @@
+package org.springframework.boot.context.properties;
+
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 生成基准测试用的 {@link StandardEnvironment}
+ * <p>
+ * {@code systemEnvironment} 被替换为指定数量的环境变量，另加一个模拟 {@code application.yml} 的
+ * {@link OriginTrackedMapPropertySource}。两者都包含少量与被绑定的 {@code @ConfigurationProperties}
+ * 类匹配的键，其余是与绑定无关的业务配置，用来撑大属性源。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public final class SyntheticEnvironment {
+
+    private static final String APPLICATION_CONFIG = "applicationConfig: [classpath:/application.yml]";
+
+    private SyntheticEnvironment() {
+    }
+
+    /**
+     * 创建环境
+     *
+     * @param environmentVariables  环境变量的数量
+     * @param applicationProperties application.yml 中键的数量
+     * @return 环境
+     */
+    public static StandardEnvironment create(int environmentVariables, int applicationProperties) {
+        return create(createEnvironmentVariables(environmentVariables),
+                createApplicationProperties(applicationProperties));
+    }
+
+    /**
+     * 用已经生成的键值创建环境，多次创建时可以复用同一份键值
+     *
+     * @param environmentVariables  环境变量
+     * @param applicationProperties application.yml 中的键值
+     * @return 环境
+     */
+    public static StandardEnvironment create(Map<String, Object> environmentVariables,
+            Map<String, Object> applicationProperties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        MutablePropertySources sources = environment.getPropertySources();
+        sources.replace(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME,
+                new SystemEnvironmentPropertySource(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME,
+                        environmentVariables));
+        // 与 PropertiesPropertySourceLoader、YamlPropertySourceLoader 一样以不可变方式创建
+        sources.addLast(new OriginTrackedMapPropertySource(APPLICATION_CONFIG,
+                Collections.unmodifiableMap(applicationProperties), true));
+        return environment;
+    }
+
+    /**
+     * 创建环境变量
+     *
+     * @param count 环境变量的数量
+     * @return 环境变量
+     */
+    public static Map<String, Object> createEnvironmentVariables(int count) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("PATH", "/usr/local/bin:/usr/bin:/bin");
+        variables.put("HOME", "/home/app");
+        variables.put("LANG", "en_US.UTF-8");
+        variables.put("SERVER_PORT", "8081");
+        variables.put("SPRING_DATASOURCE_PASSWORD", "secret");
+        variables.put("SPRING_TASK_EXECUTION_POOL_MAXSIZE", "32");
+        for (int i = 0; variables.size() < count; i++) {
+            String service = "SERVICE_" + i + "_";
+            variables.put(service + "HOST", "10.0." + (i / 250) + "." + (i % 250));
+            variables.put(service + "PORT", String.valueOf(8000 + i));
+            variables.put(service + "TCP_ADDR", "tcp://10.0.0." + (i % 250));
+        }
+        return variables;
+    }
+
+    /**
+     * 创建模拟 application.yml 内容的键值
+     *
+     * @param count 键的数量
+     * @return 键值
+     */
+    public static Map<String, Object> createApplicationProperties(int count) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "8080");
+        properties.put("server.servlet.context-path", "/app");
+        properties.put("server.compression.enabled", "true");
+        properties.put("server.compression.min-response-size", "2KB");
+        properties.put("server.tomcat.max-threads", "400");
+        properties.put("server.tomcat.accesslog.enabled", "true");
+        properties.put("server.error.include-stacktrace", "never");
+        properties.put("spring.datasource.url", "jdbc:postgresql://db:5432/app");
+        properties.put("spring.datasource.username", "app");
+        properties.put("spring.mvc.date-format", "yyyy-MM-dd");
+        properties.put("spring.mvc.async.request-timeout", "30s");
+        properties.put("spring.resources.cache.period", "1h");
+        properties.put("spring.resources.chain.strategy.content.enabled", "true");
+        properties.put("spring.task.execution.pool.core-size", "8");
+        properties.put("spring.task.execution.thread-name-prefix", "app-task-");
+        properties.put("spring.task.scheduling.pool.size", "4");
+        properties.put("spring.cache.type", "simple");
+        properties.put("spring.cache.cache-names[0]", "users");
+        properties.put("spring.cache.cache-names[1]", "orders");
+        properties.put("spring.http.encoding.force", "true");
+        properties.put("spring.messages.basename", "messages,errors");
+        properties.put("spring.transaction.default-timeout", "10s");
+        for (int i = 0; properties.size() < count; i++) {
+            String service = "app.services.service-" + i + ".";
+            properties.put(service + "url", "http://service-" + i + ".internal:8080");
+            properties.put(service + "connect-timeout", "2s");
+            properties.put(service + "read-timeout", "10s");
+            properties.put(service + "retry.max-attempts", "3");
+            properties.put(service + "retry.backoff", "200ms");
+            properties.put(service + "headers[X-Tenant]", "tenant-" + (i % 10));
+            properties.put(service + "enabled", "true");
+            properties.put(service + "tags[0]", "tier-" + (i % 3));
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,116 @@
+package org.springframework.boot.loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程从可执行 jar 加载类的耗时
+ * <p>
+ * 每次操作新建一个 {@link LaunchedURLClassLoader}，由 {@code threads} 个线程分摊加载 jar 中的全部类，
+ * 模拟应用启动时多个线程同时预热缓存的情况。jar 文件在多次操作之间复用，读取走同一个 {@code RandomAccessDataFile}：
+ * {@code java -jar target/benchmarks.jar ClassLoadingBenchmark -p threads=40}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassLoadingBenchmark {
+
+    @Param({"1", "8", "40"})
+    private int threads;
+
+    @Param({"40"})
+    private int libraries;
+
+    @Param({"200"})
+    private int classesPerLibrary;
+
+    private File jarFile;
+
+    private JarFile rootJarFile;
+
+    private URL[] urls;
+
+    private List<List<String>> partitions;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() throws Exception {
+        JarFile.registerUrlProtocolHandler();
+        jarFile = File.createTempFile("synthetic-fat", ".jar");
+        SyntheticFatJar fatJar = SyntheticFatJar.create(jarFile, libraries, classesPerLibrary, 500);
+        rootJarFile = new JarFile(jarFile);
+        // 与 JarLauncher 相同的类路径
+        List<Archive> archives = new JarFileArchive(rootJarFile).getNestedArchives(entry -> entry.isDirectory()
+                ? entry.getName().equals("BOOT-INF/classes/") : entry.getName().startsWith("BOOT-INF/lib/"));
+        urls = new URL[archives.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = archives.get(i).getUrl();
+        }
+        partitions = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        List<String> classNames = fatJar.getClassNames();
+        for (int i = 0; i < classNames.size(); i++) {
+            partitions.get(i % threads).add(classNames.get(i));
+        }
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        rootJarFile.close();
+        jarFile.delete();
+    }
+
+    @Benchmark
+    public int loadAllClasses() throws Exception {
+        ClassLoader classLoader = new LaunchedURLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (List<String> partition : partitions) {
+            futures.add(executor.submit(() -> {
+                int loaded = 0;
+                for (String className : partition) {
+                    classLoader.loadClass(className);
+                    loaded++;
+                }
+                return loaded;
+            }));
+        }
+        int loaded = 0;
+        for (Future<Integer> future : futures) {
+            loaded += future.get();
+        }
+        return loaded;
+    }
+}
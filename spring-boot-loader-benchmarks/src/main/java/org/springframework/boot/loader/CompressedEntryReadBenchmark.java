@@ -0,0 +1,90 @@
+package org.springframework.boot.loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+
+/**
+ * 从嵌套 jar 读取压缩类文件字节的耗时
+ * <p>
+ * 嵌套 jar 中的类文件以 DEFLATED 方式存放，每次操作把一个嵌套 jar 中的全部类读一遍，
+ * 配合 {@code -prof gc} 可以看到每次读取的分配量：
+ * {@code java -jar target/benchmarks.jar CompressedEntryReadBenchmark -prof gc}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class CompressedEntryReadBenchmark {
+
+    @Param({"200"})
+    private int classesPerLibrary;
+
+    private File jarFile;
+
+    private JarFile rootJarFile;
+
+    private JarFile nestedJarFile;
+
+    private List<JarEntry> entries;
+
+    @Setup
+    public void setup() throws Exception {
+        jarFile = File.createTempFile("synthetic-fat", ".jar");
+        SyntheticFatJar.create(jarFile, 1, classesPerLibrary, 0);
+        rootJarFile = new JarFile(jarFile);
+        nestedJarFile = rootJarFile.getNestedJarFile(rootJarFile.getEntry("BOOT-INF/lib/library-0.jar"));
+        entries = new ArrayList<>();
+        for (JarEntry entry : Collections.list(nestedJarFile.entries())) {
+            if (entry.getName().endsWith(".class")) {
+                entries.add(entry);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        rootJarFile.close();
+        jarFile.delete();
+    }
+
+    @Benchmark
+    public long readAllClasses() throws Exception {
+        byte[] buffer = new byte[4096];
+        long total = 0;
+        for (JarEntry entry : entries) {
+            try (InputStream inputStream = nestedJarFile.getInputStream(entry)) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    total += read;
+                }
+            }
+        }
+        return total;
+    }
+}
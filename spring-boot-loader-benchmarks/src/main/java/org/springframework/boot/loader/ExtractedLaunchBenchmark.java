@@ -0,0 +1,104 @@
+package org.springframework.boot.loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从嵌套 jar 启动与从解压后的类路径启动的耗时对比
+ * <p>
+ * 每次操作打开可执行 jar、由 {@link JarLauncher} 得到类路径、新建 {@link LaunchedURLClassLoader} 并加载全部类。
+ * {@code extract=true} 时类路径来自 {@code loader.extract} 解压出的普通 jar，解压在准备阶段完成，
+ * 测量的是第二次及以后的启动：
+ * {@code java -jar target/benchmarks.jar ExtractedLaunchBenchmark}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractedLaunchBenchmark {
+
+    @Param({"40"})
+    private int libraries;
+
+    @Param({"200"})
+    private int classesPerLibrary;
+
+    @Param({"false", "true"})
+    private boolean extract;
+
+    private File jarFile;
+
+    private File extractDir;
+
+    private List<String> classNames;
+
+    @Setup
+    public void setup() throws Exception {
+        JarFile.registerUrlProtocolHandler();
+        jarFile = File.createTempFile("synthetic-fat", ".jar");
+        classNames = SyntheticFatJar.create(jarFile, libraries, classesPerLibrary, 500).getClassNames();
+        extractDir = Files.createTempDirectory("extracted").toFile();
+        System.setProperty("loader.extract", String.valueOf(extract));
+        System.setProperty("loader.extract.dir", extractDir.getPath());
+        // 第一次启动时解压
+        launch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("loader.extract");
+        System.clearProperty("loader.extract.dir");
+        FileSystemUtils.deleteRecursively(extractDir);
+        jarFile.delete();
+    }
+
+    @Benchmark
+    public int launch() throws Exception {
+        JarFile rootJarFile = new JarFile(jarFile);
+        try {
+            JarLauncher launcher = new JarLauncher(new JarFileArchive(rootJarFile));
+            List<URL> urls = launcher.getExtractedClassPath();
+            if (urls == null) {
+                urls = new ArrayList<>();
+                for (Archive archive : launcher.getClassPathArchives()) {
+                    urls.add(archive.getUrl());
+                }
+            }
+            try (LaunchedURLClassLoader classLoader = new LaunchedURLClassLoader(urls.toArray(new URL[0]),
+                    ClassLoader.getSystemClassLoader().getParent())) {
+                for (String className : classNames) {
+                    classLoader.loadClass(className);
+                }
+            }
+            return classNames.size();
+        } finally {
+            rootJarFile.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.springframework.boot.loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JarLauncher} 打开全部嵌套 jar 的耗时
+ * <p>
+ * 对比逐个打开与 {@code loader.parallel=true} 时由线程池并行打开，每次操作都使用新的 {@link JarFileArchive}：
+ * {@code java -jar target/benchmarks.jar NestedArchivesBenchmark -p libraries=300}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NestedArchivesBenchmark {
+
+    @Param({"300"})
+    private int libraries;
+
+    @Param({"200"})
+    private int classesPerLibrary;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private File jarFile;
+
+    @Setup
+    public void setup() throws Exception {
+        JarFile.registerUrlProtocolHandler();
+        jarFile = File.createTempFile("synthetic-fat", ".jar");
+        SyntheticFatJar.create(jarFile, libraries, classesPerLibrary, 100);
+        System.setProperty("loader.parallel", String.valueOf(parallel));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("loader.parallel");
+        jarFile.delete();
+    }
+
+    @Benchmark
+    public int getClassPathArchives() throws Exception {
+        JarFile rootJarFile = new JarFile(jarFile);
+        try {
+            List<Archive> archives = new JarLauncher(new JarFileArchive(rootJarFile)).getClassPathArchives();
+            return archives.size();
+        } finally {
+            rootJarFile.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.springframework.boot.loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.io.File;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LaunchedURLClassLoader} 查找类和资源的耗时
+ * <p>
+ * 模拟启动后的运行期查找：类加载器只创建一次，分别测量命中最后一个嵌套 jar 的资源、
+ * 不存在的资源，以及 {@code @ConditionalOnClass} 式的缺失类探测：
+ * {@code java -jar target/benchmarks.jar ResourceLookupBenchmark -p libraries=300}
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceLookupBenchmark {
+
+    @Param({"300"})
+    private int libraries;
+
+    @Param({"20"})
+    private int classesPerLibrary;
+
+    private File jarFile;
+
+    private JarFile rootJarFile;
+
+    private URL[] urls;
+
+    private LaunchedURLClassLoader classLoader;
+
+    private String lastLibraryClass;
+
+    @Setup
+    public void setup() throws Exception {
+        JarFile.registerUrlProtocolHandler();
+        jarFile = File.createTempFile("synthetic-fat", ".jar");
+        SyntheticFatJar.create(jarFile, libraries, classesPerLibrary, 100);
+        rootJarFile = new JarFile(jarFile);
+        List<Archive> archives = new JarFileArchive(rootJarFile).getNestedArchives(entry -> entry.isDirectory()
+                ? entry.getName().equals("BOOT-INF/classes/") : entry.getName().startsWith("BOOT-INF/lib/"));
+        urls = new URL[archives.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = archives.get(i).getUrl();
+        }
+        classLoader = new LaunchedURLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+        lastLibraryClass = "com/example/lib" + (libraries - 1) + "/Type0.class";
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        classLoader.close();
+        rootJarFile.close();
+        jarFile.delete();
+    }
+
+    @Benchmark
+    public URL getResourceInLastLibrary() {
+        return classLoader.getResource(lastLibraryClass);
+    }
+
+    @Benchmark
+    public URL getMissingResource() {
+        return classLoader.getResource("META-INF/missing.properties");
+    }
+
+    @Benchmark
+    public boolean loadMissingClass() {
+        try {
+            Class.forName("com.example.missing.MissingType", false, classLoader);
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * 新建类加载器后第一次查找，包含建立包索引的开销
+     */
+    @Benchmark
+    public URL firstLookup() throws Exception {
+        try (LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls,
+                ClassLoader.getSystemClassLoader().getParent())) {
+            return loader.getResource(lastLibraryClass);
+        }
+    }
+}
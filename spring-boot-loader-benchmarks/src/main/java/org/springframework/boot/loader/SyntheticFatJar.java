@@ -0,0 +1,126 @@
+package org.springframework.boot.loader;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * 生成基准测试用的可执行 jar
+ * <p>
+ * 结构与 {@code spring-boot-maven-plugin} 打出的包相同：应用类位于 {@code BOOT-INF/classes/}，
+ * 依赖以不压缩的嵌套 jar 放在 {@code BOOT-INF/lib/}。类文件由 ASM 生成，可以被真正加载。
+ *
+ * @author 示例开发者
+ * @since 1.1.0
+ */
+public final class SyntheticFatJar {
+
+    private final File file;
+
+    private final List<String> classNames;
+
+    private SyntheticFatJar(File file, List<String> classNames) {
+        this.file = file;
+        this.classNames = Collections.unmodifiableList(classNames);
+    }
+
+    /**
+     * 生成 jar 文件
+     *
+     * @param file 目标文件
+     * @param libraries 嵌套 jar 的数量
+     * @param classesPerLibrary 每个嵌套 jar 中的类数量
+     * @param applicationClasses {@code BOOT-INF/classes/} 中的类数量
+     */
+    public static SyntheticFatJar create(File file, int libraries, int classesPerLibrary, int applicationClasses)
+            throws IOException {
+        List<String> classNames = new ArrayList<>();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Main-Class", JarLauncher.class.getName());
+        manifest.getMainAttributes().putValue("Start-Class", "com.example.app.Application0");
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            jar.putNextEntry(new JarEntry("BOOT-INF/"));
+            jar.putNextEntry(new JarEntry("BOOT-INF/classes/"));
+            for (int i = 0; i < applicationClasses; i++) {
+                String className = "com/example/app/Application" + i;
+                jar.putNextEntry(new JarEntry("BOOT-INF/classes/" + className + ".class"));
+                jar.write(generateClass(className));
+                classNames.add(className.replace('/', '.'));
+            }
+            jar.putNextEntry(new JarEntry("BOOT-INF/lib/"));
+            for (int i = 0; i < libraries; i++) {
+                byte[] library = createLibrary("com/example/lib" + i + "/", classesPerLibrary, classNames);
+                // 嵌套 jar 必须以 STORED 方式存放
+                JarEntry entry = new JarEntry("BOOT-INF/lib/library-" + i + ".jar");
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(library.length);
+                CRC32 crc = new CRC32();
+                crc.update(library);
+                entry.setCrc(crc.getValue());
+                jar.putNextEntry(entry);
+                jar.write(library);
+            }
+        }
+        return new SyntheticFatJar(file, classNames);
+    }
+
+    private static byte[] createLibrary(String packagePath, int classes, List<String> classNames)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream jar = new JarOutputStream(bytes)) {
+            for (int i = 0; i < classes; i++) {
+                String className = packagePath + "Type" + i;
+                jar.putNextEntry(new JarEntry(className + ".class"));
+                jar.write(generateClass(className));
+                classNames.add(className.replace('/', '.'));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 生成一个带默认构造器和一个字段的空类
+     */
+    private static byte[] generateClass(String internalName) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null,
+                "java/lang/Object", null);
+        writer.visitField(Opcodes.ACC_PRIVATE, "value", "Ljava/lang/String;", null, null).visitEnd();
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V",
+                null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * jar 中所有类的全限定名
+     */
+    public List<String> getClassNames() {
+        return classNames;
+    }
+}
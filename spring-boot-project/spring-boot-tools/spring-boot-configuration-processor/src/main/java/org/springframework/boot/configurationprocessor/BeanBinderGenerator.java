@@ -0,0 +1,525 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.configurationprocessor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a binder class for {@code @ConfigurationProperties} types so that they can be
+ * bound without reflection. The generated binder extends {@code GeneratedBeanBinder} and
+ * declares the same properties that the reflective {@code JavaBeanBinder} would find:
+ * public getters and setters of the type and its superclasses, named using their
+ * lowercase dashed form.
+ * <p>
+ * A binder is only generated when every property can be bound using plain method calls
+ * from the package of the type. Other types, for example generic types or types with
+ * annotated fields that could affect conversion, are left to the reflective binder.
+ *
+ * @author Example Developer
+ * @since 2.2.0
+ */
+class BeanBinderGenerator {
+
+	static final String SUFFIX = "__BeanBinder";
+
+	private static final String RESOLVABLE_TYPE = "org.springframework.core.ResolvableType";
+
+	private static final String LOMBOK_PACKAGE = "lombok.";
+
+	private static final String VALIDATION_PACKAGE = "javax.validation.";
+
+	private final ProcessingEnvironment env;
+
+	private final TypeUtils typeUtils;
+
+	private final String binderType;
+
+	private final Set<String> ignoredAnnotations;
+
+	private final Set<String> processed = new HashSet<>();
+
+	private Set<Element> rootElements = Collections.emptySet();
+
+	/**
+	 * Create a new {@link BeanBinderGenerator} instance.
+	 * @param env the processing environment
+	 * @param typeUtils the type utilities
+	 * @param binderType the fully qualified name of the generated binders' superclass
+	 * @param ignoredAnnotations the names of field annotations that do not affect binding
+	 */
+	BeanBinderGenerator(ProcessingEnvironment env, TypeUtils typeUtils, String binderType,
+			Set<String> ignoredAnnotations) {
+		this.env = env;
+		this.typeUtils = typeUtils;
+		this.binderType = binderType;
+		this.ignoredAnnotations = ignoredAnnotations;
+	}
+
+	public void processing(RoundEnvironment roundEnv) {
+		this.rootElements = new HashSet<>(roundEnv.getRootElements());
+	}
+
+	/**
+	 * Generate the binder of the specified type if it is compiled in the current round
+	 * and can be bound without reflection.
+	 * @param type the bean type
+	 */
+	public void generate(TypeElement type) {
+		String name = this.typeUtils.getQualifiedName(type) + SUFFIX;
+		if (!this.processed.add(name) || !isGeneratable(type)) {
+			return;
+		}
+		String factory = getFactory(type);
+		List<Property> properties = getProperties(type);
+		if (factory == null || properties == null) {
+			return;
+		}
+		try {
+			write(name, type, factory, properties);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write bean binder for " + type,
+					ex);
+		}
+	}
+
+	private boolean isGeneratable(TypeElement type) {
+		if (type.getKind() != ElementKind.CLASS
+				|| type.getModifiers().contains(Modifier.ABSTRACT)
+				|| !type.getTypeParameters().isEmpty()
+				|| !this.rootElements.contains(getTopLevelType(type))
+				|| hasLombokAnnotation(type)) {
+			return false;
+		}
+		for (Element element = type; element instanceof TypeElement; element = element
+				.getEnclosingElement()) {
+			NestingKind nestingKind = ((TypeElement) element).getNestingKind();
+			if (element.getModifiers().contains(Modifier.PRIVATE)
+					|| (nestingKind == NestingKind.MEMBER
+							&& !element.getModifiers().contains(Modifier.STATIC))
+					|| nestingKind == NestingKind.LOCAL
+					|| nestingKind == NestingKind.ANONYMOUS) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Element getTopLevelType(Element element) {
+		while (element.getEnclosingElement() instanceof TypeElement) {
+			element = element.getEnclosingElement();
+		}
+		return element;
+	}
+
+	private boolean hasLombokAnnotation(TypeElement type) {
+		if (hasAnnotation(type, LOMBOK_PACKAGE)) {
+			return true;
+		}
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			if (hasAnnotation(field, LOMBOK_PACKAGE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasAnnotation(Element element, String packagePrefix) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (getName(annotation).startsWith(packagePrefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the source of the factory that creates instances of the type.
+	 * @param type the bean type
+	 * @return the factory source, {@code "null"} if the type has no no-arg constructor,
+	 * or {@code null} if the no-arg constructor cannot be called from generated code
+	 */
+	private String getFactory(TypeElement type) {
+		for (ExecutableElement constructor : ElementFilter
+				.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty()) {
+				return constructor.getModifiers().contains(Modifier.PRIVATE) ? null
+						: type.getQualifiedName() + "::new";
+			}
+		}
+		return "null";
+	}
+
+	/**
+	 * Return the properties of the type in the same way as the reflective binder.
+	 * @param type the bean type
+	 * @return the properties or {@code null} if a property cannot be bound without
+	 * reflection
+	 */
+	private List<Property> getProperties(TypeElement type) {
+		Map<String, Property> properties = new LinkedHashMap<>();
+		TypeElement current = type;
+		while (current != null
+				&& !current.getQualifiedName().contentEquals(Object.class.getName())) {
+			Map<String, Property> declared = new LinkedHashMap<>();
+			for (ExecutableElement method : ElementFilter
+					.methodsIn(current.getEnclosedElements())) {
+				if (isCandidate(method) && !addMethod(method, declared)) {
+					return null;
+				}
+			}
+			for (Map.Entry<String, Property> entry : declared.entrySet()) {
+				Property property = properties.computeIfAbsent(entry.getKey(),
+						Property::new);
+				property.getter = (property.getter != null) ? property.getter
+						: entry.getValue().getter;
+				property.setter = (property.setter != null) ? property.setter
+						: entry.getValue().setter;
+			}
+			for (VariableElement field : ElementFilter
+					.fieldsIn(current.getEnclosedElements())) {
+				Property property = properties.get(field.getSimpleName().toString());
+				if (property != null && property.field == null) {
+					property.field = field;
+				}
+			}
+			current = getSuperclass(current);
+		}
+		List<Property> result = new ArrayList<>(properties.size());
+		for (Property property : properties.values()) {
+			if (!resolve(type, property)) {
+				return null;
+			}
+			result.add(property);
+		}
+		return result;
+	}
+
+	private boolean isCandidate(ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		return modifiers.contains(Modifier.PUBLIC)
+				&& !modifiers.contains(Modifier.ABSTRACT)
+				&& !modifiers.contains(Modifier.STATIC);
+	}
+
+	private boolean addMethod(ExecutableElement method, Map<String, Property> declared) {
+		String name = method.getSimpleName().toString();
+		int parameterCount = method.getParameters().size();
+		String propertyName = getPropertyName(name, "get", parameterCount, 0);
+		propertyName = (propertyName != null) ? propertyName
+				: getPropertyName(name, "is", parameterCount, 0);
+		if (propertyName != null) {
+			Property property = declared.computeIfAbsent(propertyName, Property::new);
+			if (property.getter != null
+					|| method.getReturnType().getKind() == TypeKind.VOID) {
+				return false;
+			}
+			property.getter = method;
+		}
+		propertyName = getPropertyName(name, "set", parameterCount, 1);
+		if (propertyName != null) {
+			Property property = declared.computeIfAbsent(propertyName, Property::new);
+			if (property.setter != null) {
+				return false;
+			}
+			property.setter = method;
+		}
+		return true;
+	}
+
+	private String getPropertyName(String methodName, String prefix, int parameterCount,
+			int expectedParameterCount) {
+		if (parameterCount == expectedParameterCount && methodName.startsWith(prefix)
+				&& methodName.length() > prefix.length()) {
+			return decapitalize(methodName.substring(prefix.length()));
+		}
+		return null;
+	}
+
+	private TypeElement getSuperclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		return (TypeElement) ((DeclaredType) superclass).asElement();
+	}
+
+	private boolean resolve(TypeElement type, Property property) {
+		if (property.field != null && hasBindingAnnotation(property.field)) {
+			return false;
+		}
+		Types types = this.env.getTypeUtils();
+		DeclaredType declaredType = (DeclaredType) type.asType();
+		String packageName = getPackageName(type);
+		if (property.setter != null) {
+			ExecutableType setter = (ExecutableType) types.asMemberOf(declaredType,
+					property.setter);
+			TypeMirror parameterType = setter.getParameterTypes().get(0);
+			property.resolvableType = getResolvableType(parameterType, packageName);
+			property.setterType = (property.resolvableType != null)
+					? getSourceName(parameterType, true) : null;
+		}
+		else {
+			ExecutableType getter = (ExecutableType) types.asMemberOf(declaredType,
+					property.getter);
+			property.resolvableType = getResolvableType(getter.getReturnType(),
+					packageName);
+		}
+		return property.resolvableType != null;
+	}
+
+	private boolean hasBindingAnnotation(VariableElement field) {
+		for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+			String name = getName(annotation);
+			Retention retention = annotation.getAnnotationType().asElement()
+					.getAnnotation(Retention.class);
+			if (retention != null && retention.value() == RetentionPolicy.RUNTIME
+					&& !this.ignoredAnnotations.contains(name)
+					&& !name.startsWith(VALIDATION_PACKAGE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the source of a {@code ResolvableType} for the specified type.
+	 * @param type the type
+	 * @param packageName the package of the generated binder
+	 * @return the source or {@code null} if the type is not accessible or cannot be
+	 * expressed without reflection (for example type variables and wildcards)
+	 */
+	private String getResolvableType(TypeMirror type, String packageName) {
+		if (type.getKind().isPrimitive()) {
+			return RESOLVABLE_TYPE + ".forClass(" + getSourceName(type, false)
+					+ ".class)";
+		}
+		if (type.getKind() == TypeKind.ARRAY) {
+			String component = getResolvableType(((ArrayType) type).getComponentType(),
+					packageName);
+			return (component != null)
+					? RESOLVABLE_TYPE + ".forArrayComponent(" + component + ")" : null;
+		}
+		if (type.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		DeclaredType declaredType = (DeclaredType) type;
+		TypeElement element = (TypeElement) declaredType.asElement();
+		if (!isAccessible(element, packageName)
+				|| (declaredType.getEnclosingType().getKind() == TypeKind.DECLARED
+						&& !((DeclaredType) declaredType.getEnclosingType())
+								.getTypeArguments().isEmpty())) {
+			return null;
+		}
+		String rawClass = element.getQualifiedName() + ".class";
+		if (declaredType.getTypeArguments().isEmpty()) {
+			return RESOLVABLE_TYPE + ".forClass(" + rawClass + ")";
+		}
+		StringBuilder source = new StringBuilder(
+				RESOLVABLE_TYPE + ".forClassWithGenerics(" + rawClass);
+		for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+			String argument = getResolvableType(typeArgument, packageName);
+			if (argument == null) {
+				return null;
+			}
+			source.append(", ").append(argument);
+		}
+		return source.append(")").toString();
+	}
+
+	private boolean isAccessible(TypeElement type, String packageName) {
+		for (Element element = type; element instanceof TypeElement; element = element
+				.getEnclosingElement()) {
+			Set<Modifier> modifiers = element.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE) || (!modifiers
+					.contains(Modifier.PUBLIC)
+					&& !getPackageName((TypeElement) element).equals(packageName))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String getSourceName(TypeMirror type, boolean boxPrimitives) {
+		if (type.getKind().isPrimitive()) {
+			return boxPrimitives
+					? this.env.getTypeUtils().boxedClass((PrimitiveType) type)
+							.getQualifiedName().toString()
+					: type.getKind().name().toLowerCase(Locale.ENGLISH);
+		}
+		if (type.getKind() == TypeKind.ARRAY) {
+			return getSourceName(((ArrayType) type).getComponentType(), false) + "[]";
+		}
+		DeclaredType declaredType = (DeclaredType) type;
+		StringBuilder name = new StringBuilder(
+				((TypeElement) declaredType.asElement()).getQualifiedName());
+		if (!declaredType.getTypeArguments().isEmpty()) {
+			name.append("<");
+			for (int i = 0; i < declaredType.getTypeArguments().size(); i++) {
+				name.append((i > 0) ? ", " : "");
+				name.append(getSourceName(declaredType.getTypeArguments().get(i), false));
+			}
+			name.append(">");
+		}
+		return name.toString();
+	}
+
+	private String getPackageName(TypeElement type) {
+		PackageElement packageElement = this.env.getElementUtils().getPackageOf(type);
+		return packageElement.getQualifiedName().toString();
+	}
+
+	private String getName(AnnotationMirror annotation) {
+		return ((TypeElement) annotation.getAnnotationType().asElement())
+				.getQualifiedName().toString();
+	}
+
+	private void write(String name, TypeElement type, String factory,
+			List<Property> properties) throws IOException {
+		String packageName = getPackageName(type);
+		String simpleName = name.substring(name.lastIndexOf('.') + 1);
+		String typeName = type.getQualifiedName().toString();
+		JavaFileObject file = this.env.getFiler().createSourceFile(name, type);
+		try (PrintWriter writer = new PrintWriter(file.openWriter())) {
+			if (!packageName.isEmpty()) {
+				writer.println("package " + packageName + ";");
+				writer.println();
+			}
+			writer.println("/**");
+			writer.println(" * Binder for {@link " + typeName
+					+ "} generated by the configuration processor.");
+			writer.println(" */");
+			writer.println("@SuppressWarnings({ \"deprecation\", \"rawtypes\", "
+					+ "\"unchecked\" })");
+			writer.println("public final class " + simpleName + " extends "
+					+ this.binderType + "<" + typeName + "> {");
+			writer.println();
+			writer.println("\tpublic " + simpleName + "() {");
+			writer.println("\t\tsuper(" + factory + ");");
+			for (Property property : properties) {
+				writer.println("\t\taddProperty(\"" + toDashedForm(property.name) + "\", "
+						+ property.resolvableType + ",");
+				writer.println("\t\t\t\t" + getGetter(property) + ",");
+				writer.println("\t\t\t\t" + getSetter(property) + ");");
+			}
+			writer.println("\t}");
+			writer.println();
+			writer.println("}");
+		}
+	}
+
+	private String getGetter(Property property) {
+		if (property.getter == null) {
+			return "null";
+		}
+		return "(instance) -> instance." + property.getter.getSimpleName() + "()";
+	}
+
+	private String getSetter(Property property) {
+		if (property.setter == null) {
+			return "null";
+		}
+		return "(instance, value) -> instance." + property.setter.getSimpleName() + "(("
+				+ property.setterType + ") value)";
+	}
+
+	/**
+	 * Decapitalize a name in the same way as {@code java.beans.Introspector}.
+	 * @param name the name to decapitalize
+	 * @return the decapitalized name
+	 */
+	static String decapitalize(String name) {
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1))
+				&& Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * Return a property name in lowercase dashed form in the same way as the binder.
+	 * @param name the property name
+	 * @return the dashed form
+	 */
+	static String toDashedForm(String name) {
+		StringBuilder result = new StringBuilder();
+		for (char ch : name.replace("_", "-").toCharArray()) {
+			if (Character.isUpperCase(ch) && result.length() > 0
+					&& result.charAt(result.length() - 1) != '-') {
+				result.append("-");
+			}
+			result.append(Character.toLowerCase(ch));
+		}
+		return result.toString();
+	}
+
+	/**
+	 * A property of the bean type.
+	 */
+	private static class Property {
+
+		private final String name;
+
+		private ExecutableElement getter;
+
+		private ExecutableElement setter;
+
+		private VariableElement field;
+
+		private String resolvableType;
+
+		private String setterType;
+
+		Property(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
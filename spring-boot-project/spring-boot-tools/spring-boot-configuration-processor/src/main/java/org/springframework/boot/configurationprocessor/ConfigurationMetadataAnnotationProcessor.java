@@ -20,7 +20,9 @@ import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -70,6 +72,9 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 	static final String ADDITIONAL_METADATA_LOCATIONS_OPTION = "org.springframework.boot."
 			+ "configurationprocessor.additionalMetadataLocations";
 
+	static final String GENERATE_BEAN_BINDERS_OPTION = "org.springframework.boot."
+			+ "configurationprocessor.generateBeanBinders";
+
 	static final String CONFIGURATION_PROPERTIES_ANNOTATION = "org.springframework.boot."
 			+ "context.properties.ConfigurationProperties";
 
@@ -85,6 +90,9 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 	static final String READ_OPERATION_ANNOTATION = "org.springframework.boot.actuate."
 			+ "endpoint.annotation.ReadOperation";
 
+	static final String BEAN_BINDER_TYPE = "org.springframework.boot."
+			+ "context.properties.bind.GeneratedBeanBinder";
+
 	static final String NULLABLE_ANNOTATION = "org.springframework.lang.Nullable";
 
 	static final String LOMBOK_DATA_ANNOTATION = "lombok.Data";
@@ -95,8 +103,9 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 
 	static final String LOMBOK_ACCESS_LEVEL_PUBLIC = "PUBLIC";
 
-	private static final Set<String> SUPPORTED_OPTIONS = Collections
-			.unmodifiableSet(Collections.singleton(ADDITIONAL_METADATA_LOCATIONS_OPTION));
+	private static final Set<String> SUPPORTED_OPTIONS = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList(ADDITIONAL_METADATA_LOCATIONS_OPTION,
+					GENERATE_BEAN_BINDERS_OPTION)));
 
 	private MetadataStore metadataStore;
 
@@ -108,6 +117,8 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 
 	private TypeExcludeFilter typeExcludeFilter = new TypeExcludeFilter();
 
+	private BeanBinderGenerator beanBinderGenerator;
+
 	protected String configurationPropertiesAnnotation() {
 		return CONFIGURATION_PROPERTIES_ANNOTATION;
 	}
@@ -128,6 +139,20 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 		return READ_OPERATION_ANNOTATION;
 	}
 
+	protected String beanBinderType() {
+		return BEAN_BINDER_TYPE;
+	}
+
+	/**
+	 * Return whether a binder that binds without reflection should be generated for each
+	 * {@code @ConfigurationProperties} type.
+	 * @return {@code true} if bean binders should be generated
+	 */
+	protected boolean isBeanBinderGenerationEnabled() {
+		return Boolean.parseBoolean(
+				this.processingEnv.getOptions().get(GENERATE_BEAN_BINDERS_OPTION));
+	}
+
 	@Override
 	public SourceVersion getSupportedSourceVersion() {
 		return SourceVersion.latestSupported();
@@ -145,6 +170,13 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env,
 				this.metadataStore.readMetadata());
+		if (isBeanBinderGenerationEnabled()) {
+			Set<String> ignoredAnnotations = new HashSet<>(Arrays.asList(
+					"java.lang.Deprecated", nestedConfigurationPropertyAnnotation(),
+					deprecatedConfigurationPropertyAnnotation()));
+			this.beanBinderGenerator = new BeanBinderGenerator(env, this.typeUtils,
+					beanBinderType(), ignoredAnnotations);
+		}
 		try {
 			this.fieldValuesParser = new JavaCompilerFieldValuesParser(env);
 		}
@@ -159,6 +191,9 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 	public boolean process(Set<? extends TypeElement> annotations,
 			RoundEnvironment roundEnv) {
 		this.metadataCollector.processing(roundEnv);
+		if (this.beanBinderGenerator != null) {
+			this.beanBinderGenerator.processing(roundEnv);
+		}
 		Elements elementUtils = this.processingEnv.getElementUtils();
 		TypeElement annotationType = elementUtils
 				.getTypeElement(configurationPropertiesAnnotation());
@@ -277,6 +312,9 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 		processSimpleLombokTypes(prefix, element, source, members, fieldValues);
 		processNestedTypes(prefix, element, source, members);
 		processNestedLombokTypes(prefix, element, source, members);
+		if (this.beanBinderGenerator != null) {
+			this.beanBinderGenerator.generate(element);
+		}
 	}
 
 	private void processSimpleTypes(String prefix, TypeElement element,
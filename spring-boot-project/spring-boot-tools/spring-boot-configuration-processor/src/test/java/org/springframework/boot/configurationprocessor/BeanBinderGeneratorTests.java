@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.configurationprocessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.configurationsample.GeneratedBeanBinder;
+import org.springframework.boot.configurationsample.GeneratedBeanBinder.Property;
+import org.springframework.boot.configurationsample.binder.AnnotatedFieldProperties;
+import org.springframework.boot.configurationsample.binder.BinderProperties;
+import org.springframework.boot.configurationsample.binder.PrivateConstructorProperties;
+import org.springframework.boot.configurationsample.simple.HierarchicalProperties;
+import org.springframework.boot.configurationsample.specific.WildcardConfig;
+import org.springframework.boot.testsupport.compiler.TestCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanBinderGenerator}.
+ *
+ * @author Example Developer
+ */
+public class BeanBinderGeneratorTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TestCompiler compiler;
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+	@Test
+	public void generateWhenDisabledShouldNotGenerateBinder() throws Exception {
+		compile(false, BinderProperties.class);
+		assertThat(getBinderSource(BinderProperties.class)).doesNotExist();
+	}
+
+	@Test
+	public void generateShouldAddPropertiesInDashedForm() throws Exception {
+		GeneratedBeanBinder<BinderProperties> binder = compileAndLoad(
+				BinderProperties.class);
+		assertThat(binder.getProperties()).containsOnlyKeys("first-name", "port", "tags",
+				"counts", "nested");
+		Map<String, Property<BinderProperties>> properties = binder.getProperties();
+		assertThat(properties.get("first-name").getType().toString())
+				.isEqualTo("java.lang.String");
+		assertThat(properties.get("port").getType().toString()).isEqualTo("int");
+		assertThat(properties.get("tags").getType().toString())
+				.isEqualTo("java.util.List<java.lang.String>");
+		assertThat(properties.get("counts").getType().toString())
+				.isEqualTo("java.util.Map<java.lang.String, java.lang.Integer[]>");
+		assertThat(properties.get("nested").getType().resolve())
+				.isEqualTo(BinderProperties.Nested.class);
+	}
+
+	@Test
+	public void generateShouldAddAccessors() throws Exception {
+		GeneratedBeanBinder<BinderProperties> binder = compileAndLoad(
+				BinderProperties.class);
+		BinderProperties instance = binder.getFactory().get();
+		Map<String, Property<BinderProperties>> properties = binder.getProperties();
+		properties.get("first-name").getSetter().accept(instance, "Spring");
+		properties.get("port").getSetter().accept(instance, 8080);
+		assertThat(instance.getFirstName()).isEqualTo("Spring");
+		assertThat(properties.get("port").getGetter().apply(instance)).isEqualTo(8080);
+		assertThat(properties.get("nested").getGetter().apply(instance))
+				.isSameAs(instance.getNested());
+		assertThat(properties.get("nested").getSetter()).isNull();
+	}
+
+	@Test
+	public void generateShouldGenerateBinderForNestedType() throws Exception {
+		compile(true, BinderProperties.class);
+		GeneratedBeanBinder<BinderProperties.Nested> binder = load(
+				BinderProperties.Nested.class);
+		assertThat(binder.getProperties()).containsOnlyKeys("enabled");
+		assertThat(binder.getProperties().get("enabled").getType().toString())
+				.isEqualTo("boolean");
+	}
+
+	@Test
+	public void generateShouldAddPropertiesOfSuperclass() throws Exception {
+		GeneratedBeanBinder<HierarchicalProperties> binder = compileAndLoad(
+				HierarchicalProperties.class);
+		assertThat(binder.getProperties()).containsOnlyKeys("first", "second", "third");
+	}
+
+	@Test
+	public void generateWhenFieldHasRuntimeAnnotationShouldNotGenerateBinder()
+			throws Exception {
+		compile(true, AnnotatedFieldProperties.class);
+		assertThat(getBinderSource(AnnotatedFieldProperties.class)).doesNotExist();
+	}
+
+	@Test
+	public void generateWhenPropertyHasWildcardTypeShouldNotGenerateBinder()
+			throws Exception {
+		compile(true, WildcardConfig.class);
+		assertThat(getBinderSource(WildcardConfig.class)).doesNotExist();
+	}
+
+	@Test
+	public void generateWhenConstructorIsPrivateShouldNotGenerateBinder()
+			throws Exception {
+		compile(true, PrivateConstructorProperties.class);
+		assertThat(getBinderSource(PrivateConstructorProperties.class)).doesNotExist();
+	}
+
+	@Test
+	public void decapitalizeShouldMatchIntrospector() {
+		assertThat(BeanBinderGenerator.decapitalize("FirstName")).isEqualTo("firstName");
+		assertThat(BeanBinderGenerator.decapitalize("URL")).isEqualTo("URL");
+		assertThat(BeanBinderGenerator.decapitalize("X")).isEqualTo("x");
+	}
+
+	@Test
+	public void toDashedFormShouldMatchBinder() {
+		assertThat(BeanBinderGenerator.toDashedForm("firstName")).isEqualTo("first-name");
+		assertThat(BeanBinderGenerator.toDashedForm("URL")).isEqualTo("u-r-l");
+		assertThat(BeanBinderGenerator.toDashedForm("some_value"))
+				.isEqualTo("some-value");
+	}
+
+	private <T> GeneratedBeanBinder<T> compileAndLoad(Class<T> type) throws Exception {
+		compile(true, type);
+		return load(type);
+	}
+
+	private void compile(boolean generateBeanBinders, Class<?>... types) {
+		TestConfigurationMetadataAnnotationProcessor processor = new TestConfigurationMetadataAnnotationProcessor(
+				this.compiler.getOutputLocation(), generateBeanBinders);
+		this.compiler.getTask(types).call(processor);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> GeneratedBeanBinder<T> load(Class<T> type) throws Exception {
+		assertThat(getBinderSource(type)).isFile();
+		URL[] urls = { this.compiler.getOutputLocation().toURI().toURL() };
+		try (URLClassLoader classLoader = new URLClassLoader(urls,
+				getClass().getClassLoader())) {
+			Class<?> binderType = classLoader
+					.loadClass(type.getName() + BeanBinderGenerator.SUFFIX);
+			return (GeneratedBeanBinder<T>) binderType.newInstance();
+		}
+	}
+
+	private File getBinderSource(Class<?> type) {
+		return new File(this.compiler.getOutputLocation(),
+				type.getName().replace('.', '/') + BeanBinderGenerator.SUFFIX + ".java");
+	}
+
+}
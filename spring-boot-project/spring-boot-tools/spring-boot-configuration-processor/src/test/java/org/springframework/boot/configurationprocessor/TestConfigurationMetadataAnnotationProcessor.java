@@ -50,12 +50,22 @@ public class TestConfigurationMetadataAnnotationProcessor
 
 	static final String READ_OPERATION_ANNOTATION = "org.springframework.boot.configurationsample.ReadOperation";
 
+	static final String BEAN_BINDER_TYPE = "org.springframework.boot.configurationsample.GeneratedBeanBinder";
+
 	private ConfigurationMetadata metadata;
 
 	private final File outputLocation;
 
+	private final boolean generateBeanBinders;
+
 	public TestConfigurationMetadataAnnotationProcessor(File outputLocation) {
+		this(outputLocation, false);
+	}
+
+	public TestConfigurationMetadataAnnotationProcessor(File outputLocation,
+			boolean generateBeanBinders) {
 		this.outputLocation = outputLocation;
+		this.generateBeanBinders = generateBeanBinders;
 	}
 
 	@Override
@@ -83,6 +93,16 @@ public class TestConfigurationMetadataAnnotationProcessor
 		return READ_OPERATION_ANNOTATION;
 	}
 
+	@Override
+	protected String beanBinderType() {
+		return BEAN_BINDER_TYPE;
+	}
+
+	@Override
+	protected boolean isBeanBinderGenerationEnabled() {
+		return this.generateBeanBinders;
+	}
+
 	@Override
 	protected ConfigurationMetadata writeMetaData() throws Exception {
 		super.writeMetaData();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.configurationsample.binder;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.configurationsample.ConfigurationProperties;
+
+/**
+ * Properties that can be bound using a generated binder.
+ *
+ * @author Example Developer
+ */
+@ConfigurationProperties("binder")
+public class BinderProperties {
+
+	private String firstName;
+
+	private int port;
+
+	private List<String> tags;
+
+	private Map<String, Integer[]> counts;
+
+	private final Nested nested = new Nested();
+
+	public String getFirstName() {
+		return this.firstName;
+	}
+
+	public void setFirstName(String firstName) {
+		this.firstName = firstName;
+	}
+
+	public int getPort() {
+		return this.port;
+	}
+
+	public void setPort(int port) {
+		this.port = port;
+	}
+
+	public List<String> getTags() {
+		return this.tags;
+	}
+
+	@Deprecated
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+
+	public Map<String, Integer[]> getCounts() {
+		return this.counts;
+	}
+
+	public void setCounts(Map<String, Integer[]> counts) {
+		this.counts = counts;
+	}
+
+	public Nested getNested() {
+		return this.nested;
+	}
+
+	public static String getIgnored() {
+		return "static";
+	}
+
+	public static class Nested {
+
+		private boolean enabled;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+	}
+
+}
@@ -31,24 +31,43 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
 import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
 import org.apache.commons.compress.archivers.jar.JarArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import org.springframework.util.StreamUtils;
 
 /**
  * Writes JAR content, ensuring valid directory entries are always created and duplicate
  * items are ignored.
+ * <p>
+ * When created with an {@link Executor}, the content of entries copied from other jar
+ * files and of nested libraries is read, checksummed and compressed by the executor ahead
+ * of the entry being written. Entries are always written in the order that they were
+ * added, so the resulting jar is the same as when writing sequentially. When created with
+ * a previously written jar, entries copied from other jar files whose name, CRC and size
+ * are unchanged are copied from the previous jar without being compressed again.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
@@ -61,10 +80,20 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 
 	private static final int BUFFER_SIZE = 32 * 1024;
 
+	private static final int MAX_PENDING_ENTRIES = 64;
+
+	private static final long MAX_BUFFERED_ENTRY_SIZE = 1024 * 1024;
+
 	private final JarArchiveOutputStream jarOutput;
 
 	private final Set<String> writtenEntries = new HashSet<>();
 
+	private final Executor executor;
+
+	private final ZipFile previous;
+
+	private final Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+
 	/**
 	 * Create a new {@link JarWriter} instance.
 	 * @param file the file to write
@@ -84,6 +113,24 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	public JarWriter(File file, LaunchScript launchScript)
 			throws FileNotFoundException, IOException {
+		this(file, launchScript, null, null);
+	}
+
+	/**
+	 * Create a new {@link JarWriter} instance.
+	 * @param file the file to write
+	 * @param launchScript an optional launch script to prepend to the front of the jar
+	 * @param executor an optional executor used to prepare the content of entries ahead
+	 * of writing them
+	 * @param previous an optional jar, without a launch script, that was previously
+	 * written to the same destination and whose unchanged entries can be reused
+	 * @throws IOException if the file cannot be opened
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	JarWriter(File file, LaunchScript launchScript, Executor executor, File previous)
+			throws FileNotFoundException, IOException {
+		this.executor = executor;
+		this.previous = (previous != null) ? new ZipFile(previous) : null;
 		FileOutputStream fileOutputStream = new FileOutputStream(file);
 		if (launchScript != null) {
 			fileOutputStream.write(launchScript.toByteArray());
@@ -112,6 +159,7 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 * @throws IOException of the manifest cannot be written
 	 */
 	public void writeManifest(Manifest manifest) throws IOException {
+		writePendingEntries();
 		JarArchiveEntry entry = new JarArchiveEntry("META-INF/MANIFEST.MF");
 		writeEntry(entry, manifest::write);
 	}
@@ -131,10 +179,108 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 
 	void writeEntries(JarFile jarFile, EntryTransformer entryTransformer,
 			UnpackHandler unpackHandler) throws IOException {
+		if (this.executor == null && this.previous == null) {
+			writeEntriesSequentially(jarFile, entryTransformer, unpackHandler);
+			return;
+		}
+		Enumeration<JarEntry> entries = jarFile.entries();
+		while (entries.hasMoreElements()) {
+			JarEntry jarEntry = entries.nextElement();
+			JarArchiveEntry entry = entryTransformer
+					.transform(new JarArchiveEntry(jarEntry));
+			if (entry == null) {
+				continue;
+			}
+			RawEntryContent reusedContent = getReusedContent(entry);
+			if (reusedContent != null) {
+				addRawEntry(entry, () -> reusedContent, unpackHandler);
+			}
+			else if (entry.isDirectory()) {
+				addEntry(entry, () -> null, unpackHandler);
+			}
+			else if (this.executor != null && entry.getSize() != -1
+					&& entry.getSize() <= MAX_BUFFERED_ENTRY_SIZE) {
+				addRawEntry(entry, () -> prepareEntry(jarFile, jarEntry, entry),
+						unpackHandler);
+			}
+			else {
+				writePendingEntries();
+				setUpEntry(jarFile, jarEntry, entry);
+				try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+					writeEntry(entry, new InputStreamEntryWriter(inputStream, false),
+							unpackHandler);
+				}
+			}
+		}
+	}
+
+	private RawEntryContent getReusedContent(JarArchiveEntry entry) {
+		if (this.previous == null || entry.isDirectory() || entry.getCrc() == -1
+				|| entry.getSize() == -1) {
+			return null;
+		}
+		ZipArchiveEntry previousEntry = this.previous.getEntry(entry.getName());
+		if (previousEntry == null || previousEntry.getCrc() != entry.getCrc()
+				|| previousEntry.getSize() != entry.getSize()
+				|| (previousEntry.getMethod() != ZipEntry.STORED
+						&& previousEntry.getMethod() != ZipEntry.DEFLATED)) {
+			return null;
+		}
+		entry.setMethod(previousEntry.getMethod());
+		entry.setCompressedSize(previousEntry.getCompressedSize());
+		return () -> this.previous.getRawInputStream(previousEntry);
+	}
+
+	private RawEntryContent prepareEntry(JarFile jarFile, JarEntry jarEntry,
+			JarArchiveEntry entry) throws IOException {
+		byte[] content;
+		try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+			content = StreamUtils.copyToByteArray(inputStream);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		entry.setCrc(crc.getValue());
+		entry.setSize(content.length);
+		if (entry.getMethod() == ZipEntry.STORED || hasZipHeader(content)) {
+			entry.setMethod(ZipEntry.STORED);
+			entry.setCompressedSize(content.length);
+			return () -> new ByteArrayInputStream(content);
+		}
+		byte[] compressed = deflate(content);
+		entry.setMethod(ZipEntry.DEFLATED);
+		entry.setCompressedSize(compressed.length);
+		return () -> new ByteArrayInputStream(compressed);
+	}
+
+	private boolean hasZipHeader(byte[] content) throws IOException {
+		try (ZipHeaderPeekInputStream inputStream = new ZipHeaderPeekInputStream(
+				new ByteArrayInputStream(content))) {
+			return inputStream.hasZipHeader();
+		}
+	}
+
+	private byte[] deflate(byte[] content) throws IOException {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output,
+					deflater, BUFFER_SIZE)) {
+				deflaterOutput.write(content);
+			}
+			return output.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private void writeEntriesSequentially(JarFile jarFile,
+			EntryTransformer entryTransformer, UnpackHandler unpackHandler)
+			throws IOException {
 		Enumeration<JarEntry> entries = jarFile.entries();
 		while (entries.hasMoreElements()) {
 			JarArchiveEntry entry = new JarArchiveEntry(entries.nextElement());
-			setUpEntry(jarFile, entry);
+			setUpEntry(jarFile, entry, entry);
 			try (ZipHeaderPeekInputStream inputStream = new ZipHeaderPeekInputStream(
 					jarFile.getInputStream(entry))) {
 				EntryWriter entryWriter = new InputStreamEntryWriter(inputStream, true);
@@ -146,9 +292,10 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 		}
 	}
 
-	private void setUpEntry(JarFile jarFile, JarArchiveEntry entry) throws IOException {
+	private void setUpEntry(JarFile jarFile, ZipEntry sourceEntry, JarArchiveEntry entry)
+			throws IOException {
 		try (ZipHeaderPeekInputStream inputStream = new ZipHeaderPeekInputStream(
-				jarFile.getInputStream(entry))) {
+				jarFile.getInputStream(sourceEntry))) {
 			if (inputStream.hasZipHeader() && entry.getMethod() != ZipEntry.STORED) {
 				new CrcAndSize(inputStream).setupStoredEntry(entry);
 			}
@@ -166,6 +313,7 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	@Override
 	public void writeEntry(String entryName, InputStream inputStream) throws IOException {
+		writePendingEntries();
 		JarArchiveEntry entry = new JarArchiveEntry(entryName);
 		writeEntry(entry, new InputStreamEntryWriter(inputStream, true));
 	}
@@ -180,10 +328,12 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 			throws IOException {
 		File file = library.getFile();
 		JarArchiveEntry entry = new JarArchiveEntry(destination + library.getName());
-		entry.setTime(getNestedLibraryTime(file));
-		new CrcAndSize(file).setupStoredEntry(entry);
-		writeEntry(entry, new InputStreamEntryWriter(new FileInputStream(file), true),
-				new LibraryUnpackHandler(library));
+		addEntry(entry, () -> {
+			entry.setTime(getNestedLibraryTime(file));
+			new CrcAndSize(file).setupStoredEntry(entry);
+			return (outputStream) -> new InputStreamEntryWriter(new FileInputStream(file),
+					true).write(outputStream);
+		}, new LibraryUnpackHandler(library));
 	}
 
 	private long getNestedLibraryTime(File file) {
@@ -221,6 +371,7 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	@Override
 	public void writeLoaderClasses(String loaderJarResourceName) throws IOException {
+		writePendingEntries();
 		URL loaderJar = getClass().getClassLoader().getResource(loaderJarResourceName);
 		try (JarInputStream inputStream = new JarInputStream(
 				new BufferedInputStream(loaderJar.openStream()))) {
@@ -240,7 +391,105 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	@Override
 	public void close() throws IOException {
-		this.jarOutput.close();
+		try {
+			writePendingEntries();
+			this.jarOutput.close();
+		}
+		finally {
+			if (this.previous != null) {
+				this.previous.close();
+			}
+		}
+	}
+
+	/**
+	 * Add an entry whose content is prepared by the given task. Without an executor the
+	 * task is called and the entry written immediately. Otherwise the task is run by the
+	 * executor and the entry is written once all previously added entries have been.
+	 * @param entry the entry to write
+	 * @param task the task that prepares the entry and returns its writer
+	 * @param unpackHandler handles possible unpacking for the entry
+	 * @throws IOException in case of I/O errors
+	 */
+	private void addEntry(JarArchiveEntry entry, Callable<EntryWriter> task,
+			UnpackHandler unpackHandler) throws IOException {
+		if (this.executor == null) {
+			writeEntry(entry, getResult(new FutureTask<>(task), true), unpackHandler);
+			return;
+		}
+		FutureTask<EntryWriter> future = new FutureTask<>(task);
+		this.executor.execute(future);
+		addPendingEntry(new PendingEntry(entry, future, null, unpackHandler));
+	}
+
+	/**
+	 * Add an entry whose already compressed content is prepared by the given task. The
+	 * task must set the entry's method, CRC, size and compressed size.
+	 * @param entry the entry to write
+	 * @param task the task that prepares the entry and returns its raw content
+	 * @param unpackHandler handles possible unpacking for the entry
+	 * @throws IOException in case of I/O errors
+	 * @see #addEntry(JarArchiveEntry, Callable, UnpackHandler)
+	 */
+	private void addRawEntry(JarArchiveEntry entry, Callable<RawEntryContent> task,
+			UnpackHandler unpackHandler) throws IOException {
+		if (this.executor == null) {
+			writeRawEntry(entry, getResult(new FutureTask<>(task), true), unpackHandler);
+			return;
+		}
+		FutureTask<RawEntryContent> future = new FutureTask<>(task);
+		this.executor.execute(future);
+		addPendingEntry(new PendingEntry(entry, null, future, unpackHandler));
+	}
+
+	private void addPendingEntry(PendingEntry pendingEntry) throws IOException {
+		this.pendingEntries.add(pendingEntry);
+		while (this.pendingEntries.size() > MAX_PENDING_ENTRIES) {
+			writePendingEntry(this.pendingEntries.poll());
+		}
+	}
+
+	private void writePendingEntries() throws IOException {
+		while (!this.pendingEntries.isEmpty()) {
+			writePendingEntry(this.pendingEntries.poll());
+		}
+	}
+
+	private void writePendingEntry(PendingEntry pendingEntry) throws IOException {
+		if (pendingEntry.rawContent != null) {
+			writeRawEntry(pendingEntry.entry, getResult(pendingEntry.rawContent, false),
+					pendingEntry.unpackHandler);
+		}
+		else {
+			writeEntry(pendingEntry.entry, getResult(pendingEntry.entryWriter, false),
+					pendingEntry.unpackHandler);
+		}
+	}
+
+	private <T> T getResult(FutureTask<T> task, boolean run) throws IOException {
+		if (run) {
+			task.run();
+		}
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while preparing entries", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
 	}
 
 	private void writeEntry(JarArchiveEntry entry, EntryWriter entryWriter)
@@ -249,8 +498,8 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	}
 
 	/**
-	 * Perform the actual write of a {@link JarEntry}. All other write methods delegate to
-	 * this one.
+	 * Perform the actual write of a {@link JarEntry}. All other write methods, apart from
+	 * {@link #writeRawEntry}, delegate to this one.
 	 * @param entry the entry to write
 	 * @param entryWriter the entry writer or {@code null} if there is no content
 	 * @param unpackHandler handles possible unpacking for the entry
@@ -258,6 +507,39 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	private void writeEntry(JarArchiveEntry entry, EntryWriter entryWriter,
 			UnpackHandler unpackHandler) throws IOException {
+		writeParentEntries(entry, unpackHandler);
+		if (this.writtenEntries.add(entry.getName())) {
+			entryWriter = addUnpackCommentIfNecessary(entry, entryWriter, unpackHandler);
+			this.jarOutput.putArchiveEntry(entry);
+			if (entryWriter != null) {
+				entryWriter.write(this.jarOutput);
+			}
+			this.jarOutput.closeArchiveEntry();
+		}
+	}
+
+	/**
+	 * Write an entry whose content has already been compressed using the entry's method.
+	 * @param entry the entry to write
+	 * @param content the raw content of the entry
+	 * @param unpackHandler handles possible unpacking for the entry
+	 * @throws IOException in case of I/O errors
+	 */
+	private void writeRawEntry(JarArchiveEntry entry, RawEntryContent content,
+			UnpackHandler unpackHandler) throws IOException {
+		writeParentEntries(entry, unpackHandler);
+		if (this.writtenEntries.add(entry.getName())) {
+			if (unpackHandler.requiresUnpack(entry.getName())) {
+				entry.setComment("UNPACK:" + unpackHandler.sha1Hash(entry.getName()));
+			}
+			try (InputStream inputStream = content.getInputStream()) {
+				this.jarOutput.addRawArchiveEntry(entry, inputStream);
+			}
+		}
+	}
+
+	private void writeParentEntries(JarArchiveEntry entry, UnpackHandler unpackHandler)
+			throws IOException {
 		String parent = entry.getName();
 		if (parent.endsWith("/")) {
 			parent = parent.substring(0, parent.length() - 1);
@@ -272,15 +554,6 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 				writeEntry(new JarArchiveEntry(parent), null, unpackHandler);
 			}
 		}
-
-		if (this.writtenEntries.add(entry.getName())) {
-			entryWriter = addUnpackCommentIfNecessary(entry, entryWriter, unpackHandler);
-			this.jarOutput.putArchiveEntry(entry);
-			if (entryWriter != null) {
-				entryWriter.write(this.jarOutput);
-			}
-			this.jarOutput.closeArchiveEntry();
-		}
 	}
 
 	private EntryWriter addUnpackCommentIfNecessary(JarArchiveEntry entry,
@@ -338,6 +611,46 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 
 	}
 
+	/**
+	 * Content of an entry that has already been compressed using the entry's method. It
+	 * is copied to the jar as it is, so the entry's CRC, size and compressed size must be
+	 * set.
+	 */
+	private interface RawEntryContent {
+
+		/**
+		 * Open a stream from which the raw content can be read.
+		 * @return the raw content
+		 * @throws IOException in case of I/O errors
+		 */
+		InputStream getInputStream() throws IOException;
+
+	}
+
+	/**
+	 * An entry that has been added but not yet written. Its content is prepared either as
+	 * an {@link EntryWriter} or as {@link RawEntryContent}.
+	 */
+	private static final class PendingEntry {
+
+		private final JarArchiveEntry entry;
+
+		private final FutureTask<EntryWriter> entryWriter;
+
+		private final FutureTask<RawEntryContent> rawContent;
+
+		private final UnpackHandler unpackHandler;
+
+		PendingEntry(JarArchiveEntry entry, FutureTask<EntryWriter> entryWriter,
+				FutureTask<RawEntryContent> rawContent, UnpackHandler unpackHandler) {
+			this.entry = entry;
+			this.entryWriter = entryWriter;
+			this.rawContent = rawContent;
+			this.unpackHandler = unpackHandler;
+		}
+
+	}
+
 	/**
 	 * {@link InputStream} that can peek ahead at zip header bytes.
 	 */
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Writes an index of the central directories of nested jars that allows the launcher to
+ * open them without parsing their central directories. The format is defined by
+ * {@code org.springframework.boot.loader.jar.NestedJarIndex}. Libraries that cannot be
+ * indexed, for example Zip64 archives, are left out and parsed by the launcher as usual.
+ *
+ * @author Example Developer
+ * @since 2.2.0
+ */
+class NestedJarIndexWriter {
+
+	/**
+	 * The name of the index entry.
+	 */
+	static final String ENTRY_NAME = "META-INF/spring-boot-nested-jars.idx";
+
+	private static final int MAGIC = 0x534A4958;
+
+	private static final int VERSION = 1;
+
+	private static final int END_RECORD_SIGNATURE = 0x06054b50;
+
+	private static final int END_RECORD_MINIMUM_SIZE = 22;
+
+	private static final int MAXIMUM_COMMENT_LENGTH = 0xFFFF;
+
+	private static final int FILE_HEADER_SIGNATURE = 0x02014b50;
+
+	private static final int FILE_HEADER_BASE_SIZE = 46;
+
+	private static final int[] INITIAL_BYTE_BITMASK = { 0x7F, 0x1F, 0x0F, 0x07 };
+
+	private static final int SUBSEQUENT_BYTE_BITMASK = 0x3F;
+
+	private final List<IndexedJar> jars = new ArrayList<>();
+
+	/**
+	 * Add a nested jar to the index.
+	 * @param entryName the name of the nested jar entry
+	 * @param file the jar file
+	 * @return {@code true} if the jar was indexed
+	 * @throws IOException if the file cannot be read
+	 */
+	boolean add(String entryName, File file) throws IOException {
+		IndexedJar jar;
+		try (RandomAccessFile data = new RandomAccessFile(file, "r")) {
+			jar = IndexedJar.read(entryName, data);
+		}
+		if (jar == null) {
+			return false;
+		}
+		jar.crc = crc(file);
+		this.jars.add(jar);
+		return true;
+	}
+
+	private static long crc(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[32 * 1024];
+		try (InputStream inputStream = new FileInputStream(file)) {
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Return the index content.
+	 * @return the index bytes
+	 * @throws IOException in case of I/O errors
+	 */
+	byte[] toByteArray() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(this.jars.size());
+			for (IndexedJar jar : this.jars) {
+				jar.write(output);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Return the hash code of a UTF-8 encoded name, matching the launcher's
+	 * {@code AsciiBytes.hashCode()} which is compatible with {@link String#hashCode()}.
+	 * @param bytes the source bytes
+	 * @param offset the offset of the name
+	 * @param length the length of the name
+	 * @return the hash code
+	 */
+	static int hashCode(byte[] bytes, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			int b = bytes[i];
+			int remainingUtfBytes = getNumberOfUtfBytes(b) - 1;
+			b &= INITIAL_BYTE_BITMASK[remainingUtfBytes];
+			for (int j = 0; j < remainingUtfBytes; j++) {
+				b = (b << 6) + (bytes[++i] & SUBSEQUENT_BYTE_BITMASK);
+			}
+			if (b <= 0xFFFF) {
+				hash = 31 * hash + b;
+			}
+			else {
+				hash = 31 * hash + ((b >> 0xA) + 0xD7C0);
+				hash = 31 * hash + ((b & 0x3FF) + 0xDC00);
+			}
+		}
+		return hash;
+	}
+
+	private static int getNumberOfUtfBytes(int b) {
+		if ((b & 0x80) == 0) {
+			return 1;
+		}
+		int numberOfUtfBytes = 0;
+		while ((b & 0x80) != 0) {
+			b <<= 1;
+			numberOfUtfBytes++;
+		}
+		return numberOfUtfBytes;
+	}
+
+	private static long littleEndianValue(byte[] bytes, int offset, int length) {
+		long value = 0;
+		for (int i = length - 1; i >= 0; i--) {
+			value = ((value << 8) | (bytes[offset + i] & 0xFF));
+		}
+		return value;
+	}
+
+	/**
+	 * Index details of a single nested jar.
+	 */
+	private static final class IndexedJar {
+
+		private final String entryName;
+
+		private long crc;
+
+		private final long size;
+
+		private final long archiveOffset;
+
+		private final long centralDirectoryOffset;
+
+		private final long centralDirectoryLength;
+
+		private final boolean signed;
+
+		private final int[] hashCodes;
+
+		private final int[] centralDirectoryOffsets;
+
+		private final int[] positions;
+
+		private IndexedJar(String entryName, long size, long archiveOffset,
+				long centralDirectoryOffset, long centralDirectoryLength, boolean signed,
+				int[] hashCodes, int[] centralDirectoryOffsets, int[] positions) {
+			this.entryName = entryName;
+			this.size = size;
+			this.archiveOffset = archiveOffset;
+			this.centralDirectoryOffset = centralDirectoryOffset;
+			this.centralDirectoryLength = centralDirectoryLength;
+			this.signed = signed;
+			this.hashCodes = hashCodes;
+			this.centralDirectoryOffsets = centralDirectoryOffsets;
+			this.positions = positions;
+		}
+
+		static IndexedJar read(String entryName, RandomAccessFile data)
+				throws IOException {
+			long size = data.length();
+			int tailLength = (int) Math.min(size,
+					END_RECORD_MINIMUM_SIZE + MAXIMUM_COMMENT_LENGTH);
+			byte[] tail = new byte[tailLength];
+			data.seek(size - tailLength);
+			data.readFully(tail);
+			int endRecord = findEndRecord(tail);
+			if (endRecord == -1) {
+				return null;
+			}
+			int records = (int) littleEndianValue(tail, endRecord + 10, 2);
+			long centralDirectoryLength = littleEndianValue(tail, endRecord + 12, 4);
+			long centralDirectoryOffset = littleEndianValue(tail, endRecord + 16, 4);
+			if (records == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL) {
+				return null;
+			}
+			long archiveOffset = (size - (tailLength - endRecord)
+					- centralDirectoryLength) - centralDirectoryOffset;
+			if (archiveOffset < 0) {
+				return null;
+			}
+			byte[] centralDirectory = new byte[(int) centralDirectoryLength];
+			data.seek(archiveOffset + centralDirectoryOffset);
+			data.readFully(centralDirectory);
+			int[] hashCodes = new int[records];
+			int[] offsets = new int[records];
+			boolean signed = false;
+			int offset = 0;
+			for (int i = 0; i < records; i++) {
+				if (offset + FILE_HEADER_BASE_SIZE > centralDirectory.length
+						|| littleEndianValue(centralDirectory, offset,
+								4) != FILE_HEADER_SIGNATURE) {
+					return null;
+				}
+				int nameLength = (int) littleEndianValue(centralDirectory, offset + 28,
+						2);
+				int extraLength = (int) littleEndianValue(centralDirectory, offset + 30,
+						2);
+				int commentLength = (int) littleEndianValue(centralDirectory, offset + 32,
+						2);
+				int nameOffset = offset + FILE_HEADER_BASE_SIZE;
+				hashCodes[i] = NestedJarIndexWriter.hashCode(centralDirectory, nameOffset,
+						nameLength);
+				offsets[i] = offset;
+				String name = new String(centralDirectory, nameOffset, nameLength,
+						StandardCharsets.UTF_8);
+				signed |= name.startsWith("META-INF/") && name.endsWith(".SF");
+				offset = nameOffset + nameLength + extraLength + commentLength;
+			}
+			return sorted(entryName, size, archiveOffset, centralDirectoryOffset,
+					centralDirectoryLength, signed, hashCodes, offsets);
+		}
+
+		private static int findEndRecord(byte[] tail) {
+			for (int offset = tail.length
+					- END_RECORD_MINIMUM_SIZE; offset >= 0; offset--) {
+				if (littleEndianValue(tail, offset, 4) == END_RECORD_SIGNATURE
+						&& littleEndianValue(tail, offset + 20, 2) == tail.length - offset
+								- END_RECORD_MINIMUM_SIZE) {
+					return offset;
+				}
+			}
+			return -1;
+		}
+
+		private static IndexedJar sorted(String entryName, long size, long archiveOffset,
+				long centralDirectoryOffset, long centralDirectoryLength, boolean signed,
+				int[] hashCodes, int[] offsets) {
+			Integer[] order = new Integer[hashCodes.length];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, Comparator.comparingInt((index) -> hashCodes[index]));
+			int[] sortedHashCodes = new int[order.length];
+			int[] sortedOffsets = new int[order.length];
+			int[] positions = new int[order.length];
+			for (int i = 0; i < order.length; i++) {
+				sortedHashCodes[i] = hashCodes[order[i]];
+				sortedOffsets[i] = offsets[order[i]];
+				positions[order[i]] = i;
+			}
+			return new IndexedJar(entryName, size, archiveOffset, centralDirectoryOffset,
+					centralDirectoryLength, signed, sortedHashCodes, sortedOffsets,
+					positions);
+		}
+
+		void write(DataOutputStream output) throws IOException {
+			output.writeUTF(this.entryName);
+			output.writeLong(this.crc);
+			output.writeLong(this.size);
+			output.writeLong(this.archiveOffset);
+			output.writeLong(this.centralDirectoryOffset);
+			output.writeLong(this.centralDirectoryLength);
+			output.writeBoolean(this.signed);
+			output.writeInt(this.hashCodes.length);
+			for (int hashCode : this.hashCodes) {
+				output.writeInt(hashCode);
+			}
+			for (int offset : this.centralDirectoryOffsets) {
+				output.writeInt(offset);
+			}
+			for (int position : this.positions) {
+				output.writeInt(position);
+			}
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.loader.tools;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -25,7 +26,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -57,6 +62,8 @@ public class Repackager {
 
 	private static final String BOOT_CLASSES_ATTRIBUTE = "Spring-Boot-Classes";
 
+	private static final String BOOT_EXTRACT_ATTRIBUTE = "Spring-Boot-Extract";
+
 	private static final byte[] ZIP_FILE_HEADER = new byte[] { 'P', 'K', 3, 4 };
 
 	private static final long FIND_WARNING_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
@@ -69,6 +76,14 @@ public class Repackager {
 
 	private boolean backupSource = true;
 
+	private boolean nestedJarIndex;
+
+	private boolean extract;
+
+	private boolean parallel;
+
+	private boolean incremental;
+
 	private final File source;
 
 	private Layout layout;
@@ -119,6 +134,51 @@ public class Repackager {
 		this.backupSource = backupSource;
 	}
 
+	/**
+	 * Sets if an index of the central directories of nested libraries should be written
+	 * so that the launcher can open them without parsing their central directories. Only
+	 * applies to executable layouts.
+	 * @param nestedJarIndex if the nested jar index should be written
+	 * @since 2.2.0
+	 */
+	public void setNestedJarIndex(boolean nestedJarIndex) {
+		this.nestedJarIndex = nestedJarIndex;
+	}
+
+	/**
+	 * Sets if the launcher should extract the application's class path to a directory the
+	 * first time it is run and launch from the extracted jars on later runs. Only applies
+	 * to layouts with a launcher.
+	 * @param extract if the application should be extracted when launched
+	 * @since 2.2.0
+	 */
+	public void setExtract(boolean extract) {
+		this.extract = extract;
+	}
+
+	/**
+	 * Sets if the content of entries should be read and compressed in parallel. Entries
+	 * are written in the same order as when repackaging sequentially.
+	 * @param parallel if entries should be prepared in parallel
+	 * @since 2.2.0
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Sets if entries of a jar previously repackaged to the same destination should be
+	 * reused. Entries copied from the source jar whose name, CRC and size are unchanged
+	 * are then copied from the previous jar rather than being compressed again. Only
+	 * applies when the destination differs from the source and the previous jar has no
+	 * launch script.
+	 * @param incremental if unchanged entries should be reused
+	 * @since 2.2.0
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	/**
 	 * Sets the layout to use for the jar. Defaults to {@link Layouts#forFile(File)}.
 	 * @param layout the layout
@@ -189,13 +249,22 @@ public class Repackager {
 			workingSource.delete();
 			renameFile(this.source, workingSource);
 		}
+		File previous = getPrevious(destination);
 		destination.delete();
+		ExecutorService executor = this.parallel ? createExecutor() : null;
 		try {
 			try (JarFile jarFileSource = new JarFile(workingSource)) {
-				repackage(jarFileSource, destination, libraries, launchScript);
+				repackage(jarFileSource, destination, libraries, launchScript, executor,
+						previous);
 			}
 		}
 		finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+			if (previous != null) {
+				deleteFile(previous);
+			}
 			if (!this.backupSource && !this.source.equals(workingSource)) {
 				deleteFile(workingSource);
 			}
@@ -223,8 +292,35 @@ public class Repackager {
 		return new File(this.source.getParentFile(), this.source.getName() + ".original");
 	}
 
+	private File getPrevious(File destination) throws IOException {
+		if (!this.incremental || this.source.equals(destination) || !destination.isFile()
+				|| !isZip(destination) || !isRepackaged(destination)) {
+			return null;
+		}
+		File previous = new File(destination.getParentFile(),
+				destination.getName() + ".previous");
+		previous.delete();
+		renameFile(destination, previous);
+		return previous;
+	}
+
+	private ExecutorService createExecutor() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+				(runnable) -> {
+					Thread thread = new Thread(runnable,
+							"repackager-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
 	private boolean alreadyRepackaged() throws IOException {
-		try (JarFile jarFile = new JarFile(this.source)) {
+		return isRepackaged(this.source);
+	}
+
+	private boolean isRepackaged(File file) throws IOException {
+		try (JarFile jarFile = new JarFile(file)) {
 			Manifest manifest = jarFile.getManifest();
 			return (manifest != null && manifest.getMainAttributes()
 					.getValue(BOOT_VERSION_ATTRIBUTE) != null);
@@ -232,9 +328,11 @@ public class Repackager {
 	}
 
 	private void repackage(JarFile sourceJar, File destination, Libraries libraries,
-			LaunchScript launchScript) throws IOException {
+			LaunchScript launchScript, Executor executor, File previous)
+			throws IOException {
 		WritableLibraries writeableLibraries = new WritableLibraries(libraries);
-		try (JarWriter writer = new JarWriter(destination, launchScript)) {
+		try (JarWriter writer = new JarWriter(destination, launchScript, executor,
+				previous)) {
 			writer.writeManifest(buildManifest(sourceJar));
 			writeLoaderClasses(writer);
 			if (this.layout instanceof RepackagingLayout) {
@@ -246,6 +344,9 @@ public class Repackager {
 				writer.writeEntries(sourceJar, writeableLibraries);
 			}
 			writeableLibraries.write(writer);
+			if (this.nestedJarIndex && this.layout.isExecutable()) {
+				writeableLibraries.writeIndex(writer);
+			}
 		}
 	}
 
@@ -300,6 +401,9 @@ public class Repackager {
 				throw new IllegalStateException("Unable to find main class");
 			}
 			manifest.getMainAttributes().putValue(START_CLASS_ATTRIBUTE, startClass);
+			if (this.extract) {
+				manifest.getMainAttributes().putValue(BOOT_EXTRACT_ATTRIBUTE, "true");
+			}
 		}
 		else if (startClass != null) {
 			manifest.getMainAttributes().putValue(MAIN_CLASS_ATTRIBUTE, startClass);
@@ -460,6 +564,15 @@ public class Repackager {
 			}
 		}
 
+		private void writeIndex(JarWriter writer) throws IOException {
+			NestedJarIndexWriter index = new NestedJarIndexWriter();
+			for (Entry<String, Library> entry : this.libraryEntryNames.entrySet()) {
+				index.add(entry.getKey(), entry.getValue().getFile());
+			}
+			writer.writeEntry(NestedJarIndexWriter.ENTRY_NAME,
+					new ByteArrayInputStream(index.toByteArray()));
+		}
+
 	}
 
 }
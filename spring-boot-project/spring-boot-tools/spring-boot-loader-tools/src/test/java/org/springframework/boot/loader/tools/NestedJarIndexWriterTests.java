@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.tools;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.loader.tools.sample.ClassWithoutMainMethod;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link NestedJarIndexWriter}.
+ *
+ * @author Example Developer
+ */
+public class NestedJarIndexWriterTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void hashCodeMatchesStringHashCode() {
+		assertHashCode("a/b/C.class");
+		assertHashCode("META-INF/ä.dat");
+		assertHashCode("中文/😀.txt");
+	}
+
+	@Test
+	public void addJar() throws Exception {
+		TestJarFile jar = new TestJarFile(this.temporaryFolder);
+		jar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		NestedJarIndexWriter writer = new NestedJarIndexWriter();
+		assertThat(writer.add("BOOT-INF/lib/test.jar", jar.getFile())).isTrue();
+		assertThat(writer.toByteArray().length).isGreaterThan(12);
+	}
+
+	@Test
+	public void addFileThatIsNotAJar() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		FileCopyUtils.copy(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }, file);
+		NestedJarIndexWriter writer = new NestedJarIndexWriter();
+		assertThat(writer.add("BOOT-INF/lib/test.jar", file)).isFalse();
+		assertThat(writer.toByteArray()).hasSize(12);
+	}
+
+	private void assertHashCode(String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		assertThat(NestedJarIndexWriter.hashCode(bytes, 0, bytes.length))
+				.isEqualTo(name.hashCode());
+	}
+
+}
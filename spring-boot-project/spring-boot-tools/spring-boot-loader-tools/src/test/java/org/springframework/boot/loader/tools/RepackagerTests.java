@@ -444,6 +444,133 @@ public class RepackagerTests {
 		}
 	}
 
+	@Test
+	public void nestedJarIndex() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		File libJarFile = libJar.getFile();
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setNestedJarIndex(true);
+		repackager.repackage((callback) -> callback
+				.library(new Library(libJarFile, LibraryScope.COMPILE)));
+		assertThat(hasEntry(file, NestedJarIndexWriter.ENTRY_NAME)).isTrue();
+		try (org.springframework.boot.loader.jar.JarFile jarFile = new org.springframework.boot.loader.jar.JarFile(
+				file)) {
+			org.springframework.boot.loader.jar.JarFile nested = jarFile.getNestedJarFile(
+					jarFile.getEntry("BOOT-INF/lib/" + libJarFile.getName()));
+			assertThat(nested.getEntry("a/b/C.class")).isNotNull();
+		}
+	}
+
+	@Test
+	public void nestedJarIndexIsNotWrittenByDefault() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		File libJarFile = libJar.getFile();
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.repackage((callback) -> callback
+				.library(new Library(libJarFile, LibraryScope.COMPILE)));
+		assertThat(hasEntry(file, NestedJarIndexWriter.ENTRY_NAME)).isFalse();
+	}
+
+	@Test
+	public void extract() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setExtract(true);
+		repackager.repackage(NO_LIBRARIES);
+		assertThat(getManifest(file).getMainAttributes())
+				.containsEntry(new Attributes.Name("Spring-Boot-Extract"), "true");
+	}
+
+	@Test
+	public void extractIsNotEnabledByDefault() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.repackage(NO_LIBRARIES);
+		assertThat(getManifest(file).getMainAttributes())
+				.doesNotContainKey(new Attributes.Name("Spring-Boot-Extract"));
+	}
+
+	@Test
+	public void parallelWritesSameEntriesAsSequential() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class, JAN_1_1985);
+		File libJarFile = libJar.getFile();
+		File libJarFileToUnpack = libJar.getFile();
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		this.testJarFile.addClass("a/b/D.class", ClassWithoutMainMethod.class);
+		this.testJarFile.addFile("BOOT-INF/lib/nested.jar", libJarFile);
+		File file = this.testJarFile.getFile();
+		Libraries libraries = (callback) -> {
+			callback.library(new Library(libJarFile, LibraryScope.COMPILE));
+			callback.library(new Library(libJarFileToUnpack, LibraryScope.COMPILE, true));
+		};
+		File sequential = this.temporaryFolder.newFile("sequential.jar");
+		new Repackager(file).repackage(sequential, libraries);
+		File parallel = this.temporaryFolder.newFile("parallel.jar");
+		Repackager repackager = new Repackager(file);
+		repackager.setParallel(true);
+		repackager.repackage(parallel, libraries);
+		assertThat(getEntryNames(parallel)).isEqualTo(getEntryNames(sequential));
+		for (String name : getEntryNames(sequential)) {
+			JarEntry expected = getEntry(sequential, name);
+			JarEntry actual = getEntry(parallel, name);
+			assertThat(actual.getCrc()).as(name).isEqualTo(expected.getCrc());
+			assertThat(actual.getSize()).as(name).isEqualTo(expected.getSize());
+			assertThat(actual.getMethod()).as(name).isEqualTo(expected.getMethod());
+			assertThat(actual.getComment()).as(name).isEqualTo(expected.getComment());
+			if (!expected.isDirectory()) {
+				// Parent directory entries are written with the current time
+				assertThat(actual.getTime()).as(name).isEqualTo(expected.getTime());
+			}
+		}
+	}
+
+	@Test
+	public void incrementalReusesUnchangedEntries() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		File dest = this.temporaryFolder.newFile("dest.jar");
+		Repackager repackager = new Repackager(file);
+		repackager.setIncremental(true);
+		repackager.repackage(dest, NO_LIBRARIES);
+		assertThat(isRewritten(dest, "BOOT-INF/classes/a/b/C.class")).isTrue();
+		List<String> entryNames = getEntryNames(dest);
+		repackager.repackage(dest, NO_LIBRARIES);
+		assertThat(isRewritten(dest, "BOOT-INF/classes/a/b/C.class")).isFalse();
+		assertThat(getEntryNames(dest)).isEqualTo(entryNames);
+		assertThat(new File(dest.getParentFile(), "dest.jar.previous")).doesNotExist();
+	}
+
+	@Test
+	public void incrementalRewritesChangedEntries() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		this.testJarFile.addClass("a/b/D.class", ClassWithoutMainMethod.class);
+		File dest = this.temporaryFolder.newFile("dest.jar");
+		Repackager repackager = new Repackager(this.testJarFile.getFile());
+		repackager.setIncremental(true);
+		repackager.repackage(dest, NO_LIBRARIES);
+		TestJarFile changedJarFile = new TestJarFile(this.temporaryFolder);
+		changedJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		changedJarFile.addClass("a/b/D.class", ClassWithMainMethod.class);
+		File changed = changedJarFile.getFile();
+		repackager = new Repackager(changed);
+		repackager.setMainClass("a.b.C");
+		repackager.setIncremental(true);
+		repackager.repackage(dest, NO_LIBRARIES);
+		assertThat(isRewritten(dest, "BOOT-INF/classes/a/b/C.class")).isFalse();
+		assertThat(isRewritten(dest, "BOOT-INF/classes/a/b/D.class")).isTrue();
+		assertThat(getEntry(dest, "BOOT-INF/classes/a/b/D.class").getCrc())
+				.isEqualTo(getEntry(changed, "a/b/D.class").getCrc());
+	}
+
 	@Test
 	public void addLauncherScript() throws Exception {
 		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
@@ -683,6 +810,12 @@ public class RepackagerTests {
 		}
 	}
 
+	private boolean isRewritten(File file, String name) throws IOException {
+		try (ZipFile zip = new ZipFile(file)) {
+			return zip.getEntry(name).getGeneralPurposeBit().usesDataDescriptor();
+		}
+	}
+
 	private Manifest getManifest(File file) throws IOException {
 		try (JarFile jarFile = new JarFile(file)) {
 			return jarFile.getManifest();
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.Archive.EntryFilter;
+import org.springframework.boot.loader.jar.JarFile;
+
+/**
+ * Extracts the class path of an executable jar so that the application can be launched
+ * from plain jar files rather than nested ones. The application is extracted to a
+ * directory named using a hash of the jar's entries, so it is only written the first time
+ * a particular jar is launched and is reused after that.
+ * <p>
+ * Nested jars are copied as they are. The content of nested directories (for example
+ * {@code BOOT-INF/classes/}) is written to an {@code application.jar} whose manifest
+ * lists the nested jars in its {@code Class-Path} and uses the {@code Start-Class} as its
+ * {@code Main-Class}. The extracted application can also be run using
+ * {@code java -jar application.jar}, which allows all of its classes to be stored in a
+ * class data sharing archive.
+ * <p>
+ * As the directory name can be predicted, an extracted application is only trusted when
+ * the root directory and the application's directory are owned by the current user, the
+ * root directory cannot be written by other users, and the directory contains a marker
+ * file, written last, that holds the expected hash. A missing root directory is created
+ * so that only its owner can access it.
+ *
+ * @author Example Developer
+ * @since 2.2.0
+ */
+final class ApplicationExtractor {
+
+	static final String APPLICATION_JAR = "application.jar";
+
+	static final String MARKER = ".extracted";
+
+	private static final String START_CLASS = "Start-Class";
+
+	private static final int BUFFER_SIZE = 32 * 1024;
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final JarFile jarFile;
+
+	private final EntryFilter filter;
+
+	/**
+	 * Create a new {@link ApplicationExtractor} instance.
+	 * @param jarFile the executable jar file
+	 * @param filter the filter used to identify the nested jars and directories that make
+	 * up the class path
+	 */
+	ApplicationExtractor(JarFile jarFile, EntryFilter filter) {
+		this.jarFile = jarFile;
+		this.filter = filter;
+	}
+
+	/**
+	 * Extract the application to a directory below the given root, unless it has already
+	 * been extracted, and return its class path.
+	 * @param root the directory that contains extracted applications
+	 * @return the class path URLs, starting with the {@code application.jar}
+	 * @throws IOException if the application cannot be extracted
+	 * @throws IllegalStateException if the root directory, or an existing directory for
+	 * the application, cannot be trusted
+	 */
+	List<URL> extract(File root) throws IOException {
+		List<String> directories = new ArrayList<>();
+		List<JarEntry> jars = new ArrayList<>();
+		MessageDigest digest = getDigest();
+		Enumeration<JarEntry> entries = this.jarFile.entries();
+		while (entries.hasMoreElements()) {
+			JarEntry entry = entries.nextElement();
+			update(digest, entry);
+			if (this.filter.matches(new ExtractedEntry(entry))) {
+				if (entry.isDirectory()) {
+					directories.add(entry.getName());
+				}
+				else {
+					jars.add(entry);
+				}
+			}
+		}
+		String hash = toHex(digest.digest());
+		Path rootPath = getRoot(root);
+		UserPrincipal user = getCurrentUser(rootPath);
+		checkTrusted(rootPath, user);
+		File directory = new File(rootPath.toFile(),
+				new File(this.jarFile.getName()).getName() + "-" + hash);
+		if (!isExtracted(directory, hash, user)) {
+			extract(directory, hash, user, directories, jars);
+		}
+		List<URL> urls = new ArrayList<>(jars.size() + 1);
+		urls.add(new File(directory, APPLICATION_JAR).toURI().toURL());
+		for (JarEntry jar : jars) {
+			urls.add(getFile(directory, jar.getName()).toURI().toURL());
+		}
+		return urls;
+	}
+
+	private Path getRoot(File root) throws IOException {
+		Path path = root.toPath().toAbsolutePath();
+		if (!Files.isDirectory(path)) {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			try {
+				Files.createDirectory(path, getOwnerOnlyAttributes());
+			}
+			catch (FileAlreadyExistsException ex) {
+				// Created concurrently, checked below
+			}
+		}
+		return path.toRealPath();
+	}
+
+	private FileAttribute<?>[] getOwnerOnlyAttributes() {
+		if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			return new FileAttribute<?>[0];
+		}
+		return new FileAttribute<?>[] { PosixFilePermissions
+				.asFileAttribute(PosixFilePermissions.fromString("rwx------")) };
+	}
+
+	private UserPrincipal getCurrentUser(Path root) {
+		try {
+			Path probe = Files.createTempFile(root, MARKER, ".tmp");
+			try {
+				return Files.getOwner(probe);
+			}
+			finally {
+				Files.delete(probe);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(
+					"Unable to extract application to '" + root + "'", ex);
+		}
+	}
+
+	private void checkTrusted(Path path, UserPrincipal user) throws IOException {
+		UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+		if (!user.equals(owner)) {
+			throw new IllegalStateException("Unable to use '" + path
+					+ "' for extracted applications as it is owned by " + owner.getName()
+					+ " rather than " + user.getName());
+		}
+		PosixFileAttributeView view = Files.getFileAttributeView(path,
+				PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+		if (view != null) {
+			Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+			if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+					|| permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+				throw new IllegalStateException("Unable to use '" + path
+						+ "' for extracted applications as it can be written by other users");
+			}
+		}
+	}
+
+	private boolean isExtracted(File directory, String hash, UserPrincipal user)
+			throws IOException {
+		Path path = directory.toPath();
+		if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+		checkTrusted(path, user);
+		Path marker = path.resolve(MARKER);
+		if (Files.isRegularFile(marker, LinkOption.NOFOLLOW_LINKS) && hash
+				.equals(new String(Files.readAllBytes(marker), StandardCharsets.UTF_8))) {
+			return true;
+		}
+		// Incomplete or unexpected content, extract again
+		delete(directory);
+		return false;
+	}
+
+	private MessageDigest getDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void update(MessageDigest digest, JarEntry entry) {
+		digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+		update(digest, entry.getCrc());
+		update(digest, entry.getSize());
+	}
+
+	private void update(MessageDigest digest, long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			digest.update((byte) (value >>> shift));
+		}
+	}
+
+	private String toHex(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
+	private void extract(File directory, String hash, UserPrincipal user,
+			List<String> directories, List<JarEntry> jars) throws IOException {
+		File temp = new File(directory.getParentFile(),
+				directory.getName() + "-" + UUID.randomUUID() + ".tmp");
+		try {
+			Files.createDirectory(temp.toPath());
+			for (JarEntry jar : jars) {
+				copy(jar, getFile(temp, jar.getName()));
+			}
+			writeApplicationJar(new File(temp, APPLICATION_JAR), directories, jars);
+			Files.write(new File(temp, MARKER).toPath(),
+					hash.getBytes(StandardCharsets.UTF_8));
+			if (!temp.renameTo(directory) && !isExtracted(directory, hash, user)) {
+				throw new IOException(
+						"Unable to extract application to '" + directory + "'");
+			}
+		}
+		finally {
+			delete(temp);
+		}
+	}
+
+	private File getFile(File directory, String name) {
+		if (name.startsWith("/") || name.contains("../")) {
+			throw new IllegalStateException(
+					"Unable to extract entry '" + name + "' from " + this.jarFile);
+		}
+		return new File(directory, name);
+	}
+
+	private void writeApplicationJar(File file, List<String> directories,
+			List<JarEntry> jars) throws IOException {
+		try (JarOutputStream outputStream = new JarOutputStream(
+				new FileOutputStream(file), getApplicationManifest(jars))) {
+			Set<String> written = new HashSet<>();
+			written.add("META-INF/");
+			written.add("META-INF/MANIFEST.MF");
+			Enumeration<JarEntry> entries = this.jarFile.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				String name = getApplicationEntryName(entry.getName(), directories);
+				if (name != null && written.add(name)) {
+					outputStream.putNextEntry(new JarEntry(name));
+					if (!entry.isDirectory()) {
+						copy(entry, outputStream);
+					}
+					outputStream.closeEntry();
+				}
+			}
+		}
+	}
+
+	private String getApplicationEntryName(String name, List<String> directories) {
+		for (String directory : directories) {
+			if (name.startsWith(directory) && name.length() > directory.length()) {
+				return name.substring(directory.length());
+			}
+		}
+		return null;
+	}
+
+	private Manifest getApplicationManifest(List<JarEntry> jars) throws IOException {
+		Manifest source = this.jarFile.getManifest();
+		Manifest manifest = (source != null) ? new Manifest(source) : new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.putIfAbsent(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.remove(Attributes.Name.MAIN_CLASS);
+		String startClass = (String) attributes.remove(new Attributes.Name(START_CLASS));
+		if (startClass != null) {
+			attributes.put(Attributes.Name.MAIN_CLASS, startClass);
+		}
+		StringBuilder classPath = new StringBuilder();
+		for (JarEntry jar : jars) {
+			classPath.append((classPath.length() > 0) ? " " : "");
+			classPath.append(jar.getName().replace(" ", "%20"));
+		}
+		attributes.put(Attributes.Name.CLASS_PATH, classPath.toString());
+		return manifest;
+	}
+
+	private void copy(JarEntry entry, File file) throws IOException {
+		file.getParentFile().mkdirs();
+		try (OutputStream outputStream = new FileOutputStream(file)) {
+			copy(entry, outputStream);
+		}
+	}
+
+	private void copy(JarEntry entry, OutputStream outputStream) throws IOException {
+		try (InputStream inputStream = this.jarFile.getInputStream(entry)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int bytesRead;
+			while ((bytesRead = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, bytesRead);
+			}
+		}
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * {@link Archive.Entry} used to match jar entries against the filter.
+	 */
+	private static final class ExtractedEntry implements Archive.Entry {
+
+		private final JarEntry entry;
+
+		ExtractedEntry(JarEntry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return this.entry.isDirectory();
+		}
+
+		@Override
+		public String getName() {
+			return this.entry.getName();
+		}
+
+	}
+
+}
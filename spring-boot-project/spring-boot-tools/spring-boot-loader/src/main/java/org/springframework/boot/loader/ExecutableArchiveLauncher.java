@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2017 the original author or authors.
+ * Copyright 2012-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,56 @@
 
 package org.springframework.boot.loader;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.Manifest;
 
 import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
 
 /**
  * Base class for executable archive {@link Launcher}s.
+ * <p>
+ * Nested archives are opened one after another unless the {@code loader.parallel} system
+ * property is {@code true}, in which case a jar archive's nested archives are opened and
+ * unpacked using a pool sized to the available processors. The class path order is the
+ * same in both cases. Setting {@code loader.debug} to {@code true} reports how long
+ * opening the nested archives took.
+ * <p>
+ * When the {@code loader.extract} system property or the {@code Spring-Boot-Extract}
+ * manifest attribute is {@code true}, a jar archive's class path is extracted to a
+ * directory below {@code loader.extract.dir} (by default
+ * {@code spring-boot-extracted-<user name>} in the temporary directory) the first time it
+ * is launched. The application is then launched from the extracted jar files without
+ * using nested jar URLs. The directory must be owned by, and only writable by, the
+ * current user.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
  */
 public abstract class ExecutableArchiveLauncher extends Launcher {
 
+	private static final String PARALLEL = "loader.parallel";
+
+	private static final String DEBUG = "loader.debug";
+
+	private static final String EXTRACT = "loader.extract";
+
+	private static final String EXTRACT_DIR = "loader.extract.dir";
+
+	private static final String EXTRACT_ATTRIBUTE = "Spring-Boot-Extract";
+
 	private final Archive archive;
 
 	public ExecutableArchiveLauncher() {
@@ -64,14 +99,104 @@ public abstract class ExecutableArchiveLauncher extends Launcher {
 		return mainClass;
 	}
 
+	@Override
+	protected void launch(String[] args) throws Exception {
+		List<URL> urls = getExtractedClassPath();
+		if (urls == null) {
+			super.launch(args);
+			return;
+		}
+		launch(args, getMainClass(), createClassLoader(urls.toArray(new URL[0])));
+	}
+
+	/**
+	 * Return the class path of the extracted application, extracting it first if
+	 * necessary.
+	 * @return the class path URLs or {@code null} if the application should not be, or
+	 * cannot be, extracted
+	 * @throws Exception if the application cannot be extracted
+	 */
+	List<URL> getExtractedClassPath() throws Exception {
+		if (!isExtract()) {
+			return null;
+		}
+		JarFile jarFile = getRootJarFile();
+		if (jarFile == null) {
+			return null;
+		}
+		long start = System.nanoTime();
+		String extractDir = System.getProperty(EXTRACT_DIR);
+		File root = (extractDir != null) ? new File(extractDir)
+				: new File(System.getProperty("java.io.tmpdir"),
+						"spring-boot-extracted-" + System.getProperty("user.name"));
+		List<URL> urls = new ApplicationExtractor(jarFile, this::isNestedArchive)
+				.extract(root);
+		debug("Using application extracted to " + urls.get(0) + " ("
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms)");
+		return urls;
+	}
+
+	private boolean isExtract() throws IOException {
+		String extract = System.getProperty(EXTRACT);
+		if (extract != null) {
+			return Boolean.parseBoolean(extract);
+		}
+		Manifest manifest = this.archive.getManifest();
+		return manifest != null && Boolean
+				.parseBoolean(manifest.getMainAttributes().getValue(EXTRACT_ATTRIBUTE));
+	}
+
+	private JarFile getRootJarFile() throws IOException {
+		if (!(this.archive instanceof JarFileArchive)) {
+			return null;
+		}
+		URL url = this.archive.getUrl();
+		if (url.getFile().indexOf("!/") != url.getFile().length() - 2) {
+			return null;
+		}
+		URLConnection connection = url.openConnection();
+		if (connection instanceof JarURLConnection) {
+			java.util.jar.JarFile jarFile = ((JarURLConnection) connection).getJarFile();
+			if (jarFile instanceof JarFile) {
+				return (JarFile) jarFile;
+			}
+		}
+		return null;
+	}
+
 	@Override
 	protected List<Archive> getClassPathArchives() throws Exception {
+		long start = System.nanoTime();
+		boolean parallel = Boolean.getBoolean(PARALLEL)
+				&& this.archive instanceof JarFileArchive;
 		List<Archive> archives = new ArrayList<>(
-				this.archive.getNestedArchives(this::isNestedArchive));
+				parallel ? getNestedArchivesInParallel((JarFileArchive) this.archive)
+						: this.archive.getNestedArchives(this::isNestedArchive));
+		debug("Opened " + archives.size() + " nested archives"
+				+ (parallel ? " in parallel" : "") + " in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
 		postProcessClassPathArchives(archives);
 		return archives;
 	}
 
+	private List<Archive> getNestedArchivesInParallel(JarFileArchive archive)
+			throws IOException {
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors(), (runnable) -> {
+					Thread thread = new Thread(runnable,
+							"nested-archive-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			return archive.getNestedArchives(this::isNestedArchive, executor);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Determine if the specified {@link JarEntry} is a nested item that should be added
 	 * to the classpath. The method is called once for each entry.
@@ -89,4 +214,10 @@ public abstract class ExecutableArchiveLauncher extends Launcher {
 	protected void postProcessClassPathArchives(List<Archive> archives) throws Exception {
 	}
 
+	private void debug(String message) {
+		if (Boolean.getBoolean(DEBUG)) {
+			System.out.println(message);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2017 the original author or authors.
+ * Copyright 2012-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,26 @@
 
 package org.springframework.boot.loader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.security.AccessController;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 
+import org.springframework.boot.loader.PackageIndex.IndexedArchive;
 import org.springframework.boot.loader.jar.Handler;
 
 /**
@@ -37,10 +47,18 @@ import org.springframework.boot.loader.jar.Handler;
  */
 public class LaunchedURLClassLoader extends URLClassLoader {
 
+	private static final int BUFFER_SIZE = 4096;
+
 	static {
 		ClassLoader.registerAsParallelCapable();
 	}
 
+	private final Object packageIndexMonitor = new Object();
+
+	private volatile boolean packageIndexResolved;
+
+	private volatile PackageIndex packageIndex;
+
 	/**
 	 * Create a new {@link LaunchedURLClassLoader} instance.
 	 * @param urls the URLs from which to load classes and resources
@@ -54,8 +72,16 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 	public URL findResource(String name) {
 		Handler.setUseFastConnectionExceptions(true);
 		try {
+			PackageIndex packageIndex = getPackageIndex();
+			if (packageIndex != null && packageIndex.isIndexed(name)) {
+				IndexedArchive archive = packageIndex.getArchive(name);
+				return (archive != null) ? archive.getUrl(name) : null;
+			}
 			return super.findResource(name);
 		}
+		catch (IOException ex) {
+			return null;
+		}
 		finally {
 			Handler.setUseFastConnectionExceptions(false);
 		}
@@ -65,6 +91,14 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 	public Enumeration<URL> findResources(String name) throws IOException {
 		Handler.setUseFastConnectionExceptions(true);
 		try {
+			PackageIndex packageIndex = getPackageIndex();
+			if (packageIndex != null && packageIndex.isIndexed(name)) {
+				List<URL> urls = new ArrayList<>();
+				for (IndexedArchive archive : packageIndex.getArchives(name)) {
+					urls.add(archive.getUrl(name));
+				}
+				return Collections.enumeration(urls);
+			}
 			return new UseFastConnectionExceptionsEnumeration(super.findResources(name));
 		}
 		finally {
@@ -97,6 +131,111 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 		}
 	}
 
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		PackageIndex packageIndex = getPackageIndex();
+		if (packageIndex == null) {
+			return super.findClass(name);
+		}
+		String path = name.replace('.', '/').concat(".class");
+		IndexedArchive archive = packageIndex.getArchive(path);
+		if (archive == null) {
+			throw new ClassNotFoundException(name);
+		}
+		try {
+			return AccessController.doPrivileged(
+					(PrivilegedExceptionAction<Class<?>>) () -> defineClass(name, archive,
+							path),
+					AccessController.getContext());
+		}
+		catch (PrivilegedActionException ex) {
+			throw new ClassNotFoundException(name, ex.getException());
+		}
+	}
+
+	/**
+	 * Define a class found using the package index in the same way as
+	 * {@link URLClassLoader}, which does not provide a manifest or code signers for
+	 * archives that are not plain files.
+	 * @param name the class name
+	 * @param archive the archive containing the class
+	 * @param path the entry name of the class
+	 * @return the defined class
+	 * @throws IOException if the class cannot be read
+	 */
+	private Class<?> defineClass(String name, IndexedArchive archive, String path)
+			throws IOException {
+		int lastDot = name.lastIndexOf('.');
+		if (lastDot != -1) {
+			verifyOrDefinePackage(name.substring(0, lastDot), archive.getUrl());
+		}
+		byte[] bytes = readEntry(archive.getJarFile(), path);
+		CodeSource codeSource = new CodeSource(archive.getUrl(), (CodeSigner[]) null);
+		return defineClass(name, bytes, 0, bytes.length, codeSource);
+	}
+
+	private void verifyOrDefinePackage(String packageName, URL url) {
+		Package pkg = getPackage(packageName);
+		if (pkg != null) {
+			if (pkg.isSealed() && !pkg.isSealed(url)) {
+				throw new SecurityException(
+						"sealing violation: package " + packageName + " is sealed");
+			}
+			return;
+		}
+		try {
+			definePackage(packageName, null, null, null, null, null, null, null);
+		}
+		catch (IllegalArgumentException ex) {
+			// Tolerate race condition due to being parallel capable
+			if (getPackage(packageName) == null) {
+				throw new AssertionError("Package " + packageName + " has already been "
+						+ "defined but it could not be found");
+			}
+		}
+	}
+
+	private byte[] readEntry(org.springframework.boot.loader.jar.JarFile jarFile,
+			String name) throws IOException {
+		java.util.jar.JarEntry entry = jarFile.getJarEntry(name);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(
+				(entry.getSize() > 0) ? (int) entry.getSize() : BUFFER_SIZE);
+		try (InputStream inputStream = jarFile.getInputStream(entry)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int bytesRead;
+			while ((bytesRead = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, bytesRead);
+			}
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Return the package index for the URLs of this class loader, creating it on first
+	 * use.
+	 * @return the package index or {@code null} if the URLs cannot be indexed
+	 */
+	private PackageIndex getPackageIndex() {
+		if (!this.packageIndexResolved) {
+			synchronized (this.packageIndexMonitor) {
+				if (!this.packageIndexResolved) {
+					this.packageIndex = PackageIndex.get(getURLs());
+					this.packageIndexResolved = true;
+				}
+			}
+		}
+		return this.packageIndex;
+	}
+
+	@Override
+	protected void addURL(URL url) {
+		synchronized (this.packageIndexMonitor) {
+			super.addURL(url);
+			this.packageIndexResolved = false;
+			this.packageIndex = null;
+		}
+	}
+
 	/**
 	 * Define a package before a {@code findClass} call is made. This is necessary to
 	 * ensure that the appropriate manifest for nested JARs is associated with the
@@ -131,6 +270,18 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 			AccessController.doPrivileged((PrivilegedExceptionAction<Object>) () -> {
 				String packageEntryName = packageName.replace('.', '/') + "/";
 				String classEntryName = className.replace('.', '/') + ".class";
+				PackageIndex packageIndex = getPackageIndex();
+				if (packageIndex != null) {
+					for (IndexedArchive archive : packageIndex
+							.getArchives(classEntryName)) {
+						Manifest manifest = archive.getJarFile().getManifest();
+						if (archive.contains(packageEntryName) && manifest != null) {
+							definePackage(packageName, manifest, archive.getUrl());
+							return null;
+						}
+					}
+					return null;
+				}
 				for (URL url : getURLs()) {
 					try {
 						URLConnection connection = url.openConnection();
@@ -152,7 +303,7 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 				return null;
 			}, AccessController.getContext());
 		}
-		catch (java.security.PrivilegedActionException ex) {
+		catch (PrivilegedActionException ex) {
 			// Ignore
 		}
 	}
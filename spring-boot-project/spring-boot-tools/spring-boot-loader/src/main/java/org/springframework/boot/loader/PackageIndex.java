@@ -0,0 +1,228 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.loader.jar.JarFile;
+
+/**
+ * Index of the directories contained in each archive of a class path, used by the
+ * {@link LaunchedURLClassLoader} to go straight to the archives that can contain a class
+ * or resource rather than probing every URL in turn. Archives are held in class path
+ * order so that lookups find the same entry as {@link java.net.URLClassLoader}.
+ * <p>
+ * An index can only be created when every URL refers to the root of a {@link JarFile}, as
+ * is the case when launching a packaged application.
+ *
+ * @author Example Developer
+ * @since 2.2.0
+ */
+final class PackageIndex {
+
+	private static final IndexedArchive[] NO_ARCHIVES = {};
+
+	private static final int MISSING_CACHE_SIZE = 4096;
+
+	private final Map<String, IndexedArchive[]> archives;
+
+	private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+	private PackageIndex(Map<String, IndexedArchive[]> archives) {
+		this.archives = archives;
+	}
+
+	/**
+	 * Return if the given name can be looked up using the index. Names that
+	 * {@link java.net.URLClassLoader} would need to encode or resolve relative to the
+	 * archive URL are not supported.
+	 * @param name the entry name
+	 * @return if the name can be looked up
+	 */
+	boolean isIndexed(String name) {
+		if (name.isEmpty() || name.charAt(0) == '/' || name.contains("//")
+				|| name.contains("./") || name.endsWith(".")) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (!isUnencodedPathChar(name.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isUnencodedPathChar(char ch) {
+		return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')
+				|| (ch >= '0' && ch <= '9') || "/-_.$+*'(),;:@&=~".indexOf(ch) != -1;
+	}
+
+	/**
+	 * Return the first archive that contains the given entry.
+	 * @param name the entry name
+	 * @return the archive or {@code null}
+	 */
+	IndexedArchive getArchive(String name) {
+		if (this.missing.contains(name)) {
+			return null;
+		}
+		for (IndexedArchive archive : getCandidates(name)) {
+			if (archive.contains(name)) {
+				return archive;
+			}
+		}
+		addMissing(name);
+		return null;
+	}
+
+	/**
+	 * Return all archives that contain the given entry in class path order.
+	 * @param name the entry name
+	 * @return the archives
+	 */
+	List<IndexedArchive> getArchives(String name) {
+		if (this.missing.contains(name)) {
+			return Collections.emptyList();
+		}
+		List<IndexedArchive> archives = new ArrayList<>();
+		for (IndexedArchive archive : getCandidates(name)) {
+			if (archive.contains(name)) {
+				archives.add(archive);
+			}
+		}
+		if (archives.isEmpty()) {
+			addMissing(name);
+		}
+		return archives;
+	}
+
+	private IndexedArchive[] getCandidates(String name) {
+		IndexedArchive[] candidates = this.archives
+				.get(name.substring(0, name.lastIndexOf('/') + 1));
+		return (candidates != null) ? candidates : NO_ARCHIVES;
+	}
+
+	private void addMissing(String name) {
+		if (this.missing.size() < MISSING_CACHE_SIZE) {
+			this.missing.add(name);
+		}
+	}
+
+	/**
+	 * Create a new index for the given URLs.
+	 * @param urls the class path URLs
+	 * @return the index or {@code null} if the URLs cannot be indexed
+	 */
+	static PackageIndex get(URL[] urls) {
+		Map<String, List<IndexedArchive>> archives = new HashMap<>();
+		for (URL url : urls) {
+			JarFile jarFile = getJarFile(url);
+			if (jarFile == null) {
+				return null;
+			}
+			IndexedArchive archive = new IndexedArchive(url, jarFile);
+			for (String directory : getDirectories(jarFile)) {
+				archives.computeIfAbsent(directory, (key) -> new ArrayList<>())
+						.add(archive);
+			}
+		}
+		Map<String, IndexedArchive[]> index = new HashMap<>(archives.size());
+		archives.forEach(
+				(directory, list) -> index.put(directory, list.toArray(NO_ARCHIVES)));
+		return new PackageIndex(index);
+	}
+
+	private static JarFile getJarFile(URL url) {
+		if (!url.getFile().endsWith("!/")) {
+			return null;
+		}
+		try {
+			URLConnection connection = url.openConnection();
+			if (connection instanceof JarURLConnection) {
+				java.util.jar.JarFile jarFile = ((JarURLConnection) connection)
+						.getJarFile();
+				if (jarFile instanceof JarFile) {
+					return (JarFile) jarFile;
+				}
+			}
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+		return null;
+	}
+
+	private static Set<String> getDirectories(JarFile jarFile) {
+		Set<String> directories = new HashSet<>();
+		directories.add("");
+		Enumeration<java.util.jar.JarEntry> entries = jarFile.entries();
+		while (entries.hasMoreElements()) {
+			String name = entries.nextElement().getName();
+			int end = name.lastIndexOf('/');
+			while (end != -1 && directories.add(name.substring(0, end + 1))) {
+				end = name.lastIndexOf('/', end - 1);
+			}
+		}
+		return directories;
+	}
+
+	/**
+	 * An archive of the class path.
+	 */
+	static final class IndexedArchive {
+
+		private final URL url;
+
+		private final JarFile jarFile;
+
+		private IndexedArchive(URL url, JarFile jarFile) {
+			this.url = url;
+			this.jarFile = jarFile;
+		}
+
+		boolean contains(String name) {
+			return this.jarFile.containsEntry(name);
+		}
+
+		URL getUrl() {
+			return this.url;
+		}
+
+		URL getUrl(String name) throws MalformedURLException {
+			return new URL(this.url, name);
+		}
+
+		JarFile getJarFile() {
+			return this.jarFile;
+		}
+
+	}
+
+}
@@ -29,6 +29,9 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.jar.JarEntry;
 import java.util.jar.Manifest;
 
@@ -89,6 +92,59 @@ public class JarFileArchive implements Archive {
 		return Collections.unmodifiableList(nestedArchives);
 	}
 
+	/**
+	 * Returns nested {@link Archive}s for entries that match the specified filter,
+	 * opening them concurrently using the given {@code executor}. Archives that are
+	 * marked to be unpacked are also unpacked concurrently. The archives are returned in
+	 * the same order as {@link #getNestedArchives(EntryFilter)}.
+	 * @param filter the filter used to limit entries
+	 * @param executor the executor used to open the nested archives
+	 * @return nested archives
+	 * @throws IOException if nested archives cannot be read
+	 * @since 2.2.0
+	 */
+	public List<Archive> getNestedArchives(EntryFilter filter, Executor executor)
+			throws IOException {
+		List<FutureTask<Archive>> tasks = new ArrayList<>();
+		for (Entry entry : this) {
+			if (filter.matches(entry)) {
+				FutureTask<Archive> task = new FutureTask<>(
+						() -> getNestedArchive(entry));
+				executor.execute(task);
+				tasks.add(task);
+			}
+		}
+		List<Archive> nestedArchives = new ArrayList<>(tasks.size());
+		for (FutureTask<Archive> task : tasks) {
+			nestedArchives.add(getNestedArchive(task));
+		}
+		return Collections.unmodifiableList(nestedArchives);
+	}
+
+	private Archive getNestedArchive(FutureTask<Archive> task) throws IOException {
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while opening nested archives",
+					ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
 	@Override
 	public Iterator<Entry> iterator() {
 		return new EntryIterator(this.jarFile.entries());
@@ -121,7 +177,7 @@ public class JarFileArchive implements Archive {
 		return new JarFileArchive(file, file.toURI().toURL());
 	}
 
-	private File getTempUnpackFolder() {
+	private synchronized File getTempUnpackFolder() {
 		if (this.tempUnpackFolder == null) {
 			File tempFolder = new File(System.getProperty("java.io.tmpdir"));
 			this.tempUnpackFolder = createUnpackFolder(tempFolder);
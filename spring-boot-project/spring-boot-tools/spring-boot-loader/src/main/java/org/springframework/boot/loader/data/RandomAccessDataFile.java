@@ -22,6 +22,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 
 /**
  * {@link RandomAccessData} implementation backed by a {@link RandomAccessFile}.
@@ -203,13 +206,19 @@ public class RandomAccessDataFile implements RandomAccessData {
 
 	}
 
+	/**
+	 * Provides access to the underlying file. Reads use positional
+	 * {@link FileChannel#read(ByteBuffer, long) channel reads} so that concurrent readers
+	 * do not contend on a lock. The channel is closed if a reading thread is interrupted,
+	 * in which case it is reopened and the read retried.
+	 */
 	private static final class FileAccess {
 
 		private final Object monitor = new Object();
 
 		private final File file;
 
-		private RandomAccessFile randomAccessFile;
+		private volatile FileChannel fileChannel;
 
 		private FileAccess(File file) {
 			this.file = file;
@@ -218,39 +227,95 @@ public class RandomAccessDataFile implements RandomAccessData {
 
 		private int read(byte[] bytes, long position, int offset, int length)
 				throws IOException {
-			synchronized (this.monitor) {
-				openIfNecessary();
-				this.randomAccessFile.seek(position);
-				return this.randomAccessFile.read(bytes, offset, length);
+			if (length == 0) {
+				return 0;
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+			int total = 0;
+			while (buffer.hasRemaining()) {
+				int read = read(buffer, position + total);
+				if (read == -1) {
+					break;
+				}
+				total += read;
+			}
+			return (total > 0) ? total : -1;
+		}
+
+		private int readByte(long position) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(1);
+			int read = read(buffer, position);
+			return (read > 0) ? buffer.get(0) & 0xFF : -1;
+		}
+
+		private int read(ByteBuffer buffer, long position) throws IOException {
+			FileChannel channel = openIfNecessary();
+			try {
+				return channel.read(buffer, position);
+			}
+			catch (ClosedChannelException ex) {
+				return readAfterClose(buffer, position);
 			}
 		}
 
-		private void openIfNecessary() {
-			if (this.randomAccessFile == null) {
+		/**
+		 * Read after the channel has been closed, either by {@link #close()} or because a
+		 * reading thread was interrupted. The interrupt flag of the current thread is
+		 * cleared for the read so that it cannot close the reopened channel, and is
+		 * restored afterwards.
+		 * @param buffer the destination buffer
+		 * @param position the file position to read from
+		 * @return the number of bytes read or -1 at the end of the file
+		 * @throws IOException in case of I/O errors
+		 */
+		private int readAfterClose(ByteBuffer buffer, long position) throws IOException {
+			synchronized (this.monitor) {
+				boolean interrupted = Thread.interrupted();
 				try {
-					this.randomAccessFile = new RandomAccessFile(this.file, "r");
+					while (true) {
+						try {
+							return openIfNecessary().read(buffer, position);
+						}
+						catch (ClosedChannelException ex) {
+							interrupted |= Thread.interrupted();
+						}
+					}
 				}
-				catch (FileNotFoundException ex) {
-					throw new IllegalArgumentException(String.format("File %s must exist",
-							this.file.getAbsolutePath()));
+				finally {
+					if (interrupted) {
+						Thread.currentThread().interrupt();
+					}
 				}
 			}
 		}
 
-		private void close() throws IOException {
+		private FileChannel openIfNecessary() {
+			FileChannel channel = this.fileChannel;
+			if (channel != null && channel.isOpen()) {
+				return channel;
+			}
 			synchronized (this.monitor) {
-				if (this.randomAccessFile != null) {
-					this.randomAccessFile.close();
-					this.randomAccessFile = null;
+				channel = this.fileChannel;
+				if (channel == null || !channel.isOpen()) {
+					try {
+						channel = new RandomAccessFile(this.file, "r").getChannel();
+					}
+					catch (FileNotFoundException ex) {
+						throw new IllegalArgumentException(String.format(
+								"File %s must exist", this.file.getAbsolutePath()));
+					}
+					this.fileChannel = channel;
 				}
+				return channel;
 			}
 		}
 
-		private int readByte(long position) throws IOException {
+		private void close() throws IOException {
 			synchronized (this.monitor) {
-				openIfNecessary();
-				this.randomAccessFile.seek(position);
-				return this.randomAccessFile.read();
+				if (this.fileChannel != null) {
+					this.fileChannel.close();
+					this.fileChannel = null;
+				}
 			}
 		}
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of {@link Inflater Inflaters} and input buffers used by the
+ * {@link ZipInflaterInputStream ZipInflaterInputStreams} of a {@link JarFile}. Pooling
+ * avoids allocating and releasing native zlib state for every compressed entry that is
+ * read.
+ *
+ * @author Example Developer
+ * @since 2.2.0
+ */
+class InflaterPool {
+
+	static final int BUFFER_SIZE = 8192;
+
+	private static final int MAXIMUM_SIZE = 16;
+
+	private final Deque<Inflater> inflaters = new ArrayDeque<>();
+
+	private final Deque<byte[]> buffers = new ArrayDeque<>();
+
+	private boolean closed;
+
+	synchronized Inflater getInflater() {
+		Inflater inflater = this.inflaters.pollFirst();
+		return (inflater != null) ? inflater : new Inflater(true);
+	}
+
+	synchronized byte[] getBuffer() {
+		byte[] buffer = this.buffers.pollFirst();
+		return (buffer != null) ? buffer : new byte[BUFFER_SIZE];
+	}
+
+	/**
+	 * Return an inflater and buffer to the pool. The inflater is ended if the pool is
+	 * full or has been closed.
+	 * @param inflater the inflater to release
+	 * @param buffer the buffer to release
+	 */
+	synchronized void release(Inflater inflater, byte[] buffer) {
+		if (this.closed || this.inflaters.size() >= MAXIMUM_SIZE) {
+			inflater.end();
+		}
+		else {
+			inflater.reset();
+			this.inflaters.addFirst(inflater);
+		}
+		if (!this.closed && this.buffers.size() < MAXIMUM_SIZE) {
+			this.buffers.addFirst(buffer);
+		}
+	}
+
+	/**
+	 * Close the pool, ending all pooled inflaters. Inflaters released after the pool has
+	 * been closed are ended immediately.
+	 */
+	synchronized void close() {
+		this.closed = true;
+		this.inflaters.forEach(Inflater::end);
+		this.inflaters.clear();
+		this.buffers.clear();
+	}
+
+}
@@ -79,6 +79,10 @@ public class JarFile extends java.util.jar.JarFile {
 
 	private boolean signed;
 
+	private NestedJarIndex nestedJarIndex;
+
+	private final InflaterPool inflaterPool = new InflaterPool();
+
 	/**
 	 * Create a new {@link JarFile} backed by the specified file.
 	 * @param file the root jar file
@@ -122,17 +126,42 @@ public class JarFile extends java.util.jar.JarFile {
 		parser.addVisitor(centralDirectoryVisitor());
 		this.data = parser.parse(data, filter == null);
 		this.type = type;
-		this.manifestSupplier = (manifestSupplier != null) ? manifestSupplier : () -> {
-			try (InputStream inputStream = getInputStream(MANIFEST_NAME)) {
-				if (inputStream == null) {
-					return null;
-				}
-				return new Manifest(inputStream);
-			}
-			catch (IOException ex) {
-				throw new RuntimeException(ex);
+		this.manifestSupplier = (manifestSupplier != null) ? manifestSupplier
+				: this::readManifest;
+	}
+
+	/**
+	 * Private constructor used to create a nested jar {@link JarFile} from a
+	 * {@link NestedJarIndex} entry without parsing its central directory.
+	 * @param rootFile the root jar file
+	 * @param pathFromRoot the name of this file
+	 * @param data the underlying data
+	 * @param indexEntry the index entry of the nested jar
+	 * @throws IOException if the file cannot be read
+	 */
+	private JarFile(RandomAccessDataFile rootFile, String pathFromRoot,
+			RandomAccessData data, NestedJarIndex.Entry indexEntry) throws IOException {
+		super(rootFile.getFile());
+		this.rootFile = rootFile;
+		this.pathFromRoot = pathFromRoot;
+		this.data = indexEntry.getArchiveData(data);
+		this.entries = new JarFileEntries(this, null);
+		indexEntry.load(this.entries, this.data);
+		this.signed = indexEntry.isSigned();
+		this.type = JarFileType.NESTED_JAR;
+		this.manifestSupplier = this::readManifest;
+	}
+
+	private Manifest readManifest() {
+		try (InputStream inputStream = getInputStream(MANIFEST_NAME)) {
+			if (inputStream == null) {
+				return null;
 			}
-		};
+			return new Manifest(inputStream);
+		}
+		catch (IOException ex) {
+			throw new RuntimeException(ex);
+		}
 	}
 
 	private CentralDirectoryVisitor centralDirectoryVisitor() {
@@ -168,6 +197,10 @@ public class JarFile extends java.util.jar.JarFile {
 		return this.data;
 	}
 
+	InflaterPool getInflaterPool() {
+		return this.inflaterPool;
+	}
+
 	@Override
 	public Manifest getManifest() throws IOException {
 		Manifest manifest = (this.manifest != null) ? this.manifest.get() : null;
@@ -237,7 +270,7 @@ public class JarFile extends java.util.jar.JarFile {
 	 * @return a {@link JarFile} for the entry
 	 * @throws IOException if the nested jar file cannot be read
 	 */
-	public synchronized JarFile getNestedJarFile(ZipEntry entry) throws IOException {
+	public JarFile getNestedJarFile(ZipEntry entry) throws IOException {
 		return getNestedJarFile((JarEntry) entry);
 	}
 
@@ -247,7 +280,7 @@ public class JarFile extends java.util.jar.JarFile {
 	 * @return a {@link JarFile} for the entry
 	 * @throws IOException if the nested jar file cannot be read
 	 */
-	public synchronized JarFile getNestedJarFile(JarEntry entry) throws IOException {
+	public JarFile getNestedJarFile(JarEntry entry) throws IOException {
 		try {
 			return createJarFileFromEntry(entry);
 		}
@@ -286,8 +319,26 @@ public class JarFile extends java.util.jar.JarFile {
 					+ "mechanism used to create your executable jar file");
 		}
 		RandomAccessData entryData = this.entries.getEntryData(entry.getName());
-		return new JarFile(this.rootFile, this.pathFromRoot + "!/" + entry.getName(),
-				entryData, JarFileType.NESTED_JAR);
+		String pathFromRoot = this.pathFromRoot + "!/" + entry.getName();
+		NestedJarIndex.Entry indexEntry = getNestedJarIndex().getEntry(entry, entryData);
+		if (indexEntry != null) {
+			return new JarFile(this.rootFile, pathFromRoot, entryData, indexEntry);
+		}
+		return new JarFile(this.rootFile, pathFromRoot, entryData,
+				JarFileType.NESTED_JAR);
+	}
+
+	/**
+	 * Return the index of nested jars written by the {@code Repackager}. Only a root jar
+	 * file can have an index.
+	 * @return the nested jar index, never {@code null}
+	 */
+	private synchronized NestedJarIndex getNestedJarIndex() {
+		if (this.nestedJarIndex == null) {
+			this.nestedJarIndex = (this.type != JarFileType.DIRECT) ? NestedJarIndex.NONE
+					: NestedJarIndex.load(this);
+		}
+		return this.nestedJarIndex;
 	}
 
 	@Override
@@ -298,6 +349,7 @@ public class JarFile extends java.util.jar.JarFile {
 	@Override
 	public void close() throws IOException {
 		super.close();
+		this.inflaterPool.close();
 		if (this.type == JarFileType.DIRECT) {
 			this.rootFile.close();
 		}
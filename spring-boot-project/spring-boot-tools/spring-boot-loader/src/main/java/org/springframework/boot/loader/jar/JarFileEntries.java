@@ -120,6 +120,23 @@ class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntry> {
 		}
 	}
 
+	/**
+	 * Load entries from a {@link NestedJarIndex} rather than by visiting the central
+	 * directory. The arrays are shared and must not be modified.
+	 * @param centralDirectoryData the central directory data
+	 * @param hashCodes the name hash codes in ascending order
+	 * @param centralDirectoryOffsets the central directory offsets in hash code order
+	 * @param positions the hash code order index of each entry in original order
+	 */
+	void load(RandomAccessData centralDirectoryData, int[] hashCodes,
+			int[] centralDirectoryOffsets, int[] positions) {
+		this.centralDirectoryData = centralDirectoryData;
+		this.size = hashCodes.length;
+		this.hashCodes = hashCodes;
+		this.centralDirectoryOffsets = centralDirectoryOffsets;
+		this.positions = positions;
+	}
+
 	int getSize() {
 		return this.size;
 	}
@@ -188,7 +205,8 @@ class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntry> {
 		}
 		InputStream inputStream = getEntryData(entry).getInputStream();
 		if (entry.getMethod() == ZipEntry.DEFLATED) {
-			inputStream = new ZipInflaterInputStream(inputStream, (int) entry.getSize());
+			inputStream = new ZipInflaterInputStream(inputStream, (int) entry.getSize(),
+					this.jarFile.getInflaterPool());
 		}
 		return inputStream;
 	}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.loader.data.RandomAccessData;
+
+/**
+ * Precomputed central directory details of the nested jars of an archive, allowing a
+ * nested {@link JarFile} to be opened without reading and parsing its central directory.
+ * The index is written by the {@code Repackager} to {@value #ENTRY_NAME} and has the
+ * following big-endian layout: <pre>
+ * int     magic (0x534A4958), int version (1), int entry count
+ * per entry:
+ *   UTF     name of the nested jar entry
+ *   long    CRC-32 and long size of the nested jar entry
+ *   long    offset of the archive data (non-zero if prefixed)
+ *   long    offset and long length of the central directory within the archive data
+ *   boolean signed
+ *   int     number of central directory records (n)
+ *   int[n]  name hash codes in ascending order
+ *   int[n]  central directory offsets in hash code order
+ *   int[n]  hash code order index of each record in original order
+ * </pre> An index entry is only used if the CRC-32 and size of the nested jar match and
+ * an end of central directory record is found where the index expects one. Any problem
+ * reading the index leads to the nested jars being parsed as usual.
+ *
+ * @author Example Developer
+ * @since 2.2.0
+ * @see JarFileEntries
+ */
+final class NestedJarIndex {
+
+	/**
+	 * The name of the index entry in the root jar.
+	 */
+	static final String ENTRY_NAME = "META-INF/spring-boot-nested-jars.idx";
+
+	static final int MAGIC = 0x534A4958;
+
+	static final int VERSION = 1;
+
+	private static final int END_RECORD_SIGNATURE = 0x06054b50;
+
+	static final NestedJarIndex NONE = new NestedJarIndex(Collections.emptyMap());
+
+	private final Map<String, Entry> entries;
+
+	private NestedJarIndex(Map<String, Entry> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * Return the index entry for the given nested jar if it can be used.
+	 * @param nestedEntry the entry of the nested jar
+	 * @param nestedData the data of the nested jar
+	 * @return the index entry or {@code null}
+	 * @throws IOException in case of I/O errors
+	 */
+	Entry getEntry(JarEntry nestedEntry, RandomAccessData nestedData) throws IOException {
+		Entry entry = this.entries.get(nestedEntry.getName());
+		if (entry == null || entry.crc != nestedEntry.getCrc()
+				|| entry.size != nestedData.getSize()) {
+			return null;
+		}
+		long endRecordOffset = entry.archiveOffset + entry.centralDirectoryOffset
+				+ entry.centralDirectoryLength;
+		if (endRecordOffset + 4 > nestedData.getSize()
+				|| Bytes.littleEndianValue(nestedData.read(endRecordOffset, 4), 0,
+						4) != END_RECORD_SIGNATURE) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Load the index from the given root jar.
+	 * @param jarFile the root jar file
+	 * @return the index, {@link #NONE} if the jar has no usable index
+	 */
+	static NestedJarIndex load(JarFile jarFile) {
+		try (InputStream inputStream = jarFile.getInputStream(ENTRY_NAME)) {
+			if (inputStream == null) {
+				return NONE;
+			}
+			return load(new DataInputStream(new BufferedInputStream(inputStream)));
+		}
+		catch (IOException | RuntimeException ex) {
+			return NONE;
+		}
+	}
+
+	private static NestedJarIndex load(DataInputStream input) throws IOException {
+		if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+			return NONE;
+		}
+		int count = input.readInt();
+		Map<String, Entry> entries = new HashMap<>();
+		for (int i = 0; i < count; i++) {
+			String name = input.readUTF();
+			Entry entry = new Entry(input);
+			if (!entry.isValid()) {
+				return NONE;
+			}
+			entries.put(name, entry);
+		}
+		return new NestedJarIndex(entries);
+	}
+
+	/**
+	 * Index details of a single nested jar.
+	 */
+	static final class Entry {
+
+		private final long crc;
+
+		private final long size;
+
+		private final long archiveOffset;
+
+		private final long centralDirectoryOffset;
+
+		private final long centralDirectoryLength;
+
+		private final boolean signed;
+
+		private final int[] hashCodes;
+
+		private final int[] centralDirectoryOffsets;
+
+		private final int[] positions;
+
+		private Entry(DataInputStream input) throws IOException {
+			this.crc = input.readLong();
+			this.size = input.readLong();
+			this.archiveOffset = input.readLong();
+			this.centralDirectoryOffset = input.readLong();
+			this.centralDirectoryLength = input.readLong();
+			this.signed = input.readBoolean();
+			int records = input.readInt();
+			this.hashCodes = readInts(input, records);
+			this.centralDirectoryOffsets = readInts(input, records);
+			this.positions = readInts(input, records);
+		}
+
+		private static int[] readInts(DataInputStream input, int length)
+				throws IOException {
+			int[] values = new int[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = input.readInt();
+			}
+			return values;
+		}
+
+		private boolean isValid() {
+			for (int i = 0; i < this.hashCodes.length; i++) {
+				if ((i > 0 && this.hashCodes[i - 1] > this.hashCodes[i])
+						|| this.centralDirectoryOffsets[i] < 0
+						|| this.centralDirectoryOffsets[i] >= this.centralDirectoryLength
+						|| this.positions[i] < 0
+						|| this.positions[i] >= this.positions.length) {
+					return false;
+				}
+			}
+			return this.archiveOffset >= 0 && this.centralDirectoryOffset >= 0
+					&& this.centralDirectoryLength >= 0;
+		}
+
+		/**
+		 * Return the archive data, skipping any prefix bytes.
+		 * @param data the data of the nested jar
+		 * @return the archive data
+		 */
+		RandomAccessData getArchiveData(RandomAccessData data) {
+			if (this.archiveOffset == 0) {
+				return data;
+			}
+			return data.getSubsection(this.archiveOffset,
+					data.getSize() - this.archiveOffset);
+		}
+
+		/**
+		 * Load the indexed entries without parsing the central directory.
+		 * @param entries the entries to load
+		 * @param archiveData the archive data
+		 */
+		void load(JarFileEntries entries, RandomAccessData archiveData) {
+			entries.load(
+					archiveData.getSubsection(this.centralDirectoryOffset,
+							this.centralDirectoryLength),
+					this.hashCodes, this.centralDirectoryOffsets, this.positions);
+		}
+
+		boolean isSigned() {
+			return this.signed;
+		}
+
+	}
+
+}
@@ -19,23 +19,29 @@ package org.springframework.boot.loader.jar;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
  * {@link InflaterInputStream} that supports the writing of an extra "dummy" byte (which
- * is required with JDK 6) and returns accurate available() results.
+ * is required with JDK 6) and returns accurate available() results. The inflater and
+ * input buffer are taken from an {@link InflaterPool} and returned to it on close.
  *
  * @author Phillip Webb
  */
 class ZipInflaterInputStream extends InflaterInputStream {
 
+	private final InflaterPool inflaterPool;
+
 	private int available;
 
 	private boolean extraBytesWritten;
 
-	ZipInflaterInputStream(InputStream inputStream, int size) {
-		super(inputStream, new Inflater(true), getInflaterBufferSize(size));
+	private boolean closed;
+
+	ZipInflaterInputStream(InputStream inputStream, int size, InflaterPool inflaterPool) {
+		super(inputStream, inflaterPool.getInflater(), 1);
+		this.buf = inflaterPool.getBuffer();
+		this.inflaterPool = inflaterPool;
 		this.available = size;
 	}
 
@@ -59,7 +65,10 @@ class ZipInflaterInputStream extends InflaterInputStream {
 	@Override
 	public void close() throws IOException {
 		super.close();
-		this.inf.end();
+		if (!this.closed) {
+			this.closed = true;
+			this.inflaterPool.release(this.inf, this.buf);
+		}
 	}
 
 	@Override
@@ -78,11 +87,4 @@ class ZipInflaterInputStream extends InflaterInputStream {
 		}
 	}
 
-	private static int getInflaterBufferSize(long size) {
-		size += 2; // inflater likes some space
-		size = (size > 65536) ? 8192 : size;
-		size = (size <= 0) ? 4096 : size;
-		return (int) size;
-	}
-
 }
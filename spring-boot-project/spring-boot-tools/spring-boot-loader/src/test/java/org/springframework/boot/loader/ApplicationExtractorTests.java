@@ -0,0 +1,225 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.loader.archive.Archive.EntryFilter;
+import org.springframework.boot.loader.jar.JarFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ApplicationExtractor}.
+ *
+ * @author Example Developer
+ */
+public class ApplicationExtractorTests {
+
+	private static final EntryFilter FILTER = (entry) -> entry.isDirectory()
+			? entry.getName().equals("BOOT-INF/classes/")
+			: entry.getName().startsWith("BOOT-INF/lib/");
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void extractWritesApplicationJarAndNestedJars() throws Exception {
+		File root = this.temp.newFolder();
+		List<URL> urls = extract(createJar("app.jar", "a"), root);
+		assertThat(urls).hasSize(3);
+		File directory = new File(urls.get(0).toURI()).getParentFile();
+		assertThat(directory.getParentFile()).isEqualTo(root);
+		assertThat(directory.getName()).startsWith("app.jar-");
+		assertThat(urls).containsExactly(
+				new File(directory, "application.jar").toURI().toURL(),
+				new File(directory, "BOOT-INF/lib/foo.jar").toURI().toURL(),
+				new File(directory, "BOOT-INF/lib/bar.jar").toURI().toURL());
+		assertThat(root.list()).containsExactly(directory.getName());
+		assertThat(new String(
+				Files.readAllBytes(
+						new File(directory, ApplicationExtractor.MARKER).toPath()),
+				StandardCharsets.UTF_8))
+						.isEqualTo(directory.getName().substring("app.jar-".length()));
+		try (java.util.jar.JarFile application = new java.util.jar.JarFile(
+				new File(urls.get(0).toURI()))) {
+			assertThat(getEntryNames(application)).containsExactly("META-INF/MANIFEST.MF",
+					"com/", "com/example/", "com/example/Sample.class");
+			Attributes attributes = application.getManifest().getMainAttributes();
+			assertThat(attributes.getValue("Main-Class")).isEqualTo("com.example.Sample");
+			assertThat(attributes.getValue("Start-Class")).isNull();
+			assertThat(attributes.getValue("Class-Path"))
+					.isEqualTo("BOOT-INF/lib/foo.jar BOOT-INF/lib/bar.jar");
+		}
+		try (java.util.jar.JarFile foo = new java.util.jar.JarFile(
+				new File(urls.get(1).toURI()))) {
+			assertThat(getEntryNames(foo)).contains("foo.txt");
+		}
+	}
+
+	@Test
+	public void extractReusesExtractedApplication() throws Exception {
+		File root = this.temp.newFolder();
+		File jar = createJar("app.jar", "a");
+		List<URL> urls = extract(jar, root);
+		File application = new File(urls.get(0).toURI());
+		application.setLastModified(0);
+		assertThat(extract(jar, root)).isEqualTo(urls);
+		assertThat(application.lastModified()).isEqualTo(0);
+	}
+
+	@Test
+	public void extractUsesNewDirectoryWhenContentChanges() throws Exception {
+		File root = this.temp.newFolder();
+		List<URL> first = extract(createJar("app.jar", "a"), root);
+		File jar = createJar("app.jar", "b");
+		List<URL> second = extract(jar, root);
+		assertThat(second.get(0)).isNotEqualTo(first.get(0));
+		assertThat(root.list()).hasSize(2);
+	}
+
+	@Test
+	public void extractWhenMarkerIsMissingExtractsAgain() throws Exception {
+		File root = this.temp.newFolder();
+		File jar = createJar("app.jar", "a");
+		File directory = new File(extract(jar, root).get(0).toURI()).getParentFile();
+		new File(directory, ApplicationExtractor.MARKER).delete();
+		File planted = new File(directory, "BOOT-INF/lib/planted.jar");
+		planted.createNewFile();
+		extract(jar, root);
+		assertThat(planted).doesNotExist();
+		assertThat(new File(directory, ApplicationExtractor.MARKER)).exists();
+	}
+
+	@Test
+	public void extractWhenMarkerDoesNotMatchExtractsAgain() throws Exception {
+		File root = this.temp.newFolder();
+		File jar = createJar("app.jar", "a");
+		List<URL> urls = extract(jar, root);
+		File application = new File(urls.get(0).toURI());
+		File directory = application.getParentFile();
+		Files.write(new File(directory, ApplicationExtractor.MARKER).toPath(),
+				"0000".getBytes(StandardCharsets.UTF_8));
+		application.setLastModified(0);
+		assertThat(extract(jar, root)).isEqualTo(urls);
+		assertThat(application.lastModified()).isNotEqualTo(0);
+	}
+
+	@Test
+	public void extractCreatesMissingRootThatOnlyOwnerCanAccess() throws Exception {
+		assumePosix();
+		File root = new File(this.temp.getRoot(), "missing/root");
+		extract(createJar("app.jar", "a"), root);
+		assertThat(PosixFilePermissions
+				.toString(Files.getPosixFilePermissions(root.toPath())))
+						.isEqualTo("rwx------");
+	}
+
+	@Test
+	public void extractWhenRootIsWritableByOtherUsersThrowsException() throws Exception {
+		assumePosix();
+		File root = this.temp.newFolder();
+		Files.setPosixFilePermissions(root.toPath(),
+				PosixFilePermissions.fromString("rwxrwxrwx"));
+		File jar = createJar("app.jar", "a");
+		assertThatIllegalStateException().isThrownBy(() -> extract(jar, root))
+				.withMessageContaining("can be written by other users");
+		assertThat(root.list()).isEmpty();
+	}
+
+	private void assumePosix() {
+		Assume.assumeTrue(
+				FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+	}
+
+	private List<URL> extract(File file, File root) throws IOException {
+		try (JarFile jarFile = new JarFile(file)) {
+			return new ApplicationExtractor(jarFile, FILTER).extract(root);
+		}
+	}
+
+	private List<String> getEntryNames(java.util.jar.JarFile jarFile) {
+		List<String> names = new ArrayList<>();
+		for (JarEntry entry : Collections.list(jarFile.entries())) {
+			names.add(entry.getName());
+		}
+		return names;
+	}
+
+	private File createJar(String name, String content) throws IOException {
+		File file = new File(this.temp.getRoot(), name);
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().putValue("Main-Class", JarLauncher.class.getName());
+		manifest.getMainAttributes().putValue("Start-Class", "com.example.Sample");
+		try (JarOutputStream jarOutputStream = new JarOutputStream(
+				new FileOutputStream(file), manifest)) {
+			jarOutputStream.putNextEntry(new JarEntry("BOOT-INF/"));
+			jarOutputStream.putNextEntry(new JarEntry("BOOT-INF/classes/"));
+			jarOutputStream.putNextEntry(new JarEntry("BOOT-INF/classes/com/"));
+			jarOutputStream.putNextEntry(new JarEntry("BOOT-INF/classes/com/example/"));
+			jarOutputStream.putNextEntry(
+					new JarEntry("BOOT-INF/classes/com/example/Sample.class"));
+			jarOutputStream.write(content.getBytes());
+			jarOutputStream.putNextEntry(new JarEntry("BOOT-INF/lib/"));
+			writeNestedJar(jarOutputStream, "BOOT-INF/lib/foo.jar", "foo.txt");
+			writeNestedJar(jarOutputStream, "BOOT-INF/lib/bar.jar", "bar.txt");
+		}
+		return file;
+	}
+
+	private void writeNestedJar(JarOutputStream jarOutputStream, String name,
+			String entryName) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (JarOutputStream nested = new JarOutputStream(bytes)) {
+			nested.putNextEntry(new JarEntry(entryName));
+			nested.write(entryName.getBytes());
+		}
+		JarEntry entry = new JarEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(bytes.size());
+		CRC32 crc32 = new CRC32();
+		crc32.update(bytes.toByteArray());
+		entry.setCrc(crc32.getValue());
+		jarOutputStream.putNextEntry(entry);
+		jarOutputStream.write(bytes.toByteArray());
+	}
+
+}
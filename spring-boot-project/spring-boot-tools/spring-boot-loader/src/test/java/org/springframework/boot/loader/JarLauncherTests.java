@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2017 the original author or authors.
+ * Copyright 2012-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.boot.loader;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
@@ -61,4 +62,64 @@ public class JarLauncherTests extends AbstractExecutableArchiveLauncherTests {
 				new URL("jar:" + jarRoot.toURI().toURL() + "!/BOOT-INF/lib/foo.jar!/"));
 	}
 
+	@Test
+	public void archivedJarNestedArchivesOpenedInParallelHaveSameOrder()
+			throws Exception {
+		File jarRoot = createJarArchive("archive.jar", "BOOT-INF");
+		JarLauncher launcher = new JarLauncher(new JarFileArchive(jarRoot));
+		List<URL> sequential = getOrderedUrls(launcher.getClassPathArchives());
+		System.setProperty("loader.parallel", "true");
+		try {
+			List<Archive> archives = launcher.getClassPathArchives();
+			assertThat(getOrderedUrls(archives)).hasSize(2)
+					.containsExactlyElementsOf(sequential);
+		}
+		finally {
+			System.clearProperty("loader.parallel");
+		}
+	}
+
+	@Test
+	public void archivedJarIsExtractedWhenExtractIsEnabled() throws Exception {
+		File jarRoot = createJarArchive("archive.jar", "BOOT-INF");
+		File extractRoot = this.temp.newFolder("extracted");
+		JarLauncher launcher = new JarLauncher(new JarFileArchive(jarRoot));
+		assertThat(launcher.getExtractedClassPath()).isNull();
+		System.setProperty("loader.extract", "true");
+		System.setProperty("loader.extract.dir", extractRoot.getAbsolutePath());
+		try {
+			List<URL> urls = launcher.getExtractedClassPath();
+			File directory = new File(urls.get(0).toURI()).getParentFile();
+			assertThat(directory.getParentFile()).isEqualTo(extractRoot);
+			assertThat(urls).containsExactly(
+					new File(directory, "application.jar").toURI().toURL(),
+					new File(directory, "BOOT-INF/lib/foo.jar").toURI().toURL());
+		}
+		finally {
+			System.clearProperty("loader.extract");
+			System.clearProperty("loader.extract.dir");
+		}
+	}
+
+	@Test
+	public void explodedJarIsNotExtracted() throws Exception {
+		File explodedRoot = explode(createJarArchive("archive.jar", "BOOT-INF"));
+		JarLauncher launcher = new JarLauncher(new ExplodedArchive(explodedRoot, true));
+		System.setProperty("loader.extract", "true");
+		try {
+			assertThat(launcher.getExtractedClassPath()).isNull();
+		}
+		finally {
+			System.clearProperty("loader.extract");
+		}
+	}
+
+	private List<URL> getOrderedUrls(List<Archive> archives) throws Exception {
+		List<URL> urls = new ArrayList<>(archives.size());
+		for (Archive archive : archives) {
+			urls.add(archive.getUrl());
+		}
+		return urls;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2017 the original author or authors.
+ * Copyright 2012-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,28 @@
 
 package org.springframework.boot.loader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.util.Collections;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.loader.jar.JarFile;
+import org.springframework.util.FileCopyUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * Tests for {@link LaunchedURLClassLoader}.
@@ -105,4 +117,108 @@ public class LaunchedURLClassLoaderTests {
 		}
 	}
 
+	@Test
+	public void resolveResourceFromNestedJarsInClassPathOrder() throws Exception {
+		URL[] urls = createNestedJarUrls();
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null);
+		assertThat(loader.getResource("shared.txt"))
+				.isEqualTo(new URL(urls[0], "shared.txt"));
+		assertThat(loader.getResource("b.txt")).isEqualTo(new URL(urls[1], "b.txt"));
+		assertThat(loader.getResource("b.txt").openStream().read()).isEqualTo('b');
+		assertThat(Collections.list(loader.getResources("shared.txt"))).containsExactly(
+				new URL(urls[0], "shared.txt"), new URL(urls[1], "shared.txt"));
+	}
+
+	@Test
+	public void resolveMissingResourceFromNestedJars() throws Exception {
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(createNestedJarUrls(),
+				null);
+		assertThat(loader.getResource("missing.txt")).isNull();
+		assertThat(loader.getResource("missing/missing.txt")).isNull();
+		assertThat(loader.getResource("missing.txt")).isNull();
+		assertThat(loader.getResources("missing.txt").hasMoreElements()).isFalse();
+	}
+
+	@Test
+	public void loadClassFromNestedJar() throws Exception {
+		URL[] urls = createNestedJarUrls();
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null);
+		Class<?> type = loader.loadClass(Sample.class.getName());
+		assertThat(type.getClassLoader()).isSameAs(loader);
+		assertThat(type.getProtectionDomain().getCodeSource().getLocation())
+				.isEqualTo(urls[1]);
+		assertThat(type.getPackage().getImplementationTitle()).isEqualTo("b");
+	}
+
+	@Test
+	public void loadMissingClassFromNestedJars() throws Exception {
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(createNestedJarUrls(),
+				null);
+		assertThatExceptionOfType(ClassNotFoundException.class)
+				.isThrownBy(() -> loader.loadClass("com.example.Missing"));
+	}
+
+	private URL[] createNestedJarUrls() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		try (JarOutputStream jarOutputStream = new JarOutputStream(
+				new FileOutputStream(file))) {
+			writeNestedJar(jarOutputStream, "lib/a.jar", createJar("a", false));
+			writeNestedJar(jarOutputStream, "lib/b.jar", createJar("b", true));
+		}
+		JarFile jarFile = new JarFile(file);
+		return new URL[] {
+				jarFile.getNestedJarFile(jarFile.getEntry("lib/a.jar")).getUrl(),
+				jarFile.getNestedJarFile(jarFile.getEntry("lib/b.jar")).getUrl() };
+	}
+
+	private byte[] createJar(String name, boolean includeClass) throws IOException {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_TITLE, name);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (JarOutputStream jarOutputStream = new JarOutputStream(bytes, manifest)) {
+			writeEntry(jarOutputStream, "shared.txt", name.getBytes());
+			writeEntry(jarOutputStream, name + ".txt", name.getBytes());
+			if (includeClass) {
+				String className = Sample.class.getName().replace('.', '/') + ".class";
+				String packageName = className.substring(0,
+						className.lastIndexOf('/') + 1);
+				jarOutputStream.putNextEntry(new ZipEntry(packageName));
+				try (InputStream inputStream = getClass().getClassLoader()
+						.getResourceAsStream(className)) {
+					writeEntry(jarOutputStream, className,
+							FileCopyUtils.copyToByteArray(inputStream));
+				}
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private void writeNestedJar(JarOutputStream jarOutputStream, String name, byte[] data)
+			throws IOException {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(data.length);
+		CRC32 crc32 = new CRC32();
+		crc32.update(data);
+		entry.setCrc(crc32.getValue());
+		writeEntry(jarOutputStream, entry, data);
+	}
+
+	private void writeEntry(JarOutputStream jarOutputStream, String name, byte[] data)
+			throws IOException {
+		writeEntry(jarOutputStream, new ZipEntry(name), data);
+	}
+
+	private void writeEntry(JarOutputStream jarOutputStream, ZipEntry entry, byte[] data)
+			throws IOException {
+		jarOutputStream.putNextEntry(entry);
+		jarOutputStream.write(data);
+		jarOutputStream.closeEntry();
+	}
+
+	public static class Sample {
+
+	}
+
 }
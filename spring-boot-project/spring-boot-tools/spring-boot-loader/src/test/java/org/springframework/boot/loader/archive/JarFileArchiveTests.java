@@ -21,8 +21,12 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.zip.CRC32;
@@ -127,6 +131,57 @@ public class JarFileArchiveTests {
 		assertThat(nested.getParent()).isEqualTo(anotherNested.getParent());
 	}
 
+	@Test
+	public void getNestedArchivesInParallel() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Archive> parallel = this.archive.getNestedArchives(
+					(entry) -> entry.getName().endsWith(".jar"), executor);
+			List<Archive> sequential = this.archive
+					.getNestedArchives((entry) -> entry.getName().endsWith(".jar"));
+			assertThat(getUrls(parallel)).hasSize(3)
+					.containsExactlyElementsOf(getUrls(sequential));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void getNestedUnpackedArchivesInParallel() throws Exception {
+		setup(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Archive> nested = this.archive.getNestedArchives(
+					(entry) -> entry.getName().endsWith(".jar"), executor);
+			assertThat(nested).hasSize(3);
+			File parent = new File(nested.get(0).getUrl().toURI()).getParentFile();
+			for (Archive archive : nested) {
+				File file = new File(archive.getUrl().toURI());
+				assertThat(file.getParentFile()).isEqualTo(parent);
+				assertThat(archive.getManifest().getMainAttributes().getValue("Built-By"))
+						.isEqualTo("j2");
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void getNestedArchivesInParallelWhenArchiveCannotBeOpened() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			assertThatIllegalStateException()
+					.isThrownBy(() -> this.archive.getNestedArchives(
+							(entry) -> entry.getName().endsWith(".dat"), executor))
+					.withMessageContaining("Failed to get nested archive for entry");
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void zip64ArchivesAreHandledGracefully() throws IOException {
 		File file = this.temporaryFolder.newFile("test.jar");
@@ -170,6 +225,14 @@ public class JarFileArchiveTests {
 		return bytes.toByteArray();
 	}
 
+	private List<URL> getUrls(List<Archive> archives) throws Exception {
+		List<URL> urls = new ArrayList<>();
+		for (Archive archive : archives) {
+			urls.add(archive.getUrl());
+		}
+		return urls;
+	}
+
 	private Map<String, Archive.Entry> getEntriesMap(Archive archive) {
 		Map<String, Archive.Entry> entries = new HashMap<>();
 		for (Archive.Entry entry : archive) {
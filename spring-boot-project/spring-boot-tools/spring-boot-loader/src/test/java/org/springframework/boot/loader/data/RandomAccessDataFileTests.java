@@ -306,4 +306,51 @@ public class RandomAccessDataFileTests {
 		}
 	}
 
+	@Test
+	public void readWhenThreadIsInterruptedShouldReadAndKeepInterrupt() throws Exception {
+		Thread.currentThread().interrupt();
+		try {
+			assertThat(this.file.read(0, 256)).isEqualTo(BYTES);
+			assertThat(this.file.read(0, 256)).isEqualTo(BYTES);
+			assertThat(Thread.currentThread().isInterrupted()).isTrue();
+		}
+		finally {
+			Thread.interrupted();
+		}
+		assertThat(this.file.read(0, 256)).isEqualTo(BYTES);
+	}
+
+	@Test
+	public void concurrentReadsWithInterruptedThreads() throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(20);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			boolean interrupt = (i % 10 == 0);
+			results.add(executorService.submit(() -> {
+				if (interrupt) {
+					Thread.currentThread().interrupt();
+				}
+				try {
+					RandomAccessData subsection = RandomAccessDataFileTests.this.file
+							.getSubsection(0, 256);
+					return Arrays.equals(subsection.read(), BYTES);
+				}
+				finally {
+					Thread.interrupted();
+				}
+			}));
+		}
+		for (Future<Boolean> future : results) {
+			assertThat(future.get()).isTrue();
+		}
+		executorService.shutdown();
+	}
+
+	@Test
+	public void readAfterCloseShouldReopen() throws Exception {
+		this.file.close();
+		assertThat(this.file.read(0, 256)).isEqualTo(BYTES);
+		assertThat(this.inputStream.read()).isEqualTo(0);
+	}
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+/**
+ * Tests for {@link InflaterPool}.
+ *
+ * @author Example Developer
+ */
+public class InflaterPoolTests {
+
+	private final InflaterPool pool = new InflaterPool();
+
+	@Test
+	public void releasedInflaterAndBufferAreReused() {
+		Inflater inflater = this.pool.getInflater();
+		byte[] buffer = this.pool.getBuffer();
+		assertThat(buffer).hasSize(InflaterPool.BUFFER_SIZE);
+		this.pool.release(inflater, buffer);
+		assertThat(this.pool.getInflater()).isSameAs(inflater);
+		assertThat(this.pool.getBuffer()).isSameAs(buffer);
+	}
+
+	@Test
+	public void releasedInflaterIsReset() {
+		Inflater inflater = this.pool.getInflater();
+		inflater.setInput(new byte[] { 1, 2, 3 });
+		this.pool.release(inflater, this.pool.getBuffer());
+		assertThat(this.pool.getInflater().getRemaining()).isZero();
+	}
+
+	@Test
+	public void poolIsBounded() {
+		List<Inflater> inflaters = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			inflaters.add(this.pool.getInflater());
+		}
+		inflaters.forEach((inflater) -> this.pool.release(inflater, new byte[0]));
+		// Inflaters beyond the bound are ended
+		assertThatNullPointerException().isThrownBy(() -> inflaters.get(19).reset());
+		assertThat(inflaters.get(0).getRemaining()).isZero();
+	}
+
+	@Test
+	public void closeEndsPooledInflaters() {
+		Inflater pooled = this.pool.getInflater();
+		Inflater inUse = this.pool.getInflater();
+		this.pool.release(pooled, this.pool.getBuffer());
+		this.pool.close();
+		assertThatNullPointerException().isThrownBy(pooled::reset);
+		this.pool.release(inUse, new byte[0]);
+		assertThatNullPointerException().isThrownBy(inUse::reset);
+		assertThat(this.pool.getInflater()).isNotSameAs(pooled).isNotSameAs(inUse);
+	}
+
+}
@@ -28,6 +28,7 @@ import java.nio.charset.Charset;
 import java.util.Enumeration;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -470,6 +471,33 @@ public class JarFileTests {
 		}
 	}
 
+	@Test
+	public void readCompressedEntriesLargerThanTheInflaterBuffer() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		byte[] content = new byte[100 * 1024];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) ((i * 31) ^ (i >> 7));
+		}
+		try (JarOutputStream jarOutputStream = new JarOutputStream(
+				new FileOutputStream(file))) {
+			for (int i = 0; i < 3; i++) {
+				jarOutputStream.putNextEntry(new ZipEntry(i + ".dat"));
+				jarOutputStream.write(content);
+				jarOutputStream.closeEntry();
+			}
+		}
+		try (JarFile compressed = new JarFile(file)) {
+			for (int i = 0; i < 3; i++) {
+				ZipEntry entry = compressed.getEntry(i + ".dat");
+				assertThat(entry.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+				try (InputStream inputStream = compressed.getInputStream(entry)) {
+					assertThat(StreamUtils.copyToByteArray(inputStream))
+							.isEqualTo(content);
+				}
+			}
+		}
+	}
+
 	@Test
 	public void jarFileCanBeDeletedOnceItHasBeenClosed() throws Exception {
 		File temp = this.temporaryFolder.newFile();
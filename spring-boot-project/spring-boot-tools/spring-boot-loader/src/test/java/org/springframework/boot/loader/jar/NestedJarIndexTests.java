@@ -0,0 +1,235 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.loader.TestJarCreator;
+import org.springframework.boot.loader.data.RandomAccessData;
+import org.springframework.boot.loader.data.RandomAccessDataFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link NestedJarIndex}.
+ *
+ * @author Example Developer
+ */
+public class NestedJarIndexTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private byte[] nestedJarData;
+
+	@Before
+	public void setup() throws Exception {
+		File testJar = this.temporaryFolder.newFile();
+		TestJarCreator.createTestJar(testJar);
+		try (ZipFile zipFile = new ZipFile(testJar)) {
+			ZipEntry entry = zipFile.getEntry("nested.jar");
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (InputStream inputStream = zipFile.getInputStream(entry)) {
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = inputStream.read(buffer)) != -1) {
+					bytes.write(buffer, 0, read);
+				}
+			}
+			this.nestedJarData = bytes.toByteArray();
+		}
+	}
+
+	@Test
+	public void nestedJarFileIsOpenedFromIndex() throws Exception {
+		// Leave an entry out of the index to show that the central directory is not
+		// parsed
+		byte[] index = createIndex((name) -> !name.equals("4.dat"), crc());
+		try (JarFile jarFile = new JarFile(createRootJar(index))) {
+			JarFile nested = jarFile.getNestedJarFile(jarFile.getEntry("nested.jar"));
+			assertThat(nested.getEntry("3.dat")).isNotNull();
+			assertThat(nested.getEntry("4.dat")).isNull();
+			assertThat(getEntryNames(nested)).containsExactly("META-INF/",
+					"META-INF/MANIFEST.MF", "3.dat", "\u00E4.dat");
+			try (InputStream inputStream = nested
+					.getInputStream(nested.getEntry("3.dat"))) {
+				assertThat(inputStream.read()).isEqualTo(3);
+			}
+			assertThat(nested.getManifest().getMainAttributes().getValue("Built-By"))
+					.isEqualTo("j2");
+		}
+	}
+
+	@Test
+	public void nestedJarFileFromIndexHasSameEntriesAsParsed() throws Exception {
+		byte[] index = createIndex((name) -> true, crc());
+		File withIndex = createRootJar(index);
+		File withoutIndex = createRootJar(null);
+		try (JarFile indexed = new JarFile(withIndex);
+				JarFile parsed = new JarFile(withoutIndex)) {
+			JarFile indexedNested = indexed
+					.getNestedJarFile(indexed.getEntry("nested.jar"));
+			JarFile parsedNested = parsed.getNestedJarFile(parsed.getEntry("nested.jar"));
+			assertThat(getEntryNames(indexedNested))
+					.isEqualTo(getEntryNames(parsedNested));
+			assertThat(indexedNested.size()).isEqualTo(parsedNested.size());
+			assertThat(indexedNested.getEntry("\u00E4.dat")).isNotNull();
+		}
+	}
+
+	@Test
+	public void indexIsIgnoredWhenCrcDoesNotMatch() throws Exception {
+		byte[] index = createIndex((name) -> !name.equals("4.dat"), crc() + 1);
+		try (JarFile jarFile = new JarFile(createRootJar(index))) {
+			JarFile nested = jarFile.getNestedJarFile(jarFile.getEntry("nested.jar"));
+			assertThat(nested.getEntry("4.dat")).isNotNull();
+		}
+	}
+
+	@Test
+	public void indexIsIgnoredWhenCorrupt() throws Exception {
+		byte[] index = createIndex((name) -> !name.equals("4.dat"), crc());
+		byte[] truncated = new byte[index.length / 2];
+		System.arraycopy(index, 0, truncated, 0, truncated.length);
+		try (JarFile jarFile = new JarFile(createRootJar(truncated))) {
+			JarFile nested = jarFile.getNestedJarFile(jarFile.getEntry("nested.jar"));
+			assertThat(nested.getEntry("4.dat")).isNotNull();
+		}
+	}
+
+	private List<String> getEntryNames(JarFile jarFile) {
+		List<String> names = new ArrayList<>();
+		Collections.list(jarFile.entries())
+				.forEach((entry) -> names.add(entry.getName()));
+		return names;
+	}
+
+	private long crc() {
+		CRC32 crc = new CRC32();
+		crc.update(this.nestedJarData);
+		return crc.getValue();
+	}
+
+	private File createRootJar(byte[] index) throws Exception {
+		File file = this.temporaryFolder.newFile();
+		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file))) {
+			ZipEntry nested = new ZipEntry("nested.jar");
+			nested.setMethod(ZipEntry.STORED);
+			nested.setSize(this.nestedJarData.length);
+			nested.setCrc(crc());
+			output.putNextEntry(nested);
+			output.write(this.nestedJarData);
+			output.closeEntry();
+			if (index != null) {
+				output.putNextEntry(new ZipEntry(NestedJarIndex.ENTRY_NAME));
+				output.write(index);
+				output.closeEntry();
+			}
+		}
+		return file;
+	}
+
+	private byte[] createIndex(Predicate<String> include, long crc) throws Exception {
+		File nestedFile = this.temporaryFolder.newFile();
+		Files.write(nestedFile.toPath(), this.nestedJarData);
+		List<int[]> records = new ArrayList<>();
+		RandomAccessDataFile data = new RandomAccessDataFile(nestedFile);
+		try {
+			CentralDirectoryParser parser = new CentralDirectoryParser();
+			parser.addVisitor(new CentralDirectoryVisitor() {
+
+				@Override
+				public void visitStart(CentralDirectoryEndRecord endRecord,
+						RandomAccessData centralDirectoryData) {
+				}
+
+				@Override
+				public void visitFileHeader(CentralDirectoryFileHeader fileHeader,
+						int dataOffset) {
+					if (include.test(fileHeader.getName().toString())) {
+						records.add(new int[] { fileHeader.getName().hashCode(),
+								dataOffset, records.size() });
+					}
+				}
+
+				@Override
+				public void visitEnd() {
+				}
+
+			});
+			parser.parse(data, false);
+		}
+		finally {
+			data.close();
+		}
+		int endRecord = this.nestedJarData.length - 22;
+		long centralDirectoryLength = Bytes.littleEndianValue(this.nestedJarData,
+				endRecord + 12, 4);
+		long centralDirectoryOffset = Bytes.littleEndianValue(this.nestedJarData,
+				endRecord + 16, 4);
+		List<int[]> sorted = new ArrayList<>(records);
+		sorted.sort(Comparator.comparingInt((record) -> record[0]));
+		int[] positions = new int[sorted.size()];
+		for (int i = 0; i < sorted.size(); i++) {
+			positions[sorted.get(i)[2]] = i;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(NestedJarIndex.MAGIC);
+		output.writeInt(NestedJarIndex.VERSION);
+		output.writeInt(1);
+		output.writeUTF("nested.jar");
+		output.writeLong(crc);
+		output.writeLong(this.nestedJarData.length);
+		output.writeLong(0);
+		output.writeLong(centralDirectoryOffset);
+		output.writeLong(centralDirectoryLength);
+		output.writeBoolean(false);
+		output.writeInt(sorted.size());
+		for (int[] record : sorted) {
+			output.writeInt(record[0]);
+		}
+		for (int[] record : sorted) {
+			output.writeInt(record[1]);
+		}
+		for (int position : positions) {
+			output.writeInt(position);
+		}
+		output.close();
+		return bytes.toByteArray();
+	}
+
+}
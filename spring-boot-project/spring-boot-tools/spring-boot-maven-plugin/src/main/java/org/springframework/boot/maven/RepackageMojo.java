@@ -200,6 +200,42 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 	@Parameter(defaultValue = "false")
 	public boolean includeSystemScope;
 
+	/**
+	 * Write an index of the central directories of nested jars so that the launcher can
+	 * open them without parsing their central directories, reducing startup time for
+	 * applications with many dependencies.
+	 * @since 2.2.0
+	 */
+	@Parameter(defaultValue = "false")
+	private boolean nestedJarIndex;
+
+	/**
+	 * Make the launcher extract the application's class path to a directory the first
+	 * time the jar is run and launch from the extracted jars on later runs. The extracted
+	 * application can also be run directly, for example to create a class data sharing
+	 * archive.
+	 * @since 2.2.0
+	 */
+	@Parameter(defaultValue = "false")
+	private boolean extract;
+
+	/**
+	 * Read and compress the entries of the repackaged archive in parallel. The entries
+	 * are written in the same order as when repackaging sequentially.
+	 * @since 2.2.0
+	 */
+	@Parameter(defaultValue = "false")
+	private boolean parallel;
+
+	/**
+	 * Reuse unchanged entries of the archive written by a previous build rather than
+	 * compressing them again. Only applies when a classifier is used, so that the
+	 * previous repackaged archive is not replaced by the build.
+	 * @since 2.2.0
+	 */
+	@Parameter(defaultValue = "false")
+	private boolean incremental;
+
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		if (this.project.getPackaging().equals("pom")) {
@@ -270,6 +306,10 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 		repackager.addMainClassTimeoutWarningListener(
 				new LoggingMainClassTimeoutWarningListener());
 		repackager.setMainClass(this.mainClass);
+		repackager.setNestedJarIndex(this.nestedJarIndex);
+		repackager.setExtract(this.extract);
+		repackager.setParallel(this.parallel);
+		repackager.setIncremental(this.incremental);
 		if (this.layout != null) {
 			getLog().info("Layout: " + this.layout);
 			repackager.setLayout(this.layout.layout());
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties.bind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.properties.bind.JavaBeanBinder.BeanSupplier;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Base class for binders of a single Java Bean type that are generated at build time by
+ * the configuration processor. A generated binder declares the dashed name, the type and
+ * the accessors of each bean property so that the bean can be bound without introspecting
+ * it and without reflective accessor calls.
+ * <p>
+ * The binder of a bean type is a class in the same package that is named after the bean
+ * type with a {@value #SUFFIX} suffix and that has a public no-arg constructor. Bean
+ * types that have no generated binder are bound using reflection.
+ *
+ * @param <T> the bean type
+ * @author Example Developer
+ * @since 2.2.0
+ */
+public abstract class GeneratedBeanBinder<T> {
+
+	/**
+	 * Suffix added to the name of a bean type to get the name of its generated binder.
+	 */
+	public static final String SUFFIX = "__BeanBinder";
+
+	private static final ClassValue<GeneratedBeanBinder<?>> BINDERS = new ClassValue<GeneratedBeanBinder<?>>() {
+
+		@Override
+		protected GeneratedBeanBinder<?> computeValue(Class<?> type) {
+			return load(type);
+		}
+
+	};
+
+	private final Supplier<T> factory;
+
+	private final List<Property<T>> properties = new ArrayList<>();
+
+	/**
+	 * Create a new {@link GeneratedBeanBinder} instance.
+	 * @param factory the factory used to create a bean instance or {@code null} if the
+	 * bean type cannot be instantiated
+	 */
+	protected GeneratedBeanBinder(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Add a property of the bean.
+	 * @param name the property name in lowercase dashed form (e.g. {@code first-name})
+	 * @param type the property type
+	 * @param getter the getter used to read the property or {@code null}
+	 * @param setter the setter used to write the property or {@code null}
+	 */
+	protected final void addProperty(String name, ResolvableType type,
+			Function<T, Object> getter, BiConsumer<T, Object> setter) {
+		this.properties.add(new Property<>(name, Bindable.of(type), getter, setter));
+	}
+
+	/**
+	 * Bind the properties of the bean.
+	 * @param target the bindable to bind
+	 * @param hasInstance if the bindable supplies an existing instance
+	 * @param propertyBinder the property binder
+	 * @return the bound bean or {@code null} if no property was bound
+	 */
+	T bind(Bindable<T> target, boolean hasInstance, BeanPropertyBinder propertyBinder) {
+		if (!hasInstance && this.factory == null) {
+			return null;
+		}
+		BeanSupplier<T> beanSupplier = new BeanSupplier<>(() -> {
+			T instance = null;
+			if (target.getValue() != null) {
+				instance = target.getValue().get();
+			}
+			if (instance == null) {
+				instance = this.factory.get();
+			}
+			return instance;
+		});
+		boolean bound = false;
+		for (Property<T> property : this.properties) {
+			bound |= property.bind(beanSupplier, propertyBinder);
+		}
+		return (bound ? beanSupplier.get() : null);
+	}
+
+	/**
+	 * Return the generated binder of the given bean type.
+	 * @param type the bean type
+	 * @return the generated binder or {@code null} if the type does not have one
+	 */
+	static GeneratedBeanBinder<?> get(Class<?> type) {
+		return BINDERS.get(type);
+	}
+
+	private static GeneratedBeanBinder<?> load(Class<?> type) {
+		ClassLoader classLoader = type.getClassLoader();
+		if (classLoader == null || type.isArray() || type.isPrimitive()) {
+			return null;
+		}
+		try {
+			Class<?> binderType = ClassUtils.forName(type.getName() + SUFFIX,
+					classLoader);
+			if (GeneratedBeanBinder.class.isAssignableFrom(binderType)) {
+				return (GeneratedBeanBinder<?>) BeanUtils.instantiateClass(binderType);
+			}
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			// Use the reflective binder
+		}
+		return null;
+	}
+
+	/**
+	 * A property of the bean.
+	 */
+	private static final class Property<T> {
+
+		private final String name;
+
+		private final Bindable<Object> bindable;
+
+		private final Function<T, Object> getter;
+
+		private final BiConsumer<T, Object> setter;
+
+		Property(String name, Bindable<Object> bindable, Function<T, Object> getter,
+				BiConsumer<T, Object> setter) {
+			this.name = name;
+			this.bindable = bindable;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		boolean bind(Supplier<T> instance, BeanPropertyBinder propertyBinder) {
+			Supplier<Object> value = getValue(instance);
+			Object bound = propertyBinder.bindProperty(this.name,
+					this.bindable.withSuppliedValue(value));
+			if (bound == null) {
+				return false;
+			}
+			if (this.setter != null) {
+				setValue(instance, bound);
+			}
+			else if (value == null || !bound.equals(value.get())) {
+				throw new IllegalStateException(
+						"No setter found for property: " + this.name);
+			}
+			return true;
+		}
+
+		private Supplier<Object> getValue(Supplier<T> instance) {
+			if (this.getter == null) {
+				return null;
+			}
+			return () -> {
+				try {
+					return this.getter.apply(instance.get());
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(
+							"Unable to get value for property " + this.name, ex);
+				}
+			};
+		}
+
+		private void setValue(Supplier<T> instance, Object value) {
+			try {
+				this.setter.accept(instance.get(), value);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(
+						"Unable to set value for property " + this.name, ex);
+			}
+		}
+
+	}
+
+}
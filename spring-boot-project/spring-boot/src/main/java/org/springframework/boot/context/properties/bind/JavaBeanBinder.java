@@ -18,9 +18,15 @@ package org.springframework.boot.context.properties.bind;
 
 import java.beans.Introspector;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -33,9 +39,19 @@ import org.springframework.boot.context.properties.source.ConfigurationPropertyS
 import org.springframework.boot.context.properties.source.ConfigurationPropertyState;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * {@link BeanBinder} for mutable Java Beans.
+ * <p>
+ * The properties of each bean type are introspected once and kept as a binding plan that
+ * is shared by all {@link Binder} instances. A plan holds the dashed property names, the
+ * property types and annotations, and method handles for the accessors. Plans are
+ * attached to the bean class using a {@link ClassValue} so that they can be garbage
+ * collected together with the class and its class loader.
+ * <p>
+ * A bean type that has a {@link GeneratedBeanBinder} is bound using it instead of being
+ * introspected.
  *
  * @author Phillip Webb
  * @author Madhura Bhave
@@ -46,15 +62,34 @@ class JavaBeanBinder implements BeanBinder {
 	public <T> T bind(ConfigurationPropertyName name, Bindable<T> target, Context context,
 			BeanPropertyBinder propertyBinder) {
 		boolean hasKnownBindableProperties = hasKnownBindableProperties(name, context);
-		Bean<T> bean = Bean.get(target, hasKnownBindableProperties);
+		Supplier<T> value = target.getValue();
+		T instance = (hasKnownBindableProperties && value != null) ? value.get() : null;
+		Class<?> type = (instance != null) ? instance.getClass()
+				: target.getType().resolve(Object.class);
+		GeneratedBeanBinder<T> generatedBinder = getGeneratedBinder(target, type);
+		if (generatedBinder != null) {
+			return generatedBinder.bind(target, instance != null, propertyBinder);
+		}
+		Bean<T> bean = Bean.get(type, instance != null);
 		if (bean == null) {
 			return null;
 		}
 		BeanSupplier<T> beanSupplier = bean.getSupplier(target);
-		boolean bound = bind(propertyBinder, bean, beanSupplier);
+		ResolvableType declaringType = target.getType().hasGenerics() ? target.getType()
+				: null;
+		boolean bound = bind(propertyBinder, bean, beanSupplier, declaringType);
 		return (bound ? beanSupplier.get() : null);
 	}
 
+	@SuppressWarnings("unchecked")
+	private <T> GeneratedBeanBinder<T> getGeneratedBinder(Bindable<T> target,
+			Class<?> type) {
+		if (target.getType().hasGenerics()) {
+			return null;
+		}
+		return (GeneratedBeanBinder<T>) GeneratedBeanBinder.get(type);
+	}
+
 	private boolean hasKnownBindableProperties(ConfigurationPropertyName name,
 			Context context) {
 		for (ConfigurationPropertySource source : context.getSources()) {
@@ -66,22 +101,23 @@ class JavaBeanBinder implements BeanBinder {
 	}
 
 	private <T> boolean bind(BeanPropertyBinder propertyBinder, Bean<T> bean,
-			BeanSupplier<T> beanSupplier) {
+			BeanSupplier<T> beanSupplier, ResolvableType declaringType) {
 		boolean bound = false;
-		for (Map.Entry<String, BeanProperty> entry : bean.getProperties().entrySet()) {
-			bound |= bind(beanSupplier, propertyBinder, entry.getValue());
+		for (BeanProperty property : bean.getProperties().values()) {
+			bound |= bind(beanSupplier, propertyBinder, property, declaringType);
 		}
 		return bound;
 	}
 
 	private <T> boolean bind(BeanSupplier<T> beanSupplier,
-			BeanPropertyBinder propertyBinder, BeanProperty property) {
+			BeanPropertyBinder propertyBinder, BeanProperty property,
+			ResolvableType declaringType) {
 		String propertyName = property.getName();
-		ResolvableType type = property.getType();
 		Supplier<Object> value = property.getValue(beanSupplier);
 		Annotation[] annotations = property.getAnnotations();
 		Object bound = propertyBinder.bindProperty(propertyName,
-				Bindable.of(type).withSuppliedValue(value).withAnnotations(annotations));
+				property.getBindable(declaringType).withSuppliedValue(value)
+						.withAnnotations(annotations));
 		if (bound == null) {
 			return false;
 		}
@@ -96,33 +132,58 @@ class JavaBeanBinder implements BeanBinder {
 	}
 
 	/**
-	 * The bean being bound.
+	 * The bean being bound. Instances are created once per bean class and then reused.
 	 */
 	private static class Bean<T> {
 
-		private static Bean<?> cached;
+		private static final ClassValue<Bean<?>> PLANS = new ClassValue<Bean<?>>() {
+
+			@Override
+			protected Bean<?> computeValue(Class<?> type) {
+				return new Bean<>(type);
+			}
+
+		};
 
 		private final Class<?> type;
 
 		private final ResolvableType resolvableType;
 
-		private final Map<String, BeanProperty> properties = new LinkedHashMap<>();
+		private final Constructor<?> constructor;
+
+		private final Map<String, BeanProperty> properties;
 
-		Bean(ResolvableType resolvableType, Class<?> type) {
-			this.resolvableType = resolvableType;
+		Bean(Class<?> type) {
 			this.type = type;
-			putProperties(type);
+			this.resolvableType = ResolvableType.forClass(type);
+			this.constructor = getDefaultConstructor(type);
+			Map<String, BeanProperty> properties = new LinkedHashMap<>();
+			putProperties(type, properties);
+			properties.values().forEach((property) -> property.prepare());
+			this.properties = Collections.unmodifiableMap(properties);
 		}
 
-		private void putProperties(Class<?> type) {
+		private static Constructor<?> getDefaultConstructor(Class<?> type) {
+			if (type.isInterface()) {
+				return null;
+			}
+			try {
+				return type.getDeclaredConstructor();
+			}
+			catch (Exception ex) {
+				return null;
+			}
+		}
+
+		private void putProperties(Class<?> type, Map<String, BeanProperty> properties) {
 			while (type != null && !Object.class.equals(type)) {
 				for (Method method : type.getDeclaredMethods()) {
 					if (isCandidate(method)) {
-						addMethod(method);
+						addMethod(method, properties);
 					}
 				}
 				for (Field field : type.getDeclaredFields()) {
-					addField(field);
+					addField(field, properties);
 				}
 				type = type.getSuperclass();
 			}
@@ -136,21 +197,23 @@ class JavaBeanBinder implements BeanBinder {
 					&& !Class.class.equals(method.getDeclaringClass());
 		}
 
-		private void addMethod(Method method) {
-			addMethodIfPossible(method, "get", 0, BeanProperty::addGetter);
-			addMethodIfPossible(method, "is", 0, BeanProperty::addGetter);
-			addMethodIfPossible(method, "set", 1, BeanProperty::addSetter);
+		private void addMethod(Method method, Map<String, BeanProperty> properties) {
+			addMethodIfPossible(method, "get", 0, BeanProperty::addGetter, properties);
+			addMethodIfPossible(method, "is", 0, BeanProperty::addGetter, properties);
+			addMethodIfPossible(method, "set", 1, BeanProperty::addSetter, properties);
 		}
 
 		private void addMethodIfPossible(Method method, String prefix, int parameterCount,
-				BiConsumer<BeanProperty, Method> consumer) {
+				BiConsumer<BeanProperty, Method> consumer,
+				Map<String, BeanProperty> properties) {
 			if (method.getParameterCount() == parameterCount
 					&& method.getName().startsWith(prefix)
 					&& method.getName().length() > prefix.length()) {
 				String propertyName = Introspector
 						.decapitalize(method.getName().substring(prefix.length()));
-				consumer.accept(this.properties.computeIfAbsent(propertyName,
-						this::getBeanProperty), method);
+				consumer.accept(
+						properties.computeIfAbsent(propertyName, this::getBeanProperty),
+						method);
 			}
 		}
 
@@ -158,17 +221,13 @@ class JavaBeanBinder implements BeanBinder {
 			return new BeanProperty(name, this.resolvableType);
 		}
 
-		private void addField(Field field) {
-			BeanProperty property = this.properties.get(field.getName());
+		private void addField(Field field, Map<String, BeanProperty> properties) {
+			BeanProperty property = properties.get(field.getName());
 			if (property != null) {
 				property.addField(field);
 			}
 		}
 
-		public Class<?> getType() {
-			return this.type;
-		}
-
 		public Map<String, BeanProperty> getProperties() {
 			return this.properties;
 		}
@@ -181,48 +240,33 @@ class JavaBeanBinder implements BeanBinder {
 					instance = target.getValue().get();
 				}
 				if (instance == null) {
-					instance = (T) BeanUtils.instantiateClass(this.type);
+					instance = (T) BeanUtils.instantiateClass(this.constructor);
 				}
 				return instance;
 			});
 		}
 
+		private boolean isInstantiable() {
+			return this.constructor != null;
+		}
+
 		@SuppressWarnings("unchecked")
-		public static <T> Bean<T> get(Bindable<T> bindable, boolean canCallGetValue) {
-			Class<?> type = bindable.getType().resolve(Object.class);
-			Supplier<T> value = bindable.getValue();
-			T instance = null;
-			if (canCallGetValue && value != null) {
-				instance = value.get();
-				type = (instance != null) ? instance.getClass() : type;
-			}
-			if (instance == null && !isInstantiable(type)) {
+		public static <T> Bean<T> get(Class<?> type, boolean hasInstance) {
+			Bean<?> bean = PLANS.get(type);
+			if (!hasInstance && !bean.isInstantiable()) {
 				return null;
 			}
-			Bean<?> bean = Bean.cached;
-			if (bean == null || !type.equals(bean.getType())) {
-				bean = new Bean<>(bindable.getType(), type);
-				cached = bean;
-			}
 			return (Bean<T>) bean;
 		}
 
-		private static boolean isInstantiable(Class<?> type) {
-			if (type.isInterface()) {
-				return false;
-			}
-			try {
-				type.getDeclaredConstructor();
-				return true;
-			}
-			catch (Exception ex) {
-				return false;
-			}
-		}
-
 	}
 
-	private static class BeanSupplier<T> implements Supplier<T> {
+	/**
+	 * Lazily obtains the bean instance being bound.
+	 *
+	 * @param <T> the bean type
+	 */
+	static class BeanSupplier<T> implements Supplier<T> {
 
 		private final Supplier<T> factory;
 
@@ -247,6 +291,12 @@ class JavaBeanBinder implements BeanBinder {
 	 */
 	private static class BeanProperty {
 
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class,
+				Object.class);
+
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class,
+				Object.class, Object.class);
+
 		private final String name;
 
 		private final ResolvableType declaringClassType;
@@ -257,6 +307,14 @@ class JavaBeanBinder implements BeanBinder {
 
 		private Field field;
 
+		private Annotation[] annotations;
+
+		private Bindable<Object> bindable;
+
+		private MethodHandle getterHandle;
+
+		private MethodHandle setterHandle;
+
 		BeanProperty(String name, ResolvableType declaringClassType) {
 			this.name = BeanPropertyName.toDashedForm(name);
 			this.declaringClassType = declaringClassType;
@@ -280,28 +338,70 @@ class JavaBeanBinder implements BeanBinder {
 			}
 		}
 
+		/**
+		 * Resolve everything that does not depend on the bean instance so that binding
+		 * doesn't need to introspect the property again.
+		 */
+		void prepare() {
+			this.annotations = findAnnotations();
+			this.bindable = Bindable.of(getType(this.declaringClassType));
+			this.getterHandle = getHandle(this.getter, GETTER_TYPE);
+			this.setterHandle = getHandle(this.setter, SETTER_TYPE);
+		}
+
+		private Annotation[] findAnnotations() {
+			try {
+				return (this.field != null) ? this.field.getDeclaredAnnotations() : null;
+			}
+			catch (Exception ex) {
+				return null;
+			}
+		}
+
+		private MethodHandle getHandle(Method method, MethodType type) {
+			if (method == null) {
+				return null;
+			}
+			try {
+				ReflectionUtils.makeAccessible(method);
+				return MethodHandles.lookup().unreflect(method).asFixedArity()
+						.asType(type);
+			}
+			catch (Exception ex) {
+				// Fallback to reflection when binding
+				return null;
+			}
+		}
+
 		public String getName() {
 			return this.name;
 		}
 
-		public ResolvableType getType() {
+		/**
+		 * Return the {@link Bindable} for the property type. The cached {@link Bindable}
+		 * is used unless the bean type is bound using a generic type that needs to be
+		 * taken into account when resolving the property type.
+		 * @param declaringType the generic bean type or {@code null}
+		 * @return the bindable
+		 */
+		public Bindable<Object> getBindable(ResolvableType declaringType) {
+			if (declaringType == null) {
+				return this.bindable;
+			}
+			return Bindable.of(getType(declaringType));
+		}
+
+		private ResolvableType getType(ResolvableType declaringType) {
 			if (this.setter != null) {
 				MethodParameter methodParameter = new MethodParameter(this.setter, 0);
-				return ResolvableType.forMethodParameter(methodParameter,
-						this.declaringClassType);
+				return ResolvableType.forMethodParameter(methodParameter, declaringType);
 			}
 			MethodParameter methodParameter = new MethodParameter(this.getter, -1);
-			return ResolvableType.forMethodParameter(methodParameter,
-					this.declaringClassType);
+			return ResolvableType.forMethodParameter(methodParameter, declaringType);
 		}
 
 		public Annotation[] getAnnotations() {
-			try {
-				return (this.field != null) ? this.field.getDeclaredAnnotations() : null;
-			}
-			catch (Exception ex) {
-				return null;
-			}
+			return this.annotations;
 		}
 
 		public Supplier<Object> getValue(Supplier<?> instance) {
@@ -310,6 +410,9 @@ class JavaBeanBinder implements BeanBinder {
 			}
 			return () -> {
 				try {
+					if (this.getterHandle != null) {
+						return invokeGetter(instance.get());
+					}
 					this.getter.setAccessible(true);
 					return this.getter.invoke(instance.get());
 				}
@@ -326,6 +429,10 @@ class JavaBeanBinder implements BeanBinder {
 
 		public void setValue(Supplier<?> instance, Object value) {
 			try {
+				if (this.setterHandle != null) {
+					invokeSetter(instance.get(), value);
+					return;
+				}
 				this.setter.setAccessible(true);
 				this.setter.invoke(instance.get(), value);
 			}
@@ -335,6 +442,32 @@ class JavaBeanBinder implements BeanBinder {
 			}
 		}
 
+		private Object invokeGetter(Object instance) throws InvocationTargetException {
+			try {
+				return (Object) this.getterHandle.invokeExact(instance);
+			}
+			catch (Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				// Wrap like Method.invoke so that the cause chain stays the same
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		private void invokeSetter(Object instance, Object value)
+				throws InvocationTargetException {
+			try {
+				this.setterHandle.invokeExact(instance, value);
+			}
+			catch (Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
 	}
 
 }
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * A configuration property name composed of elements separated by dots. User created
@@ -54,6 +55,15 @@ public final class ConfigurationPropertyName
 
 	private static final String EMPTY_STRING = "";
 
+	private static final int MAX_INTERNED_NAMES = 8192;
+
+	/**
+	 * Names that have already been parsed by {@link #of(CharSequence)}, so that
+	 * frequently used names are only parsed and validated once. Names are held using soft
+	 * references and no more names are added once the limit has been reached.
+	 */
+	private static final Map<String, ConfigurationPropertyName> INTERNED_NAMES = new ConcurrentReferenceHashMap<>();
+
 	/**
 	 * An empty {@link ConfigurationPropertyName}.
 	 */
@@ -62,13 +72,14 @@ public final class ConfigurationPropertyName
 
 	private Elements elements;
 
-	private final CharSequence[] uniformElements;
+	private CharSequence[] uniformElements;
+
+	private int hashCode;
 
 	private String string;
 
 	private ConfigurationPropertyName(Elements elements) {
 		this.elements = elements;
-		this.uniformElements = new CharSequence[elements.getSize()];
 	}
 
 	/**
@@ -140,11 +151,16 @@ public final class ConfigurationPropertyName
 			}
 			return convertToDashedElement(element).toString();
 		}
-		CharSequence uniformElement = this.uniformElements[elementIndex];
+		CharSequence[] uniformElements = this.uniformElements;
+		if (uniformElements == null) {
+			uniformElements = new CharSequence[this.elements.getSize()];
+			this.uniformElements = uniformElements;
+		}
+		CharSequence uniformElement = uniformElements[elementIndex];
 		if (uniformElement == null) {
 			uniformElement = (type != ElementType.UNIFORM)
 					? convertToUniformElement(element) : element;
-			this.uniformElements[elementIndex] = uniformElement.toString();
+			uniformElements[elementIndex] = uniformElement.toString();
 		}
 		return uniformElement.toString();
 	}
@@ -347,7 +363,7 @@ public final class ConfigurationPropertyName
 			}
 		}
 		while (i2 < l2) {
-			char ch2 = e2.charAt(i, i2++);
+			char ch2 = Character.toLowerCase(e2.charAt(i, i2++));
 			if (indexed2 || ElementsParser.isAlphaNumeric(ch2)) {
 				return false;
 			}
@@ -357,7 +373,29 @@ public final class ConfigurationPropertyName
 
 	@Override
 	public int hashCode() {
-		return 0;
+		int hashCode = this.hashCode;
+		Elements elements = this.elements;
+		if (hashCode == 0 && elements.getSize() != 0) {
+			for (int elementIndex = 0; elementIndex < elements
+					.getSize(); elementIndex++) {
+				int elementHashCode = 0;
+				boolean indexed = elements.getType(elementIndex).isIndexed();
+				int length = elements.getLength(elementIndex);
+				for (int i = 0; i < length; i++) {
+					char ch = elements.charAt(elementIndex, i);
+					if (!indexed) {
+						ch = Character.toLowerCase(ch);
+						if (!ElementsParser.isAlphaNumeric(ch)) {
+							continue;
+						}
+					}
+					elementHashCode = 31 * elementHashCode + ch;
+				}
+				hashCode = 31 * hashCode + elementHashCode;
+			}
+			this.hashCode = hashCode;
+		}
+		return hashCode;
 	}
 
 	@Override
@@ -427,6 +465,22 @@ public final class ConfigurationPropertyName
 		if (name.length() == 0) {
 			return EMPTY;
 		}
+		if (!(name instanceof String)) {
+			return parse(name, returnNullIfInvalid);
+		}
+		ConfigurationPropertyName interned = INTERNED_NAMES.get(name);
+		if (interned != null) {
+			return interned;
+		}
+		ConfigurationPropertyName parsed = parse(name, returnNullIfInvalid);
+		if (parsed != null && INTERNED_NAMES.size() < MAX_INTERNED_NAMES) {
+			INTERNED_NAMES.put((String) name, parsed);
+		}
+		return parsed;
+	}
+
+	private static ConfigurationPropertyName parse(CharSequence name,
+			boolean returnNullIfInvalid) {
 		if (name.charAt(0) == '.' || name.charAt(name.length() - 1) == '.') {
 			if (returnNullIfInvalid) {
 				return null;
@@ -586,28 +640,12 @@ public final class ConfigurationPropertyName
 		public Elements append(Elements additional) {
 			Assert.isTrue(additional.getSize() == 1, () -> "Element value '"
 					+ additional.getSource() + "' must be a single item");
-			ElementType[] type = new ElementType[this.size + 1];
-			System.arraycopy(this.type, 0, type, 0, this.size);
-			type[this.size] = additional.type[0];
-			CharSequence[] resolved = newResolved(this.size + 1);
-			resolved[this.size] = additional.get(0);
-			return new Elements(this.source, this.size + 1, this.start, this.end, type,
-					resolved);
+			return new AppendedElements(this, additional.get(0), additional.getType(0));
 		}
 
 		public Elements chop(int size) {
-			CharSequence[] resolved = newResolved(size);
 			return new Elements(this.source, size, this.start, this.end, this.type,
-					resolved);
-		}
-
-		private CharSequence[] newResolved(int size) {
-			CharSequence[] resolved = new CharSequence[size];
-			if (this.resolved != null) {
-				System.arraycopy(this.resolved, 0, resolved, 0,
-						Math.min(size, this.size));
-			}
-			return resolved;
+					this.resolved);
 		}
 
 		public int getSize() {
@@ -670,6 +708,10 @@ public final class ConfigurationPropertyName
 			if (this.resolved != null) {
 				return false;
 			}
+			if (this.size > 0 && (this.start[0] != 0
+					|| this.end[this.size - 1] != this.source.length())) {
+				return false;
+			}
 			for (int i = 0; i < this.size; i++) {
 				ElementType type = this.type[i];
 				if (type != requiredType && type != alternativeType) {
@@ -684,6 +726,64 @@ public final class ConfigurationPropertyName
 
 	}
 
+	/**
+	 * {@link Elements} created by appending a single element to existing elements. The
+	 * existing elements are shared rather than copied.
+	 */
+	private static final class AppendedElements extends Elements {
+
+		private final Elements parent;
+
+		private final CharSequence element;
+
+		private final ElementType elementType;
+
+		AppendedElements(Elements parent, CharSequence element, ElementType elementType) {
+			super(parent.getSource(), parent.getSize() + 1, null, null, null, null);
+			this.parent = parent;
+			this.element = element;
+			this.elementType = elementType;
+		}
+
+		@Override
+		public Elements chop(int size) {
+			return (size < getSize()) ? this.parent.chop(size) : this;
+		}
+
+		@Override
+		public CharSequence get(int index) {
+			return isAppended(index) ? this.element : this.parent.get(index);
+		}
+
+		@Override
+		public int getLength(int index) {
+			return isAppended(index) ? this.element.length()
+					: this.parent.getLength(index);
+		}
+
+		@Override
+		public char charAt(int index, int charIndex) {
+			return isAppended(index) ? this.element.charAt(charIndex)
+					: this.parent.charAt(index, charIndex);
+		}
+
+		@Override
+		public ElementType getType(int index) {
+			return isAppended(index) ? this.elementType : this.parent.getType(index);
+		}
+
+		@Override
+		public boolean canShortcutWithSource(ElementType requiredType,
+				ElementType alternativeType) {
+			return false;
+		}
+
+		private boolean isAppended(int index) {
+			return index == this.parent.getSize();
+		}
+
+	}
+
 	/**
 	 * Main parsing logic used to convert a {@link CharSequence} to {@link Elements}.
 	 */
@@ -706,7 +806,7 @@ public final class ConfigurationPropertyName
 		private CharSequence[] resolved;
 
 		ElementsParser(CharSequence source, char separator) {
-			this(source, separator, DEFAULT_CAPACITY);
+			this(source, separator, estimateCapacity(source, separator));
 		}
 
 		ElementsParser(CharSequence source, char separator, int capacity) {
@@ -717,6 +817,17 @@ public final class ConfigurationPropertyName
 			this.type = new ElementType[capacity];
 		}
 
+		private static int estimateCapacity(CharSequence source, char separator) {
+			int capacity = 1;
+			for (int i = 0; i < source.length(); i++) {
+				char ch = source.charAt(i);
+				if (ch == separator || ch == '[') {
+					capacity++;
+				}
+			}
+			return capacity;
+		}
+
 		public Elements parse() {
 			return parse(null);
 		}
@@ -789,7 +900,7 @@ public final class ConfigurationPropertyName
 			if ((end - start) < 1 || type == ElementType.EMPTY) {
 				return;
 			}
-			if (this.start.length <= end) {
+			if (this.start.length == this.size) {
 				this.start = expand(this.start);
 				this.end = expand(this.end);
 				this.type = expand(this.type);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2017 the original author or authors.
+ * Copyright 2012-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -69,7 +69,10 @@ final class DefaultPropertyMapper implements PropertyMapper {
 	private PropertyMapping[] tryMap(String propertySourceName) {
 		try {
 			ConfigurationPropertyName convertedName = ConfigurationPropertyName
-					.adapt(propertySourceName, '.');
+					.of(propertySourceName, true);
+			if (convertedName == null) {
+				convertedName = ConfigurationPropertyName.adapt(propertySourceName, '.');
+			}
 			if (!convertedName.isEmpty()) {
 				return new PropertyMapping[] {
 						new PropertyMapping(propertySourceName, convertedName) };
@@ -18,15 +18,20 @@ package org.springframework.boot.context.properties.source;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
 import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.env.SystemEnvironmentPropertySource;
 import org.springframework.util.ObjectUtils;
 
@@ -36,6 +41,11 @@ import org.springframework.util.ObjectUtils;
  * In order to use this adapter the underlying {@link PropertySource} must be fully
  * enumerable. A security restricted {@link SystemEnvironmentPropertySource} cannot be
  * adapted.
+ * <p>
+ * Mappings are cached until the names of the underlying source change. Immutable sources
+ * are mapped once and never checked again. When the names of a mutable source change,
+ * only the names that have been added are mapped and the index of the existing cache is
+ * updated with the added and removed mappings.
  *
  * @author Phillip Webb
  * @author Madhura Bhave
@@ -44,6 +54,8 @@ import org.springframework.util.ObjectUtils;
 class SpringIterableConfigurationPropertySource extends SpringConfigurationPropertySource
 		implements IterableConfigurationPropertySource {
 
+	private static final PropertyMapping[] NO_MAPPINGS = {};
+
 	private volatile Object cacheKey;
 
 	private volatile Cache cache;
@@ -72,7 +84,7 @@ class SpringIterableConfigurationPropertySource extends SpringConfigurationPrope
 		ConfigurationProperty configurationProperty = super.getConfigurationProperty(
 				name);
 		if (configurationProperty == null) {
-			configurationProperty = find(getPropertyMappings(getCache()), name);
+			configurationProperty = find(getPropertyMappings(getCache(), name), name);
 		}
 		return configurationProperty;
 	}
@@ -111,17 +123,48 @@ class SpringIterableConfigurationPropertySource extends SpringConfigurationPrope
 		return names;
 	}
 
+	private PropertyMapping[] getPropertyMappings(Cache cache,
+			ConfigurationPropertyName name) {
+		if (cache == null) {
+			return getPropertyMappings(null);
+		}
+		Map<ConfigurationPropertyName, PropertyMapping[]> index = cache.getIndex();
+		if (index == null) {
+			index = buildIndex(getPropertyMappings(cache));
+			cache.setIndex(index);
+		}
+		return index.getOrDefault(name, NO_MAPPINGS);
+	}
+
+	private Map<ConfigurationPropertyName, PropertyMapping[]> buildIndex(
+			PropertyMapping[] mappings) {
+		Map<ConfigurationPropertyName, PropertyMapping[]> index = new HashMap<>(
+				mappings.length * 2);
+		for (PropertyMapping mapping : mappings) {
+			index.merge(mapping.getConfigurationPropertyName(),
+					new PropertyMapping[] { mapping }, this::append);
+		}
+		return index;
+	}
+
+	private PropertyMapping[] append(PropertyMapping[] existing,
+			PropertyMapping[] additional) {
+		PropertyMapping[] result = new PropertyMapping[existing.length
+				+ additional.length];
+		System.arraycopy(existing, 0, result, 0, existing.length);
+		System.arraycopy(additional, 0, result, existing.length, additional.length);
+		return result;
+	}
+
 	private PropertyMapping[] getPropertyMappings(Cache cache) {
 		PropertyMapping[] result = (cache != null) ? cache.getMappings() : null;
 		if (result != null) {
 			return result;
 		}
-		String[] names = getPropertySource().getPropertyNames();
-		List<PropertyMapping> mappings = new ArrayList<>(names.length * 2);
-		for (String name : names) {
-			for (PropertyMapping mapping : getMapper().map(name)) {
-				mappings.add(mapping);
-			}
+		Map<String, PropertyMapping[]> sourceMappings = getSourceMappings(cache);
+		List<PropertyMapping> mappings = new ArrayList<>(sourceMappings.size() * 2);
+		for (PropertyMapping[] candidates : sourceMappings.values()) {
+			Collections.addAll(mappings, candidates);
 		}
 		result = mappings.toArray(new PropertyMapping[0]);
 		if (cache != null) {
@@ -130,17 +173,104 @@ class SpringIterableConfigurationPropertySource extends SpringConfigurationPrope
 		return result;
 	}
 
+	private Map<String, PropertyMapping[]> getSourceMappings(Cache cache) {
+		Map<String, PropertyMapping[]> result = (cache != null)
+				? cache.getSourceMappings() : null;
+		if (result != null) {
+			return result;
+		}
+		String[] names = getPropertySource().getPropertyNames();
+		result = new LinkedHashMap<>(names.length * 2);
+		for (String name : names) {
+			result.put(name, getMapper().map(name));
+		}
+		if (cache != null) {
+			cache.setSourceMappings(result);
+		}
+		return result;
+	}
+
 	private Cache getCache() {
+		Cache cache = this.cache;
+		if (cache != null && cache.isImmutable()) {
+			return cache;
+		}
 		CacheKey cacheKey = CacheKey.get(getPropertySource());
 		if (cacheKey == null) {
 			return null;
 		}
 		if (ObjectUtils.nullSafeEquals(cacheKey, this.cacheKey)) {
-			return this.cache;
+			return cache;
+		}
+		Cache updated = new Cache(isImmutablePropertySource());
+		if (cache != null && cache.getSourceMappings() != null) {
+			update(cache, updated);
 		}
-		this.cache = new Cache();
+		this.cache = updated;
 		this.cacheKey = cacheKey.copy();
-		return this.cache;
+		return updated;
+	}
+
+	private boolean isImmutablePropertySource() {
+		EnumerablePropertySource<?> source = getPropertySource();
+		if (source instanceof OriginTrackedMapPropertySource) {
+			return ((OriginTrackedMapPropertySource) source).isImmutable();
+		}
+		if (StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME
+				.equals(source.getName())) {
+			return source.getSource() == System.getenv();
+		}
+		return false;
+	}
+
+	private void update(Cache previous, Cache cache) {
+		Map<String, PropertyMapping[]> previousMappings = previous.getSourceMappings();
+		String[] names = getPropertySource().getPropertyNames();
+		Map<String, PropertyMapping[]> sourceMappings = new LinkedHashMap<>(
+				names.length * 2);
+		List<PropertyMapping> added = new ArrayList<>();
+		for (String name : names) {
+			PropertyMapping[] mappings = previousMappings.get(name);
+			if (mappings == null) {
+				mappings = getMapper().map(name);
+				Collections.addAll(added, mappings);
+			}
+			sourceMappings.put(name, mappings);
+		}
+		cache.setSourceMappings(sourceMappings);
+		Map<ConfigurationPropertyName, PropertyMapping[]> previousIndex = previous
+				.getIndex();
+		if (previousIndex != null) {
+			Map<ConfigurationPropertyName, PropertyMapping[]> index = new HashMap<>(
+					previousIndex);
+			previousMappings.forEach((name, mappings) -> {
+				if (!sourceMappings.containsKey(name)) {
+					for (PropertyMapping mapping : mappings) {
+						removeFromIndex(index, mapping);
+					}
+				}
+			});
+			for (PropertyMapping mapping : added) {
+				index.merge(mapping.getConfigurationPropertyName(),
+						new PropertyMapping[] { mapping }, this::append);
+			}
+			cache.setIndex(index);
+		}
+	}
+
+	private void removeFromIndex(Map<ConfigurationPropertyName, PropertyMapping[]> index,
+			PropertyMapping mapping) {
+		index.computeIfPresent(mapping.getConfigurationPropertyName(),
+				(name, mappings) -> {
+					List<PropertyMapping> remaining = new ArrayList<>(mappings.length);
+					for (PropertyMapping candidate : mappings) {
+						if (candidate != mapping) {
+							remaining.add(candidate);
+						}
+					}
+					return remaining.isEmpty() ? null
+							: remaining.toArray(new PropertyMapping[0]);
+				});
 	}
 
 	@Override
@@ -150,10 +280,32 @@ class SpringIterableConfigurationPropertySource extends SpringConfigurationPrope
 
 	private static class Cache {
 
+		private final boolean immutable;
+
+		private Map<String, PropertyMapping[]> sourceMappings;
+
 		private List<ConfigurationPropertyName> names;
 
 		private PropertyMapping[] mappings;
 
+		private Map<ConfigurationPropertyName, PropertyMapping[]> index;
+
+		Cache(boolean immutable) {
+			this.immutable = immutable;
+		}
+
+		public boolean isImmutable() {
+			return this.immutable;
+		}
+
+		public Map<String, PropertyMapping[]> getSourceMappings() {
+			return this.sourceMappings;
+		}
+
+		public void setSourceMappings(Map<String, PropertyMapping[]> sourceMappings) {
+			this.sourceMappings = sourceMappings;
+		}
+
 		public List<ConfigurationPropertyName> getNames() {
 			return this.names;
 		}
@@ -170,6 +322,14 @@ class SpringIterableConfigurationPropertySource extends SpringConfigurationPrope
 			this.mappings = mappings;
 		}
 
+		public Map<ConfigurationPropertyName, PropertyMapping[]> getIndex() {
+			return this.index;
+		}
+
+		public void setIndex(Map<ConfigurationPropertyName, PropertyMapping[]> index) {
+			this.index = index;
+		}
+
 	}
 
 	private static final class CacheKey {
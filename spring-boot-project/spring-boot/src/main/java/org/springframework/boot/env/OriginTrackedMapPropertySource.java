@@ -22,6 +22,7 @@ import org.springframework.boot.origin.Origin;
 import org.springframework.boot.origin.OriginLookup;
 import org.springframework.boot.origin.OriginTrackedValue;
 import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
 
 /**
  * {@link OriginLookup} backed by a {@link Map} containing {@link OriginTrackedValue
@@ -35,9 +36,29 @@ import org.springframework.core.env.MapPropertySource;
 public final class OriginTrackedMapPropertySource extends MapPropertySource
 		implements OriginLookup<String> {
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private final boolean immutable;
+
+	/**
+	 * Create a new {@link OriginTrackedMapPropertySource} instance.
+	 * @param name the property source name
+	 * @param source the underlying map source
+	 */
+	@SuppressWarnings("rawtypes")
 	public OriginTrackedMapPropertySource(String name, Map source) {
+		this(name, source, false);
+	}
+
+	/**
+	 * Create a new {@link OriginTrackedMapPropertySource} instance.
+	 * @param name the property source name
+	 * @param source the underlying map source
+	 * @param immutable if the underlying source is immutable and guaranteed not to change
+	 * @since 2.2.0
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public OriginTrackedMapPropertySource(String name, Map source, boolean immutable) {
 		super(name, source);
+		this.immutable = immutable;
 	}
 
 	@Override
@@ -58,4 +79,14 @@ public final class OriginTrackedMapPropertySource extends MapPropertySource
 		return null;
 	}
 
+	/**
+	 * Return {@code true} if this {@link PropertySource} is immutable and has contents
+	 * that will never change.
+	 * @return if the property source is read only
+	 * @since 2.2.0
+	 */
+	public boolean isImmutable() {
+		return this.immutable;
+	}
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties.bind;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.MockConfigurationPropertySource;
+import org.springframework.core.ResolvableType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GeneratedBeanBinder}.
+ *
+ * @author Example Developer
+ */
+public class GeneratedBeanBinderTests {
+
+	private List<ConfigurationPropertySource> sources = new ArrayList<>();
+
+	private Binder binder;
+
+	@Before
+	public void setup() {
+		this.binder = new Binder(this.sources);
+	}
+
+	@Test
+	public void getWhenTypeHasGeneratedBinderShouldReturnBinder() {
+		assertThat(GeneratedBeanBinder.get(ExampleBean.class))
+				.isInstanceOf(ExampleBean__BeanBinder.class);
+		assertThat(GeneratedBeanBinder.get(ExampleBean.class))
+				.isSameAs(GeneratedBeanBinder.get(ExampleBean.class));
+	}
+
+	@Test
+	public void getWhenTypeHasNoGeneratedBinderShouldReturnNull() {
+		assertThat(GeneratedBeanBinder.get(ExampleNestedBean.class)).isNull();
+		assertThat(GeneratedBeanBinder.get(String.class)).isNull();
+	}
+
+	@Test
+	public void bindToClassShouldUseGeneratedBinder() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.first-name", "Spring");
+		source.put("foo.values", "1,2");
+		source.put("foo.nested.value", "nested");
+		this.sources.add(source);
+		ExampleBean bean = this.binder.bind("foo", Bindable.of(ExampleBean.class)).get();
+		assertThat(bean.getName()).isEqualTo("Spring");
+		assertThat(bean.getValues()).containsExactly(1, 2);
+		assertThat(bean.getNested().getValue()).isEqualTo("nested");
+	}
+
+	@Test
+	public void bindToInstanceShouldUseGeneratedBinder() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.first-name", "Spring");
+		this.sources.add(source);
+		ExampleBean bean = new ExampleBean();
+		ExampleBean bound = this.binder
+				.bind("foo", Bindable.of(ExampleBean.class).withExistingValue(bean))
+				.get();
+		assertThat(bound).isSameAs(bean);
+		assertThat(bean.getName()).isEqualTo("Spring");
+	}
+
+	@Test
+	public void bindToClassWhenNoPropertiesShouldReturnUnbound() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.missing", "Spring");
+		this.sources.add(source);
+		assertThat(this.binder.bind("foo", Bindable.of(ExampleBean.class)).isBound())
+				.isFalse();
+	}
+
+	@Test
+	public void bindWhenPropertyHasNoSetterAndValueChangesShouldFail() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.read-only", "changed");
+		this.sources.add(source);
+		assertThatExceptionOfType(BindException.class)
+				.isThrownBy(() -> this.binder.bind("foo", Bindable.of(ExampleBean.class)))
+				.withStackTraceContaining("No setter found for property: read-only");
+	}
+
+	public static class ExampleBean {
+
+		private String name;
+
+		private List<Integer> values;
+
+		private final ExampleNestedBean nested = new ExampleNestedBean();
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void applyName(String name) {
+			this.name = name;
+		}
+
+		public List<Integer> getValues() {
+			return this.values;
+		}
+
+		public void setValues(List<Integer> values) {
+			this.values = values;
+		}
+
+		public ExampleNestedBean getNested() {
+			return this.nested;
+		}
+
+		public String getReadOnly() {
+			return "read-only";
+		}
+
+	}
+
+	/**
+	 * Binder as generated by the configuration processor, except that the name is written
+	 * using {@code applyName} to tell it apart from the reflective binder.
+	 */
+	public static class ExampleBean__BeanBinder extends GeneratedBeanBinder<ExampleBean> {
+
+		@SuppressWarnings("unchecked")
+		public ExampleBean__BeanBinder() {
+			super(ExampleBean::new);
+			addProperty("first-name", ResolvableType.forClass(String.class),
+					(instance) -> instance.getName(),
+					(instance, value) -> instance.applyName((String) value));
+			addProperty("values",
+					ResolvableType.forClassWithGenerics(List.class, Integer.class),
+					(instance) -> instance.getValues(),
+					(instance, value) -> instance.setValues((List<Integer>) value));
+			addProperty("nested", ResolvableType.forClass(ExampleNestedBean.class),
+					(instance) -> instance.getNested(), null);
+			addProperty("read-only", ResolvableType.forClass(String.class),
+					(instance) -> instance.getReadOnly(), null);
+		}
+
+	}
+
+	public static class ExampleNestedBean {
+
+		private String value;
+
+		public String getValue() {
+			return this.value;
+		}
+
+		public void setValue(String value) {
+			this.value = value;
+		}
+
+	}
+
+}
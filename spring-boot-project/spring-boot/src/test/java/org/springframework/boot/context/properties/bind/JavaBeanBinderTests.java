@@ -16,6 +16,7 @@
 
 package org.springframework.boot.context.properties.bind;
 
+import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,6 +34,7 @@ import org.springframework.boot.context.properties.source.ConfigurationPropertyN
 import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
 import org.springframework.boot.context.properties.source.MockConfigurationPropertySource;
 import org.springframework.boot.convert.Delimiter;
+import org.springframework.core.ResolvableType;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -492,6 +494,69 @@ public class JavaBeanBinderTests {
 		assertThat(bean.getCounter()).isEqualTo(42);
 	}
 
+	@Test
+	public void bindToGenericClassShouldResolvePropertyTypeFromBindable() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.value", "42");
+		this.sources.add(source);
+		GenericBean<Integer> integerBean = this.binder
+				.bind("foo",
+						Bindable.<GenericBean<Integer>>of(ResolvableType
+								.forClassWithGenerics(GenericBean.class, Integer.class)))
+				.get();
+		GenericBean<String> stringBean = this.binder
+				.bind("foo",
+						Bindable.<GenericBean<String>>of(ResolvableType
+								.forClassWithGenerics(GenericBean.class, String.class)))
+				.get();
+		assertThat(integerBean.getValue()).isEqualTo(42);
+		assertThat(stringBean.getValue()).isEqualTo("42");
+	}
+
+	@Test
+	public void bindWhenSetterThrowsExceptionShouldKeepCauseChain() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.exception", "fail");
+		this.sources.add(source);
+		assertThatExceptionOfType(BindException.class)
+				.isThrownBy(() -> this.binder.bind("foo",
+						Bindable.of(ExampleWithThrowingSetters.class)))
+				.satisfies((ex) -> {
+					assertThat(ex.getCause()).isInstanceOf(IllegalStateException.class)
+							.hasMessage("Unable to set value for property exception");
+					assertThat(ex.getCause().getCause())
+							.isInstanceOf(InvocationTargetException.class);
+					assertThat(ex.getCause().getCause().getCause())
+							.isInstanceOf(IllegalArgumentException.class)
+							.hasMessage("fail");
+				});
+	}
+
+	@Test
+	public void bindWhenSetterThrowsErrorShouldRethrowError() {
+		MockConfigurationPropertySource source = new MockConfigurationPropertySource();
+		source.put("foo.error", "fail");
+		this.sources.add(source);
+		assertThatExceptionOfType(AssertionError.class)
+				.isThrownBy(() -> this.binder.bind("foo",
+						Bindable.of(ExampleWithThrowingSetters.class)))
+				.withMessage("fail");
+	}
+
+	public static class GenericBean<T> {
+
+		private T value;
+
+		public T getValue() {
+			return this.value;
+		}
+
+		public void setValue(T value) {
+			this.value = value;
+		}
+
+	}
+
 	public static class ExampleValueBean {
 
 		private int intValue;
@@ -898,6 +963,26 @@ public class JavaBeanBinderTests {
 
 	}
 
+	public static class ExampleWithThrowingSetters {
+
+		public String getException() {
+			return null;
+		}
+
+		public void setException(String exception) {
+			throw new IllegalArgumentException(exception);
+		}
+
+		public String getError() {
+			return null;
+		}
+
+		public void setError(String error) {
+			throw new AssertionError(error);
+		}
+
+	}
+
 	public static class ExampleWithPropertyEditorType {
 
 		private Class<? extends Throwable> value;
@@ -414,6 +414,16 @@ public class ConfigurationPropertyNameTests {
 		assertThat(name.append("bar").toString()).isEqualTo("foo.bar");
 	}
 
+	@Test
+	public void ofWhenStringShouldReturnInternedInstance() {
+		ConfigurationPropertyName name = ConfigurationPropertyName.of("foo.bar-baz[0]");
+		assertThat((Object) ConfigurationPropertyName.of("foo.bar-baz[0]"))
+				.isSameAs(name);
+		assertThat((Object) ConfigurationPropertyName
+				.of(new StringBuilder("foo.bar-baz[0]"))).isNotSameAs(name)
+						.isEqualTo(name);
+	}
+
 	@Test
 	public void appendWhenIndexedShouldAppendWithBrackets() {
 		ConfigurationPropertyName name = ConfigurationPropertyName.of("foo")
@@ -449,6 +459,28 @@ public class ConfigurationPropertyNameTests {
 		assertThat(name.chop(2).toString()).isEqualTo("foo.bar");
 	}
 
+	@Test
+	public void chopWhenLessThanSizeShouldBeEqualToParsedName() {
+		ConfigurationPropertyName name = ConfigurationPropertyName.of("foo.bar.baz");
+		ConfigurationPropertyName chopped = name.chop(2);
+		assertThat((Object) chopped).isEqualTo(ConfigurationPropertyName.of("foo.bar"));
+		assertThat(chopped.hashCode())
+				.isEqualTo(ConfigurationPropertyName.of("foo.bar").hashCode());
+		assertThat(chopped.getLastElement(Form.UNIFORM)).isEqualTo("bar");
+	}
+
+	@Test
+	public void chopWhenAppendedShouldReturnChopped() {
+		ConfigurationPropertyName name = ConfigurationPropertyName.of("foo").append("bar")
+				.append("[baz]").append("qux");
+		assertThat(name.chop(3).toString()).isEqualTo("foo.bar[baz]");
+		assertThat(name.chop(2).toString()).isEqualTo("foo.bar");
+		assertThat(name.chop(1).toString()).isEqualTo("foo");
+		assertThat((Object) name.chop(2))
+				.isEqualTo(ConfigurationPropertyName.of("foo.bar"));
+		assertThat(name.chop(3).append("quux").toString()).isEqualTo("foo.bar[baz].quux");
+	}
+
 	@Test
 	public void chopWhenGreaterThanSizeShouldReturnExisting() {
 		ConfigurationPropertyName name = ConfigurationPropertyName.of("foo.bar.baz");
@@ -609,6 +641,30 @@ public class ConfigurationPropertyNameTests {
 		assertThat(n1).isNotEqualTo(n2);
 	}
 
+	@Test
+	public void equalsWhenAdaptedNameHasAdditionalUpperCaseCharacters() {
+		ConfigurationPropertyName n1 = ConfigurationPropertyName.of("foo.bar");
+		ConfigurationPropertyName n2 = ConfigurationPropertyName.adapt("FOO.BARX", '.');
+		assertThat((Object) n1).isNotEqualTo(n2);
+		assertThat((Object) n2).isNotEqualTo(n1);
+	}
+
+	@Test
+	public void hashCodeShouldBeConsistentWithEquals() {
+		ConfigurationPropertyName n1 = ConfigurationPropertyName.of("my.sources[0].bar");
+		ConfigurationPropertyName n2 = ConfigurationPropertyName.adapt("MY_SOURCES_0_BAR",
+				'_');
+		ConfigurationPropertyName n3 = ConfigurationPropertyName.of("my.s-ources.b-a-r");
+		ConfigurationPropertyName n4 = ConfigurationPropertyName.of("my.sources[b-a-r]");
+		ConfigurationPropertyName n5 = ConfigurationPropertyName.of("my.sources[bar]");
+		assertThat((Object) n1).isEqualTo(n2);
+		assertThat(n1.hashCode()).isEqualTo(n2.hashCode());
+		assertThat(n3.hashCode())
+				.isEqualTo(ConfigurationPropertyName.of("my.sources.bar").hashCode());
+		assertThat((Object) n4).isNotEqualTo(n5);
+		assertThat(n4.hashCode()).isNotEqualTo(n5.hashCode());
+	}
+
 	@Test
 	public void isValidWhenValidShouldReturnTrue() {
 		assertThat(ConfigurationPropertyName.isValid("")).isTrue();
@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.junit.Test;
 
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
 import org.springframework.boot.origin.Origin;
 import org.springframework.boot.origin.OriginLookup;
 import org.springframework.core.env.EnumerablePropertySource;
@@ -30,6 +31,9 @@ import org.springframework.core.env.PropertySource;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link SpringIterableConfigurationPropertySource}.
@@ -108,6 +112,24 @@ public class SpringIterableConfigurationPropertySourceTests {
 		assertThat(adapter.getConfigurationProperty(name).getValue()).isEqualTo("value2");
 	}
 
+	@Test
+	public void getValueWhenMultipleMappingsShouldUseFirstWithValue() {
+		Map<String, Object> source = new LinkedHashMap<>();
+		source.put("key1", null);
+		source.put("key2", "value2");
+		source.put("key3", "value3");
+		EnumerablePropertySource<?> propertySource = new MapPropertySource("test",
+				source);
+		TestPropertyMapper mapper = new TestPropertyMapper();
+		mapper.addFromPropertySource("key1", "my.key");
+		mapper.addFromPropertySource("key2", "my.k-e-y");
+		mapper.addFromPropertySource("key3", "my.key");
+		SpringIterableConfigurationPropertySource adapter = new SpringIterableConfigurationPropertySource(
+				propertySource, mapper);
+		ConfigurationPropertyName name = ConfigurationPropertyName.of("my.key");
+		assertThat(adapter.getConfigurationProperty(name).getValue()).isEqualTo("value2");
+	}
+
 	@Test
 	public void getValueOrigin() {
 		Map<String, Object> source = new LinkedHashMap<>();
@@ -169,6 +191,62 @@ public class SpringIterableConfigurationPropertySourceTests {
 		assertThat(adapter.stream().count()).isEqualTo(3);
 	}
 
+	@Test
+	public void propertySourceKeyDataChangeInvalidatesIndex() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("key1", "value1");
+		EnumerablePropertySource<?> source = new MapPropertySource("test", map);
+		TestPropertyMapper mapper = new TestPropertyMapper();
+		mapper.addFromPropertySource("key1", "my.key1");
+		mapper.addFromPropertySource("key2", "my.key2");
+		SpringIterableConfigurationPropertySource adapter = new SpringIterableConfigurationPropertySource(
+				source, mapper);
+		ConfigurationPropertyName name = ConfigurationPropertyName.of("my.key2");
+		assertThat(adapter.getConfigurationProperty(name)).isNull();
+		map.put("key2", "value2");
+		assertThat(adapter.getConfigurationProperty(name).getValue()).isEqualTo("value2");
+	}
+
+	@Test
+	public void propertySourceKeyDataChangeOnlyMapsAddedNames() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("key1", "value1");
+		map.put("key2", "value2");
+		EnumerablePropertySource<?> source = new MapPropertySource("test", map);
+		TestPropertyMapper mapper = spy(new TestPropertyMapper());
+		mapper.addFromPropertySource("key1", "my.key1");
+		mapper.addFromPropertySource("key2", "my.key2");
+		mapper.addFromPropertySource("key3", "my.key3");
+		SpringIterableConfigurationPropertySource adapter = new SpringIterableConfigurationPropertySource(
+				source, mapper);
+		ConfigurationPropertyName key1 = ConfigurationPropertyName.of("my.key1");
+		ConfigurationPropertyName key2 = ConfigurationPropertyName.of("my.key2");
+		ConfigurationPropertyName key3 = ConfigurationPropertyName.of("my.key3");
+		assertThat(adapter.getConfigurationProperty(key2).getValue()).isEqualTo("value2");
+		map.remove("key1");
+		map.put("key3", "value3");
+		assertThat(adapter.getConfigurationProperty(key1)).isNull();
+		assertThat(adapter.getConfigurationProperty(key2).getValue()).isEqualTo("value2");
+		assertThat(adapter.getConfigurationProperty(key3).getValue()).isEqualTo("value3");
+		assertThat(adapter.iterator()).containsExactly(key2, key3);
+		verify(mapper, times(1)).map("key1");
+		verify(mapper, times(1)).map("key2");
+		verify(mapper, times(1)).map("key3");
+	}
+
+	@Test
+	public void immutablePropertySourceIsOnlyMappedOnce() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("key1", "value1");
+		EnumerablePropertySource<?> source = new OriginTrackedMapPropertySource("test",
+				map, true);
+		SpringIterableConfigurationPropertySource adapter = new SpringIterableConfigurationPropertySource(
+				source, DefaultPropertyMapper.INSTANCE);
+		assertThat(adapter.stream().count()).isEqualTo(1);
+		map.put("key2", "value2");
+		assertThat(adapter.stream().count()).isEqualTo(1);
+	}
+
 	/**
 	 * Test {@link PropertySource} that's also an {@link OriginLookup}.
 	 */
@@ -76,4 +76,16 @@ public class OriginTrackedMapPropertySourceTests {
 		assertThat(this.source.getOrigin("test")).isEqualTo(this.origin);
 	}
 
+	@Test
+	public void isImmutableWhenCreatedWithoutFlagShouldReturnFalse() {
+		assertThat(this.source.isImmutable()).isFalse();
+	}
+
+	@Test
+	public void isImmutableWhenCreatedAsImmutableShouldReturnTrue() {
+		OriginTrackedMapPropertySource source = new OriginTrackedMapPropertySource("test",
+				this.map, true);
+		assertThat(source.isImmutable()).isTrue();
+	}
+
 }
@@ -24,6 +24,7 @@ import org.springframework.core.env.PropertySource;
 import org.springframework.core.io.ClassPathResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * Tests for {@link PropertiesPropertySourceLoader}.
@@ -49,6 +50,17 @@ public class PropertiesPropertySourceLoaderTests {
 		assertThat(source.getProperty("test")).isEqualTo("properties");
 	}
 
+	@Test
+	public void loadPropertiesShouldCreateImmutableSource() throws Exception {
+		List<PropertySource<?>> loaded = this.loader.load("test.properties",
+				new ClassPathResource("test-properties.properties", getClass()));
+		OriginTrackedMapPropertySource source = (OriginTrackedMapPropertySource) loaded
+				.get(0);
+		assertThat(source.isImmutable()).isTrue();
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> source.getSource().put("test", "changed"));
+	}
+
 	@Test
 	public void loadXml() throws Exception {
 		List<PropertySource<?>> loaded = this.loader.load("test.xml",
@@ -29,6 +29,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * Tests for {@link YamlPropertySourceLoader}.
@@ -50,6 +51,17 @@ public class YamlPropertySourceLoaderTests {
 		assertThat(source.getProperty("foo.bar")).isEqualTo("spam");
 	}
 
+	@Test
+	public void loadShouldCreateImmutableSource() throws Exception {
+		ByteArrayResource resource = new ByteArrayResource(
+				"foo:\n  bar: spam".getBytes());
+		OriginTrackedMapPropertySource source = (OriginTrackedMapPropertySource) this.loader
+				.load("resource", resource).get(0);
+		assertThat(source.isImmutable()).isTrue();
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> source.getSource().put("foo.bar", "changed"));
+	}
+
 	@Test
 	public void orderedItems() throws Exception {
 		StringBuilder yaml = new StringBuilder();